@@ -0,0 +1,593 @@
+package com.example.plgsystem.assignation;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Vehicle;
+import com.example.plgsystem.simulation.SimulationState;
+
+/**
+ * Representación compacta de una asignación para la búsqueda tabú.
+ * <p>
+ * Vehículos y órdenes se identifican por índices densos fijados una vez por
+ * ejecución del solver ({@link Index}). Cada ruta guarda las órdenes y
+ * cantidades de sus entregas en dos {@code int[]} paralelos y no se modifica
+ * después de construirse: un operador copia solo las rutas que cambia y
+ * comparte las demás con la asignación de origen. La lista de
+ * {@link DeliveryPart} de cada ruta se crea una sola vez, al construirla, y
+ * solo se usa al convertir a mapa la asignación aceptada; los vecinos se
+ * evalúan directamente desde los arreglos con {@link CompactEvaluator}.
+ * <p>
+ * Las rutas se guardan normalizadas como lo haría
+ * {@link DeliveryOptimizer#optimizeAssignments} seguido del orden por deadline
+ * de {@link SolutionGenerator}: entregas consecutivas de la misma orden
+ * fusionadas, divididas según la capacidad del vehículo y ordenadas (de forma
+ * estable) por deadline.
+ */
+final class CompactAssignment {
+
+    /**
+     * Índices de vehículos disponibles y órdenes pendientes de una ejecución
+     */
+    static final class Index {
+        private final String[] vehicleIds;
+        private final int[] capacities;
+        private final Order[] orders;
+        private final int[] remainingGlp;
+        private final long[] deadlines;
+        private final Map<String, Integer> vehicleIndex = new HashMap<>();
+        private final Map<String, Integer> orderIndex = new HashMap<>();
+        private final OrderSpatialIndex spatialIndex;
+
+        Index(SimulationState state) {
+            List<Vehicle> vehicles = state.getVehicles().stream().filter(Vehicle::isAvailable).toList();
+            vehicleIds = new String[vehicles.size()];
+            capacities = new int[vehicles.size()];
+            for (int v = 0; v < vehicleIds.length; v++) {
+                vehicleIds[v] = vehicles.get(v).getId();
+                capacities[v] = vehicles.get(v).getGlpCapacityM3();
+                vehicleIndex.put(vehicleIds[v], v);
+            }
+
+            List<Order> pending = state.getOrders();
+            orders = pending.toArray(new Order[0]);
+            remainingGlp = new int[orders.length];
+            deadlines = new long[orders.length];
+            for (int o = 0; o < orders.length; o++) {
+                remainingGlp[o] = orders[o].getRemainingGlpM3();
+                deadlines[o] = orders[o].getDeadlineTime().toEpochSecond(ZoneOffset.UTC);
+                orderIndex.put(orders[o].getId(), o);
+            }
+            spatialIndex = OrderSpatialIndex.build(pending);
+        }
+
+        int vehicleCount() {
+            return vehicleIds.length;
+        }
+
+        int orderCount() {
+            return orders.length;
+        }
+
+        String vehicleId(int vehicle) {
+            return vehicleIds[vehicle];
+        }
+
+        Order order(int order) {
+            return orders[order];
+        }
+    }
+
+    /**
+     * Entregas de un vehículo. Los arreglos no se modifican una vez creada.
+     */
+    private record Deliveries(int[] orders, int[] quantities, List<DeliveryPart> parts) {
+    }
+
+    private static final Deliveries EMPTY = new Deliveries(new int[0], new int[0], List.of());
+
+    /** Órdenes vecinas consideradas por {@link #relocateNearby} */
+    static final int NEARBY_ORDERS = 5;
+
+    private final Index index;
+    private final Deliveries[] routes;
+
+    private CompactAssignment(Index index, Deliveries[] routes) {
+        this.index = index;
+        this.routes = routes;
+    }
+
+    /**
+     * Convierte una asignación en forma de mapa. Se ignoran los vehículos y
+     * órdenes que no están en el índice.
+     */
+    static CompactAssignment fromMap(Index index, Map<String, List<DeliveryPart>> assignments) {
+        Deliveries[] routes = new Deliveries[index.vehicleCount()];
+        Arrays.fill(routes, EMPTY);
+        for (Map.Entry<String, List<DeliveryPart>> entry : assignments.entrySet()) {
+            Integer vehicle = index.vehicleIndex.get(entry.getKey());
+            if (vehicle == null) {
+                continue;
+            }
+            List<DeliveryPart> parts = entry.getValue();
+            int[] orders = new int[parts.size()];
+            int[] quantities = new int[parts.size()];
+            int size = 0;
+            for (DeliveryPart part : parts) {
+                Integer order = index.orderIndex.get(part.getOrderId());
+                if (order != null) {
+                    orders[size] = order;
+                    quantities[size++] = part.getGlpDeliverM3();
+                }
+            }
+            routes[vehicle] = normalize(index, vehicle, orders, quantities, size);
+        }
+        return new CompactAssignment(index, routes);
+    }
+
+    Index index() {
+        return index;
+    }
+
+    /**
+     * Forma de mapa para construir la solución aceptada. Las listas son de solo
+     * lectura y se comparten entre las asignaciones que comparten la ruta.
+     */
+    Map<String, List<DeliveryPart>> toMap() {
+        Map<String, List<DeliveryPart>> assignments = new HashMap<>(routes.length * 2);
+        for (int v = 0; v < routes.length; v++) {
+            assignments.put(index.vehicleIds[v], routes[v].parts());
+        }
+        return assignments;
+    }
+
+    /**
+     * Órdenes de las entregas del vehículo, en orden de atención; no debe
+     * modificarse
+     */
+    int[] orders(int vehicle) {
+        return routes[vehicle].orders();
+    }
+
+    /**
+     * Cantidades de las entregas del vehículo; no debe modificarse
+     */
+    int[] quantities(int vehicle) {
+        return routes[vehicle].quantities();
+    }
+
+    /**
+     * Indica si el vehículo tiene las mismas entregas en ambas asignaciones
+     */
+    boolean sameRoute(CompactAssignment other, int vehicle) {
+        Deliveries a = routes[vehicle];
+        Deliveries b = other.routes[vehicle];
+        return a == b || (Arrays.equals(a.orders(), b.orders()) && Arrays.equals(a.quantities(), b.quantities()));
+    }
+
+    /**
+     * Suma {@code sign * cantidad} de cada entrega del vehículo en
+     * {@code delta[orden * stride + column]}
+     */
+    void accumulate(int vehicle, int[] delta, int stride, int column, int sign) {
+        Deliveries route = routes[vehicle];
+        for (int i = 0; i < route.orders().length; i++) {
+            delta[route.orders()[i] * stride + column] += sign * route.quantities()[i];
+        }
+    }
+
+    /*
+     * ======================================================
+     * NEIGHBORHOOD OPERATIONS
+     * Same moves as the random operations of DistributionOperations, plus a
+     * granular relocation between nearby orders
+     * ======================================================
+     */
+
+    CompactAssignment randomOperation(SplittableRandom random) {
+        if (routes.length == 0) {
+            return this;
+        }
+        int operationType = random.nextInt(6);
+        return switch (operationType) {
+            case 0 -> balanceByCapacity(random);
+            case 1 -> shuffleOrderAssignments(random);
+            case 2 -> shuffleDeliveryAssignments(random);
+            case 3 -> swapVehicles(random);
+            case 4 -> shuffleSegments(random);
+            default -> relocateNearby(random);
+        };
+    }
+
+    CompactAssignment balanceByCapacity(SplittableRandom random) {
+        Editor editor = new Editor();
+        int[] glpPerVehicle = new int[routes.length];
+        List<Integer> overloadedVehicles = new ArrayList<>();
+        List<Integer> underloadedVehicles = new ArrayList<>();
+
+        for (int v = 0; v < routes.length; v++) {
+            for (int quantity : routes[v].quantities()) {
+                glpPerVehicle[v] += quantity;
+            }
+            double ratio = (double) glpPerVehicle[v] / index.capacities[v];
+            if (ratio > 0.7 && routes[v].orders().length > 0) {
+                overloadedVehicles.add(v);
+            } else if (ratio < 0.3) {
+                underloadedVehicles.add(v);
+            }
+        }
+
+        if (overloadedVehicles.isEmpty() || underloadedVehicles.isEmpty()) {
+            return this;
+        }
+
+        int movesToMake = 1 + random.nextInt(2); // 1-2 moves
+        for (int move = 0; move < movesToMake; move++) {
+            if (overloadedVehicles.isEmpty() || underloadedVehicles.isEmpty()) {
+                break;
+            }
+            Integer source = overloadedVehicles.get(random.nextInt(overloadedVehicles.size()));
+            Integer target = underloadedVehicles.get(random.nextInt(underloadedVehicles.size()));
+            if (editor.size(source) == 0) {
+                continue;
+            }
+
+            int position = random.nextInt(editor.size(source));
+            int order = editor.order(source, position);
+            int quantity = editor.quantity(source, position);
+            editor.removeRange(source, position, position + 1);
+            editor.add(target, order, quantity);
+
+            glpPerVehicle[source] -= quantity;
+            glpPerVehicle[target] += quantity;
+            if ((double) glpPerVehicle[source] / index.capacities[source] <= 0.7) {
+                overloadedVehicles.remove(source);
+            }
+            if ((double) glpPerVehicle[target] / index.capacities[target] >= 0.3) {
+                underloadedVehicles.remove(target);
+            }
+        }
+
+        return editor.build();
+    }
+
+    CompactAssignment shuffleOrderAssignments(SplittableRandom random) {
+        Editor editor = new Editor();
+        int[] orders = new int[index.orderCount()];
+        for (int o = 0; o < orders.length; o++) {
+            orders[o] = o;
+        }
+        int randomCount = Math.min(orders.length, 5 + random.nextInt(6)); // 5-10 orders
+        shuffle(orders, orders.length, random);
+
+        boolean[] selected = new boolean[orders.length];
+        for (int i = 0; i < randomCount; i++) {
+            selected[orders[i]] = true;
+        }
+        for (int v = 0; v < routes.length; v++) {
+            for (int order : routes[v].orders()) {
+                if (selected[order]) {
+                    editor.removeOrders(v, selected);
+                    break;
+                }
+            }
+        }
+
+        // Reassign each selected order as a single delivery to a random vehicle
+        for (int i = 0; i < randomCount; i++) {
+            editor.add(random.nextInt(routes.length), orders[i], index.remainingGlp[orders[i]]);
+        }
+
+        return editor.build();
+    }
+
+    CompactAssignment shuffleDeliveryAssignments(SplittableRandom random) {
+        Editor editor = new Editor();
+        int[] extractedOrders = new int[8];
+        int[] extractedQuantities = new int[8];
+        int extracted = 0;
+
+        for (int v = 0; v < routes.length; v++) {
+            int size = editor.size(v);
+            if (size == 0) {
+                continue;
+            }
+            editor.shuffle(v, 0, size, random);
+            int randomCount = 1 + random.nextInt(size);
+            for (int i = 0; i < randomCount; i++) {
+                if (extracted == extractedOrders.length) {
+                    extractedOrders = Arrays.copyOf(extractedOrders, extracted * 2);
+                    extractedQuantities = Arrays.copyOf(extractedQuantities, extracted * 2);
+                }
+                extractedOrders[extracted] = editor.order(v, i);
+                extractedQuantities[extracted++] = editor.quantity(v, i);
+            }
+            editor.removeRange(v, 0, randomCount);
+        }
+
+        for (int i = 0; i < extracted; i++) {
+            editor.add(random.nextInt(routes.length), extractedOrders[i], extractedQuantities[i]);
+        }
+
+        return editor.build();
+    }
+
+    CompactAssignment swapVehicles(SplittableRandom random) {
+        if (routes.length < 2) {
+            return this;
+        }
+        int first = random.nextInt(routes.length);
+        int second;
+        do {
+            second = random.nextInt(routes.length);
+        } while (second == first);
+
+        Editor editor = new Editor();
+        editor.swap(first, second);
+        return editor.build();
+    }
+
+    CompactAssignment shuffleSegments(SplittableRandom random) {
+        Editor editor = new Editor();
+        for (int v = 0; v < routes.length; v++) {
+            int size = editor.size(v);
+            if (size == 0) {
+                continue;
+            }
+            double randomFactor = random.nextDouble();
+            if (randomFactor > 0.7) {
+                continue;
+            }
+            int randomLeft = random.nextInt(size);
+            int randomRight = randomLeft + random.nextInt(size - randomLeft);
+            editor.shuffle(v, randomLeft, randomRight, random);
+        }
+        return editor.build();
+    }
+
+    /**
+     * Movimiento granular: lleva una entrega al azar al vehículo que atiende
+     * alguna de las {@link #NEARBY_ORDERS} órdenes más cercanas a la suya. Si
+     * ninguna la atiende otro vehículo, la asignación no cambia.
+     */
+    CompactAssignment relocateNearby(SplittableRandom random) {
+        int total = 0;
+        for (Deliveries route : routes) {
+            total += route.orders().length;
+        }
+        if (total == 0) {
+            return this;
+        }
+
+        int source = 0;
+        int position = random.nextInt(total);
+        while (position >= routes[source].orders().length) {
+            position -= routes[source].orders().length;
+            source++;
+        }
+        int order = routes[source].orders()[position];
+
+        int[] nearby = index.spatialIndex.nearest(index.orders[order].getPosition(), NEARBY_ORDERS + 1);
+        int offset = random.nextInt(nearby.length);
+        for (int i = 0; i < nearby.length; i++) {
+            int neighbor = nearby[(offset + i) % nearby.length];
+            int target = neighbor == order ? -1 : vehicleServing(neighbor, source);
+            if (target >= 0) {
+                Editor editor = new Editor();
+                int quantity = routes[source].quantities()[position];
+                editor.removeRange(source, position, position + 1);
+                editor.add(target, order, quantity);
+                return editor.build();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Primer vehículo distinto de {@code excluded} con una entrega de la orden,
+     * o -1
+     */
+    private int vehicleServing(int order, int excluded) {
+        for (int v = 0; v < routes.length; v++) {
+            if (v == excluded) {
+                continue;
+            }
+            for (int routeOrder : routes[v].orders()) {
+                if (routeOrder == order) {
+                    return v;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Same permutation as Collections.shuffle with the same generator
+     */
+    private static void shuffle(int[] values, int size, SplittableRandom random) {
+        for (int i = size; i > 1; i--) {
+            int j = random.nextInt(i);
+            int tmp = values[i - 1];
+            values[i - 1] = values[j];
+            values[j] = tmp;
+        }
+    }
+
+    /**
+     * Fusiona entregas consecutivas de la misma orden, las divide según la
+     * capacidad del vehículo y las ordena por deadline
+     */
+    private static Deliveries normalize(Index index, int vehicle, int[] orders, int[] quantities, int size) {
+        // 1. Merge consecutive deliveries of the same order
+        int[] mergedOrders = new int[size];
+        int[] mergedQuantities = new int[size];
+        int merged = 0;
+        int chunks = 0;
+        int capacity = index.capacities[vehicle];
+        for (int i = 0; i < size; i++) {
+            if (quantities[i] <= 0) {
+                continue;
+            }
+            if (merged > 0 && mergedOrders[merged - 1] == orders[i]) {
+                mergedQuantities[merged - 1] += quantities[i];
+            } else {
+                mergedOrders[merged] = orders[i];
+                mergedQuantities[merged++] = quantities[i];
+            }
+        }
+        if (merged == 0) {
+            return EMPTY;
+        }
+        for (int i = 0; i < merged; i++) {
+            chunks += (mergedQuantities[i] + capacity - 1) / capacity;
+        }
+
+        // 2. Split by vehicle capacity
+        int[] routeOrders = new int[chunks];
+        int[] routeQuantities = new int[chunks];
+        int count = 0;
+        for (int i = 0; i < merged; i++) {
+            int remaining = mergedQuantities[i];
+            while (remaining > 0) {
+                int chunk = Math.min(capacity, remaining);
+                routeOrders[count] = mergedOrders[i];
+                routeQuantities[count++] = chunk;
+                remaining -= chunk;
+            }
+        }
+
+        // 3. Stable sort by deadline
+        for (int i = 1; i < count; i++) {
+            int order = routeOrders[i];
+            int quantity = routeQuantities[i];
+            long deadline = index.deadlines[order];
+            int j = i - 1;
+            while (j >= 0 && index.deadlines[routeOrders[j]] > deadline) {
+                routeOrders[j + 1] = routeOrders[j];
+                routeQuantities[j + 1] = routeQuantities[j];
+                j--;
+            }
+            routeOrders[j + 1] = order;
+            routeQuantities[j + 1] = quantity;
+        }
+
+        DeliveryPart[] parts = new DeliveryPart[count];
+        for (int i = 0; i < count; i++) {
+            Order order = index.orders[routeOrders[i]];
+            parts[i] = new DeliveryPart(order.getId(), routeQuantities[i], order.getDeadlineTime());
+        }
+        return new Deliveries(routeOrders, routeQuantities, List.of(parts));
+    }
+
+    /**
+     * Copia de trabajo de una asignación. Cada ruta se copia a arreglos
+     * editables la primera vez que se modifica; {@link #build()} normaliza solo
+     * esas rutas y comparte las demás.
+     */
+    private final class Editor {
+        private final int[][] orders = new int[routes.length][];
+        private final int[][] quantities = new int[routes.length][];
+        private final int[] sizes = new int[routes.length];
+
+        private void touch(int vehicle) {
+            if (orders[vehicle] == null) {
+                Deliveries route = routes[vehicle];
+                int length = route.orders().length;
+                orders[vehicle] = Arrays.copyOf(route.orders(), Math.max(4, length * 2));
+                quantities[vehicle] = Arrays.copyOf(route.quantities(), Math.max(4, length * 2));
+                sizes[vehicle] = length;
+            }
+        }
+
+        int size(int vehicle) {
+            return orders[vehicle] != null ? sizes[vehicle] : routes[vehicle].orders().length;
+        }
+
+        int order(int vehicle, int position) {
+            return orders[vehicle] != null ? orders[vehicle][position] : routes[vehicle].orders()[position];
+        }
+
+        int quantity(int vehicle, int position) {
+            return orders[vehicle] != null ? quantities[vehicle][position] : routes[vehicle].quantities()[position];
+        }
+
+        void add(int vehicle, int order, int quantity) {
+            touch(vehicle);
+            int size = sizes[vehicle];
+            if (size == orders[vehicle].length) {
+                orders[vehicle] = Arrays.copyOf(orders[vehicle], size * 2);
+                quantities[vehicle] = Arrays.copyOf(quantities[vehicle], size * 2);
+            }
+            orders[vehicle][size] = order;
+            quantities[vehicle][size] = quantity;
+            sizes[vehicle] = size + 1;
+        }
+
+        void removeRange(int vehicle, int from, int to) {
+            touch(vehicle);
+            int tail = sizes[vehicle] - to;
+            System.arraycopy(orders[vehicle], to, orders[vehicle], from, tail);
+            System.arraycopy(quantities[vehicle], to, quantities[vehicle], from, tail);
+            sizes[vehicle] = from + tail;
+        }
+
+        void removeOrders(int vehicle, boolean[] selected) {
+            touch(vehicle);
+            int kept = 0;
+            for (int i = 0; i < sizes[vehicle]; i++) {
+                if (!selected[orders[vehicle][i]]) {
+                    orders[vehicle][kept] = orders[vehicle][i];
+                    quantities[vehicle][kept++] = quantities[vehicle][i];
+                }
+            }
+            sizes[vehicle] = kept;
+        }
+
+        void swap(int first, int second) {
+            touch(first);
+            touch(second);
+            int[] tmpOrders = orders[first];
+            int[] tmpQuantities = quantities[first];
+            int tmpSize = sizes[first];
+            orders[first] = orders[second];
+            quantities[first] = quantities[second];
+            sizes[first] = sizes[second];
+            orders[second] = tmpOrders;
+            quantities[second] = tmpQuantities;
+            sizes[second] = tmpSize;
+        }
+
+        /**
+         * Permuta al azar las entregas en [from, to)
+         */
+        void shuffle(int vehicle, int from, int to, SplittableRandom random) {
+            touch(vehicle);
+            for (int i = to - from; i > 1; i--) {
+                int a = from + i - 1;
+                int b = from + random.nextInt(i);
+                int tmpOrder = orders[vehicle][a];
+                int tmpQuantity = quantities[vehicle][a];
+                orders[vehicle][a] = orders[vehicle][b];
+                quantities[vehicle][a] = quantities[vehicle][b];
+                orders[vehicle][b] = tmpOrder;
+                quantities[vehicle][b] = tmpQuantity;
+            }
+        }
+
+        CompactAssignment build() {
+            Deliveries[] next = routes.clone();
+            for (int v = 0; v < next.length; v++) {
+                if (orders[v] != null) {
+                    next[v] = normalize(index, v, orders[v], quantities[v], sizes[v]);
+                }
+            }
+            return new CompactAssignment(index, next);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.plgsystem.assignation;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Vehicle;
+import com.example.plgsystem.simulation.SimulationState;
+
+/**
+ * Evalúa asignaciones compactas sin pasar por su forma de mapa.
+ * <p>
+ * Cada ruta se genera con {@link SolutionGenerator#buildStops} directamente
+ * desde los arreglos de la asignación y se costea a medida que se generan sus
+ * paradas, sin crear {@link RouteStop}, {@link Route} ni {@link Solution}. Las
+ * rutas iguales a las de la asignación base reutilizan su costo. El resultado
+ * es el mismo costo que daría la {@link Solution} construida con
+ * {@link CompactAssignment#toMap()}; esa conversión queda solo para la
+ * asignación aceptada.
+ */
+final class CompactEvaluator {
+    private static final SolutionCost INVALID = new SolutionCost(0.0, 0.0, 0.0, 0.0, Double.POSITIVE_INFINITY);
+
+    /**
+     * Costo de cada ruta (por índice de vehículo) y costo total
+     */
+    record Evaluation(SolutionCost[] routeCosts, SolutionCost cost) {
+    }
+
+    private final SimulationState state;
+    private final DistanceMatrix distances;
+    private final EvaluationContext context;
+    private final CompactAssignment.Index index;
+    private final LocalDateTime startTime;
+    private final Vehicle[] vehicles;
+    // Ordinal en el contexto de cada orden del índice
+    private final int[] orderOrdinals;
+    // Mismo orden en que SolutionEvaluator recorre las rutas de la Solution
+    // construida con toMap(), para sumar los costos en el mismo orden
+    private final int[] evaluationOrder;
+
+    CompactEvaluator(SimulationState state, DistanceMatrix distances, CompactAssignment.Index index) {
+        this.state = state;
+        this.distances = distances;
+        this.context = distances.context(state);
+        this.index = index;
+        this.startTime = state.getCurrentTime();
+
+        vehicles = new Vehicle[index.vehicleCount()];
+        Map<String, Integer> assignmentOrder = new HashMap<>(index.vehicleCount() * 2);
+        for (int v = 0; v < vehicles.length; v++) {
+            vehicles[v] = state.getVehicleById(index.vehicleId(v));
+            assignmentOrder.put(index.vehicleId(v), v);
+        }
+        // generateSolution omite los vehículos que ya no están en el estado
+        Map<String, Integer> routeOrder = new HashMap<>();
+        assignmentOrder.forEach((vehicleId, v) -> {
+            if (vehicles[v] != null) {
+                routeOrder.put(vehicleId, v);
+            }
+        });
+        evaluationOrder = routeOrder.values().stream().mapToInt(Integer::intValue).toArray();
+
+        orderOrdinals = new int[index.orderCount()];
+        for (int o = 0; o < orderOrdinals.length; o++) {
+            orderOrdinals[o] = context.orderOrdinal(index.order(o).getId());
+        }
+    }
+
+    /**
+     * Evalúa la asignación reutilizando de {@code baseEvaluation} el costo de
+     * las rutas que no cambiaron respecto de {@code base}
+     */
+    Evaluation evaluate(CompactAssignment assignment, CompactAssignment base, Evaluation baseEvaluation) {
+        SolutionCost[] routeCosts = new SolutionCost[vehicles.length];
+        int[] ordersRemainingGlp = context.remainingGlp();
+        double timeCost = 0;
+        double distanceCost = 0;
+        double lateDeliveryCost = 0;
+        double incompleteOrderCost = 0;
+
+        for (int vehicle : evaluationOrder) {
+            SolutionCost routeCost = base != null && assignment.sameRoute(base, vehicle)
+                    ? baseEvaluation.routeCosts()[vehicle]
+                    : null;
+            if (routeCost == null) {
+                routeCost = evaluateRoute(assignment, vehicle);
+            }
+            routeCosts[vehicle] = routeCost;
+            if (routeCost.invalidCost() > 0) {
+                return new Evaluation(routeCosts, INVALID);
+            }
+
+            int[] orders = assignment.orders(vehicle);
+            int[] quantities = assignment.quantities(vehicle);
+            for (int i = 0; i < orders.length; i++) {
+                int order = orderOrdinals[orders[i]];
+                if (order >= 0) {
+                    ordersRemainingGlp[order] = Math.max(0, ordersRemainingGlp[order] - quantities[i]);
+                }
+            }
+
+            timeCost = Math.max(timeCost, routeCost.timeCost());
+            lateDeliveryCost += routeCost.lateDeliveryCost();
+            distanceCost += routeCost.distanceCost();
+        }
+
+        for (int remainingGlp : ordersRemainingGlp) {
+            if (remainingGlp > 0) {
+                incompleteOrderCost += SolutionEvaluator.INCOMPLETE_ORDER_PENALTY;
+            }
+        }
+        return new Evaluation(routeCosts,
+                new SolutionCost(timeCost, distanceCost, lateDeliveryCost, incompleteOrderCost, 0.0));
+    }
+
+    /**
+     * Costos por id de vehículo, para construir la {@link Solution} de una
+     * asignación ya evaluada sin volver a costear sus rutas
+     */
+    Map<String, SolutionCost> routeCosts(Evaluation evaluation) {
+        Map<String, SolutionCost> costs = new HashMap<>();
+        for (int v = 0; v < vehicles.length; v++) {
+            if (evaluation.routeCosts()[v] != null) {
+                costs.put(index.vehicleId(v), evaluation.routeCosts()[v]);
+            }
+        }
+        return costs;
+    }
+
+    private SolutionCost evaluateRoute(CompactAssignment assignment, int vehicle) {
+        int[] orders = assignment.orders(vehicle);
+        int[] quantities = assignment.quantities(vehicle);
+        SolutionGenerator.DeliverySequence deliveries = new SolutionGenerator.DeliverySequence() {
+            @Override
+            public int size() {
+                return orders.length;
+            }
+
+            @Override
+            public Order order(int i) {
+                return index.order(orders[i]);
+            }
+
+            @Override
+            public int glp(int i) {
+                return quantities[i];
+            }
+        };
+        SolutionEvaluator.RouteCostAccumulator accumulator = new SolutionEvaluator.RouteCostAccumulator(
+                vehicles[vehicle], distances, context);
+        SolutionGenerator.buildStops(vehicles[vehicle], state, startTime, deliveries, context.initialDepotStock(),
+                context.depotOrder(), distances, context, accumulator);
+        return accumulator.finish();
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.plgsystem.assignation;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.example.plgsystem.model.Constants;
+import com.example.plgsystem.model.Depot;
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.model.Vehicle;
+import com.example.plgsystem.pathfinding.PathFinder;
+import com.example.plgsystem.pathfinding.PathTree;
+import com.example.plgsystem.simulation.SimulationState;
+
+/**
+ * Matriz de distancias precalculada para una ejecución del solver.
+ * <p>
+ * Cubre los puntos que intervienen en una solución: órdenes pendientes,
+ * depósitos y posiciones actuales de los vehículos. Las distancias se guardan
+ * en un arreglo plano ({@code distances[from * size + to]}) y se construyen una
+ * sola vez, ya sea como distancia Manhattan o como longitud de la ruta más
+ * corta evitando bloqueos. Las posiciones que no están en la matriz se
+ * resuelven con {@link Position#distanceTo}, por lo que el resultado nunca
+ * depende de que un punto haya sido registrado.
+ */
+public final class DistanceMatrix {
+    private final SimulationState state;
+    private final List<Position> points;
+    private final int size;
+    private final double[] distances;
+    private final Map<Position, Integer> pointIndex;
+    private final Map<String, Integer> orderPoints;
+    private final Map<String, Order> orders;
+    private final Map<String, Integer> depotPoints;
+    private volatile EvaluationContext context;
+
+    private DistanceMatrix(SimulationState state, List<Position> points, Map<Position, Integer> pointIndex,
+            Map<String, Integer> orderPoints, Map<String, Order> orders, Map<String, Integer> depotPoints) {
+        this.state = state;
+        this.points = points;
+        this.size = points.size();
+        this.distances = new double[size * size];
+        this.pointIndex = pointIndex;
+        this.orderPoints = orderPoints;
+        this.orders = orders;
+        this.depotPoints = depotPoints;
+    }
+
+    /**
+     * Matriz vacía: todas las consultas se resuelven directamente contra la
+     * posición y el estado. Es lo que usan las llamadas que no pasan una matriz.
+     */
+    public static DistanceMatrix direct(SimulationState state) {
+        return new DistanceMatrix(state, List.of(), Map.of(), Map.of(), Map.of(), Map.of());
+    }
+
+    /**
+     * Matriz con distancias Manhattan entre todos los puntos del estado.
+     */
+    public static DistanceMatrix manhattan(SimulationState state) {
+        DistanceMatrix matrix = collectPoints(state);
+        List<Position> points = matrix.points;
+        for (int from = 0; from < matrix.size; from++) {
+            Position origin = points.get(from);
+            for (int to = 0; to < matrix.size; to++) {
+                matrix.distances[from * matrix.size + to] = origin.distanceTo(points.get(to));
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Matriz con la longitud de la ruta más corta que evita los bloqueos
+     * activos al momento actual del estado. Se hace una búsqueda de uno a
+     * muchos por nodo de la grilla; si un destino no es alcanzable se usa la
+     * distancia Manhattan.
+     * <p>
+     * Los vehículos en medio de un tramo tienen posiciones fraccionarias: se
+     * resuelven desde los dos nodos del tramo sumando lo que falta recorrer
+     * hasta cada uno y se toma el menor. La hora de salida se trunca a
+     * segundos enteros (los bloqueos se definen al minuto).
+     */
+    public static DistanceMatrix blockageAware(SimulationState state) {
+        DistanceMatrix matrix = collectPoints(state);
+        List<Position> points = matrix.points;
+        LocalDateTime departure = state.getCurrentTime().withNano(0);
+
+        List<List<Position>> anchors = new ArrayList<>(matrix.size);
+        Set<Position> nodes = new LinkedHashSet<>();
+        for (Position point : points) {
+            List<Position> pointAnchors = anchorsOf(point);
+            anchors.add(pointAnchors);
+            nodes.addAll(pointAnchors);
+        }
+        Map<Position, PathTree> trees = new HashMap<>();
+        for (Position node : nodes) {
+            trees.put(node, PathFinder.findPathsFrom(state, node, nodes, departure));
+        }
+
+        for (int from = 0; from < matrix.size; from++) {
+            Position origin = points.get(from);
+            for (int to = 0; to < matrix.size; to++) {
+                Position target = points.get(to);
+                double manhattan = origin.distanceTo(target);
+                double best = Double.POSITIVE_INFINITY;
+                // En el mismo tramo (o el mismo punto) no hay nodos de por medio
+                if (!anchors.get(from).equals(anchors.get(to))) {
+                    for (Position originNode : anchors.get(from)) {
+                        PathTree tree = trees.get(originNode);
+                        for (Position targetNode : anchors.get(to)) {
+                            int steps = tree.getDistance(targetNode);
+                            if (steps >= 0) {
+                                best = Math.min(best,
+                                        origin.distanceTo(originNode) + steps + targetNode.distanceTo(target));
+                            }
+                        }
+                    }
+                }
+                matrix.distances[from * matrix.size + to] = best == Double.POSITIVE_INFINITY ? manhattan
+                        : Math.max(manhattan, best);
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Nodos de la grilla desde los que se alcanza una posición: ella misma si
+     * es un nodo, o los dos extremos del tramo en que se encuentra. Vacío si
+     * está fuera de la ciudad.
+     */
+    private static List<Position> anchorsOf(Position position) {
+        double x = position.getX();
+        double y = position.getY();
+        List<Position> anchors = new ArrayList<>(2);
+        if (x == Math.rint(x) || y == Math.rint(y)) {
+            addAnchor(anchors, Math.floor(x), Math.floor(y));
+            addAnchor(anchors, Math.ceil(x), Math.ceil(y));
+        } else {
+            // Fuera de las calles: el nodo más cercano
+            addAnchor(anchors, Math.rint(x), Math.rint(y));
+        }
+        return anchors;
+    }
+
+    private static void addAnchor(List<Position> anchors, double x, double y) {
+        if (x < 0 || x > Constants.CITY_X || y < 0 || y > Constants.CITY_Y) {
+            return;
+        }
+        Position node = new Position(x, y);
+        if (!anchors.contains(node)) {
+            anchors.add(node);
+        }
+    }
+
+    private static DistanceMatrix collectPoints(SimulationState state) {
+        List<Position> points = new ArrayList<>();
+        Map<Position, Integer> pointIndex = new HashMap<>();
+        Map<String, Integer> orderPoints = new HashMap<>();
+        Map<String, Order> orders = new HashMap<>();
+        Map<String, Integer> depotPoints = new HashMap<>();
+
+        for (Order order : state.getOrders()) {
+            orders.put(order.getId(), order);
+            orderPoints.put(order.getId(), register(order.getPosition(), points, pointIndex));
+        }
+        Depot mainDepot = state.getMainDepot();
+        depotPoints.put(mainDepot.getId(), register(mainDepot.getPosition(), points, pointIndex));
+        for (Depot depot : state.getAuxDepots()) {
+            depotPoints.put(depot.getId(), register(depot.getPosition(), points, pointIndex));
+        }
+        for (Vehicle vehicle : state.getVehicles()) {
+            if (vehicle.getCurrentPosition() != null) {
+                register(vehicle.getCurrentPosition(), points, pointIndex);
+            }
+        }
+
+        return new DistanceMatrix(state, points, pointIndex, orderPoints, orders, depotPoints);
+    }
+
+    private static int register(Position position, List<Position> points, Map<Position, Integer> pointIndex) {
+        Integer index = pointIndex.get(position);
+        if (index == null) {
+            index = points.size();
+            points.add(position);
+            pointIndex.put(position, index);
+        }
+        return index;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Índice del punto en la matriz, o -1 si la posición no fue registrada.
+     */
+    public int indexOf(Position position) {
+        if (position == null) {
+            return -1;
+        }
+        Integer index = pointIndex.get(position);
+        return index == null ? -1 : index;
+    }
+
+    public int orderIndex(String orderId) {
+        Integer index = orderPoints.get(orderId);
+        return index == null ? -1 : index;
+    }
+
+    public int depotIndex(String depotId) {
+        Integer index = depotPoints.get(depotId);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Orden pendiente por id, sin recorrer la lista del estado cuando la orden
+     * fue registrada al construir la matriz.
+     */
+    public Order getOrder(String orderId) {
+        Order order = orders.get(orderId);
+        return order != null ? order : state.getOrderById(orderId);
+    }
+
+    /**
+     * Índice del punto de una parada: la orden para paradas de entrega y el
+     * depósito en los demás casos. Devuelve -1 si la posición de la parada no
+     * coincide con el punto registrado.
+     */
+    public int stopIndex(RouteStop stop) {
+        int index = stop.isOrderStop() ? orderIndex(stop.getOrderId()) : depotIndex(stop.getDepotId());
+        return index >= 0 && points.get(index).equals(stop.getPosition()) ? index : -1;
+    }
+
+    public double distance(int from, int to) {
+        return distances[from * size + to];
+    }
+
+    /**
+     * Distancia entre dos posiciones usando sus índices cuando ambos son
+     * válidos, o {@link Position#distanceTo} en caso contrario.
+     */
+    public double distance(int fromIndex, Position from, int toIndex, Position to) {
+        if (fromIndex >= 0 && toIndex >= 0) {
+            return distances[fromIndex * size + toIndex];
+        }
+        return from.distanceTo(to);
+    }
+
+    public double distance(Position from, Position to) {
+        return distance(indexOf(from), from, indexOf(to), to);
+    }
+
+    /**
+     * Tiempos, plazos y stock en forma primitiva para construir y evaluar rutas
+     * sobre el estado. Se construye una vez y se vuelve a construir solo si el
+     * estado avanzó o cambió de órdenes.
+     */
+    EvaluationContext context(SimulationState state) {
+        EvaluationContext current = context;
+        if (current == null || !current.isFor(state)) {
+            current = new EvaluationContext(state, this);
+            context = current;
+        }
+        return current;
+    }
+}
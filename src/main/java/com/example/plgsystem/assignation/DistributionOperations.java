@@ -1,13 +1,11 @@
 package com.example.plgsystem.assignation;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 import com.example.plgsystem.model.Constants;
 import com.example.plgsystem.model.Order;
@@ -15,8 +13,13 @@ import com.example.plgsystem.model.Position;
 import com.example.plgsystem.model.Vehicle;
 import com.example.plgsystem.simulation.SimulationState;
 
+/**
+ * Operaciones de vecindario sobre asignaciones. Las operaciones aleatorias
+ * reciben su propio {@link SplittableRandom} para poder ejecutarse en paralelo
+ * y reproducir los mismos vecinos con la misma semilla; las variantes sin
+ * generador usan uno nuevo en cada llamada.
+ */
 public class DistributionOperations {
-    private static final Random random = new Random();
 
     public static Map<String, List<DeliveryPart>> cloneAssignments(Map<String, List<DeliveryPart>> original) {
         Map<String, List<DeliveryPart>> clone = new HashMap<>();
@@ -55,6 +58,11 @@ public class DistributionOperations {
 
     public static Map<String, List<DeliveryPart>> greedySort(Map<String, List<DeliveryPart>> assignments,
             SimulationState state) {
+        return greedySort(assignments, state, DistanceMatrix.direct(state));
+    }
+
+    public static Map<String, List<DeliveryPart>> greedySort(Map<String, List<DeliveryPart>> assignments,
+            SimulationState state, DistanceMatrix distances) {
         Map<String, List<DeliveryPart>> result = cloneAssignments(assignments);
 
         for (String vehicleId : result.keySet()) {
@@ -79,54 +87,74 @@ public class DistributionOperations {
             // 2. De los viables, elegir el de deadline más cercano
             // 3. En caso de empate, elegir el más cercano por distancia
 
+            // Positions, points and deadlines are looked up once per delivery; deadlines
+            // in nanoseconds since the current time
+            EvaluationContext context = distances.context(state);
+            int count = deliveries.size();
+            DeliveryPart[] parts = deliveries.toArray(new DeliveryPart[0]);
+            Position[] positions = new Position[count];
+            int[] indices = new int[count];
+            long[] deadlines = new long[count];
+            int[] pending = new int[count];
+            for (int i = 0; i < count; i++) {
+                Order order = distances.getOrder(parts[i].getOrderId());
+                if (order != null) {
+                    positions[i] = order.getPosition();
+                    indices[i] = distances.orderIndex(order.getId());
+                }
+                deadlines[i] = context.offset(parts[i].getDeadlineTime());
+                pending[i] = i;
+            }
+
             Position currentPosition = vehicle.getCurrentPosition();
+            int currentIndex = distances.indexOf(currentPosition);
             List<DeliveryPart> optimizedDeliveries = new ArrayList<>();
             double currentTime = 0; // Tiempo relativo para la simulación
 
-            while (!deliveries.isEmpty()) {
-                List<ViableDelivery> viableDeliveries = new ArrayList<>();
+            while (count > 0) {
+                int best = -1;
+                double bestDistance = 0;
+                double bestArrivalTime = 0;
 
-                // Identificar destinos viables (aquellos a los que podemos llegar a tiempo)
-                for (DeliveryPart delivery : deliveries) {
-                    Order order = state.getOrderById(delivery.getOrderId());
-                    if (order == null)
+                // Destinos viables (aquellos a los que podemos llegar a tiempo): el de
+                // deadline más cercano y, en caso de empate, el primero más cercano
+                for (int k = 0; k < count; k++) {
+                    int i = pending[k];
+                    if (positions[i] == null)
                         continue;
 
-                    Position orderPosition = order.getPosition();
-                    double distance = currentPosition.distanceTo(orderPosition);
+                    double distance = distances.distance(currentIndex, currentPosition, indices[i], positions[i]);
                     double travelTime = distance / Constants.VEHICLE_AVG_SPEED;
                     double arrivalTime = currentTime + travelTime;
 
-                    // Convertimos a horas para hacer la comparación con el deadline
-                    LocalDateTime simulatedArrivalTime = state.getCurrentTime().plusMinutes((long) (arrivalTime * 60));
-
-                    // Solo consideramos viable si podemos llegar antes del deadline
-                    if (!simulatedArrivalTime.isAfter(delivery.getDeadlineTime())) {
-                        viableDeliveries.add(new ViableDelivery(delivery, order, distance, arrivalTime));
+                    // Convertimos a minutos para hacer la comparación con el deadline
+                    long arrivalMinutes = (long) (arrivalTime * 60);
+                    if (arrivalMinutes * EvaluationContext.NANOS_PER_MINUTE > deadlines[i]) {
+                        continue;
+                    }
+                    if (best < 0 || deadlines[i] < deadlines[pending[best]]
+                            || (deadlines[i] == deadlines[pending[best]] && distance < bestDistance)) {
+                        best = k;
+                        bestDistance = distance;
+                        bestArrivalTime = arrivalTime;
                     }
                 }
 
                 // Si no hay entregas viables, terminamos
-                if (viableDeliveries.isEmpty()) {
+                if (best < 0) {
                     break;
                 }
 
-                // Ordenar por deadline (criterio primario) y por distancia (criterio
-                // secundario)
-                viableDeliveries.sort(Comparator
-                        .comparing((ViableDelivery v) -> v.delivery.getDeadlineTime())
-                        .thenComparing(v -> v.distance));
-
-                // Elegir la mejor opción (la más urgente y cercana)
-                ViableDelivery bestChoice = viableDeliveries.get(0);
-
-                // Añadir a la ruta optimizada y eliminar de pendientes
-                optimizedDeliveries.add(bestChoice.delivery);
-                deliveries.remove(bestChoice.delivery);
+                // Añadir a la ruta optimizada y eliminar de pendientes (conservando el orden)
+                int chosen = pending[best];
+                optimizedDeliveries.add(parts[chosen]);
+                System.arraycopy(pending, best + 1, pending, best, count - best - 1);
+                count--;
 
                 // Actualizar posición y tiempo para la siguiente iteración
-                currentPosition = bestChoice.order.getPosition();
-                currentTime = bestChoice.arrivalTime;
+                currentPosition = positions[chosen];
+                currentIndex = indices[chosen];
+                currentTime = bestArrivalTime;
 
                 // Añadir tiempo de servicio (en horas)
                 currentTime += Constants.GLP_SERVE_DURATION_MINUTES / 60.0;
@@ -143,20 +171,6 @@ public class DistributionOperations {
         return result;
     }
 
-    private static class ViableDelivery {
-        final DeliveryPart delivery;
-        final Order order;
-        final double distance;
-        final double arrivalTime;
-
-        ViableDelivery(DeliveryPart delivery, Order order, double distance, double arrivalTime) {
-            this.delivery = delivery;
-            this.order = order;
-            this.distance = distance;
-            this.arrivalTime = arrivalTime;
-        }
-    }
-
     /*
      * =======================================================
      * EXPLORATION OPERATIONS
@@ -165,6 +179,11 @@ public class DistributionOperations {
 
     public static Map<String, List<DeliveryPart>> balanceByCapacity(Map<String, List<DeliveryPart>> assignments,
             SimulationState state) {
+        return balanceByCapacity(assignments, state, new SplittableRandom());
+    }
+
+    public static Map<String, List<DeliveryPart>> balanceByCapacity(Map<String, List<DeliveryPart>> assignments,
+            SimulationState state, SplittableRandom random) {
         Map<String, List<DeliveryPart>> result = cloneAssignments(assignments);
 
         // Calculate total GLP and capacity for each vehicle
@@ -256,14 +275,19 @@ public class DistributionOperations {
 
     public static Map<String, List<DeliveryPart>> shuffleOrderAssignments(
             Map<String, List<DeliveryPart>> assignments, SimulationState state) {
+        return shuffleOrderAssignments(assignments, state, new SplittableRandom());
+    }
+
+    public static Map<String, List<DeliveryPart>> shuffleOrderAssignments(
+            Map<String, List<DeliveryPart>> assignments, SimulationState state, SplittableRandom random) {
         Map<String, List<DeliveryPart>> result = cloneAssignments(assignments);
         if (state == null) {
             return result; // No state means no optimization
         }
-        // from state extract X number of Orders
-        List<Order> orders = state.getOrders();
+        // from state extract X number of Orders (copia: la lista del estado es compartida)
+        List<Order> orders = new ArrayList<>(state.getOrders());
         int randomCount = Math.min(orders.size(), 5 + random.nextInt(6)); // 5-10 orders
-        Collections.shuffle(orders);
+        Collections.shuffle(orders, random);
         List<Order> selectedOrders = orders.subList(0, randomCount);
 
         // for each order remove from assignments
@@ -291,6 +315,11 @@ public class DistributionOperations {
 
     public static Map<String, List<DeliveryPart>> shuffleDeliveryAssigments(
             Map<String, List<DeliveryPart>> assignments, SimulationState state) {
+        return shuffleDeliveryAssigments(assignments, state, new SplittableRandom());
+    }
+
+    public static Map<String, List<DeliveryPart>> shuffleDeliveryAssigments(
+            Map<String, List<DeliveryPart>> assignments, SimulationState state, SplittableRandom random) {
         Map<String, List<DeliveryPart>> result = cloneAssignments(assignments);
 
         List<DeliveryPart> extractedDeliveries = new ArrayList<>();
@@ -300,7 +329,7 @@ public class DistributionOperations {
                 continue;
             }
             // Shuffle deliveries and extract a random number
-            Collections.shuffle(deliveries);
+            Collections.shuffle(deliveries, random);
             int randomCount = 1 + random.nextInt(deliveries.size());
             extractedDeliveries.addAll(deliveries.subList(0, randomCount));
             // Remove these deliveries from the original vehicle
@@ -321,6 +350,11 @@ public class DistributionOperations {
 
     public static Map<String, List<DeliveryPart>> swapVehicles(Map<String, List<DeliveryPart>> assignments,
             SimulationState state) {
+        return swapVehicles(assignments, state, new SplittableRandom());
+    }
+
+    public static Map<String, List<DeliveryPart>> swapVehicles(Map<String, List<DeliveryPart>> assignments,
+            SimulationState state, SplittableRandom random) {
         Map<String, List<DeliveryPart>> result = cloneAssignments(assignments);
 
         // Need at least 2 vehicles
@@ -353,6 +387,11 @@ public class DistributionOperations {
 
     public static Map<String, List<DeliveryPart>> shuffleSegments(
             Map<String, List<DeliveryPart>> assignments, SimulationState state) {
+        return shuffleSegments(assignments, state, new SplittableRandom());
+    }
+
+    public static Map<String, List<DeliveryPart>> shuffleSegments(
+            Map<String, List<DeliveryPart>> assignments, SimulationState state, SplittableRandom random) {
         Map<String, List<DeliveryPart>> result = cloneAssignments(assignments);
 
         // Shuffle each vehicle's deliveries
@@ -370,7 +409,7 @@ public class DistributionOperations {
 
             // Extract the segment and shuffle it
             List<DeliveryPart> segment = deliveries.subList(randomLeft, randomRight);
-            Collections.shuffle(segment);
+            Collections.shuffle(segment, random);
             // Replace the original segment with the shuffled one
             for (int i = 0; i < segment.size(); i++) {
                 deliveries.set(randomLeft + i, segment.get(i));
@@ -388,15 +427,20 @@ public class DistributionOperations {
 
     public static Map<String, List<DeliveryPart>> randomOperationWithState(
             Map<String, List<DeliveryPart>> assignments, SimulationState state) {
+        return randomOperationWithState(assignments, state, new SplittableRandom());
+    }
+
+    public static Map<String, List<DeliveryPart>> randomOperationWithState(
+            Map<String, List<DeliveryPart>> assignments, SimulationState state, SplittableRandom random) {
         int operationType = random.nextInt(5);
 
         // Perform the operation with state to ensure optimization happens
         return switch (operationType) {
-            case 0 -> balanceByCapacity(assignments, state);
-            case 1 -> shuffleOrderAssignments(assignments, state);
-            case 2 -> shuffleDeliveryAssigments(assignments, state);
-            case 3 -> swapVehicles(assignments, state);
-            case 4 -> shuffleSegments(assignments, state);
+            case 0 -> balanceByCapacity(assignments, state, random);
+            case 1 -> shuffleOrderAssignments(assignments, state, random);
+            case 2 -> shuffleDeliveryAssigments(assignments, state, random);
+            case 3 -> swapVehicles(assignments, state, random);
+            case 4 -> shuffleSegments(assignments, state, random);
             default -> DeliveryOptimizer.optimizeAssignments(cloneAssignments(assignments), state);
         };
     }
@@ -0,0 +1,196 @@
+package com.example.plgsystem.assignation;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.plgsystem.model.Depot;
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.simulation.SimulationState;
+
+/**
+ * Datos primitivos para construir y evaluar rutas sin aritmética de
+ * {@link LocalDateTime} ni mapas con valores en caja.
+ * <p>
+ * Los tiempos se expresan como nanosegundos desde el tiempo actual del estado.
+ * Los nanosegundos (y no minutos) permiten reproducir exactamente los
+ * resultados de sumar segundos y minutos a un {@link LocalDateTime} cualquiera,
+ * incluso uno con fracciones de segundo como {@link LocalDateTime#now()}.
+ * Órdenes y depósitos se identifican por ordinales densos; el orden de
+ * recorrido de los depósitos es el de un {@link HashMap} con sus ids, que es el
+ * que decidía los empates entre depósitos a igual distancia.
+ */
+final class EvaluationContext {
+    static final long NANOS_PER_SECOND = 1_000_000_000L;
+    static final long NANOS_PER_MINUTE = 60 * NANOS_PER_SECOND;
+    static final long NANOS_PER_HOUR = 60 * NANOS_PER_MINUTE;
+
+    private final SimulationState state;
+    private final LocalDateTime reference;
+    private final int currentHour;
+    private final int orderCount;
+
+    private final Map<String, Integer> orderOrdinals = new HashMap<>();
+    private final long[] deadlines;
+    private final int[] remainingGlp;
+
+    private final Map<String, Integer> depotOrdinals = new HashMap<>();
+    private final Depot[] depots;
+    private final int[] depotPoints;
+    private final int[] depotCapacities;
+    private final int[] initialDepotStock;
+    private final int[] depotOrder;
+    private final int mainDepot;
+
+    EvaluationContext(SimulationState state, DistanceMatrix distances) {
+        this.state = state;
+        reference = state.getCurrentTime();
+        currentHour = reference.getHour();
+
+        List<Order> orders = state.getOrders();
+        orderCount = orders.size();
+        deadlines = new long[orders.size()];
+        remainingGlp = new int[orders.size()];
+        int ordinal = 0;
+        for (Order order : orders) {
+            Integer existing = orderOrdinals.putIfAbsent(order.getId(), ordinal);
+            int target = existing != null ? existing : ordinal++;
+            deadlines[target] = offset(order.getDeadlineTime());
+            remainingGlp[target] = order.getRemainingGlpM3();
+        }
+
+        // Same depots and stock as the map built by SolutionGenerator: auxiliaries, then the main depot
+        List<Depot> auxDepots = state.getAuxDepots();
+        depots = new Depot[auxDepots.size() + 1];
+        depotPoints = new int[depots.length];
+        depotCapacities = new int[depots.length];
+        initialDepotStock = new int[depots.length];
+        Map<String, Integer> stockById = new HashMap<>();
+        for (int d = 0; d < depots.length; d++) {
+            Depot depot = d < auxDepots.size() ? auxDepots.get(d) : state.getMainDepot();
+            depots[d] = depot;
+            depotOrdinals.put(depot.getId(), d);
+            depotPoints[d] = distances.depotIndex(depot.getId());
+            depotCapacities[d] = depot.getGlpCapacityM3();
+            initialDepotStock[d] = d < auxDepots.size() ? depot.getCurrentGlpM3() : depot.getGlpCapacityM3();
+            stockById.put(depot.getId(), initialDepotStock[d]);
+        }
+        mainDepot = depotOrdinals.get(state.getMainDepot().getId());
+        depotOrder = depotOrder(stockById);
+    }
+
+    /**
+     * Indica si el contexto sigue describiendo el estado (mismo estado, mismo
+     * tiempo y misma cantidad de órdenes)
+     */
+    boolean isFor(SimulationState state) {
+        return this.state == state && reference.equals(state.getCurrentTime()) && orderCount == state.getOrders().size();
+    }
+
+    long offset(LocalDateTime time) {
+        return Duration.between(reference, time).toNanos();
+    }
+
+    LocalDateTime time(long offset) {
+        return reference.plusNanos(offset);
+    }
+
+    /**
+     * Minutos completos desde el tiempo de referencia, como
+     * {@link Duration#toMinutes()}
+     */
+    static long wholeMinutes(long offset) {
+        return Math.floorDiv(offset, NANOS_PER_SECOND) / 60;
+    }
+
+    int currentHour() {
+        return currentHour;
+    }
+
+    int orderOrdinal(String orderId) {
+        Integer ordinal = orderOrdinals.get(orderId);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    long deadline(int order) {
+        return deadlines[order];
+    }
+
+    /**
+     * Copia del GLP pendiente por orden
+     */
+    int[] remainingGlp() {
+        return remainingGlp.clone();
+    }
+
+    int depotOrdinal(String depotId) {
+        Integer ordinal = depotOrdinals.get(depotId);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    Depot depot(int depot) {
+        return depots[depot];
+    }
+
+    Position depotPosition(int depot) {
+        return depots[depot].getPosition();
+    }
+
+    int depotPoint(int depot) {
+        return depotPoints[depot];
+    }
+
+    int depotCapacity(int depot) {
+        return depotCapacities[depot];
+    }
+
+    int mainDepot() {
+        return mainDepot;
+    }
+
+    /**
+     * Stock inicial de cada depósito; no debe modificarse
+     */
+    int[] initialDepotStock() {
+        return initialDepotStock;
+    }
+
+    /**
+     * Orden de recorrido de los depósitos; no debe modificarse
+     */
+    int[] depotOrder() {
+        return depotOrder;
+    }
+
+    /**
+     * Ordinales de los depósitos en el orden de iteración del mapa. Se ignoran
+     * los ids que no corresponden a un depósito del estado.
+     */
+    int[] depotOrder(Map<String, Integer> depotsGlpState) {
+        int[] order = new int[depotsGlpState.size()];
+        int count = 0;
+        for (String depotId : depotsGlpState.keySet()) {
+            int depot = depotOrdinal(depotId);
+            if (depot >= 0) {
+                order[count++] = depot;
+            }
+        }
+        return count == order.length ? order : Arrays.copyOf(order, count);
+    }
+
+    /**
+     * Stock por ordinal a partir de un mapa por id; los depósitos ausentes
+     * quedan en 0
+     */
+    int[] depotStock(Map<String, Integer> depotsGlpState) {
+        int[] stock = new int[depots.length];
+        for (int d = 0; d < depots.length; d++) {
+            stock[d] = depotsGlpState.getOrDefault(depots[d].getId(), 0);
+        }
+        return stock;
+    }
+}
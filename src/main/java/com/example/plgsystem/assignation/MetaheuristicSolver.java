@@ -1,20 +1,33 @@
 package com.example.plgsystem.assignation;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.example.plgsystem.model.Constants;
 import com.example.plgsystem.simulation.SimulationState;
 
 public class MetaheuristicSolver {
+    private static final Logger logger = LoggerFactory.getLogger(MetaheuristicSolver.class);
+
     // Parámetros configurables para el algoritmo
     private static int MAX_ITERATIONS = Constants.MAX_ITERATIONS;
     private static int TABU_TENURE = Constants.TABU_TENURE;
     private static int NUM_NEIGHBORS = Constants.NUM_NEIGHBORS;
+    private static boolean BLOCKAGE_AWARE_DISTANCES = false;
+    private static int PARALLELISM = Runtime.getRuntime().availableProcessors();
+    private static long TIME_BUDGET_MS = 0;
+    // Mismo valor por defecto que plgsystem.solver.warm-start
+    private static boolean WARM_START = true;
+    // Pool de la configuración actual; guardado por el lock de la clase
+    private static SearchPool searchPool;
 
     /**
      * Configura los parámetros del algoritmo de búsqueda tabú
@@ -30,148 +43,260 @@ public class MetaheuristicSolver {
     }
 
     /**
-     * Represents a tabu move in the search space
+     * Define cómo se construye la matriz de distancias de cada ejecución
+     * 
+     * @param blockageAware true para usar la ruta más corta evitando bloqueos,
+     *                      false para usar la distancia Manhattan
      */
-    private static class TabuMove {
-        private final String moveId;
-        private int remainingTenure;
+    public static void configureDistances(boolean blockageAware) {
+        MetaheuristicSolver.BLOCKAGE_AWARE_DISTANCES = blockageAware;
+    }
 
-        public TabuMove(String moveId, int tenure) {
-            this.moveId = moveId;
-            this.remainingTenure = tenure;
-        }
+    public static boolean isBlockageAwareDistances() {
+        return BLOCKAGE_AWARE_DISTANCES;
+    }
 
-        public boolean decrementTenure() {
-            return --remainingTenure <= 0;
+    /**
+     * Define cuántos hilos generan y evalúan vecinos en cada iteración. Con 1 la
+     * evaluación se hace en el hilo que llama a solve.
+     * 
+     * Las ejecuciones en curso terminan con el pool con el que empezaron; ese
+     * pool se cierra cuando termina la última.
+     * 
+     * @param parallelism Número de hilos; 0 o negativo usa todos los núcleos
+     */
+    public static synchronized void configureParallelism(int parallelism) {
+        int resolved = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        if (resolved != PARALLELISM && searchPool != null) {
+            searchPool.retired = true;
+            if (searchPool.users == 0) {
+                searchPool.shutdown();
+            }
+            searchPool = null;
         }
+        PARALLELISM = resolved;
+    }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o)
-                return true;
-            if (o == null || getClass() != o.getClass())
-                return false;
-            TabuMove tabuMove = (TabuMove) o;
-            return moveId.equals(tabuMove.moveId);
-        }
+    public static int getParallelism() {
+        return PARALLELISM;
+    }
 
-        @Override
-        public int hashCode() {
-            return Objects.hash(moveId);
-        }
+    /**
+     * Define el tiempo real máximo de cada ejecución de {@link #solve} sin
+     * control explícito
+     * 
+     * @param timeBudgetMs Milisegundos; 0 o negativo para no limitar
+     */
+    public static void configureTimeBudget(long timeBudgetMs) {
+        MetaheuristicSolver.TIME_BUDGET_MS = Math.max(0, timeBudgetMs);
+    }
+
+    public static long getTimeBudgetMs() {
+        return TIME_BUDGET_MS;
     }
 
     /**
-     * Generate a set of neighboring solutions by applying different operations to
-     * the current solution
+     * Control para una nueva ejecución con el presupuesto de tiempo configurado
      */
-    private static List<Map<String, List<DeliveryPart>>> generateNeighbors(
-            Map<String, List<DeliveryPart>> currentAssignment,
-            SimulationState state,
-            int numNeighbors) {
-        List<Map<String, List<DeliveryPart>>> neighbors = new ArrayList<>();
-        for (int i = 0; i < numNeighbors; i++) {
-            neighbors.add(DistributionOperations.randomOperationWithState(currentAssignment, state));
-        }
-        neighbors.add(RandomDistributor.createInitialRandomAssignments(state));
-        return neighbors;
+    public static SolverControl newControl() {
+        return TIME_BUDGET_MS > 0 ? SolverControl.withTimeBudget(Duration.ofMillis(TIME_BUDGET_MS))
+                : SolverControl.unbounded();
     }
 
     /**
-     * Generate a unique identifier for a move between two solutions.
-     * This is used to track moves for the tabu list.
+     * Define si la búsqueda parte de los planes en ejecución en lugar de una
+     * asignación aleatoria
+     * 
+     * @param warmStart true para recuperar las entregas pendientes de los planes
+     *                  actuales e insertar las órdenes nuevas
      */
-    private static String generateMoveId(Map<String, List<DeliveryPart>> fromSolution,
-            Map<String, List<DeliveryPart>> toSolution) {
-        StringBuilder sb = new StringBuilder();
-
-        // Compare the two solutions and create a digest of the differences
-        for (String vehicleId : fromSolution.keySet()) {
-            List<DeliveryPart> fromDeliveries = fromSolution.get(vehicleId);
-            List<DeliveryPart> toDeliveries = toSolution.get(vehicleId);
-
-            // Skip if either is null (should not happen)
-            if (fromDeliveries == null || toDeliveries == null)
-                continue;
-
-            // Count orders in each solution
-            Map<String, Integer> fromOrderCounts = new HashMap<>();
-            for (DeliveryPart part : fromDeliveries) {
-                fromOrderCounts.put(part.getOrderId(),
-                        fromOrderCounts.getOrDefault(part.getOrderId(), 0) + part.getGlpDeliverM3());
-            }
+    public static void configureWarmStart(boolean warmStart) {
+        MetaheuristicSolver.WARM_START = warmStart;
+    }
 
-            Map<String, Integer> toOrderCounts = new HashMap<>();
-            for (DeliveryPart part : toDeliveries) {
-                toOrderCounts.put(part.getOrderId(),
-                        toOrderCounts.getOrDefault(part.getOrderId(), 0) + part.getGlpDeliverM3());
-            }
+    public static boolean isWarmStart() {
+        return WARM_START;
+    }
 
-            // Record differences
-            for (String orderId : fromOrderCounts.keySet()) {
-                int fromCount = fromOrderCounts.get(orderId);
-                int toCount = toOrderCounts.getOrDefault(orderId, 0);
-                if (fromCount != toCount) {
-                    sb.append(vehicleId).append(":")
-                            .append(orderId).append(":")
-                            .append(fromCount).append("->")
-                            .append(toCount).append(";");
-                }
-            }
+    private static synchronized SearchPool acquirePool() {
+        if (searchPool == null) {
+            searchPool = new SearchPool(PARALLELISM);
+        }
+        searchPool.users++;
+        return searchPool;
+    }
 
-            // Check for orders in toSolution that aren't in fromSolution
-            for (String orderId : toOrderCounts.keySet()) {
-                if (!fromOrderCounts.containsKey(orderId)) {
-                    sb.append(vehicleId).append(":")
-                            .append(orderId).append(":")
-                            .append("0->")
-                            .append(toOrderCounts.get(orderId)).append(";");
-                }
+    private static synchronized void releasePool(SearchPool used) {
+        used.users--;
+        if (used.users == 0 && used.retired) {
+            used.shutdown();
+        }
+    }
+
+    /**
+     * Pool de hilos de una configuración de paralelismo, con el número de
+     * ejecuciones que lo están usando
+     */
+    private static final class SearchPool {
+        private final int parallelism;
+        private final ForkJoinPool pool;
+        private int users;
+        private boolean retired;
+
+        private SearchPool(int parallelism) {
+            this.parallelism = parallelism;
+            this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        }
+
+        private void shutdown() {
+            if (pool != null) {
+                pool.shutdown();
             }
         }
+    }
 
-        return sb.toString();
+    /**
+     * Construye la matriz de distancias usada durante una ejecución del solver
+     */
+    public static DistanceMatrix buildDistanceMatrix(SimulationState state) {
+        return BLOCKAGE_AWARE_DISTANCES ? DistanceMatrix.blockageAware(state) : DistanceMatrix.manhattan(state);
+    }
+
+    /**
+     * A generated neighbor together with its compact evaluation and the
+     * attributes of the move that produced it
+     */
+    private record Candidate(CompactAssignment assignment, CompactEvaluator.Evaluation evaluation,
+            long[] moveAttributes) {
     }
 
     /**
-     * Check if a move is in the tabu list
+     * Generate and evaluate a set of neighboring solutions by applying different
+     * operations to the current solution. Each neighbor gets its own random
+     * stream split from the solver's generator before any task runs, so the
+     * candidates are the same for a given seed regardless of the thread count.
+     * Neighbors are evaluated straight from their compact routes, without
+     * building a Solution; routes of vehicles a move did not touch reuse their
+     * cost from the current evaluation.
      */
-    private static boolean isTabuMove(String moveId, List<TabuMove> tabuList) {
-        return tabuList.stream().anyMatch(tabu -> tabu.moveId.equals(moveId));
+    private static List<Candidate> evaluateNeighborhood(
+            CompactAssignment currentAssignment,
+            CompactEvaluator.Evaluation currentEvaluation,
+            SimulationState state,
+            CompactEvaluator evaluator,
+            MoveAttributes moves,
+            int numNeighbors,
+            SplittableRandom random,
+            SearchPool searchPool) {
+        SplittableRandom[] streams = new SplittableRandom[numNeighbors + 1];
+        for (int i = 0; i < streams.length; i++) {
+            streams[i] = random.split();
+        }
+
+        IntFunction<Candidate> task = i -> {
+            CompactAssignment neighbor = i < numNeighbors
+                    ? currentAssignment.randomOperation(streams[i])
+                    : CompactAssignment.fromMap(currentAssignment.index(),
+                            RandomDistributor.createInitialRandomAssignments(state, streams[i]));
+            CompactEvaluator.Evaluation evaluation = evaluator.evaluate(neighbor, currentAssignment,
+                    currentEvaluation);
+            return new Candidate(neighbor, evaluation, moves.between(currentAssignment, neighbor));
+        };
+
+        if (searchPool.parallelism <= 1) {
+            return IntStream.range(0, streams.length).mapToObj(task).toList();
+        }
+        return searchPool.pool.submit(() -> IntStream.range(0, streams.length).parallel().mapToObj(task).toList())
+                .join();
     }
 
     /**
-     * Update the tabu list, reducing tenure and removing expired entries
+     * A move is tabu if it undoes any transfer made in the last iterations. A
+     * neighbor without changes is not a move and is treated as tabu.
      */
-    private static void updateTabuList(List<TabuMove> tabuList) {
-        Iterator<TabuMove> iterator = tabuList.iterator();
-        while (iterator.hasNext()) {
-            TabuMove move = iterator.next();
-            if (move.decrementTenure()) {
-                iterator.remove();
+    private static boolean isTabuMove(long[] moveAttributes, TabuMemory tabuMemory, int iteration) {
+        if (moveAttributes.length == 0) {
+            return true;
+        }
+        for (long attribute : moveAttributes) {
+            if (tabuMemory.contains(attribute, iteration)) {
+                return true;
             }
         }
+        return false;
     }
 
     /**
      * Solves the vehicle routing problem using Tabu Search metaheuristic
      */
     public static Solution solve(SimulationState state) {
-        // 1. INITIALIZATION
-        Map<String, List<DeliveryPart>> currentAssignment = RandomDistributor.createInitialRandomAssignments(state);
+        return solve(state, newControl());
+    }
 
-        Solution currentSolution = SolutionGenerator.generateSolution(state, currentAssignment);
+    /**
+     * Solves the problem until the iterations are exhausted or the control asks
+     * to stop, returning the best solution found so far
+     */
+    public static Solution solve(SimulationState state, SolverControl control) {
+        return solve(state, new SplittableRandom(), control);
+    }
+
+    /**
+     * Solves the problem with a fixed seed: the same state and seed produce the
+     * same solution for any parallelism
+     */
+    public static Solution solve(SimulationState state, long seed) {
+        return solve(state, new SplittableRandom(seed), SolverControl.unbounded());
+    }
+
+    public static Solution solve(SimulationState state, long seed, SolverControl control) {
+        return solve(state, new SplittableRandom(seed), control);
+    }
+
+    private static Solution solve(SimulationState state, SplittableRandom random, SolverControl control) {
+        SearchPool searchPool = acquirePool();
+        try {
+            return search(state, random, control, searchPool);
+        } finally {
+            releasePool(searchPool);
+        }
+    }
+
+    private static Solution search(SimulationState state, SplittableRandom random, SolverControl control,
+            SearchPool searchPool) {
+        // 1. INITIALIZATION
+        DistanceMatrix distances = buildDistanceMatrix(state);
+        SplittableRandom initialRandom = random.split();
+        Map<String, List<DeliveryPart>> initialAssignment = WARM_START
+                && WarmStartDistributor.hasPendingDeliveries(state)
+                        ? WarmStartDistributor.createWarmStartAssignments(state, distances)
+                        : RandomDistributor.createInitialRandomAssignments(state, initialRandom);
+        CompactAssignment currentAssignment = CompactAssignment.fromMap(new CompactAssignment.Index(state),
+                initialAssignment);
+        CompactEvaluator evaluator = new CompactEvaluator(state, distances, currentAssignment.index());
+        CompactEvaluator.Evaluation currentEvaluation = evaluator.evaluate(currentAssignment, null, null);
+
+        Solution currentSolution = SolutionGenerator.generateSolution(state, currentAssignment.toMap(), distances,
+                null, evaluator.routeCosts(currentEvaluation));
         Solution bestSolution = currentSolution;
-        List<TabuMove> tabuList = new ArrayList<>();
+        control.reportProgress(0, bestSolution);
+        MoveAttributes moves = new MoveAttributes(currentAssignment.index());
+        TabuMemory tabuMemory = new TabuMemory(TABU_TENURE * state.getOrders().size());
 
         // 2. MAIN SEARCH LOOP
         for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            if (control.shouldStop()) {
+                // Anytime: return the best solution so far without further optimization
+                logger.debug("Solver detenido en la iteración {} con costo {}", iteration, bestSolution.getCost().totalCost());
+                return bestSolution;
+            }
+
             // each 10%
-            if (iteration % (MAX_ITERATIONS / 10) == 0) {
+            if (iteration % Math.max(1, MAX_ITERATIONS / 10) == 0) {
                 System.out.println("Iteration " + iteration + ": " + bestSolution.getCost().totalCost());
 
                 // Optimize the current solution
-                Solution optimizedSolution = optimizeSolution(state, currentSolution);
+                Solution optimizedSolution = optimizeSolution(state, currentSolution, distances);
                 if (optimizedSolution != null
                         && optimizedSolution.getCost().totalCost() < bestSolution.getCost().totalCost()) {
                     bestSolution = optimizedSolution;
@@ -179,49 +304,46 @@ public class MetaheuristicSolver {
             }
 
             // a. Generate and evaluate the neighborhood of the current solution
-            List<Map<String, List<DeliveryPart>>> neighbors = generateNeighbors(currentAssignment, state,
-                    NUM_NEIGHBORS);
-            Map<String, List<DeliveryPart>> bestCandidate = null;
-            Solution bestCandidateSolution = null;
+            List<Candidate> candidates = evaluateNeighborhood(currentAssignment, currentEvaluation, state, evaluator,
+                    moves, NUM_NEIGHBORS, random, searchPool);
+            Candidate bestCandidate = null;
 
-            // b. Find the best non-tabu neighbor
-            for (Map<String, List<DeliveryPart>> neighbor : neighbors) {
-                Solution neighborSolution = SolutionGenerator.generateSolution(state, neighbor);
+            // b. Find the best non-tabu neighbor (in generation order, so ties are deterministic)
+            for (Candidate candidate : candidates) {
+                double neighborCost = candidate.evaluation().cost().totalCost();
 
                 // Skip invalid solutions
-                if (neighborSolution == null || neighborSolution.getCost().totalCost() == Double.POSITIVE_INFINITY) {
+                if (neighborCost == Double.POSITIVE_INFINITY) {
                     continue;
                 }
 
-                // Generate move ID for tabu checking
-                String moveId = generateMoveId(currentAssignment, neighbor);
-                boolean isTabu = isTabuMove(moveId, tabuList);
+                boolean isTabu = isTabuMove(candidate.moveAttributes(), tabuMemory, iteration);
 
                 // Aspiration criterion: accept tabu move if it's better than the best solution
                 // so far
-                boolean isAspirated = neighborSolution.getCost().totalCost() < bestSolution.getCost().totalCost();
+                boolean isAspirated = neighborCost < bestSolution.getCost().totalCost();
 
                 // Select the best permitted candidate
                 if (!isTabu || isAspirated) {
-                    if (bestCandidate == null ||
-                            (bestCandidateSolution != null
-                                    && neighborSolution.getCost().totalCost() < bestCandidateSolution.getCost()
-                                            .totalCost())) {
-                        bestCandidate = neighbor;
-                        bestCandidateSolution = neighborSolution;
+                    if (bestCandidate == null
+                            || neighborCost < bestCandidate.evaluation().cost().totalCost()) {
+                        bestCandidate = candidate;
                     }
                 }
             }
 
             // c. Make the move if a candidate was found
-            if (bestCandidate != null && bestCandidateSolution != null) {
-                // Move to the new solution
-                currentAssignment = bestCandidate;
-                currentSolution = bestCandidateSolution;
-
-                // Update tabu memory: add the inverse move to the tabu list
-                String moveId = generateMoveId(bestCandidate, currentAssignment);
-                tabuList.add(new TabuMove(moveId, TABU_TENURE));
+            if (bestCandidate != null) {
+                // Move to the new solution: only the accepted neighbor is built as a Solution
+                currentAssignment = bestCandidate.assignment();
+                currentEvaluation = bestCandidate.evaluation();
+                currentSolution = SolutionGenerator.generateSolution(state, currentAssignment.toMap(), distances,
+                        currentSolution, evaluator.routeCosts(currentEvaluation));
+
+                // Update tabu memory: forbid undoing this move for the next iterations
+                for (long attribute : bestCandidate.moveAttributes()) {
+                    tabuMemory.add(MoveAttributes.inverse(attribute), iteration + TABU_TENURE, iteration);
+                }
 
                 // d. Update the best global solution
                 if (currentSolution != null
@@ -230,27 +352,29 @@ public class MetaheuristicSolver {
                 }
             }
 
-            // Update tabu tenures and remove expired entries
-            updateTabuList(tabuList);
+            control.reportProgress(iteration + 1, bestSolution);
         }
 
-        return optimizeSolution(state, bestSolution);
+        return optimizeSolution(state, bestSolution, distances);
     }
 
-    private static Solution optimizeSolution(SimulationState state, Solution currentSolution) {
+    private static Solution optimizeSolution(SimulationState state, Solution currentSolution,
+            DistanceMatrix distances) {
         Solution tempSolution = currentSolution;
         Map<String, List<DeliveryPart>> sortedAssignment = DistributionOperations
                 .sortDeliveries(currentSolution.getVehicleOrderAssignments(), state);
 
-        Solution sortedSolution = SolutionGenerator.generateSolution(state, sortedAssignment);
+        Solution sortedSolution = SolutionGenerator.generateSolution(state, sortedAssignment, distances,
+                currentSolution);
         if (sortedSolution != null
                 && sortedSolution.getCost().totalCost() < tempSolution.getCost().totalCost()) {
             tempSolution = sortedSolution;
         }
         // try greedySort deliveries
         Map<String, List<DeliveryPart>> greedySortedAssignment = DistributionOperations
-                .greedySort(currentSolution.getVehicleOrderAssignments(), state);
-        Solution greedySortedSolution = SolutionGenerator.generateSolution(state, greedySortedAssignment);
+                .greedySort(currentSolution.getVehicleOrderAssignments(), state, distances);
+        Solution greedySortedSolution = SolutionGenerator.generateSolution(state, greedySortedAssignment,
+                distances, currentSolution);
         if (greedySortedSolution != null
                 && greedySortedSolution.getCost().totalCost() < tempSolution.getCost().totalCost()) {
             tempSolution = greedySortedSolution;
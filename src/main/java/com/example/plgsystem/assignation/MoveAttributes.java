@@ -0,0 +1,178 @@
+package com.example.plgsystem.assignation;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Vehicle;
+import com.example.plgsystem.simulation.SimulationState;
+
+/**
+ * Codifica un movimiento entre dos asignaciones como atributos {@code long}
+ * (orden, vehículo origen, vehículo destino) para la memoria tabú.
+ * <p>
+ * Los índices de órdenes y vehículos se fijan una vez por ejecución del solver.
+ * Un atributo indica que parte del GLP de una orden pasó de un vehículo a otro;
+ * si la orden solo gana o solo pierde GLP, el otro extremo es {@link #NONE}.
+ * Solo se recorren los vehículos cuya lista de entregas cambió.
+ */
+final class MoveAttributes {
+    static final int NONE = 0xFFFF;
+
+    private final Map<String, Integer> orderIndex = new HashMap<>();
+    private final String[] vehicleIds;
+    private final int orderCount;
+
+    /**
+     * Índices de la representación compacta de una ejecución del solver
+     */
+    MoveAttributes(CompactAssignment.Index index) {
+        orderCount = index.orderCount();
+        vehicleIds = new String[Math.min(index.vehicleCount(), NONE)];
+        for (int i = 0; i < vehicleIds.length; i++) {
+            vehicleIds[i] = index.vehicleId(i);
+        }
+    }
+
+    MoveAttributes(SimulationState state) {
+        List<Order> orders = state.getOrders();
+        for (int i = 0; i < orders.size(); i++) {
+            orderIndex.put(orders.get(i).getId(), i);
+        }
+        orderCount = orders.size();
+        List<Vehicle> vehicles = state.getVehicles();
+        vehicleIds = new String[Math.min(vehicles.size(), NONE)];
+        for (int i = 0; i < vehicleIds.length; i++) {
+            vehicleIds[i] = vehicles.get(i).getId();
+        }
+    }
+
+    static long encode(int order, int fromVehicle, int toVehicle) {
+        return ((long) order << 32) | ((long) fromVehicle << 16) | toVehicle;
+    }
+
+    /**
+     * Atributo del movimiento que deshace {@code attribute}
+     */
+    static long inverse(long attribute) {
+        int from = (int) (attribute >>> 16) & 0xFFFF;
+        int to = (int) attribute & 0xFFFF;
+        return encode((int) (attribute >>> 32), to, from);
+    }
+
+    /**
+     * Atributos del movimiento que lleva de {@code from} a {@code to}. Devuelve
+     * un arreglo vacío si ninguna entrega cambió.
+     */
+    long[] between(Map<String, List<DeliveryPart>> from, Map<String, List<DeliveryPart>> to) {
+        int[] touched = new int[vehicleIds.length];
+        int touchedCount = 0;
+        for (int v = 0; v < vehicleIds.length; v++) {
+            if (!sameDeliveries(from.get(vehicleIds[v]), to.get(vehicleIds[v]))) {
+                touched[touchedCount++] = v;
+            }
+        }
+        if (touchedCount == 0) {
+            return new long[0];
+        }
+
+        // delta[order * touchedCount + t]: GLP ganado (+) o perdido (-) por el vehículo touched[t]
+        int[] delta = new int[orderCount * touchedCount];
+        for (int t = 0; t < touchedCount; t++) {
+            accumulate(from.get(vehicleIds[touched[t]]), delta, touchedCount, t, -1);
+            accumulate(to.get(vehicleIds[touched[t]]), delta, touchedCount, t, 1);
+        }
+        return attributes(delta, touched, touchedCount);
+    }
+
+    /**
+     * Atributos del movimiento entre dos asignaciones compactas del mismo
+     * índice. Las rutas compartidas se descartan sin recorrerlas.
+     */
+    long[] between(CompactAssignment from, CompactAssignment to) {
+        int[] touched = new int[vehicleIds.length];
+        int touchedCount = 0;
+        for (int v = 0; v < vehicleIds.length; v++) {
+            if (!from.sameRoute(to, v)) {
+                touched[touchedCount++] = v;
+            }
+        }
+        if (touchedCount == 0) {
+            return new long[0];
+        }
+
+        int[] delta = new int[orderCount * touchedCount];
+        for (int t = 0; t < touchedCount; t++) {
+            from.accumulate(touched[t], delta, touchedCount, t, -1);
+            to.accumulate(touched[t], delta, touchedCount, t, 1);
+        }
+        return attributes(delta, touched, touchedCount);
+    }
+
+    private long[] attributes(int[] delta, int[] touched, int touchedCount) {
+        long[] attributes = new long[8];
+        int count = 0;
+        for (int order = 0; order < orderCount; order++) {
+            int base = order * touchedCount;
+            boolean losers = false;
+            boolean gainers = false;
+            for (int t = 0; t < touchedCount; t++) {
+                losers |= delta[base + t] < 0;
+                gainers |= delta[base + t] > 0;
+            }
+            for (int f = 0; f < touchedCount; f++) {
+                if (delta[base + f] < 0) {
+                    if (!gainers) {
+                        attributes = append(attributes, count++, encode(order, touched[f], NONE));
+                        continue;
+                    }
+                    for (int t = 0; t < touchedCount; t++) {
+                        if (delta[base + t] > 0) {
+                            attributes = append(attributes, count++, encode(order, touched[f], touched[t]));
+                        }
+                    }
+                } else if (delta[base + f] > 0 && !losers) {
+                    attributes = append(attributes, count++, encode(order, NONE, touched[f]));
+                }
+            }
+        }
+        return Arrays.copyOf(attributes, count);
+    }
+
+    private static long[] append(long[] attributes, int index, long attribute) {
+        long[] target = index < attributes.length ? attributes : Arrays.copyOf(attributes, attributes.length * 2);
+        target[index] = attribute;
+        return target;
+    }
+
+    private void accumulate(List<DeliveryPart> parts, int[] delta, int stride, int column, int sign) {
+        if (parts == null) {
+            return;
+        }
+        for (DeliveryPart part : parts) {
+            Integer order = orderIndex.get(part.getOrderId());
+            if (order != null) {
+                delta[order * stride + column] += sign * part.getGlpDeliverM3();
+            }
+        }
+    }
+
+    private static boolean sameDeliveries(List<DeliveryPart> a, List<DeliveryPart> b) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null || a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            DeliveryPart x = a.get(i);
+            DeliveryPart y = b.get(i);
+            if (x != y && (x.getGlpDeliverM3() != y.getGlpDeliverM3() || !x.getOrderId().equals(y.getOrderId()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.plgsystem.assignation;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Position;
+
+/**
+ * Índice espacial de órdenes pendientes sobre una grilla de celdas cuadradas.
+ * <p>
+ * Las órdenes se identifican por su posición en la lista con la que se
+ * construye el índice (ordinal). Cada celda guarda los ordinales de las
+ * órdenes que caen en ella en un arreglo plano ({@code cellStart[c]} a
+ * {@code cellStart[c + 1]}), y las consultas recorren las celdas en anillos
+ * alrededor del punto, deteniéndose cuando ninguna celda sin visitar puede
+ * tener una orden más cercana. Las distancias son Manhattan, como
+ * {@link Position#distanceTo}; los empates se resuelven por ordinal.
+ */
+public final class OrderSpatialIndex {
+    /** Lado de una celda en km: unas pocas órdenes por celda en un día típico */
+    public static final double DEFAULT_CELL_SIZE = 5.0;
+
+    private final Order[] orders;
+    private final double[] xs;
+    private final double[] ys;
+    private final double cellSize;
+    private final double minX;
+    private final double minY;
+    private final int columns;
+    private final int rows;
+    private final int[] cellStart;
+    private final int[] cellOrders;
+
+    private OrderSpatialIndex(List<Order> orders, double cellSize) {
+        this.orders = orders.toArray(new Order[0]);
+        this.cellSize = cellSize;
+        xs = new double[this.orders.length];
+        ys = new double[this.orders.length];
+        double minX = 0;
+        double minY = 0;
+        double maxX = 0;
+        double maxY = 0;
+        for (int o = 0; o < this.orders.length; o++) {
+            Position position = this.orders[o].getPosition();
+            xs[o] = position.getX();
+            ys[o] = position.getY();
+            minX = o == 0 ? xs[o] : Math.min(minX, xs[o]);
+            minY = o == 0 ? ys[o] : Math.min(minY, ys[o]);
+            maxX = o == 0 ? xs[o] : Math.max(maxX, xs[o]);
+            maxY = o == 0 ? ys[o] : Math.max(maxY, ys[o]);
+        }
+        this.minX = minX;
+        this.minY = minY;
+        columns = (int) ((maxX - minX) / cellSize) + 1;
+        rows = (int) ((maxY - minY) / cellSize) + 1;
+
+        // Counting sort of the orders by cell
+        cellStart = new int[columns * rows + 1];
+        int[] cells = new int[this.orders.length];
+        for (int o = 0; o < cells.length; o++) {
+            cells[o] = column(xs[o]) * rows + row(ys[o]);
+            cellStart[cells[o] + 1]++;
+        }
+        for (int c = 0; c < columns * rows; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        cellOrders = new int[cells.length];
+        int[] next = Arrays.copyOf(cellStart, columns * rows);
+        for (int o = 0; o < cells.length; o++) {
+            cellOrders[next[cells[o]]++] = o;
+        }
+    }
+
+    public static OrderSpatialIndex build(List<Order> orders) {
+        return build(orders, DEFAULT_CELL_SIZE);
+    }
+
+    public static OrderSpatialIndex build(List<Order> orders, double cellSize) {
+        if (!(cellSize > 0)) {
+            throw new IllegalArgumentException("El tamaño de celda debe ser positivo: " + cellSize);
+        }
+        return new OrderSpatialIndex(orders, cellSize);
+    }
+
+    public int size() {
+        return orders.length;
+    }
+
+    public Order order(int ordinal) {
+        return orders[ordinal];
+    }
+
+    /**
+     * Ordinales de las {@code k} órdenes más cercanas a la posición, de la más
+     * cercana a la más lejana. Devuelve menos si el índice tiene menos órdenes.
+     */
+    public int[] nearest(Position position, int k) {
+        int limit = Math.min(k, orders.length);
+        int[] best = new int[limit];
+        double[] bestDistances = new double[limit];
+        int found = 0;
+        if (limit == 0) {
+            return best;
+        }
+
+        int column = column(position.getX());
+        int row = row(position.getY());
+        int maxRing = Math.max(Math.max(column, columns - 1 - column), Math.max(row, rows - 1 - row));
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int c = column - ring; c <= column + ring; c++) {
+                if (c < 0 || c >= columns) {
+                    continue;
+                }
+                // Only the border of the ring: full columns at the edges, top and bottom cells otherwise
+                int step = c == column - ring || c == column + ring ? 1 : Math.max(1, 2 * ring);
+                for (int r = row - ring; r <= row + ring; r += step) {
+                    if (r < 0 || r >= rows) {
+                        continue;
+                    }
+                    int cell = c * rows + r;
+                    for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                        int ordinal = cellOrders[i];
+                        double distance = distance(position, ordinal);
+                        if (found < limit || closer(distance, ordinal, bestDistances[limit - 1], best[limit - 1])) {
+                            found = insert(best, bestDistances, found, limit, ordinal, distance);
+                        }
+                    }
+                }
+            }
+            // Unvisited cells are more than ring * cellSize away on some axis
+            if (found == limit && bestDistances[limit - 1] <= ring * cellSize) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Ordinales de las órdenes a distancia menor o igual que {@code radius},
+     * de la más cercana a la más lejana
+     */
+    public int[] withinRadius(Position position, double radius) {
+        int fromColumn = column(position.getX() - radius);
+        int toColumn = column(position.getX() + radius);
+        int fromRow = row(position.getY() - radius);
+        int toRow = row(position.getY() + radius);
+
+        int[] found = new int[8];
+        double[] foundDistances = new double[8];
+        int count = 0;
+        for (int c = fromColumn; c <= toColumn; c++) {
+            for (int r = fromRow; r <= toRow; r++) {
+                int cell = c * rows + r;
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    int ordinal = cellOrders[i];
+                    double distance = distance(position, ordinal);
+                    if (distance <= radius) {
+                        if (count == found.length) {
+                            found = Arrays.copyOf(found, count * 2);
+                            foundDistances = Arrays.copyOf(foundDistances, count * 2);
+                        }
+                        count = insert(found, foundDistances, count, count + 1, ordinal, distance);
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    private double distance(Position position, int ordinal) {
+        return Math.abs(position.getX() - xs[ordinal]) + Math.abs(position.getY() - ys[ordinal]);
+    }
+
+    private static boolean closer(double distance, int ordinal, double otherDistance, int other) {
+        return distance < otherDistance || (distance == otherDistance && ordinal < other);
+    }
+
+    /**
+     * Inserta en orden en los primeros {@code size} elementos, descartando el
+     * último si ya hay {@code limit}; devuelve el nuevo tamaño
+     */
+    private static int insert(int[] ordinals, double[] distances, int size, int limit, int ordinal,
+            double distance) {
+        int position = Math.min(size, limit - 1);
+        while (position > 0 && closer(distance, ordinal, distances[position - 1], ordinals[position - 1])) {
+            ordinals[position] = ordinals[position - 1];
+            distances[position] = distances[position - 1];
+            position--;
+        }
+        ordinals[position] = ordinal;
+        distances[position] = distance;
+        return Math.min(size + 1, limit);
+    }
+
+    private int column(double x) {
+        return Math.clamp((long) Math.floor((x - minX) / cellSize), 0, columns - 1);
+    }
+
+    private int row(double y) {
+        return Math.clamp((long) Math.floor((y - minY) / cellSize), 0, rows - 1);
+    }
+}
@@ -4,7 +4,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.Comparator;
 
 import com.example.plgsystem.model.Order;
@@ -13,9 +13,13 @@ import com.example.plgsystem.simulation.SimulationState;
 
 public class RandomDistributor {
     private static final int PACKAGE_SIZE = 5;
-    private static final Random random = new Random();
 
     public static Map<String, List<DeliveryPart>> createInitialRandomAssignments(SimulationState environment) {
+        return createInitialRandomAssignments(environment, new SplittableRandom());
+    }
+
+    public static Map<String, List<DeliveryPart>> createInitialRandomAssignments(SimulationState environment,
+            SplittableRandom random) {
         Map<String, List<DeliveryPart>> assignments = new HashMap<>();
         List<Vehicle> availableVehicles = environment.getVehicles().stream()
                 .filter(Vehicle::isAvailable).toList();
@@ -31,33 +35,34 @@ public class RandomDistributor {
 
         List<DeliveryPart> allPackages = new ArrayList<>();
         for (Order order : pendingOrders) {
-            int remainingGlpToAssign = order.getRemainingGlpM3();
-
-            if (remainingGlpToAssign <= 0) {
-                continue;
-            }
-
-            while (remainingGlpToAssign > 0) {
-                int packageSize = Math.min(remainingGlpToAssign, PACKAGE_SIZE);
-                allPackages.add(new DeliveryPart(order.getId(), packageSize, order.getDeadlineTime()));
-                remainingGlpToAssign -= packageSize;
-            }
+            addPackages(allPackages, order, order.getRemainingGlpM3());
         }
 
         allPackages.sort(Comparator.comparing(DeliveryPart::getDeadlineTime));
         for (DeliveryPart deliveryPart : allPackages) {
-            Vehicle selectedVehicle = selectVehicleByCapacityWeight(availableVehicles);
+            Vehicle selectedVehicle = selectVehicleByCapacityWeight(availableVehicles, random);
             assignments.get(selectedVehicle.getId()).add(deliveryPart);
         }
 
         return assignments;
     }
 
+    /**
+     * Split the given GLP of an order into packages of at most PACKAGE_SIZE
+     */
+    static void addPackages(List<DeliveryPart> packages, Order order, int glpToAssign) {
+        while (glpToAssign > 0) {
+            int packageSize = Math.min(glpToAssign, PACKAGE_SIZE);
+            packages.add(new DeliveryPart(order.getId(), packageSize, order.getDeadlineTime()));
+            glpToAssign -= packageSize;
+        }
+    }
+
     /**
      * Select a vehicle with bias towards those with larger capacity. Vehicles with
      * more GLP capacity have a higher probability of being selected
      */
-    private static Vehicle selectVehicleByCapacityWeight(List<Vehicle> vehicles) {
+    private static Vehicle selectVehicleByCapacityWeight(List<Vehicle> vehicles, SplittableRandom random) {
         if (vehicles.isEmpty()) {
             throw new IllegalArgumentException("No vehicles available for selection");
         }
@@ -12,6 +12,8 @@ import lombok.Getter;
 @Getter
 public class Solution {
     private final Map<String, Route> routes;
+    // Costo de cada ruta por vehículo, reutilizable por soluciones vecinas
+    private final Map<String, SolutionCost> routeCosts = new HashMap<>();
     private final SolutionCost cost;
 
     public Solution(Map<String, Route> routes, SimulationState state) {
@@ -19,6 +21,21 @@ public class Solution {
         this.cost = SolutionEvaluator.evaluate(this, state);
     }
 
+    public Solution(Map<String, Route> routes, SimulationState state, DistanceMatrix distances) {
+        this(routes, state, distances, Map.of());
+    }
+
+    /**
+     * @param knownRouteCosts Costos ya calculados para rutas que se reutilizan
+     *                        sin cambios de otra solución
+     */
+    public Solution(Map<String, Route> routes, SimulationState state, DistanceMatrix distances,
+            Map<String, SolutionCost> knownRouteCosts) {
+        this.routes = routes;
+        this.routeCosts.putAll(knownRouteCosts);
+        this.cost = SolutionEvaluator.evaluate(this, state, distances);
+    }
+
     public Map<String, List<DeliveryPart>> getVehicleOrderAssignments() {
         Map<String, List<DeliveryPart>> assignments = new HashMap<>();
 
@@ -6,14 +6,12 @@ import com.example.plgsystem.operation.Action;
 import com.example.plgsystem.operation.ActionType;
 import com.example.plgsystem.simulation.SimulationState;
 
-import java.time.Duration;
-import java.time.LocalDateTime;
 import java.util.*;
 
 public class SolutionEvaluator {
     // Cost factors
     private static final double COST_PER_MINUTE = 10.0;
-    private static final double INCOMPLETE_ORDER_PENALTY = 10000.0;
+    static final double INCOMPLETE_ORDER_PENALTY = 10000.0;
     private static final double LATE_DELIVERY_PENALTY = 10000.0;
     private static final double COST_PER_KM = 0.000001;
 
@@ -21,24 +19,26 @@ public class SolutionEvaluator {
     private static final double SECURITY_FACTOR = 1.25; // 50% safety margin for distance
 
     public static SolutionCost evaluate(Solution solution, SimulationState state) {
+        return evaluate(solution, state, DistanceMatrix.direct(state));
+    }
+
+    /**
+     * Evalúa la solución reutilizando los costos por ruta que ya estén en
+     * {@link Solution#getRouteCosts()} (rutas heredadas sin cambios de la
+     * solución base) y registrando allí los que se calculen. Solo los agregados
+     * compartidos entre rutas (GLP pendiente por orden) se recalculan siempre.
+     */
+    public static SolutionCost evaluate(Solution solution, SimulationState state, DistanceMatrix distances) {
         Map<String, Route> routes = solution.getRoutes();
+        Map<String, SolutionCost> routeCosts = solution.getRouteCosts();
         double timeCost = 0;
         double distanceCost = 0;
         double lateDeliveryCost = 0;
         double incompleteOrderCost = 0;
 
-        // Track which orders have been served and how much
-        Map<String, Integer> ordersRemainingGlp = new HashMap<>();
-        Map<String, Integer> depotsGlpState = new HashMap<>();
-
-        // Initialize order state from simulation state
-        for (Order order : state.getOrders()) {
-            ordersRemainingGlp.put(order.getId(), order.getRemainingGlpM3());
-        }
-        for (Depot depot : state.getAuxDepots()) {
-            depotsGlpState.put(depot.getId(), depot.getGlpCapacityM3());
-        }
-        depotsGlpState.put(state.getMainDepot().getId(), state.getMainDepot().getGlpCapacityM3());
+        // Track which orders have been served and how much, initialized from simulation state
+        EvaluationContext context = distances.context(state);
+        int[] ordersRemainingGlp = context.remainingGlp();
 
         for (Map.Entry<String, Route> entry : routes.entrySet()) {
             String vehicleId = entry.getKey();
@@ -49,11 +49,25 @@ public class SolutionEvaluator {
                 return new SolutionCost(0.0, 0.0, 0.0, 0.0, Double.POSITIVE_INFINITY);
             }
 
-            SolutionCost routeCost = evaluateRoute(route, vehicle, state, ordersRemainingGlp, depotsGlpState);
+            SolutionCost routeCost = routeCosts.get(vehicleId);
+            if (routeCost == null) {
+                routeCost = evaluateRoute(route, vehicle, distances, context);
+                routeCosts.put(vehicleId, routeCost);
+            }
             if (routeCost.invalidCost() > 0) {
                 return new SolutionCost(0.0, 0.0, 0.0, 0.0, Double.POSITIVE_INFINITY);
             }
 
+            // Update order state
+            for (RouteStop stop : route.stops()) {
+                if (stop.isOrderStop()) {
+                    int order = context.orderOrdinal(stop.getOrderId());
+                    if (order >= 0) {
+                        ordersRemainingGlp[order] = Math.max(0, ordersRemainingGlp[order] - stop.getGlpDeliverM3());
+                    }
+                }
+            }
+
             // Track the latest delivery time
             timeCost = Math.max(timeCost, routeCost.timeCost());
             lateDeliveryCost += routeCost.lateDeliveryCost();
@@ -61,8 +75,7 @@ public class SolutionEvaluator {
         }
 
         // Check for incomplete orders
-        for (Map.Entry<String, Integer> entry : ordersRemainingGlp.entrySet()) {
-            int remainingGlp = entry.getValue();
+        for (int remainingGlp : ordersRemainingGlp) {
             if (remainingGlp > 0) {
                 incompleteOrderCost += INCOMPLETE_ORDER_PENALTY; // Apply penalty for incomplete orders
             }
@@ -71,32 +84,86 @@ public class SolutionEvaluator {
         return new SolutionCost(timeCost, distanceCost, lateDeliveryCost, incompleteOrderCost, 0.0);
     }
 
-    private static SolutionCost evaluateRoute(Route route, Vehicle vehicle, SimulationState state,
-            Map<String, Integer> ordersRemainingGlp, Map<String, Integer> depotsGlpState) {
-        String mainDepotId = state.getMainDepot().getId();
-        double totalDistance = 0;
-        int totalLateDeliveries = 0;
-
-        // Consider the vehicle's current action when determining start time
-        LocalDateTime startTime = state.getCurrentTime();
-        if (vehicle.isPerformingAction() && vehicle.getCurrentAction().getType() != ActionType.DRIVE) {
-            Action currentAction = vehicle.getCurrentAction();
-            if (currentAction != null && currentAction.getEndTime().isAfter(startTime)) {
-                // Route can only start after the current action finishes
-                startTime = currentAction.getEndTime();
+    /**
+     * Costo de una ruta aislada. No depende de las demás rutas de la solución,
+     * por lo que puede reutilizarse mientras la ruta no cambie. Los tiempos se
+     * llevan como nanosegundos desde el tiempo actual del estado.
+     */
+    private static SolutionCost evaluateRoute(Route route, Vehicle vehicle, DistanceMatrix distances,
+            EvaluationContext context) {
+        RouteCostAccumulator accumulator = new RouteCostAccumulator(vehicle, distances, context);
+        for (RouteStop stop : route.stops()) {
+            int point = distances.stopIndex(stop);
+            if (stop.isOrderStop()) {
+                accumulator.visitOrder(stop.getPosition(), point, context.orderOrdinal(stop.getOrderId()),
+                        stop.getGlpDeliverM3());
+            } else if (stop.isMaintenanceStop()) {
+                accumulator.visitMaintenance(stop.getPosition(), point);
+            } else {
+                accumulator.visitDepot(stop.getPosition(), point, context.depotOrdinal(stop.getDepotId()),
+                        stop.getGlpLoadM3());
+            }
+            if (accumulator.isInvalid()) {
+                break;
             }
         }
+        return accumulator.finish();
+    }
 
-        LocalDateTime lastDeliveryTime = startTime;
-        LocalDateTime currentTime = startTime;
+    /**
+     * Acumula el costo de una ruta parada por parada. Lo usa
+     * {@link #evaluateRoute} sobre una {@link Route} ya construida y también
+     * {@link SolutionGenerator#buildStops} directamente, para costear rutas
+     * compactas sin crear sus paradas.
+     */
+    static final class RouteCostAccumulator implements SolutionGenerator.StopSink {
+        private final Vehicle vehicle;
+        private final DistanceMatrix distances;
+        private final EvaluationContext context;
+        private final int mainDepot;
 
-        Position currentPosition = vehicle.getCurrentPosition();
-        int currentGlp = vehicle.getCurrentGlpM3();
-        double currentFuel = vehicle.getCurrentFuelGal();
+        private double totalDistance = 0;
+        private int totalLateDeliveries = 0;
+        private long lastDeliveryTime;
+        private long currentTime;
+        private Position currentPosition;
+        private int currentIndex;
+        private int currentGlp;
+        private double currentFuel;
+        private boolean invalid = false;
 
-        for (RouteStop stop : route.stops()) {
-            Position nextPosition = stop.getPosition();
-            double distanceKm = currentPosition.distanceTo(nextPosition) * SECURITY_FACTOR;
+        RouteCostAccumulator(Vehicle vehicle, DistanceMatrix distances, EvaluationContext context) {
+            this.vehicle = vehicle;
+            this.distances = distances;
+            this.context = context;
+            this.mainDepot = context.mainDepot();
+
+            // Consider the vehicle's current action when determining start time
+            long startTime = 0;
+            if (vehicle.isPerformingAction() && vehicle.getCurrentAction().getType() != ActionType.DRIVE) {
+                Action currentAction = vehicle.getCurrentAction();
+                long actionEnd = currentAction != null ? context.offset(currentAction.getEndTime()) : 0;
+                if (actionEnd > startTime) {
+                    // Route can only start after the current action finishes
+                    startTime = actionEnd;
+                }
+            }
+
+            lastDeliveryTime = startTime;
+            currentTime = startTime;
+            currentPosition = vehicle.getCurrentPosition();
+            currentIndex = distances.indexOf(currentPosition);
+            currentGlp = vehicle.getCurrentGlpM3();
+            currentFuel = vehicle.getCurrentFuelGal();
+        }
+
+        boolean isInvalid() {
+            return invalid;
+        }
+
+        private void travelTo(Position nextPosition, int nextIndex) {
+            double distanceKm = distances.distance(currentIndex, currentPosition, nextIndex, nextPosition)
+                    * SECURITY_FACTOR;
             double timeSeconds = (distanceKm / Constants.VEHICLE_AVG_SPEED) * 3600;
             double fuelNeeded = calculateFuelNeeded(distanceKm, currentGlp, vehicle.getType());
 
@@ -106,75 +173,113 @@ public class SolutionEvaluator {
 
             // Update costs
             totalDistance += distanceKm;
-            currentTime = currentTime.plusSeconds((long) timeSeconds);
+            currentTime += (long) timeSeconds * EvaluationContext.NANOS_PER_SECOND;
             currentFuel -= fuelNeeded;
             currentPosition = nextPosition;
+            currentIndex = nextIndex;
+        }
 
-            // Handle stop logic
-            if (stop.isOrderStop()) {
-                String orderId = stop.getOrderId();
-                Order order = state.getOrderById(orderId);
-                if (order == null) {
-                    return new SolutionCost(0.0, 0.0, 0.0, 0.0, Double.POSITIVE_INFINITY);
-                }
-                int remainingGlp = ordersRemainingGlp.getOrDefault(orderId, 0);
-                int glpToDeliver = stop.getGlpDeliverM3();
+        /**
+         * @param order Ordinal de la orden en el contexto, o -1 si no está
+         */
+        void visitOrder(Position position, int point, int order, int glpToDeliver) {
+            if (invalid) {
+                return;
+            }
+            travelTo(position, point);
+            if (order < 0) {
+                invalid = true;
+                return;
+            }
 
-                // Update order state
-                ordersRemainingGlp.put(orderId, Math.max(0, remainingGlp - glpToDeliver));
-                // Update vehicle GLP
-                currentGlp -= glpToDeliver;
+            // Update vehicle GLP
+            currentGlp -= glpToDeliver;
 
-                // Update costs for late deliveries
-                if (currentTime.isAfter(order.getDeadlineTime())) {
-                    totalLateDeliveries += 1;
-                }
+            // Update costs for late deliveries
+            if (currentTime > context.deadline(order)) {
+                totalLateDeliveries += 1;
+            }
 
-                // Update service time
-                currentTime = currentTime.plusMinutes(Constants.GLP_SERVE_DURATION_MINUTES);
+            // Update service time
+            currentTime += Constants.GLP_SERVE_DURATION_MINUTES * EvaluationContext.NANOS_PER_MINUTE;
 
-                // Update last delivery time (only for actual deliveries)
-                if (glpToDeliver > 0) {
-                    lastDeliveryTime = currentTime;
-                }
-            } else if (stop.isMaintenanceStop()) {
-                currentTime = currentTime.plusHours(Constants.MAINTENANCE_DURATION_HOURS);
-                currentFuel = vehicle.getFuelCapacityGal();
-                currentGlp = vehicle.getGlpCapacityM3();
+            // Update last delivery time (only for actual deliveries)
+            if (glpToDeliver > 0) {
+                lastDeliveryTime = currentTime;
+            }
+            checkGlp();
+        }
+
+        void visitMaintenance(Position position, int point) {
+            if (invalid) {
+                return;
+            }
+            travelTo(position, point);
+            currentTime += Constants.MAINTENANCE_DURATION_HOURS * EvaluationContext.NANOS_PER_HOUR;
+            currentFuel = vehicle.getFuelCapacityGal();
+            currentGlp = vehicle.getGlpCapacityM3();
+            checkGlp();
+        }
+
+        /**
+         * @param depot Ordinal del depósito en el contexto, o -1 si no está
+         */
+        void visitDepot(Position position, int point, int depot, int glpLoad) {
+            if (invalid) {
+                return;
+            }
+            travelTo(position, point);
+            if (depot < 0) {
+                invalid = true;
+                return;
+            }
+            // Update vehicle GLP
+            currentGlp += glpLoad;
+            currentFuel = vehicle.getFuelCapacityGal();
+            if (depot == mainDepot) {
+                currentTime += Constants.RELOAD_REFUEL_DURATION_MINUTES_MAIN_DEPOT
+                        * EvaluationContext.NANOS_PER_MINUTE;
             } else {
-                String depotId = stop.getDepotId();
-                Depot depot = state.getDepotById(depotId);
-                if (depot == null) {
-                    return new SolutionCost(0.0, 0.0, 0.0, 0.0, Double.POSITIVE_INFINITY);
-                }
-                // Check if depot has enough GLP
-                int depotGlpAvailable = depotsGlpState.getOrDefault(depotId, 0);
-                // Update depot GLP state
-                depotsGlpState.put(depotId, Math.max(0, depotGlpAvailable - currentGlp));
-                // Update vehicle GLP
-                currentGlp += stop.getGlpLoadM3();
-                currentFuel = vehicle.getFuelCapacityGal();
-                if (depotId.equals(mainDepotId)) {
-                    currentTime = currentTime.plusMinutes(Constants.RELOAD_REFUEL_DURATION_MINUTES_MAIN_DEPOT);
-                } else {
-                    currentTime = currentTime.plusMinutes(Constants.RELOAD_REFUEL_DURATION_MINUTES);
-                }
+                currentTime += Constants.RELOAD_REFUEL_DURATION_MINUTES * EvaluationContext.NANOS_PER_MINUTE;
             }
+            checkGlp();
+        }
 
+        private void checkGlp() {
             if (currentGlp > vehicle.getGlpCapacityM3() || currentGlp < 0) {
+                invalid = true;
+            }
+        }
+
+        SolutionCost finish() {
+            if (invalid) {
                 return new SolutionCost(0.0, 0.0, 0.0, 0.0, Double.POSITIVE_INFINITY);
             }
+            // Calculate time cost: time to complete last delivery (from start of solution)
+            long timeCostMinutes = EvaluationContext.wholeMinutes(lastDeliveryTime);
+
+            return new SolutionCost(
+                    timeCostMinutes * COST_PER_MINUTE,
+                    totalDistance * COST_PER_KM,
+                    totalLateDeliveries * LATE_DELIVERY_PENALTY,
+                    0,
+                    0);
+        }
+
+        @Override
+        public void order(Order order, int point, int glp) {
+            visitOrder(order.getPosition(), point, context.orderOrdinal(order.getId()), glp);
         }
 
-        // Calculate time cost: time to complete last delivery (from start of solution)
-        long timeCostMinutes = Duration.between(state.getCurrentTime(), lastDeliveryTime).toMinutes();
+        @Override
+        public void depot(int depot, int glpLoad) {
+            visitDepot(context.depotPosition(depot), context.depotPoint(depot), depot, glpLoad);
+        }
 
-        return new SolutionCost(
-                timeCostMinutes * COST_PER_MINUTE,
-                totalDistance * COST_PER_KM,
-                totalLateDeliveries * LATE_DELIVERY_PENALTY,
-                0,
-                0);
+        @Override
+        public void maintenance(int depot, long offset) {
+            visitMaintenance(context.depotPosition(depot), context.depotPoint(depot));
+        }
     }
 
     private static double calculateFuelNeeded(double distanceKm, int glpVolumeM3, VehicleType vehicleType) {
@@ -9,7 +9,6 @@ import java.util.Comparator;
 
 import com.example.plgsystem.enums.VehicleType;
 import com.example.plgsystem.model.Constants;
-import com.example.plgsystem.model.Depot;
 import com.example.plgsystem.model.Order;
 import com.example.plgsystem.model.Position;
 import com.example.plgsystem.model.Vehicle;
@@ -20,14 +19,43 @@ public class SolutionGenerator {
     private static final double FUEL_THRESHOLD = 0.4; // If fuel is below this ratio, consider visiting a depot
 
     public static Solution generateSolution(SimulationState state, Map<String, List<DeliveryPart>> assignments) {
-        Map<String, Integer> depotsGlpState = new HashMap<>();
+        return generateSolution(state, assignments, DistanceMatrix.direct(state));
+    }
+
+    /**
+     * Genera la solución consultando las distancias en la matriz precalculada
+     * para esta ejecución del solver
+     */
+    public static Solution generateSolution(SimulationState state, Map<String, List<DeliveryPart>> assignments,
+            DistanceMatrix distances) {
+        return generateSolution(state, assignments, distances, null);
+    }
+
+    /**
+     * Genera la solución reutilizando de {@code base} la ruta y su costo para
+     * cada vehículo cuyas entregas no cambiaron. Una ruta depende solo del
+     * vehículo, de sus entregas y del estado, así que {@code base} debe venir de
+     * la misma ejecución del solver (mismo estado y misma matriz).
+     */
+    public static Solution generateSolution(SimulationState state, Map<String, List<DeliveryPart>> assignments,
+            DistanceMatrix distances, Solution base) {
+        return generateSolution(state, assignments, distances, base, Map.of());
+    }
+
+    /**
+     * Igual que {@link #generateSolution(SimulationState, Map, DistanceMatrix, Solution)}
+     * pero sin volver a evaluar las rutas cuyo costo ya se conoce (por ejemplo,
+     * porque se evaluó en forma compacta)
+     */
+    static Solution generateSolution(SimulationState state, Map<String, List<DeliveryPart>> assignments,
+            DistanceMatrix distances, Solution base, Map<String, SolutionCost> knownRouteCosts) {
         Map<String, Route> routes = new HashMap<>();
+        Map<String, SolutionCost> reusedCosts = new HashMap<>(knownRouteCosts);
 
-        // Initialize depot GLP states
-        for (Depot depot : state.getAuxDepots()) {
-            depotsGlpState.put(depot.getId(), depot.getCurrentGlpM3());
-        }
-        depotsGlpState.put(state.getMainDepot().getId(), state.getMainDepot().getGlpCapacityM3());
+        // Depot GLP states: auxiliary depots with their stock, main depot at full capacity
+        EvaluationContext context = distances.context(state);
+        int[] depotStock = context.initialDepotStock();
+        int[] depotOrder = context.depotOrder();
 
         LocalDateTime startTime = state.getCurrentTime();
         for (Map.Entry<String, List<DeliveryPart>> entry : assignments.entrySet()) {
@@ -39,114 +67,261 @@ public class SolutionGenerator {
                 continue;
             }
 
-            // Sort deliveries by deadline for more efficient routes
-            deliveryParts.sort(Comparator.comparing(DeliveryPart::getDeadlineTime));
+            // Sort deliveries by deadline for more efficient routes (compact assignments are already sorted)
+            if (!isSortedByDeadline(deliveryParts)) {
+                deliveryParts.sort(Comparator.comparing(DeliveryPart::getDeadlineTime));
+            }
+
+            Route baseRoute = base != null ? base.getRoutes().get(vehicleId) : null;
+            if (baseRoute != null && hasSameDeliveries(baseRoute, deliveryParts)) {
+                routes.put(vehicleId, baseRoute);
+                SolutionCost baseCost = base.getRouteCosts().get(vehicleId);
+                if (baseCost != null) {
+                    reusedCosts.put(vehicleId, baseCost);
+                }
+                continue;
+            }
 
-            Route route = buildRoute(vehicle, state, startTime, deliveryParts, depotsGlpState);
+            Route route = buildRoute(vehicle, state, startTime, deliveryParts, depotStock, depotOrder, distances,
+                    context);
             routes.put(vehicleId, route);
         }
 
-        return new Solution(routes, state);
+        return new Solution(routes, state, distances, reusedCosts);
+    }
+
+    private static boolean isSortedByDeadline(List<DeliveryPart> deliveryParts) {
+        for (int i = 1; i < deliveryParts.size(); i++) {
+            if (deliveryParts.get(i - 1).getDeadlineTime().isAfter(deliveryParts.get(i).getDeadlineTime())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indica si las paradas de entrega de la ruta corresponden, en el mismo
+     * orden, a las partes de entrega dadas (buildRoute genera una parada por
+     * parte).
+     */
+    private static boolean hasSameDeliveries(Route route, List<DeliveryPart> deliveryParts) {
+        int index = 0;
+        for (RouteStop stop : route.stops()) {
+            if (!stop.isOrderStop()) {
+                continue;
+            }
+            if (index >= deliveryParts.size()) {
+                return false;
+            }
+            DeliveryPart part = deliveryParts.get(index++);
+            if (part.getGlpDeliverM3() != stop.getGlpDeliverM3()
+                    || !part.getOrderId().equals(stop.getOrderId())) {
+                return false;
+            }
+        }
+        return index == deliveryParts.size();
     }
 
     public static Route buildRoute(Vehicle vehicle, SimulationState state, LocalDateTime startTime,
             List<DeliveryPart> deliveryParts, Map<String, Integer> depotsGlpState) {
-        String mainDepotId = state.getMainDepot().getId();
+        return buildRoute(vehicle, state, startTime, deliveryParts, depotsGlpState, DistanceMatrix.direct(state));
+    }
+
+    public static Route buildRoute(Vehicle vehicle, SimulationState state, LocalDateTime startTime,
+            List<DeliveryPart> deliveryParts, Map<String, Integer> depotsGlpState, DistanceMatrix distances) {
+        EvaluationContext context = distances.context(state);
+        return buildRoute(vehicle, state, startTime, deliveryParts, context.depotStock(depotsGlpState),
+                context.depotOrder(depotsGlpState), distances, context);
+    }
 
+    /**
+     * Construye la ruta con el tiempo como nanosegundos desde el tiempo actual
+     * del estado y los depósitos por ordinal. {@code depotOrder} es el orden en
+     * que se consideran los depósitos (decide los empates de distancia).
+     */
+    private static Route buildRoute(Vehicle vehicle, SimulationState state, LocalDateTime startTime,
+            List<DeliveryPart> deliveryParts, int[] depotStock, int[] depotOrder, DistanceMatrix distances,
+            EvaluationContext context) {
         List<RouteStop> stops = new ArrayList<>();
+        DeliverySequence deliveries = new DeliverySequence() {
+            @Override
+            public int size() {
+                return deliveryParts.size();
+            }
+
+            @Override
+            public Order order(int i) {
+                return distances.getOrder(deliveryParts.get(i).getOrderId());
+            }
+
+            @Override
+            public int glp(int i) {
+                return deliveryParts.get(i).getGlpDeliverM3();
+            }
+        };
+        buildStops(vehicle, state, startTime, deliveries, depotStock, depotOrder, distances, context,
+                new RouteStops(stops, context));
+        return new Route(vehicle.getId(), stops, startTime);
+    }
+
+    /**
+     * Entregas de una ruta en el orden en que se atienden
+     */
+    interface DeliverySequence {
+        int size();
+
+        Order order(int i);
+
+        int glp(int i);
+    }
+
+    /**
+     * Recibe las paradas a medida que {@link #buildStops} las genera. El punto
+     * de una orden es su índice en la matriz (o -1).
+     */
+    interface StopSink {
+        void order(Order order, int point, int glp);
+
+        void depot(int depot, int glpLoad);
+
+        void maintenance(int depot, long offset);
+    }
+
+    /**
+     * Crea las {@link RouteStop} de una {@link Route}
+     */
+    private record RouteStops(List<RouteStop> stops, EvaluationContext context) implements StopSink {
+        @Override
+        public void order(Order order, int point, int glp) {
+            stops.add(new RouteStop(order.getPosition(), order.getId(), order.getDeadlineTime(), glp));
+        }
+
+        @Override
+        public void depot(int depot, int glpLoad) {
+            stops.add(new RouteStop(context.depotPosition(depot), context.depot(depot).getId(), glpLoad));
+        }
+
+        @Override
+        public void maintenance(int depot, long offset) {
+            stops.add(new RouteStop(context.depotPosition(depot), context.depot(depot).getId(),
+                    context.time(offset)));
+        }
+    }
+
+    /**
+     * Genera las paradas de la ruta de un vehículo y las entrega a
+     * {@code sink}: la misma secuencia para construir una {@link Route} que
+     * para costearla sin crearla.
+     */
+    static void buildStops(Vehicle vehicle, SimulationState state, LocalDateTime startTime,
+            DeliverySequence deliveries, int[] depotStock, int[] depotOrder, DistanceMatrix distances,
+            EvaluationContext context, StopSink sink) {
+        int mainDepot = context.mainDepot();
+
         Position currentPosition = vehicle.getCurrentPosition();
+        int currentIndex = distances.indexOf(currentPosition);
         int currentGlp = vehicle.getCurrentGlpM3();
         double currentFuel = vehicle.getCurrentFuelGal();
         double maxFuel = vehicle.getFuelCapacityGal();
 
-        LocalDateTime currentTime = vehicle.getCurrentActionEndTime() != null ? vehicle.getCurrentActionEndTime()
-                : startTime;
+        long currentTime = context.offset(vehicle.getCurrentActionEndTime() != null
+                ? vehicle.getCurrentActionEndTime()
+                : startTime);
         String vehicleId = vehicle.getId();
-        LocalDateTime scheduledMaintenance = state.getMaintenanceSchedule().get(vehicleId);
-
-        for (int i = 0; i < deliveryParts.size(); i++) {
-            if (scheduledMaintenance != null && !scheduledMaintenance.isAfter(currentTime)) {
-                Depot mainDepot = state.getMainDepot();
-                if (!currentPosition.equals(mainDepot.getPosition())) {
-                    double distanceToDepot = currentPosition.distanceTo(mainDepot.getPosition());
-                    long travelTimeMinutes = Math.round((distanceToDepot / Constants.VEHICLE_AVG_SPEED) * 60);
-                    currentTime = currentTime.plusMinutes(travelTimeMinutes);
-
-                    currentPosition = mainDepot.getPosition();
+        LocalDateTime maintenanceTime = state.getMaintenanceSchedule().get(vehicleId);
+        boolean maintenancePending = maintenanceTime != null;
+        long scheduledMaintenance = maintenancePending ? context.offset(maintenanceTime) : 0;
+
+        for (int i = 0; i < deliveries.size(); i++) {
+            if (maintenancePending && scheduledMaintenance <= currentTime) {
+                Position depotPosition = context.depotPosition(mainDepot);
+                if (!currentPosition.equals(depotPosition)) {
+                    int depotIndex = context.depotPoint(mainDepot);
+                    double distanceToDepot = distances.distance(currentIndex, currentPosition, depotIndex,
+                            depotPosition);
+                    currentTime += travelTimeMinutes(distanceToDepot) * EvaluationContext.NANOS_PER_MINUTE;
+
+                    currentPosition = depotPosition;
+                    currentIndex = depotIndex;
                 }
 
-                stops.add(new RouteStop(currentPosition, mainDepot.getId(), currentTime));
-                currentTime = currentTime.plusHours(Constants.MAINTENANCE_DURATION_HOURS);
+                sink.maintenance(mainDepot, currentTime);
+                currentTime += Constants.MAINTENANCE_DURATION_HOURS * EvaluationContext.NANOS_PER_HOUR;
 
                 currentFuel = maxFuel;
                 currentGlp = vehicle.getGlpCapacityM3();
 
-                scheduledMaintenance = null;
+                maintenancePending = false;
             }
 
             if (currentFuel < FUEL_THRESHOLD * maxFuel) {
-                Depot nearestDepot = findNearestDepot(currentPosition, 0, state, depotsGlpState);
-
-                double distanceToDepot = currentPosition.distanceTo(nearestDepot.getPosition());
-                long travelTimeMinutes = Math.round((distanceToDepot / Constants.VEHICLE_AVG_SPEED) * 60);
-                if (nearestDepot.getId().equals(mainDepotId)) {
-                    currentTime = currentTime
-                            .plusMinutes(travelTimeMinutes + Constants.RELOAD_REFUEL_DURATION_MINUTES_MAIN_DEPOT);
-                } else {
-                    currentTime = currentTime.plusMinutes(travelTimeMinutes + Constants.RELOAD_REFUEL_DURATION_MINUTES);
-                }
+                int nearestDepot = findNearestDepot(currentPosition, currentIndex, 0, context, depotStock,
+                        depotOrder, distances);
+                int depotIndex = context.depotPoint(nearestDepot);
+
+                double distanceToDepot = distances.distance(currentIndex, currentPosition, depotIndex,
+                        context.depotPosition(nearestDepot));
+                currentTime += (travelTimeMinutes(distanceToDepot) + reloadMinutes(nearestDepot, mainDepot))
+                        * EvaluationContext.NANOS_PER_MINUTE;
 
                 currentFuel = maxFuel;
-                currentPosition = nearestDepot.getPosition();
-                stops.add(new RouteStop(currentPosition, nearestDepot.getId(), 0));
+                currentPosition = context.depotPosition(nearestDepot);
+                currentIndex = depotIndex;
+                sink.depot(nearestDepot, 0);
             }
 
-            DeliveryPart deliveryPart = deliveryParts.get(i);
-            if (currentGlp < deliveryPart.getGlpDeliverM3()) {
+            int glpToDeliver = deliveries.glp(i);
+            if (currentGlp < glpToDeliver) {
                 int glpToLoad = vehicle.getGlpCapacityM3() - currentGlp;
-                Depot nearestDepot = findNearestDepot(currentPosition, glpToLoad, state, depotsGlpState);
+                int nearestDepot = findNearestDepot(currentPosition, currentIndex, glpToLoad, context, depotStock,
+                        depotOrder, distances);
+                int depotIndex = context.depotPoint(nearestDepot);
 
                 // Calculate travel time to depot
-                double distanceToDepot = currentPosition.distanceTo(nearestDepot.getPosition());
-                long travelTimeMinutes = Math.round((distanceToDepot / Constants.VEHICLE_AVG_SPEED) * 60);
-                if (nearestDepot.getId().equals(mainDepotId)) {
-                    currentTime = currentTime
-                            .plusMinutes(travelTimeMinutes + Constants.RELOAD_REFUEL_DURATION_MINUTES_MAIN_DEPOT);
-                } else {
-                    currentTime = currentTime.plusMinutes(travelTimeMinutes + Constants.RELOAD_REFUEL_DURATION_MINUTES);
-                }
+                double distanceToDepot = distances.distance(currentIndex, currentPosition, depotIndex,
+                        context.depotPosition(nearestDepot));
+                currentTime += (travelTimeMinutes(distanceToDepot) + reloadMinutes(nearestDepot, mainDepot))
+                        * EvaluationContext.NANOS_PER_MINUTE;
                 // Update vehicle state
                 currentFuel = maxFuel;
                 currentGlp = vehicle.getGlpCapacityM3();
-                currentPosition = nearestDepot.getPosition();
-                stops.add(new RouteStop(currentPosition, nearestDepot.getId(), glpToLoad));
+                currentPosition = context.depotPosition(nearestDepot);
+                currentIndex = depotIndex;
+                sink.depot(nearestDepot, glpToLoad);
             }
 
-            Order order = state.getOrderById(deliveryPart.getOrderId());
-            double distanceToOrder = currentPosition.distanceTo(order.getPosition());
+            Order order = deliveries.order(i);
+            int orderIndex = distances.orderIndex(order.getId());
+            double distanceToOrder = distances.distance(currentIndex, currentPosition, orderIndex,
+                    order.getPosition());
             double fuelNeededToOrder = calculateFuelNeeded(distanceToOrder, currentGlp, vehicle.getType());
 
-            long travelTimeMinutes = Math.round((distanceToOrder / Constants.VEHICLE_AVG_SPEED) * 60);
-            currentTime = currentTime.plusMinutes(travelTimeMinutes);
+            currentTime += travelTimeMinutes(distanceToOrder) * EvaluationContext.NANOS_PER_MINUTE;
 
             currentFuel -= fuelNeededToOrder;
-            currentGlp -= deliveryPart.getGlpDeliverM3();
+            currentGlp -= glpToDeliver;
             currentPosition = order.getPosition();
-            stops.add(new RouteStop(currentPosition, order.getId(), order.getDeadlineTime(),
-                    deliveryPart.getGlpDeliverM3()));
-            currentTime = currentTime.plusMinutes(Constants.GLP_SERVE_DURATION_MINUTES);
+            currentIndex = orderIndex;
+            sink.order(order, orderIndex, glpToDeliver);
+            currentTime += Constants.GLP_SERVE_DURATION_MINUTES * EvaluationContext.NANOS_PER_MINUTE;
         }
 
-        Depot returnDepot = findNearestDepot(currentPosition, 0, state, depotsGlpState);
+        int returnDepot = findNearestDepot(currentPosition, currentIndex, 0, context, depotStock, depotOrder,
+                distances);
         int finalGlpToLoad = 0;
-        if (returnDepot.getId() == state.getMainDepot().getId()) {
-            returnDepot = state.getMainDepot();
+        if (returnDepot == mainDepot) {
             finalGlpToLoad = vehicle.getGlpCapacityM3() - currentGlp;
         }
-        RouteStop returnStop = new RouteStop(returnDepot.getPosition(), returnDepot.getId(), finalGlpToLoad);
-        stops.add(returnStop);
+        sink.depot(returnDepot, finalGlpToLoad);
+    }
 
-        return new Route(vehicle.getId(), stops, startTime);
+    private static long travelTimeMinutes(double distance) {
+        return Math.round((distance / Constants.VEHICLE_AVG_SPEED) * 60);
+    }
+
+    private static long reloadMinutes(int depot, int mainDepot) {
+        return depot == mainDepot ? Constants.RELOAD_REFUEL_DURATION_MINUTES_MAIN_DEPOT
+                : Constants.RELOAD_REFUEL_DURATION_MINUTES;
     }
 
     private static double calculateFuelNeeded(double distance, int currentGlp, VehicleType vehicleType) {
@@ -154,59 +329,64 @@ public class SolutionGenerator {
         return distance * totalWeight / Constants.CONSUMPTION_FACTOR * SAFETY_FACTOR;
     }
 
-    private static Depot findNearestDepot(Position position, int glpRequest, SimulationState state,
-            Map<String, Integer> depotsGlpState) {
-        Depot nearestDepot = null;
-        double minDistance = Double.MAX_VALUE;
-
-        int currentHour = state.getCurrentTime().getHour();
-        List<Depot> allDepots = new ArrayList<>();
+    /**
+     * Ordinal del depósito más cercano con stock suficiente, o -1 si ninguno
+     * lo tiene
+     */
+    private static int findNearestDepot(Position position, int positionIndex, int glpRequest,
+            EvaluationContext context, int[] depotStock, int[] depotOrder, DistanceMatrix distances) {
+        int mainDepot = context.mainDepot();
+        int currentHour = context.currentHour();
 
         if (glpRequest > 0 && currentHour < 6) {
-            return state.getMainDepot();
+            return mainDepot;
         }
 
-        // If glpRequest is 0 (fuel only) or it's after 14:00, we can use any depot
+        int nearestDepot = -1;
+        double minDistance = Double.MAX_VALUE;
+        boolean mainDepotIncluded = false;
+
+        // If glpRequest is 0 (fuel only) we can use any depot
         // Otherwise, apply time-based restrictions
-        if (glpRequest == 0) {
-            // For refueling only, add all depots
-            for (Map.Entry<String, Integer> entry : depotsGlpState.entrySet()) {
-                Depot depot = state.getDepotById(entry.getKey());
-                if (depot != null) {
-                    allDepots.add(depot);
-                }
-            }
-        } else {
-            for (Map.Entry<String, Integer> entry : depotsGlpState.entrySet()) {
-                Depot depot = state.getDepotById(entry.getKey());
-                if (depot == null)
-                    continue;
-                double remainingGlpPercentage = entry.getValue() / (double) depot.getGlpCapacityM3();
+        for (int depot : depotOrder) {
+            if (glpRequest != 0) {
+                double remainingGlpPercentage = depotStock[depot] / (double) context.depotCapacity(depot);
                 // Between 10 AM and 2 PM, only use depots with more than 65% capacity
                 if (currentHour < 12 && remainingGlpPercentage < 0.65) {
                     continue;
                 } else if (currentHour < 18 && remainingGlpPercentage < 0.5) {
                     continue;
                 }
-                allDepots.add(depot);
-            }
-        }
-        // Always ensure the main depot is included
-        if (!allDepots.contains(state.getMainDepot())) {
-            allDepots.add(state.getMainDepot());
-        }
-
-        for (Depot depot : allDepots) {
-            if (depotsGlpState.get(depot.getId()) < glpRequest) {
-                continue;
             }
-            double distance = position.distanceTo(depot.getPosition());
+            mainDepotIncluded |= depot == mainDepot;
+            double distance = depotDistance(position, positionIndex, glpRequest, depot, context, depotStock,
+                    distances);
             if (distance < minDistance) {
                 minDistance = distance;
                 nearestDepot = depot;
             }
         }
+        // Always ensure the main depot is included
+        if (!mainDepotIncluded) {
+            double distance = depotDistance(position, positionIndex, glpRequest, mainDepot, context, depotStock,
+                    distances);
+            if (distance < minDistance) {
+                nearestDepot = mainDepot;
+            }
+        }
 
         return nearestDepot;
     }
-}
\ No newline at end of file
+
+    /**
+     * Distancia al depósito, o {@link Double#MAX_VALUE} si no tiene el GLP
+     * pedido
+     */
+    private static double depotDistance(Position position, int positionIndex, int glpRequest, int depot,
+            EvaluationContext context, int[] depotStock, DistanceMatrix distances) {
+        if (depotStock[depot] < glpRequest) {
+            return Double.MAX_VALUE;
+        }
+        return distances.distance(positionIndex, position, context.depotPoint(depot), context.depotPosition(depot));
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.plgsystem.assignation;
+
+import java.time.Duration;
+
+/**
+ * Control de una ejecución del solver: presupuesto de tiempo real, cancelación
+ * y progreso.
+ * <p>
+ * El solver consulta {@link #shouldStop()} al inicio de cada iteración y, si
+ * corresponde, devuelve la mejor solución encontrada hasta ese momento. Otro
+ * hilo puede pedir que termine antes con {@link #requestStop()} (la solución
+ * sigue siendo útil) o {@link #cancel()} (el resultado debe descartarse), y
+ * leer el progreso mientras la ejecución continúa.
+ */
+public final class SolverControl {
+    private final long budgetNanos;
+    private final boolean hasDeadline;
+    private volatile long deadlineNanos;
+    private volatile boolean stopRequested;
+    private volatile boolean cancelled;
+    private volatile int iteration;
+    private volatile double bestCost = Double.POSITIVE_INFINITY;
+    private volatile Solution bestSolution;
+
+    private SolverControl(Duration budget) {
+        this.hasDeadline = budget != null;
+        this.budgetNanos = hasDeadline ? budget.toNanos() : 0L;
+        this.deadlineNanos = hasDeadline ? System.nanoTime() + budgetNanos : 0L;
+    }
+
+    /**
+     * Ejecución sin límite de tiempo: termina al completar las iteraciones o al
+     * ser detenida
+     */
+    public static SolverControl unbounded() {
+        return new SolverControl(null);
+    }
+
+    /**
+     * Ejecución que debe terminar a más tardar {@code budget} después de crear
+     * el control
+     */
+    public static SolverControl withTimeBudget(Duration budget) {
+        return new SolverControl(budget.isNegative() ? Duration.ZERO : budget);
+    }
+
+    /**
+     * Vuelve a contar el presupuesto de tiempo desde ahora. Para controles
+     * creados antes de que la ejecución empiece, por ejemplo mientras espera en
+     * una cola.
+     */
+    public void restartBudget() {
+        if (hasDeadline) {
+            deadlineNanos = System.nanoTime() + budgetNanos;
+        }
+    }
+
+    /**
+     * Pide que el solver termine en la próxima iteración y devuelva la mejor
+     * solución encontrada
+     */
+    public void requestStop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Detiene el solver indicando que su resultado ya no se necesita
+     */
+    public void cancel() {
+        cancelled = true;
+        stopRequested = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Indica si el solver debe terminar: se pidió detenerlo, el hilo fue
+     * interrumpido o se agotó el presupuesto de tiempo
+     */
+    public boolean shouldStop() {
+        return stopRequested
+                || Thread.currentThread().isInterrupted()
+                || (hasDeadline && System.nanoTime() - deadlineNanos >= 0);
+    }
+
+    void reportProgress(int iteration, Solution bestSolution) {
+        this.bestSolution = bestSolution;
+        this.bestCost = bestSolution.getCost().totalCost();
+        this.iteration = iteration;
+    }
+
+    /**
+     * Iteraciones completadas hasta ahora
+     */
+    public int getIteration() {
+        return iteration;
+    }
+
+    /**
+     * Costo de la mejor solución encontrada hasta ahora
+     */
+    public double getBestCost() {
+        return bestCost;
+    }
+
+    /**
+     * Mejor solución encontrada hasta ahora, o null si aún no hay ninguna
+     */
+    public Solution getBestSolution() {
+        return bestSolution;
+    }
+}
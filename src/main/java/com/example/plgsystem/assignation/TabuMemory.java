@@ -0,0 +1,115 @@
+package com.example.plgsystem.assignation;
+
+import java.util.Arrays;
+
+/**
+ * Memoria tabú sobre atributos de movimiento codificados como {@code long}.
+ * <p>
+ * Es un conjunto de direccionamiento abierto (sondeo lineal) que guarda junto a
+ * cada clave la iteración en la que deja de ser tabú. Las entradas vencidas no
+ * se eliminan: se consideran libres y se reutilizan al insertar, por lo que ni
+ * las consultas ni las actualizaciones reservan memoria salvo cuando la tabla
+ * necesita crecer.
+ */
+final class TabuMemory {
+    private static final long EMPTY = -1L;
+
+    private long[] keys;
+    private int[] expiries;
+    private int mask;
+    private int used;
+
+    /**
+     * @param expectedEntries Cantidad esperada de atributos tabú vigentes a la vez
+     */
+    TabuMemory(int expectedEntries) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedEntries * 4) - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        expiries = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+        used = 0;
+    }
+
+    /**
+     * Indica si la clave sigue siendo tabú en la iteración dada
+     */
+    boolean contains(long key, int iteration) {
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return expiries[slot] > iteration;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Marca la clave como tabú hasta {@code expiresAt} (exclusivo)
+     *
+     * @param key       Atributo de movimiento (no negativo)
+     * @param expiresAt Primera iteración en la que la clave deja de ser tabú
+     * @param iteration Iteración actual, usada para reconocer entradas vencidas
+     */
+    void add(long key, int expiresAt, int iteration) {
+        int slot = slot(key);
+        int reusable = -1;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                expiries[slot] = Math.max(expiries[slot], expiresAt);
+                return;
+            }
+            if (reusable < 0 && expiries[slot] <= iteration) {
+                reusable = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (reusable >= 0) {
+            keys[reusable] = key;
+            expiries[reusable] = expiresAt;
+            return;
+        }
+        keys[slot] = key;
+        expiries[slot] = expiresAt;
+        if (++used * 2 > keys.length) {
+            rehash(iteration);
+        }
+    }
+
+    /**
+     * Reconstruye la tabla solo con las entradas vigentes, duplicando su tamaño
+     * si siguen ocupando más de un cuarto de ella
+     */
+    private void rehash(int iteration) {
+        long[] oldKeys = keys;
+        int[] oldExpiries = expiries;
+        int live = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY && oldExpiries[i] > iteration) {
+                live++;
+            }
+        }
+        allocate(live * 4 > oldKeys.length ? oldKeys.length * 2 : oldKeys.length);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY && oldExpiries[i] > iteration) {
+                int slot = slot(oldKeys[i]);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                expiries[slot] = oldExpiries[i];
+                used++;
+            }
+        }
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
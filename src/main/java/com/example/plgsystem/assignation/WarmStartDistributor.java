@@ -0,0 +1,143 @@
+package com.example.plgsystem.assignation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.model.Vehicle;
+import com.example.plgsystem.operation.Action;
+import com.example.plgsystem.operation.ActionType;
+import com.example.plgsystem.operation.VehiclePlan;
+import com.example.plgsystem.simulation.SimulationState;
+
+/**
+ * Asignación inicial a partir de los planes que los vehículos ya están
+ * ejecutando.
+ * <p>
+ * Las acciones SERVE pendientes de cada plan se convierten de nuevo en
+ * entregas del mismo vehículo y en el mismo orden. El GLP de las órdenes que
+ * ningún plan cubre (órdenes nuevas o entregas de vehículos que dejaron de
+ * estar disponibles) se divide en paquetes y cada paquete se inserta en la
+ * posición de la ruta que menos distancia agrega.
+ */
+public class WarmStartDistributor {
+
+    /**
+     * Indica si el estado tiene planes con entregas pendientes que sirvan como
+     * punto de partida
+     */
+    public static boolean hasPendingDeliveries(SimulationState state) {
+        for (VehiclePlan plan : state.getCurrentVehiclePlans().values()) {
+            List<Action> actions = plan.getActions();
+            for (int i = Math.max(0, plan.getCurrentActionIndex()); i < actions.size(); i++) {
+                Action action = actions.get(i);
+                if (action.getType() == ActionType.SERVE && !action.isEffectApplied()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public static Map<String, List<DeliveryPart>> createWarmStartAssignments(SimulationState state) {
+        return createWarmStartAssignments(state, DistanceMatrix.direct(state));
+    }
+
+    public static Map<String, List<DeliveryPart>> createWarmStartAssignments(SimulationState state,
+            DistanceMatrix distances) {
+        Map<String, List<DeliveryPart>> assignments = new HashMap<>();
+        List<Vehicle> availableVehicles = state.getVehicles().stream()
+                .filter(Vehicle::isAvailable).toList();
+        for (Vehicle vehicle : availableVehicles) {
+            assignments.put(vehicle.getId(), new ArrayList<>());
+        }
+
+        // GLP de cada orden pendiente que aún no tiene entrega asignada
+        Map<String, Integer> unassignedGlp = new LinkedHashMap<>();
+        for (Order order : state.getOrders()) {
+            if (order.getRemainingGlpM3() > 0) {
+                unassignedGlp.put(order.getId(), order.getRemainingGlpM3());
+            }
+        }
+
+        if (unassignedGlp.isEmpty() || availableVehicles.isEmpty()) {
+            return assignments;
+        }
+
+        // 1. Recover the pending deliveries of the plans in execution
+        for (Vehicle vehicle : availableVehicles) {
+            VehiclePlan plan = state.getVehiclePlan(vehicle.getId());
+            if (plan == null) {
+                continue;
+            }
+            List<DeliveryPart> route = assignments.get(vehicle.getId());
+            List<Action> actions = plan.getActions();
+            for (int i = Math.max(0, plan.getCurrentActionIndex()); i < actions.size(); i++) {
+                Action action = actions.get(i);
+                if (action.getType() != ActionType.SERVE || action.isEffectApplied()) {
+                    continue;
+                }
+                Integer remaining = unassignedGlp.get(action.getOrderId());
+                int glp = remaining == null ? 0 : Math.min(remaining, action.getGlpDelivered());
+                if (glp <= 0) {
+                    continue;
+                }
+                Order order = distances.getOrder(action.getOrderId());
+                route.add(new DeliveryPart(order.getId(), glp, order.getDeadlineTime()));
+                unassignedGlp.put(order.getId(), remaining - glp);
+            }
+        }
+
+        // 2. Insert the uncovered GLP at the cheapest position
+        List<DeliveryPart> newPackages = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : unassignedGlp.entrySet()) {
+            RandomDistributor.addPackages(newPackages, distances.getOrder(entry.getKey()), entry.getValue());
+        }
+        newPackages.sort(Comparator.comparing(DeliveryPart::getDeadlineTime));
+        for (DeliveryPart deliveryPart : newPackages) {
+            insertAtCheapestPosition(deliveryPart, availableVehicles, assignments, distances,
+                    state.getMainDepot().getPosition());
+        }
+
+        return assignments;
+    }
+
+    /**
+     * Inserta la entrega donde el desvío (distancia agregada a la ruta) es
+     * mínimo. Ante empates gana el primer vehículo y la primera posición.
+     */
+    private static void insertAtCheapestPosition(DeliveryPart deliveryPart, List<Vehicle> vehicles,
+            Map<String, List<DeliveryPart>> assignments, DistanceMatrix distances, Position mainDepot) {
+        Position target = distances.getOrder(deliveryPart.getOrderId()).getPosition();
+        List<DeliveryPart> bestRoute = null;
+        int bestIndex = 0;
+        double bestDetour = Double.POSITIVE_INFINITY;
+
+        for (Vehicle vehicle : vehicles) {
+            List<DeliveryPart> route = assignments.get(vehicle.getId());
+            Position previous = vehicle.getCurrentPosition() != null ? vehicle.getCurrentPosition() : mainDepot;
+            for (int index = 0; index <= route.size(); index++) {
+                Position next = index < route.size()
+                        ? distances.getOrder(route.get(index).getOrderId()).getPosition()
+                        : null;
+                double detour = distances.distance(previous, target);
+                if (next != null) {
+                    detour += distances.distance(target, next) - distances.distance(previous, next);
+                }
+                if (detour < bestDetour) {
+                    bestDetour = detour;
+                    bestRoute = route;
+                    bestIndex = index;
+                }
+                previous = next;
+            }
+        }
+
+        bestRoute.add(bestIndex, deliveryPart);
+    }
+}
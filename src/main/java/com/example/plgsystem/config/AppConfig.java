@@ -6,6 +6,12 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 
 import com.example.plgsystem.demo.AlgorithmExperiment;
+import com.example.plgsystem.demo.FileParsingBenchmark;
+import com.example.plgsystem.demo.PathfindingBenchmark;
+import com.example.plgsystem.demo.SimulationSchedulingBenchmark;
+import com.example.plgsystem.demo.SolverBenchmark;
+import com.example.plgsystem.demo.StateLookupBenchmark;
+import com.example.plgsystem.demo.StateStreamBenchmark;
 
 @Configuration
 public class AppConfig {
@@ -20,4 +26,64 @@ public class AppConfig {
             System.exit(0); // Exit after experiment completes
         };
     }
+
+    @Bean
+    @Profile("pathfinding-benchmark")
+    public CommandLineRunner pathfindingBenchmarkRunner() {
+        return args -> {
+            System.out.println("Starting pathfinding benchmark...");
+            PathfindingBenchmark.main(new String[] {});
+            System.exit(0);
+        };
+    }
+
+    @Bean
+    @Profile("solver-benchmark")
+    public CommandLineRunner solverBenchmarkRunner() {
+        return args -> {
+            System.out.println("Starting solver benchmark...");
+            SolverBenchmark.main(new String[] {});
+            System.exit(0);
+        };
+    }
+
+    @Bean
+    @Profile("scheduling-benchmark")
+    public CommandLineRunner schedulingBenchmarkRunner() {
+        return args -> {
+            System.out.println("Starting simulation scheduling benchmark...");
+            SimulationSchedulingBenchmark.main(new String[] {});
+            System.exit(0);
+        };
+    }
+
+    @Bean
+    @Profile("parsing-benchmark")
+    public CommandLineRunner parsingBenchmarkRunner() {
+        return args -> {
+            System.out.println("Starting file parsing benchmark...");
+            FileParsingBenchmark.main(new String[] {});
+            System.exit(0);
+        };
+    }
+
+    @Bean
+    @Profile("state-stream-benchmark")
+    public CommandLineRunner stateStreamBenchmarkRunner() {
+        return args -> {
+            System.out.println("Starting state stream benchmark...");
+            StateStreamBenchmark.main(new String[] {});
+            System.exit(0);
+        };
+    }
+
+    @Bean
+    @Profile("state-lookup-benchmark")
+    public CommandLineRunner stateLookupBenchmarkRunner() {
+        return args -> {
+            System.out.println("Starting state lookup benchmark...");
+            StateLookupBenchmark.main(new String[] {});
+            System.exit(0);
+        };
+    }
 }
@@ -0,0 +1,118 @@
+package com.example.plgsystem.config;
+
+import java.util.UUID;
+
+import com.example.plgsystem.simulation.SimulationBroadcaster;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+/**
+ * Configuración de la publicación de simulaciones por WebSocket: frecuencia
+ * máxima y seguimiento de las suscripciones STOMP a /topic/simulation/{id}.
+ * SimulationService registra en el {@link SimulationBroadcaster} cómo
+ * construir y enviar cada actualización.
+ */
+@Configuration
+public class BroadcastConfig {
+    private static final Logger logger = LoggerFactory.getLogger(BroadcastConfig.class);
+    private static final String SIMULATION_TOPIC = "/topic/simulation/";
+
+    @Value("${plgsystem.websocket.max-updates-per-second:10}")
+    private int maxUpdatesPerSecond;
+
+    private final SimulationBroadcaster broadcaster = new SimulationBroadcaster(0);
+
+    @Bean
+    public SimulationBroadcaster simulationBroadcaster() {
+        return broadcaster;
+    }
+
+    @PostConstruct
+    public void configureBroadcaster() {
+        broadcaster.setMinIntervalMs(maxUpdatesPerSecond > 0 ? 1000 / maxUpdatesPerSecond : 0);
+        logger.info("Actualizaciones por WebSocket: a lo sumo {} por segundo y simulación",
+                maxUpdatesPerSecond > 0 ? maxUpdatesPerSecond : "sin límite");
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        UUID simulationId = simulationOf(accessor.getDestination());
+        if (simulationId != null && accessor.getSessionId() != null) {
+            broadcaster.subscribed(accessor.getSessionId(), accessor.getSubscriptionId(), simulationId);
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        if (accessor.getSessionId() != null) {
+            broadcaster.unsubscribed(accessor.getSessionId(), accessor.getSubscriptionId());
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        broadcaster.disconnected(event.getSessionId());
+    }
+
+    /**
+     * Expone suscriptores, cola y actualizaciones descartadas en
+     * /actuator/metrics
+     */
+    @Bean
+    public MeterBinder broadcasterMetrics() {
+        return registry -> {
+            Gauge.builder("plgsystem.broadcast.queue.depth", broadcaster, SimulationBroadcaster::getQueueDepth)
+                    .description("Simulaciones con una actualización esperando ser enviada")
+                    .register(registry);
+            Gauge.builder("plgsystem.broadcast.subscribers", broadcaster, SimulationBroadcaster::getTotalSubscribers)
+                    .description("Suscripciones STOMP a tópicos de simulaciones")
+                    .register(registry);
+            FunctionCounter.builder("plgsystem.broadcast.submitted", broadcaster, SimulationBroadcaster::getSubmitted)
+                    .description("Ticks notificados para publicar")
+                    .register(registry);
+            FunctionCounter.builder("plgsystem.broadcast.published", broadcaster, SimulationBroadcaster::getPublished)
+                    .description("Actualizaciones enviadas")
+                    .register(registry);
+            FunctionCounter.builder("plgsystem.broadcast.dropped", broadcaster, SimulationBroadcaster::getConflated)
+                    .description("Actualizaciones reemplazadas por una más reciente antes de enviarse")
+                    .register(registry);
+            FunctionCounter.builder("plgsystem.broadcast.skipped", broadcaster, SimulationBroadcaster::getSkipped)
+                    .description("Actualizaciones omitidas por no haber suscriptores")
+                    .register(registry);
+            FunctionCounter.builder("plgsystem.broadcast.failed", broadcaster, SimulationBroadcaster::getFailed)
+                    .description("Actualizaciones que fallaron al construirse o enviarse")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Simulación de un destino /topic/simulation/{id}[/...], o null si el
+     * destino no es de una simulación
+     */
+    static UUID simulationOf(String destination) {
+        if (destination == null || !destination.startsWith(SIMULATION_TOPIC)) {
+            return null;
+        }
+        int start = SIMULATION_TOPIC.length();
+        int end = destination.indexOf('/', start);
+        try {
+            return UUID.fromString(end < 0 ? destination.substring(start) : destination.substring(start, end));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.plgsystem.config;
+
+import java.nio.file.Paths;
+import java.time.YearMonth;
+
+import com.example.plgsystem.util.HistoricalDatasets;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de las copias binarias de los datos históricos incluidos,
+ * compartidas por todas las simulaciones que los usan
+ */
+@Configuration
+public class HistoricalDatasetsConfig {
+    private static final Logger logger = LoggerFactory.getLogger(HistoricalDatasetsConfig.class);
+
+    @Value("${plgsystem.datasets.snapshot-dir:}")
+    private String snapshotDirectory;
+
+    @Value("${plgsystem.datasets.preload:false}")
+    private boolean preload;
+
+    @Value("${plgsystem.datasets.first-month:2025-01}")
+    private String firstMonth;
+
+    @Value("${plgsystem.datasets.last-month:2026-12}")
+    private String lastMonth;
+
+    @PostConstruct
+    public void configureHistoricalDatasets() {
+        HistoricalDatasets datasets = HistoricalDatasets.shared();
+        if (!snapshotDirectory.isBlank()) {
+            datasets.setSnapshotDirectory(Paths.get(snapshotDirectory));
+        }
+        logger.info("Copias de datos históricos en {}", datasets.getSnapshotDirectory());
+        if (!preload) {
+            return;
+        }
+
+        // Convierte los meses en segundo plano para no demorar el arranque
+        YearMonth from = YearMonth.parse(firstMonth);
+        YearMonth to = YearMonth.parse(lastMonth);
+        Thread thread = new Thread(() -> {
+            try {
+                int available = datasets.preload(from, to);
+                logger.info("Datos históricos de {} a {} listos: {} archivos, {} convertidos", from, to, available,
+                        datasets.getConversions());
+            } catch (Exception e) {
+                logger.error("Error al preparar los datos históricos: {}", e.getMessage(), e);
+            }
+        }, "historical-datasets-preload");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Expone las copias de datos históricos en /actuator/metrics
+     */
+    @Bean
+    public MeterBinder historicalDatasetsMetrics() {
+        HistoricalDatasets datasets = HistoricalDatasets.shared();
+        return registry -> {
+            FunctionCounter.builder("plgsystem.datasets.conversions", datasets, HistoricalDatasets::getConversions)
+                    .description("Archivos de texto convertidos a copias binarias")
+                    .register(registry);
+            FunctionCounter.builder("plgsystem.datasets.reused", datasets, HistoricalDatasets::getReused)
+                    .description("Copias binarias de ejecuciones anteriores reutilizadas")
+                    .register(registry);
+            Gauge.builder("plgsystem.datasets.mapped", datasets, HistoricalDatasets::getMappedCount)
+                    .description("Meses mapeados en memoria")
+                    .register(registry);
+            Gauge.builder("plgsystem.datasets.mapped.bytes", datasets, HistoricalDatasets::getMappedBytes)
+                    .description("Bytes mapeados de las copias")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.plgsystem.config;
+
+import com.example.plgsystem.util.ParsedFileCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de la caché de archivos de órdenes y bloqueos ya leídos,
+ * compartida por los FileDataLoader de todas las simulaciones
+ */
+@Configuration
+public class ParsedFileCacheConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ParsedFileCacheConfig.class);
+
+    @Value("${plgsystem.files.parsed-cache-mb:64}")
+    private long maxMegabytes;
+
+    @PostConstruct
+    public void configureParsedFileCache() {
+        ParsedFileCache.shared().setMaxBytes(maxMegabytes * 1024 * 1024);
+        logger.info("Caché de archivos leídos: {} MB", maxMegabytes);
+    }
+
+    /**
+     * Expone los contadores de la caché de archivos en /actuator/metrics
+     */
+    @Bean
+    public MeterBinder parsedFileCacheMetrics() {
+        ParsedFileCache cache = ParsedFileCache.shared();
+        return registry -> {
+            FunctionCounter.builder("plgsystem.filecache.hits", cache, ParsedFileCache::getHits)
+                    .description("Meses servidos desde la caché")
+                    .register(registry);
+            FunctionCounter.builder("plgsystem.filecache.misses", cache, ParsedFileCache::getMisses)
+                    .description("Archivos leídos y agrupados por día")
+                    .register(registry);
+            FunctionCounter.builder("plgsystem.filecache.evictions", cache, ParsedFileCache::getEvictions)
+                    .description("Meses descartados por memoria")
+                    .register(registry);
+            Gauge.builder("plgsystem.filecache.size", cache, ParsedFileCache::size)
+                    .description("Meses en la caché")
+                    .register(registry);
+            Gauge.builder("plgsystem.filecache.bytes", cache, ParsedFileCache::getUsedBytes)
+                    .description("Memoria estimada de los meses en la caché")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.plgsystem.config;
+
+import com.example.plgsystem.pathfinding.PathCache;
+import com.example.plgsystem.pathfinding.PathFinder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración del motor de búsqueda de rutas usado por PathFinder y de la
+ * caché de rutas compartida por VehiclePlanCreator
+ */
+@Configuration
+public class PathfindingConfig {
+    private static final Logger logger = LoggerFactory.getLogger(PathfindingConfig.class);
+
+    @Value("${plgsystem.pathfinding.engine:legacy}")
+    private String engine;
+
+    @Value("${plgsystem.pathfinding.cache-size:" + PathCache.DEFAULT_CAPACITY + "}")
+    private int cacheSize;
+
+    @PostConstruct
+    public void configurePathFinder() {
+        PathFinder.Engine selected;
+        try {
+            selected = PathFinder.Engine.valueOf(engine.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Motor de búsqueda desconocido '{}', se usará LEGACY", engine);
+            selected = PathFinder.Engine.LEGACY;
+        }
+        PathFinder.configure(selected);
+        PathCache.shared().setCapacity(cacheSize);
+        logger.info("Motor de búsqueda de rutas: {}, caché de rutas: {} entradas", selected, cacheSize);
+    }
+
+    /**
+     * Expone los contadores de la caché de rutas en /actuator/metrics
+     */
+    @Bean
+    public MeterBinder pathCacheMetrics() {
+        PathCache cache = PathCache.shared();
+        return registry -> {
+            FunctionCounter.builder("plgsystem.pathcache.hits", cache, PathCache::getHits)
+                    .description("Rutas servidas desde la caché")
+                    .register(registry);
+            FunctionCounter.builder("plgsystem.pathcache.misses", cache, PathCache::getMisses)
+                    .description("Rutas calculadas con PathFinder")
+                    .register(registry);
+            FunctionCounter.builder("plgsystem.pathcache.evictions", cache, PathCache::getEvictions)
+                    .description("Entradas descartadas por capacidad")
+                    .register(registry);
+            FunctionCounter.builder("plgsystem.pathcache.invalidations", cache, PathCache::getInvalidations)
+                    .description("Entradas recalculadas por cambios en los bloqueos")
+                    .register(registry);
+            Gauge.builder("plgsystem.pathcache.size", cache, PathCache::size)
+                    .description("Entradas en la caché de rutas")
+                    .register(registry);
+        };
+    }
+}
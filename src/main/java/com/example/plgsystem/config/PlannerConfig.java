@@ -0,0 +1,72 @@
+package com.example.plgsystem.config;
+
+import com.example.plgsystem.orchest.PlannerPool;
+import com.example.plgsystem.orchest.PlanningPriority;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de los hilos compartidos en los que los Orchestrator ejecutan
+ * sus replanificaciones
+ */
+@Configuration
+public class PlannerConfig {
+    private static final Logger logger = LoggerFactory.getLogger(PlannerConfig.class);
+
+    @Value("${plgsystem.planner.parallelism:0}")
+    private int parallelism;
+
+    @PostConstruct
+    public void configurePlannerPool() {
+        PlannerPool.shared().configureParallelism(parallelism);
+        logger.info("Planificaciones simultáneas entre todas las simulaciones: {}",
+                PlannerPool.shared().getParallelism());
+    }
+
+    /**
+     * Expone la cola y los tiempos de espera del planificador compartido en
+     * /actuator/metrics
+     */
+    @Bean
+    public MeterBinder plannerPoolMetrics() {
+        PlannerPool pool = PlannerPool.shared();
+        return registry -> {
+            for (PlanningPriority priority : PlanningPriority.values()) {
+                String tag = priority.name().toLowerCase();
+                Gauge.builder("plgsystem.planner.queue.depth", pool, p -> p.getQueueDepth(priority))
+                        .description("Replanificaciones esperando un hilo")
+                        .tag("priority", tag)
+                        .register(registry);
+                Gauge.builder("plgsystem.planner.wait.average", pool, p -> p.getAverageWaitMs(priority))
+                        .description("Espera promedio en la cola en ms")
+                        .tag("priority", tag)
+                        .register(registry);
+            }
+            Gauge.builder("plgsystem.planner.active", pool, PlannerPool::getActiveCount)
+                    .description("Replanificaciones en ejecución")
+                    .register(registry);
+            Gauge.builder("plgsystem.planner.wait.max", pool, PlannerPool::getMaxWaitMs)
+                    .description("Espera máxima en la cola en ms")
+                    .register(registry);
+            FunctionCounter.builder("plgsystem.planner.submitted", pool, PlannerPool::getSubmitted)
+                    .description("Replanificaciones encoladas")
+                    .register(registry);
+            FunctionCounter.builder("plgsystem.planner.completed", pool, PlannerPool::getCompleted)
+                    .description("Replanificaciones ejecutadas")
+                    .register(registry);
+            FunctionCounter.builder("plgsystem.planner.coalesced", pool, PlannerPool::getCoalesced)
+                    .description("Replanificaciones en cola reemplazadas por una más reciente de la misma simulación")
+                    .register(registry);
+            FunctionCounter.builder("plgsystem.planner.expired", pool, PlannerPool::getExpired)
+                    .description("Replanificaciones descartadas por esperar más que su plazo")
+                    .register(registry);
+        };
+    }
+}
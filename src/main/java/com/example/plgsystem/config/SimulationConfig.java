@@ -0,0 +1,33 @@
+package com.example.plgsystem.config;
+
+import com.example.plgsystem.orchest.Orchestrator;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración del avance del tiempo simulado en el Orchestrator
+ */
+@Configuration
+public class SimulationConfig {
+    private static final Logger logger = LoggerFactory.getLogger(SimulationConfig.class);
+
+    @Value("${plgsystem.simulation.event-driven:false}")
+    private boolean eventDriven;
+
+    @Value("${plgsystem.simulation.position-update-minutes:" + Orchestrator.DEFAULT_POSITION_UPDATE_MINUTES + "}")
+    private int positionUpdateMinutes;
+
+    @PostConstruct
+    public void configureOrchestrator() {
+        Orchestrator.configureEventDriven(eventDriven, positionUpdateMinutes);
+        if (eventDriven) {
+            logger.info("Avance de simulación por eventos, posiciones cada {} minutos simulados",
+                    Orchestrator.getDefaultPositionUpdateMinutes());
+        } else {
+            logger.info("Avance de simulación tick a tick de un minuto");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.plgsystem.config;
+
+import com.example.plgsystem.assignation.MetaheuristicSolver;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración del solver metaheurístico usado por el Orchestrator
+ */
+@Configuration
+public class SolverConfig {
+    private static final Logger logger = LoggerFactory.getLogger(SolverConfig.class);
+
+    @Value("${plgsystem.solver.blockage-aware-distances:false}")
+    private boolean blockageAwareDistances;
+
+    @Value("${plgsystem.solver.parallelism:0}")
+    private int parallelism;
+
+    @Value("${plgsystem.solver.time-budget-ms:0}")
+    private long timeBudgetMs;
+
+    @Value("${plgsystem.solver.warm-start:true}")
+    private boolean warmStart;
+
+    @PostConstruct
+    public void configureSolver() {
+        MetaheuristicSolver.configureDistances(blockageAwareDistances);
+        MetaheuristicSolver.configureParallelism(parallelism);
+        MetaheuristicSolver.configureTimeBudget(timeBudgetMs);
+        MetaheuristicSolver.configureWarmStart(warmStart);
+        logger.info("Matriz de distancias del solver: {}, hilos de evaluación: {}, presupuesto de tiempo: {}, "
+                + "solución inicial: {}",
+                blockageAwareDistances ? "evitando bloqueos" : "Manhattan", MetaheuristicSolver.getParallelism(),
+                timeBudgetMs > 0 ? timeBudgetMs + " ms" : "sin límite", warmStart ? "planes actuales" : "aleatoria");
+    }
+}
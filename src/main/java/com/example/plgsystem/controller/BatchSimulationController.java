@@ -0,0 +1,67 @@
+package com.example.plgsystem.controller;
+
+import com.example.plgsystem.dto.BatchRunDTO;
+import com.example.plgsystem.dto.BatchScenarioDTO;
+import com.example.plgsystem.service.BatchSimulationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/simulation/batch")
+@Tag(name = "Batch Simulation", description = "API para ejecutar escenarios de simulación por lotes sin interfaz")
+public class BatchSimulationController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchSimulationController.class);
+    private final BatchSimulationService batchSimulationService;
+
+    public BatchSimulationController(BatchSimulationService batchSimulationService) {
+        this.batchSimulationService = batchSimulationService;
+        logger.info("BatchSimulationController initialized");
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Ejecutar escenarios por lotes", description = "Encola los escenarios (flota por tipo, fechas, archivos de órdenes y bloqueos referenciados por nombre y presupuesto del solver) y los ejecuta sin publicar actualizaciones. Devuelve el id del lote para consultar sus indicadores.")
+    @ApiResponse(responseCode = "202", description = "Lote encolado")
+    public ResponseEntity<?> submitBatch(
+            @RequestPart("scenarios") List<BatchScenarioDTO> scenarios,
+            @RequestPart(value = "files", required = false) List<MultipartFile> files) {
+
+        logger.info("Submitting batch with {} scenarios and {} files",
+                scenarios != null ? scenarios.size() : 0, files != null ? files.size() : 0);
+
+        try {
+            BatchRunDTO batch = batchSimulationService.submitBatch(scenarios, files);
+            logger.info("Batch {} accepted", batch.getId());
+            return new ResponseEntity<>(batch, HttpStatus.ACCEPTED);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid batch: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Error en los parámetros: " + e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error submitting batch: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error al encolar el lote: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Consultar un lote", description = "Devuelve el estado de cada escenario y, de los terminados, sus indicadores")
+    public ResponseEntity<BatchRunDTO> getBatch(@PathVariable UUID id) {
+        BatchRunDTO batch = batchSimulationService.getBatch(id);
+        if (batch == null) {
+            logger.warn("Batch with ID {} not found", id);
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(batch);
+    }
+}
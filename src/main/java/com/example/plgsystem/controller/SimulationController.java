@@ -4,6 +4,7 @@ import com.example.plgsystem.dto.IncidentCreateDTO;
 import com.example.plgsystem.dto.SimulationCreateDTO;
 import com.example.plgsystem.dto.SimulationDTO;
 import com.example.plgsystem.dto.SimulationStateDTO;
+import com.example.plgsystem.dto.VehiclePlanDTO;
 import com.example.plgsystem.enums.IncidentType;
 import com.example.plgsystem.enums.SimulationType;
 import com.example.plgsystem.service.SimulationService;
@@ -21,6 +22,7 @@ import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -43,6 +45,8 @@ public class SimulationController {
     /**
      * WebSocket subscription handler for simulation updates
      * Client can subscribe to: /topic/simulation/{id}
+     * Returns status and times only, like the updates on that topic; the state
+     * comes from /app/simulation/{id}/state.
      */
     @SubscribeMapping("/simulation/{id}")
     public SimulationDTO subscribeToSimulation(@DestinationVariable UUID id) {
@@ -50,7 +54,7 @@ public class SimulationController {
         Simulation simulation = simulationService.getSimulation(id);
         if (simulation != null) {
             logger.info("Returning simulation data for WebSocket subscription, simulation ID: {}", id);
-            return new SimulationDTO(simulation);
+            return SimulationDTO.summary(simulation);
         }
         logger.warn("WebSocket subscription failed: Simulation with ID {} not found", id);
         return null;
@@ -58,23 +62,41 @@ public class SimulationController {
 
     /**
      * WebSocket subscription handler for detailed simulation state
-     * Client can subscribe to: /topic/simulation/{id}/state
+     * Client can subscribe to: /app/simulation/{id}/state
+     * Returns the full state with the sequence of the last delta it includes;
+     * later changes arrive on /topic/simulation/{id}/state/delta. Subscribe
+     * again to resync after a gap in the delta sequence.
      */
     @SubscribeMapping("/simulation/{id}/state")
     public SimulationStateDTO subscribeToSimulationState(@DestinationVariable UUID id) {
         logger.info("WebSocket subscription to simulation state with ID: {}", id);
-        Simulation simulation = simulationService.getSimulation(id);
-        if (simulation != null) {
-            logger.info("Returning simulation state for WebSocket subscription, simulation ID: {}", id);
-            return SimulationStateDTO.fromSimulationState(
-                    simulation.getId().toString(),
-                    simulation.getState(),
-                    simulation.getStatus());
+        SimulationStateDTO state = simulationService.getStateSnapshot(id);
+        if (state != null) {
+            logger.info("Returning simulation state for WebSocket subscription, simulation ID: {}, sequence: {}",
+                    id, state.getSequence());
+            return state;
         }
         logger.warn("WebSocket subscription failed: Simulation state with ID {} not found", id);
         return null;
     }
 
+    /**
+     * WebSocket subscription handler for vehicle plans
+     * Client can subscribe to: /app/simulation/{id}/plans
+     * Returns every current plan with its actions; new plans arrive on
+     * /topic/simulation/{id}/plans when installed. Subscribe again when a
+     * delta references an unknown planId.
+     */
+    @SubscribeMapping("/simulation/{id}/plans")
+    public List<VehiclePlanDTO> subscribeToSimulationPlans(@DestinationVariable UUID id) {
+        logger.info("WebSocket subscription to simulation plans with ID: {}", id);
+        List<VehiclePlanDTO> plans = simulationService.getCurrentPlans(id);
+        if (plans == null) {
+            logger.warn("WebSocket subscription failed: Simulation with ID {} not found", id);
+        }
+        return plans;
+    }
+
     /**
      * WebSocket message handler to force a simulation update
      * Client can send to: /app/simulation/{id}/update
@@ -135,6 +157,9 @@ public class SimulationController {
                 createDTO.getTbVehicles(),
                 createDTO.getTcVehicles(),
                 createDTO.getTdVehicles());
+        if (createDTO.isUseHistoricalData()) {
+            simulationService.useHistoricalData(simulation);
+        }
 
         logger.info("Simulation created with ID: {}", simulation.getId());
         return new ResponseEntity<>(new SimulationDTO(simulation), HttpStatus.CREATED);
@@ -330,6 +355,35 @@ public class SimulationController {
         }
     }
 
+    @PostMapping("/{id}/speed/{factor}")
+    @Operation(summary = "Configurar velocidad de una simulación", description = "Configura la velocidad de una simulación sin afectar a las demás (1 = normal, 2-5 = velocidades más rápidas)")
+    public ResponseEntity<?> setSimulationSpeed(@PathVariable UUID id, @PathVariable int factor) {
+        logger.info("Configurando velocidad de la simulación {} a factor: {}", id, factor);
+
+        if (factor < 1) {
+            logger.warn("Factor de velocidad inválido: {}. Debe ser 1 o más.", factor);
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", "Factor de velocidad inválido. Debe ser 1 o más.",
+                "factorRecibido", factor
+            ));
+        }
+
+        try {
+            Simulation simulation = simulationService.setSimulationSpeed(id, factor);
+            if (simulation == null) {
+                logger.warn("Cannot set speed: Simulation with ID {} not found", id);
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(new SimulationDTO(simulation));
+        } catch (IllegalArgumentException e) {
+            logger.error("Error al configurar velocidad de la simulación {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", e.getMessage(),
+                "factorRecibido", factor
+            ));
+        }
+    }
+
     @PostMapping("/{simulationId}/vehicle/{vehicleId}/breakdown")
     @Operation(summary = "Crear avería de vehículo", description = "Crea un evento de avería para un vehículo en la simulación")
     public ResponseEntity<?> createVehicleBreakdown(
@@ -0,0 +1,210 @@
+package com.example.plgsystem.demo;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import com.example.plgsystem.model.Blockage;
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.util.DateTimeParser;
+import com.example.plgsystem.util.FileUtils;
+
+/**
+ * Benchmark de la lectura de archivos de órdenes y bloqueos.
+ * <p>
+ * Sobre los archivos más grandes de src/main/resources/data compara la
+ * lectura anterior, línea por línea con expresiones regulares y split, contra
+ * {@link FileUtils}, que recorre el archivo mapeado en memoria con
+ * {@link com.example.plgsystem.util.DataFileParser}. Ambas variantes cargan el
+ * mes completo y construyen los mismos objetos; la columna checksum permite
+ * comprobar que leyeron lo mismo.
+ */
+public class FileParsingBenchmark {
+    private static final Path ORDERS_DIRECTORY = Paths.get("src/main/resources/data/pedidos.20250419");
+    private static final Path BLOCKAGES_DIRECTORY = Paths.get("src/main/resources/data/bloqueos.20250419");
+    private static final int LARGEST_FILES = 3;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 10;
+
+    private static final Pattern ORDER_PATTERN = Pattern.compile("(\\d+d\\d+h\\d+m):(.+)");
+    private static final Pattern BLOCKAGE_PATTERN = Pattern.compile("(\\d+d\\d+h\\d+m)-(\\d+d\\d+h\\d+m):(.+)");
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final String RESULTS_DIRECTORY = "experiment_results";
+    private static final String CSV_HEADER = "benchmark,file,bytes,variant,items,execution_time_ms,mb_per_second,checksum\n";
+
+    @FunctionalInterface
+    private interface Loader {
+        List<?> load(Path file, LocalDate monthStart) throws IOException;
+    }
+
+    public static void main(String[] args) {
+        try {
+            Files.createDirectories(Paths.get(RESULTS_DIRECTORY));
+        } catch (IOException e) {
+            System.err.println("Error al crear directorio de resultados: " + e.getMessage());
+            return;
+        }
+
+        String resultsFilePath = RESULTS_DIRECTORY + "/file_parsing_results_" +
+                LocalDateTime.now().format(DATE_FORMATTER) + ".csv";
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(resultsFilePath))) {
+            writer.write(CSV_HEADER);
+            for (Path file : largestFiles(ORDERS_DIRECTORY)) {
+                LocalDate month = monthOf(file, "ventas");
+                run(writer, "orders", file, month, "regex", FileParsingBenchmark::loadOrdersWithRegex);
+                run(writer, "orders", file, month, "mapped", FileParsingBenchmark::loadOrdersMapped);
+            }
+            for (Path file : largestFiles(BLOCKAGES_DIRECTORY)) {
+                LocalDate month = monthOf(file, "");
+                run(writer, "blockages", file, month, "regex", FileParsingBenchmark::loadBlockagesWithRegex);
+                run(writer, "blockages", file, month, "mapped", FileParsingBenchmark::loadBlockagesMapped);
+            }
+            System.out.println("Resultados guardados en " + resultsFilePath);
+        } catch (IOException e) {
+            System.err.println("Error al escribir resultados: " + e.getMessage());
+        }
+    }
+
+    private static void run(BufferedWriter writer, String benchmark, Path file, LocalDate month, String variant,
+            Loader loader) throws IOException {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            loader.load(file, month);
+        }
+        long checksum = 0;
+        int items = 0;
+        long begin = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            List<?> loaded = loader.load(file, month);
+            items = loaded.size();
+            checksum = checksum(loaded);
+        }
+        long elapsed = (System.nanoTime() - begin) / MEASURED_ROUNDS;
+
+        long bytes = Files.size(file);
+        String row = String.format("%s,%s,%d,%s,%d,%.3f,%.1f,%d%n", benchmark, file.getFileName(), bytes, variant,
+                items, elapsed / 1e6, bytes / 1e6 / (elapsed / 1e9), checksum);
+        System.out.print(row);
+        writer.write(row);
+        writer.flush();
+    }
+
+    private static List<Path> largestFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .sorted(Comparator.comparingLong(FileParsingBenchmark::sizeOf).reversed())
+                    .limit(LARGEST_FILES)
+                    .toList();
+        }
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Mes del archivo a partir de su nombre: ventasYYYYMM.txt o
+     * YYYYMM.bloqueos.txt
+     */
+    private static LocalDate monthOf(Path file, String prefix) {
+        String name = file.getFileName().toString();
+        String digits = name.substring(prefix.length(), prefix.length() + 6);
+        return YearMonth.of(Integer.parseInt(digits.substring(0, 4)), Integer.parseInt(digits.substring(4)))
+                .atDay(1);
+    }
+
+    private static long checksum(List<?> loaded) {
+        long checksum = 0;
+        for (Object item : loaded) {
+            if (item instanceof Order order) {
+                checksum = checksum * 31 + order.getId().hashCode() + order.getGlpRequestM3();
+            } else if (item instanceof Blockage blockage) {
+                checksum = checksum * 31 + blockage.getStartTime().hashCode() + blockage.getLines().size();
+            }
+        }
+        return checksum;
+    }
+
+    private static List<?> loadOrdersMapped(Path file, LocalDate month) throws IOException {
+        return FileUtils.loadOrdersForDate(file, month, month.plusMonths(1));
+    }
+
+    private static List<?> loadBlockagesMapped(Path file, LocalDate month) throws IOException {
+        return FileUtils.loadBlockagesForDate(file, month, month.plusMonths(1));
+    }
+
+    /**
+     * Lectura de órdenes como se hacía antes en FileUtils
+     */
+    private static List<?> loadOrdersWithRegex(Path file, LocalDate month) throws IOException {
+        List<Order> orders = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                Matcher matcher = ORDER_PATTERN.matcher(line);
+                if (matcher.matches()) {
+                    String[] data = matcher.group(2).split(",");
+                    LocalDateTime arrivalTime = DateTimeParser.parseDateTime(month, matcher.group(1));
+                    int glpRequestM3 = Integer.parseInt(data[3].replace("m3", ""));
+                    int expirationHours = Integer.parseInt(data[4].replace("h", "")) + 4;
+                    Position position = new Position(Integer.parseInt(data[0]), Integer.parseInt(data[1]));
+                    orders.add(new Order(data[2] + arrivalTime.toString(), arrivalTime,
+                            arrivalTime.plusHours(expirationHours), glpRequestM3, position));
+                }
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Lectura de bloqueos como se hacía antes en FileUtils
+     */
+    private static List<?> loadBlockagesWithRegex(Path file, LocalDate month) throws IOException {
+        List<Blockage> blockages = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                Matcher matcher = BLOCKAGE_PATTERN.matcher(line);
+                if (matcher.matches()) {
+                    LocalDateTime startTime = DateTimeParser.parseDateTime(month, matcher.group(1));
+                    LocalDateTime endTime = DateTimeParser.parseDateTime(month, matcher.group(2));
+                    String[] coordinates = matcher.group(3).split(",");
+                    List<Position> points = new ArrayList<>();
+                    for (int i = 0; i < coordinates.length; i += 2) {
+                        points.add(new Position(Integer.parseInt(coordinates[i]), Integer.parseInt(coordinates[i + 1])));
+                    }
+                    blockages.add(new Blockage(startTime, endTime, points));
+                }
+            }
+        }
+        return blockages;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.plgsystem.demo;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.example.plgsystem.enums.DepotType;
+import com.example.plgsystem.model.Blockage;
+import com.example.plgsystem.model.Constants;
+import com.example.plgsystem.model.Depot;
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.pathfinding.PathFinder;
+import com.example.plgsystem.pathfinding.PathTree;
+import com.example.plgsystem.simulation.SimulationState;
+import com.example.plgsystem.util.FileUtils;
+
+/**
+ * Benchmark de consultas de bloqueo y búsqueda de rutas sobre los bloqueos
+ * históricos de un mes completo.
+ * <p>
+ * Compara la consulta indexada de {@link SimulationState#isPositionBlockedAt}
+ * contra el recorrido lineal de la lista de bloqueos, y mide el throughput de
+ * {@link PathFinder#findPath} con cada motor disponible sobre el mismo estado.
+ */
+public class PathfindingBenchmark {
+    private static final String BLOCKAGES_FILE = "src/main/resources/data/bloqueos.20250419/202501.bloqueos.txt";
+    private static final LocalDate MONTH_START = LocalDate.of(2025, 1, 1);
+    private static final int QUERY_COUNT = 2_000_000;
+    private static final int PATH_COUNT = 2_000;
+    private static final int TARGETS_PER_ORIGIN = 40;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final long RANDOM_SEED = 42L;
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final String RESULTS_DIRECTORY = "experiment_results";
+    private static final String CSV_HEADER = "benchmark,variant,operations,execution_time_ms,ns_per_operation,checksum\n";
+
+    public static void main(String[] args) {
+        Path blockagesFile = Paths.get(args.length > 0 ? args[0] : BLOCKAGES_FILE);
+        List<Blockage> blockages;
+        try {
+            blockages = FileUtils.loadBlockagesForDate(blockagesFile, MONTH_START, MONTH_START.plusMonths(1));
+            Files.createDirectories(Paths.get(RESULTS_DIRECTORY));
+        } catch (IOException e) {
+            System.err.println("Error al preparar el benchmark: " + e.getMessage());
+            return;
+        }
+
+        SimulationState state = createSimulationState(MONTH_START.atStartOfDay());
+        blockages.forEach(state::addBlockage);
+        System.out.println("Bloqueos cargados: " + blockages.size());
+
+        String resultsFilePath = RESULTS_DIRECTORY + "/pathfinding_results_" +
+                LocalDateTime.now().format(DATE_FORMATTER) + ".csv";
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(resultsFilePath))) {
+            writer.write(CSV_HEADER);
+            for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+                boolean record = round == WARMUP_ROUNDS;
+                runBlockedQueries(state, record ? writer : null);
+                for (PathFinder.Engine engine : PathFinder.Engine.values()) {
+                    PathFinder.configure(engine);
+                    runPathSearches(state, engine.name().toLowerCase(), record ? writer : null);
+                }
+                runBatchSearches(state, record ? writer : null);
+            }
+            System.out.println("Resultados guardados en " + resultsFilePath);
+        } catch (IOException e) {
+            System.err.println("Error al escribir resultados: " + e.getMessage());
+        }
+    }
+
+    private static void runBlockedQueries(SimulationState state, BufferedWriter writer) throws IOException {
+        Random random = new Random(RANDOM_SEED);
+        Position[] positions = new Position[QUERY_COUNT];
+        LocalDateTime[] times = new LocalDateTime[QUERY_COUNT];
+        LocalDateTime start = MONTH_START.atStartOfDay();
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            positions[i] = new Position(random.nextInt(Constants.CITY_X + 1), random.nextInt(Constants.CITY_Y + 1));
+            times[i] = start.plusSeconds(random.nextInt(31 * 24 * 3600));
+        }
+
+        List<Blockage> blockages = state.getBlockages();
+        long linearStart = System.nanoTime();
+        int linearBlocked = 0;
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            LocalDateTime time = times[i];
+            Position position = positions[i];
+            if (blockages.stream().filter(b -> b.isActiveAt(time)).anyMatch(b -> b.isPositionBlocked(position))) {
+                linearBlocked++;
+            }
+        }
+        long linearNanos = System.nanoTime() - linearStart;
+
+        long indexedStart = System.nanoTime();
+        int indexedBlocked = 0;
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            if (state.isPositionBlockedAt(positions[i], times[i])) {
+                indexedBlocked++;
+            }
+        }
+        long indexedNanos = System.nanoTime() - indexedStart;
+
+        if (linearBlocked != indexedBlocked) {
+            System.err.printf("Discrepancia: lineal=%d indexado=%d%n", linearBlocked, indexedBlocked);
+        }
+        if (writer != null) {
+            writeRow(writer, "blocked_query", "linear_scan", QUERY_COUNT, linearNanos, linearBlocked);
+            writeRow(writer, "blocked_query", "bitmap_index", QUERY_COUNT, indexedNanos, indexedBlocked);
+        }
+    }
+
+    private static void runPathSearches(SimulationState state, String variant, BufferedWriter writer)
+            throws IOException {
+        Random random = new Random(RANDOM_SEED);
+        LocalDateTime start = MONTH_START.atStartOfDay();
+        long totalLength = 0;
+        long begin = System.nanoTime();
+        for (int i = 0; i < PATH_COUNT; i++) {
+            Position from = new Position(random.nextInt(Constants.CITY_X + 1), random.nextInt(Constants.CITY_Y + 1));
+            Position to = new Position(random.nextInt(Constants.CITY_X + 1), random.nextInt(Constants.CITY_Y + 1));
+            LocalDateTime departure = start.plusMinutes(random.nextInt(31 * 24 * 60));
+            totalLength += PathFinder.findPath(state, from, to, departure).size();
+        }
+        long elapsed = System.nanoTime() - begin;
+        if (writer != null) {
+            writeRow(writer, "find_path", variant, PATH_COUNT, elapsed, totalLength);
+        }
+    }
+
+    /**
+     * Compara una búsqueda de uno a muchos contra una búsqueda por par con los
+     * mismos orígenes y destinos.
+     */
+    private static void runBatchSearches(SimulationState state, BufferedWriter writer) throws IOException {
+        Random random = new Random(RANDOM_SEED);
+        LocalDateTime start = MONTH_START.atStartOfDay();
+        int origins = PATH_COUNT / TARGETS_PER_ORIGIN;
+        long pairwiseNanos = 0;
+        long batchNanos = 0;
+        long pairwiseChecksum = 0;
+        long batchChecksum = 0;
+        for (int i = 0; i < origins; i++) {
+            Position origin = new Position(random.nextInt(Constants.CITY_X + 1), random.nextInt(Constants.CITY_Y + 1));
+            LocalDateTime departure = start.plusMinutes(random.nextInt(31 * 24 * 60));
+            List<Position> targets = new ArrayList<>(TARGETS_PER_ORIGIN);
+            for (int t = 0; t < TARGETS_PER_ORIGIN; t++) {
+                targets.add(new Position(random.nextInt(Constants.CITY_X + 1), random.nextInt(Constants.CITY_Y + 1)));
+            }
+
+            long begin = System.nanoTime();
+            for (Position target : targets) {
+                pairwiseChecksum += PathFinder.findPath(state, origin, target, departure).size();
+            }
+            pairwiseNanos += System.nanoTime() - begin;
+
+            begin = System.nanoTime();
+            PathTree tree = PathFinder.findPathsFrom(state, origin, targets, departure);
+            for (Position target : targets) {
+                batchChecksum += tree.getPath(target).size();
+            }
+            batchNanos += System.nanoTime() - begin;
+        }
+        if (writer != null) {
+            int pairs = origins * TARGETS_PER_ORIGIN;
+            writeRow(writer, "one_to_many", "pairwise_" + PathFinder.getEngine().name().toLowerCase(), pairs,
+                    pairwiseNanos, pairwiseChecksum);
+            writeRow(writer, "one_to_many", "find_paths_from", pairs, batchNanos, batchChecksum);
+        }
+    }
+
+    private static void writeRow(BufferedWriter writer, String benchmark, String variant, int operations,
+            long nanos, long checksum) throws IOException {
+        String row = String.format("%s,%s,%d,%d,%.1f,%d%n", benchmark, variant, operations,
+                nanos / 1_000_000, (double) nanos / operations, checksum);
+        System.out.print(row);
+        writer.write(row);
+        writer.flush();
+    }
+
+    private static SimulationState createSimulationState(LocalDateTime startTime) {
+        Depot mainDepot = new Depot(Constants.MAIN_DEPOT_ID, Constants.MAIN_DEPOT_LOCATION, 10000, DepotType.MAIN);
+        List<Depot> auxDepots = new ArrayList<>();
+        auxDepots.add(new Depot(Constants.NORTH_DEPOT_ID, Constants.NORTH_DEPOT_LOCATION, 160, DepotType.AUXILIARY));
+        auxDepots.add(new Depot(Constants.EAST_DEPOT_ID, Constants.EAST_DEPOT_LOCATION, 160, DepotType.AUXILIARY));
+        return new SimulationState(new ArrayList<>(), mainDepot, auxDepots, startTime);
+    }
+}
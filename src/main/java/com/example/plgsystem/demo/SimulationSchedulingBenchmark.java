@@ -0,0 +1,158 @@
+package com.example.plgsystem.demo;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.example.plgsystem.assignation.MetaheuristicSolver;
+import com.example.plgsystem.enums.SimulationType;
+import com.example.plgsystem.model.Constants;
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.orchest.Event;
+import com.example.plgsystem.orchest.EventType;
+import com.example.plgsystem.orchest.SimpleDataLoader;
+import com.example.plgsystem.service.SimulationService;
+import com.example.plgsystem.simulation.Simulation;
+import com.example.plgsystem.simulation.SimulationScheduler;
+import com.example.plgsystem.simulation.SimulationState;
+
+/**
+ * Prueba de carga del avance de simulaciones concurrentes.
+ * <p>
+ * Con 1, 10 y 50 simulaciones en ejecución, compara el antiguo bucle único
+ * que avanza todas las simulaciones una tras otra contra
+ * {@link SimulationScheduler}, que da a cada una su propio hilo virtual.
+ * Ambas variantes avanzan sin espera entre ticks durante la misma ventana de
+ * tiempo real; se mide el total de ticks y el mínimo y máximo por simulación
+ * (un mínimo bajo indica que alguna simulación quedó relegada).
+ */
+public class SimulationSchedulingBenchmark {
+    private static final int[] SIMULATION_COUNTS = { 1, 10, 50 };
+    private static final long WINDOW_MS = 10_000;
+    private static final int ORDERS_PER_SIMULATION = 200;
+    private static final long SOLVER_TIME_BUDGET_MS = 200;
+    private static final long RANDOM_SEED = 42L;
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final String RESULTS_DIRECTORY = "experiment_results";
+    private static final String CSV_HEADER = "benchmark,simulations,variant,duration_ms,total_ticks,ticks_per_second,min_ticks,max_ticks\n";
+
+    public static void main(String[] args) {
+        try {
+            Files.createDirectories(Paths.get(RESULTS_DIRECTORY));
+        } catch (IOException e) {
+            System.err.println("Error al crear directorio de resultados: " + e.getMessage());
+            return;
+        }
+
+        String resultsFilePath = RESULTS_DIRECTORY + "/simulation_scheduling_results_" +
+                LocalDateTime.now().format(DATE_FORMATTER) + ".csv";
+
+        MetaheuristicSolver.configureTimeBudget(SOLVER_TIME_BUDGET_MS);
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(resultsFilePath))) {
+            writer.write(CSV_HEADER);
+            for (int count : SIMULATION_COUNTS) {
+                runSequential(count, writer);
+                runVirtualThreads(count, writer);
+            }
+            System.out.println("Resultados guardados en " + resultsFilePath);
+        } catch (IOException e) {
+            System.err.println("Error al escribir resultados: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Benchmark interrumpido");
+        }
+    }
+
+    /**
+     * Un único hilo avanza todas las simulaciones por turnos, como el antiguo
+     * actualizador de SimulationService
+     */
+    private static void runSequential(int count, BufferedWriter writer) throws IOException {
+        List<Simulation> simulations = createSimulations(count);
+        Map<UUID, AtomicLong> ticks = new ConcurrentHashMap<>();
+        simulations.forEach(simulation -> ticks.put(simulation.getId(), new AtomicLong()));
+
+        long begin = System.nanoTime();
+        long deadline = begin + WINDOW_MS * 1_000_000;
+        while (System.nanoTime() < deadline) {
+            for (Simulation simulation : simulations) {
+                simulation.advanceTick();
+                ticks.get(simulation.getId()).incrementAndGet();
+            }
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        writeRow(writer, count, "sequential_loop", elapsed, ticks);
+        shutdown(simulations);
+    }
+
+    private static void runVirtualThreads(int count, BufferedWriter writer)
+            throws IOException, InterruptedException {
+        List<Simulation> simulations = createSimulations(count);
+        Map<UUID, AtomicLong> ticks = new ConcurrentHashMap<>();
+        simulations.forEach(simulation -> ticks.put(simulation.getId(), new AtomicLong()));
+        SimulationScheduler scheduler = new SimulationScheduler(
+                simulation -> ticks.get(simulation.getId()).incrementAndGet(), 0);
+
+        long begin = System.nanoTime();
+        simulations.forEach(scheduler::schedule);
+        Thread.sleep(WINDOW_MS);
+        simulations.forEach(Simulation::pause);
+        scheduler.shutdown();
+        long elapsed = System.nanoTime() - begin;
+
+        writeRow(writer, count, "virtual_threads", elapsed, ticks);
+        shutdown(simulations);
+    }
+
+    private static List<Simulation> createSimulations(int count) {
+        Random random = new Random(RANDOM_SEED);
+        LocalDateTime startTime = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<Simulation> simulations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            SimulationState state = SimulationService.createCustomState(startTime, 2, 4, 4, 10);
+            SimpleDataLoader dataLoader = new SimpleDataLoader();
+            for (int j = 0; j < ORDERS_PER_SIMULATION; j++) {
+                LocalDateTime arrival = startTime.plusMinutes(random.nextInt(24 * 60));
+                Position position = new Position(random.nextInt(Constants.CITY_X), random.nextInt(Constants.CITY_Y));
+                Order order = new Order("c-" + j + arrival, arrival, arrival.plusHours(4 + random.nextInt(20)),
+                        1 + random.nextInt(20), position);
+                dataLoader.addEvent(new Event(EventType.ORDER, arrival, order.getId(), order));
+            }
+            Simulation simulation = new Simulation(state, SimulationType.CUSTOM, dataLoader);
+            simulation.start();
+            simulations.add(simulation);
+        }
+        return simulations;
+    }
+
+    private static void shutdown(List<Simulation> simulations) {
+        simulations.forEach(simulation -> simulation.getOrchestrator().shutdown());
+    }
+
+    private static void writeRow(BufferedWriter writer, int count, String variant, long nanos,
+            Map<UUID, AtomicLong> ticks) throws IOException {
+        long total = ticks.values().stream().mapToLong(AtomicLong::get).sum();
+        long min = ticks.values().stream().mapToLong(AtomicLong::get).min().orElse(0);
+        long max = ticks.values().stream().mapToLong(AtomicLong::get).max().orElse(0);
+        String row = String.format("%s,%d,%s,%d,%d,%.1f,%d,%d%n", "simulation_ticks", count, variant,
+                nanos / 1_000_000, total, total * 1e9 / nanos, min, max);
+        System.out.print(row);
+        writer.write(row);
+        writer.flush();
+    }
+}
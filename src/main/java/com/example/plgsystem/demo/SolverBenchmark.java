@@ -0,0 +1,272 @@
+package com.example.plgsystem.demo;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import com.example.plgsystem.assignation.DeliveryPart;
+import com.example.plgsystem.assignation.DistanceMatrix;
+import com.example.plgsystem.assignation.DistributionOperations;
+import com.example.plgsystem.assignation.MetaheuristicSolver;
+import com.example.plgsystem.assignation.RandomDistributor;
+import com.example.plgsystem.assignation.Route;
+import com.example.plgsystem.assignation.Solution;
+import com.example.plgsystem.assignation.SolutionGenerator;
+import com.example.plgsystem.enums.DepotType;
+import com.example.plgsystem.enums.VehicleType;
+import com.example.plgsystem.model.Constants;
+import com.example.plgsystem.model.Depot;
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.model.Vehicle;
+import com.example.plgsystem.simulation.SimulationState;
+
+/**
+ * Benchmark de los componentes del solver metaheurístico.
+ * <p>
+ * Mide la generación y evaluación de soluciones sobre las mismas asignaciones
+ * aleatorias consultando las distancias directamente sobre las posiciones y a
+ * través de una {@link DistanceMatrix} precalculada (Manhattan y evitando
+ * bloqueos), incluyendo el costo de construir la matriz, la evaluación de
+ * rutas ya construidas y la evaluación de vecinos reconstruyendo todas las
+ * rutas frente a reutilizar las rutas no modificadas de la solución actual.
+ * También mide el tiempo de {@link MetaheuristicSolver#solve} con distinta cantidad de hilos y
+ * la misma semilla; el checksum (costo de la solución) debe coincidir. Cada
+ * fila reporta además los bytes reservados por operación (por iteración en el
+ * caso de solve), sumando todos los hilos de la JVM.
+ */
+public class SolverBenchmark {
+    private static final int[] ORDER_COUNTS = { 50, 100, 200 };
+    private static final int ASSIGNMENTS_PER_SIZE = 2_000;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int SOLVE_ORDERS = 100;
+    private static final int SOLVE_ITERATIONS = 200;
+    private static final long RANDOM_SEED = 42L;
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final String RESULTS_DIRECTORY = "experiment_results";
+    private static final String CSV_HEADER = "benchmark,orders,variant,operations,execution_time_ms,ns_per_operation,bytes_per_operation,checksum\n";
+
+    public static void main(String[] args) {
+        try {
+            Files.createDirectories(Paths.get(RESULTS_DIRECTORY));
+        } catch (IOException e) {
+            System.err.println("Error al crear directorio de resultados: " + e.getMessage());
+            return;
+        }
+
+        String resultsFilePath = RESULTS_DIRECTORY + "/solver_results_" +
+                LocalDateTime.now().format(DATE_FORMATTER) + ".csv";
+        LocalDateTime startTime = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(resultsFilePath))) {
+            writer.write(CSV_HEADER);
+            for (int orderCount : ORDER_COUNTS) {
+                SimulationState state = createSimulationState(startTime, orderCount);
+                List<Map<String, List<DeliveryPart>>> assignments = new ArrayList<>(ASSIGNMENTS_PER_SIZE);
+                for (int i = 0; i < ASSIGNMENTS_PER_SIZE; i++) {
+                    assignments.add(RandomDistributor.createInitialRandomAssignments(state));
+                }
+
+                for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+                    BufferedWriter target = round == WARMUP_ROUNDS ? writer : null;
+                    runGeneration(state, assignments, "direct", target);
+                    runGeneration(state, assignments, "manhattan_matrix", target);
+                    runGeneration(state, assignments, "blockage_aware_matrix", target);
+                    runEvaluation(state, assignments, target);
+                }
+                for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+                    BufferedWriter target = round == WARMUP_ROUNDS ? writer : null;
+                    runNeighborEvaluation(state, assignments.get(0), false, target);
+                    runNeighborEvaluation(state, assignments.get(0), true, target);
+                }
+            }
+            runParallelSolve(createSimulationState(startTime, SOLVE_ORDERS), writer);
+            System.out.println("Resultados guardados en " + resultsFilePath);
+        } catch (IOException e) {
+            System.err.println("Error al escribir resultados: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Genera y evalúa una solución por asignación (incluye un greedySort por
+     * asignación, como hace la fase de optimización del solver).
+     */
+    private static void runGeneration(SimulationState state, List<Map<String, List<DeliveryPart>>> assignments,
+            String variant, BufferedWriter writer) throws IOException {
+        long allocatedBefore = allocatedBytes();
+        long begin = System.nanoTime();
+        DistanceMatrix distances = switch (variant) {
+            case "manhattan_matrix" -> DistanceMatrix.manhattan(state);
+            case "blockage_aware_matrix" -> DistanceMatrix.blockageAware(state);
+            default -> DistanceMatrix.direct(state);
+        };
+        long checksum = 0;
+        for (Map<String, List<DeliveryPart>> assignment : assignments) {
+            Map<String, List<DeliveryPart>> sorted = DistributionOperations.greedySort(assignment, state, distances);
+            Solution solution = SolutionGenerator.generateSolution(state, sorted, distances);
+            for (Route route : solution.getRoutes().values()) {
+                checksum += route.stops().size();
+            }
+        }
+        long elapsed = System.nanoTime() - begin;
+        long allocated = allocatedBytes() - allocatedBefore;
+        if (writer != null) {
+            writeRow(writer, "generate_solution", state.getOrders().size(), variant, assignments.size(), elapsed,
+                    allocated, checksum);
+        }
+    }
+
+    /**
+     * Evalúa rutas ya construidas, sin reutilizar costos: solo el costo de
+     * recorrer las paradas con sus tiempos, plazos y GLP pendiente.
+     */
+    private static void runEvaluation(SimulationState state, List<Map<String, List<DeliveryPart>>> assignments,
+            BufferedWriter writer) throws IOException {
+        DistanceMatrix distances = DistanceMatrix.manhattan(state);
+        List<Map<String, Route>> routes = new ArrayList<>(assignments.size());
+        for (Map<String, List<DeliveryPart>> assignment : assignments) {
+            routes.add(SolutionGenerator.generateSolution(state, assignment, distances).getRoutes());
+        }
+
+        long allocatedBefore = allocatedBytes();
+        long begin = System.nanoTime();
+        double checksum = 0;
+        for (Map<String, Route> solutionRoutes : routes) {
+            checksum += new Solution(solutionRoutes, state, distances).getCost().totalCost();
+        }
+        long elapsed = System.nanoTime() - begin;
+        long allocated = allocatedBytes() - allocatedBefore;
+        if (writer != null) {
+            writeRow(writer, "evaluate_solution", state.getOrders().size(), "manhattan_matrix", routes.size(),
+                    elapsed, allocated, Math.round(checksum));
+        }
+    }
+
+    /**
+     * Evalúa vecinos de una misma solución, como en una iteración del solver,
+     * reconstruyendo todas las rutas o reutilizando las de los vehículos que el
+     * movimiento no tocó. El checksum (suma de costos) debe coincidir.
+     */
+    private static void runNeighborEvaluation(SimulationState state, Map<String, List<DeliveryPart>> assignment,
+            boolean reuseRoutes, BufferedWriter writer) throws IOException {
+        DistanceMatrix distances = DistanceMatrix.manhattan(state);
+        Solution current = SolutionGenerator.generateSolution(state, assignment, distances);
+        Map<String, List<DeliveryPart>> currentAssignment = current.getVehicleOrderAssignments();
+        SplittableRandom random = new SplittableRandom(RANDOM_SEED);
+
+        long allocatedBefore = allocatedBytes();
+        long begin = System.nanoTime();
+        double checksum = 0;
+        for (int i = 0; i < ASSIGNMENTS_PER_SIZE; i++) {
+            Map<String, List<DeliveryPart>> neighbor = DistributionOperations
+                    .randomOperationWithState(currentAssignment, state, random);
+            Solution solution = SolutionGenerator.generateSolution(state, neighbor, distances,
+                    reuseRoutes ? current : null);
+            checksum += solution.getCost().totalCost();
+        }
+        long elapsed = System.nanoTime() - begin;
+        long allocated = allocatedBytes() - allocatedBefore;
+        if (writer != null) {
+            writeRow(writer, "evaluate_neighbor", state.getOrders().size(),
+                    reuseRoutes ? "reuse_routes" : "rebuild_routes", ASSIGNMENTS_PER_SIZE, elapsed, allocated,
+                    Math.round(checksum));
+        }
+    }
+
+    /**
+     * Resuelve el mismo estado con la misma semilla usando 1, 2, 4, ... hilos
+     * hasta el número de núcleos disponibles y reporta la aceleración respecto
+     * a un hilo.
+     */
+    private static void runParallelSolve(SimulationState state, BufferedWriter writer) throws IOException {
+        int previousParallelism = MetaheuristicSolver.getParallelism();
+        MetaheuristicSolver.configure(SOLVE_ITERATIONS, 15, 20);
+        List<Integer> coreCounts = new ArrayList<>();
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int count = 1; count < cores; count *= 2) {
+            coreCounts.add(count);
+        }
+        coreCounts.add(cores);
+
+        long singleThreadNanos = 0;
+        for (int count : coreCounts) {
+            MetaheuristicSolver.configureParallelism(count);
+            MetaheuristicSolver.solve(state, RANDOM_SEED); // calentamiento
+            long allocatedBefore = allocatedBytes();
+            long begin = System.nanoTime();
+            Solution solution = MetaheuristicSolver.solve(state, RANDOM_SEED);
+            long elapsed = System.nanoTime() - begin;
+            long allocated = allocatedBytes() - allocatedBefore;
+            if (count == 1) {
+                singleThreadNanos = elapsed;
+            }
+            writeRow(writer, "solve", state.getOrders().size(), "threads_" + count, SOLVE_ITERATIONS, elapsed,
+                    allocated, Math.round(solution.getCost().totalCost()));
+            System.out.printf("Aceleración con %d hilos: %.2fx%n", count, (double) singleThreadNanos / elapsed);
+        }
+        MetaheuristicSolver.configureParallelism(previousParallelism);
+    }
+
+    /**
+     * Bytes reservados hasta ahora por todos los hilos vivos, o 0 si la JVM no
+     * lo soporta
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()) {
+            return Math.max(0, threads.getTotalThreadAllocatedBytes());
+        }
+        return 0;
+    }
+
+    private static void writeRow(BufferedWriter writer, String benchmark, int orders, String variant,
+            int operations, long nanos, long allocatedBytes, long checksum) throws IOException {
+        String row = String.format("%s,%d,%s,%d,%d,%.1f,%d,%d%n", benchmark, orders, variant, operations,
+                nanos / 1_000_000, (double) nanos / operations, allocatedBytes / operations, checksum);
+        System.out.print(row);
+        writer.write(row);
+        writer.flush();
+    }
+
+    private static SimulationState createSimulationState(LocalDateTime startTime, int orderCount) {
+        List<Vehicle> vehicles = new ArrayList<>();
+        List<Depot> auxDepots = new ArrayList<>();
+        Depot mainDepot = new Depot(Constants.MAIN_DEPOT_ID, Constants.MAIN_DEPOT_LOCATION, 10000, DepotType.MAIN);
+        auxDepots.add(new Depot(Constants.NORTH_DEPOT_ID, Constants.NORTH_DEPOT_LOCATION, 160, DepotType.AUXILIARY));
+        auxDepots.add(new Depot(Constants.EAST_DEPOT_ID, Constants.EAST_DEPOT_LOCATION, 160, DepotType.AUXILIARY));
+
+        for (int i = 1; i <= 2; i++) {
+            vehicles.add(new Vehicle(String.format("TA%02d", i), VehicleType.TA, Constants.MAIN_DEPOT_LOCATION));
+        }
+        for (int i = 1; i <= 4; i++) {
+            vehicles.add(new Vehicle(String.format("TB%02d", i), VehicleType.TB, Constants.MAIN_DEPOT_LOCATION));
+        }
+        for (int i = 1; i <= 4; i++) {
+            vehicles.add(new Vehicle(String.format("TC%02d", i), VehicleType.TC, Constants.MAIN_DEPOT_LOCATION));
+        }
+        for (int i = 1; i <= 10; i++) {
+            vehicles.add(new Vehicle(String.format("TD%02d", i), VehicleType.TD, Constants.MAIN_DEPOT_LOCATION));
+        }
+        SimulationState state = new SimulationState(vehicles, mainDepot, auxDepots, startTime);
+
+        Random random = new Random(RANDOM_SEED);
+        for (int i = 0; i < orderCount; i++) {
+            int glp = random.nextInt(25) + 1;
+            LocalDateTime deadline = startTime.plusHours(random.nextInt(24 * 3 - 4) + 4);
+            Position position = new Position(random.nextInt(Constants.CITY_X), random.nextInt(Constants.CITY_Y));
+            state.addOrder(new Order("order_" + (i + 1), startTime, deadline, glp, position));
+        }
+        return state;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.plgsystem.demo;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.example.plgsystem.enums.DepotType;
+import com.example.plgsystem.enums.VehicleType;
+import com.example.plgsystem.model.Constants;
+import com.example.plgsystem.model.Depot;
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.model.Vehicle;
+import com.example.plgsystem.simulation.SimulationState;
+
+/**
+ * Benchmark de las búsquedas por id de {@link SimulationState}.
+ * <p>
+ * Compara {@link SimulationState#getVehicleById},
+ * {@link SimulationState#getOrderById} y {@link SimulationState#getDepotById}
+ * (índices por id) contra el recorrido lineal de las listas del estado, con
+ * 20 vehículos y 1000 órdenes y con 200 vehículos y 20000 órdenes. Los ids
+ * consultados incluyen un 10% que no existe.
+ */
+public class StateLookupBenchmark {
+    private static final int[][] SIZES = { { 20, 1_000 }, { 200, 20_000 } };
+    private static final int INDEXED_LOOKUPS = 2_000_000;
+    private static final int LINEAR_LOOKUPS = 20_000;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final long RANDOM_SEED = 42L;
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final String RESULTS_DIRECTORY = "experiment_results";
+    private static final String CSV_HEADER = "benchmark,vehicles,orders,variant,operations,execution_time_ms,ns_per_operation,checksum\n";
+
+    public static void main(String[] args) {
+        try {
+            Files.createDirectories(Paths.get(RESULTS_DIRECTORY));
+        } catch (IOException e) {
+            System.err.println("Error al crear directorio de resultados: " + e.getMessage());
+            return;
+        }
+
+        String resultsFilePath = RESULTS_DIRECTORY + "/state_lookup_results_" +
+                LocalDateTime.now().format(DATE_FORMATTER) + ".csv";
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(resultsFilePath))) {
+            writer.write(CSV_HEADER);
+            for (int[] size : SIZES) {
+                SimulationState state = createSimulationState(size[0], size[1]);
+                for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+                    BufferedWriter target = round == WARMUP_ROUNDS ? writer : null;
+                    runLookups(state, "vehicle", queryIds(state, "vehicle", INDEXED_LOOKUPS), true, target);
+                    runLookups(state, "vehicle", queryIds(state, "vehicle", LINEAR_LOOKUPS), false, target);
+                    runLookups(state, "order", queryIds(state, "order", INDEXED_LOOKUPS), true, target);
+                    runLookups(state, "order", queryIds(state, "order", LINEAR_LOOKUPS), false, target);
+                    runLookups(state, "depot", queryIds(state, "depot", INDEXED_LOOKUPS), true, target);
+                    runLookups(state, "depot", queryIds(state, "depot", LINEAR_LOOKUPS), false, target);
+                }
+            }
+            System.out.println("Resultados guardados en " + resultsFilePath);
+        } catch (IOException e) {
+            System.err.println("Error al escribir resultados: " + e.getMessage());
+        }
+    }
+
+    private static void runLookups(SimulationState state, String entity, String[] ids, boolean indexed,
+            BufferedWriter writer) throws IOException {
+        long begin = System.nanoTime();
+        long found = 0;
+        for (String id : ids) {
+            Object result = indexed ? indexedLookup(state, entity, id) : linearLookup(state, entity, id);
+            if (result != null) {
+                found++;
+            }
+        }
+        long elapsed = System.nanoTime() - begin;
+        if (writer != null) {
+            writeRow(writer, entity + "_lookup", state, indexed ? "hash_index" : "linear_scan", ids.length,
+                    elapsed, found);
+        }
+    }
+
+    private static Object indexedLookup(SimulationState state, String entity, String id) {
+        return switch (entity) {
+            case "vehicle" -> state.getVehicleById(id);
+            case "order" -> state.getOrderById(id);
+            default -> state.getDepotById(id);
+        };
+    }
+
+    /**
+     * Búsqueda como se hacía antes de los índices
+     */
+    private static Object linearLookup(SimulationState state, String entity, String id) {
+        return switch (entity) {
+            case "vehicle" -> state.getVehicles().stream()
+                    .filter(vehicle -> vehicle.getId().equals(id)).findFirst().orElse(null);
+            case "order" -> state.getOrders().stream()
+                    .filter(order -> order.getId().equals(id)).findFirst().orElse(null);
+            default -> id.equals(state.getMainDepot().getId()) ? state.getMainDepot()
+                    : state.getAuxDepots().stream()
+                            .filter(depot -> depot.getId().equals(id)).findFirst().orElse(null);
+        };
+    }
+
+    private static String[] queryIds(SimulationState state, String entity, int count) {
+        List<String> existing = new ArrayList<>();
+        switch (entity) {
+            case "vehicle" -> state.getVehicles().forEach(vehicle -> existing.add(vehicle.getId()));
+            case "order" -> state.getOrders().forEach(order -> existing.add(order.getId()));
+            default -> {
+                existing.add(state.getMainDepot().getId());
+                state.getAuxDepots().forEach(depot -> existing.add(depot.getId()));
+            }
+        }
+        Random random = new Random(RANDOM_SEED);
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = random.nextInt(10) == 0 ? "MISSING-" + i : existing.get(random.nextInt(existing.size()));
+        }
+        return ids;
+    }
+
+    private static void writeRow(BufferedWriter writer, String benchmark, SimulationState state, String variant,
+            int operations, long nanos, long checksum) throws IOException {
+        String row = String.format("%s,%d,%d,%s,%d,%d,%.1f,%d%n", benchmark, state.getVehicles().size(),
+                state.getOrders().size(), variant, operations, nanos / 1_000_000, (double) nanos / operations,
+                checksum);
+        System.out.print(row);
+        writer.write(row);
+        writer.flush();
+    }
+
+    private static SimulationState createSimulationState(int vehicleCount, int orderCount) {
+        LocalDateTime startTime = LocalDateTime.of(2025, 1, 1, 0, 0);
+        Depot mainDepot = new Depot(Constants.MAIN_DEPOT_ID, Constants.MAIN_DEPOT_LOCATION, 10000, DepotType.MAIN);
+        List<Depot> auxDepots = new ArrayList<>();
+        auxDepots.add(new Depot(Constants.NORTH_DEPOT_ID, Constants.NORTH_DEPOT_LOCATION, 160, DepotType.AUXILIARY));
+        auxDepots.add(new Depot(Constants.EAST_DEPOT_ID, Constants.EAST_DEPOT_LOCATION, 160, DepotType.AUXILIARY));
+
+        VehicleType[] types = VehicleType.values();
+        List<Vehicle> vehicles = new ArrayList<>(vehicleCount);
+        for (int i = 1; i <= vehicleCount; i++) {
+            VehicleType type = types[i % types.length];
+            vehicles.add(new Vehicle(String.format("%s%03d", type.name(), i), type, Constants.MAIN_DEPOT_LOCATION));
+        }
+        SimulationState state = new SimulationState(vehicles, mainDepot, auxDepots, startTime);
+
+        Random random = new Random(RANDOM_SEED);
+        for (int i = 0; i < orderCount; i++) {
+            LocalDateTime arrival = startTime.plusMinutes(random.nextInt(24 * 60));
+            Position position = new Position(random.nextInt(Constants.CITY_X), random.nextInt(Constants.CITY_Y));
+            Order order = new Order("c-" + i + arrival, arrival, arrival.plusHours(8),
+                    1 + random.nextInt(20), position);
+            state.addOrder(order);
+        }
+        return state;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.plgsystem.demo;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import com.example.plgsystem.assignation.MetaheuristicSolver;
+import com.example.plgsystem.dto.SimulationDTO;
+import com.example.plgsystem.dto.SimulationStateDTO;
+import com.example.plgsystem.enums.SimulationType;
+import com.example.plgsystem.model.Constants;
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.orchest.Event;
+import com.example.plgsystem.orchest.EventType;
+import com.example.plgsystem.orchest.SimpleDataLoader;
+import com.example.plgsystem.service.SimulationService;
+import com.example.plgsystem.service.SimulationStateStream;
+import com.example.plgsystem.service.SimulationUpdate;
+import com.example.plgsystem.simulation.Simulation;
+import com.example.plgsystem.simulation.SimulationState;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Benchmark del tamaño de las actualizaciones de estado por WebSocket.
+ * <p>
+ * Avanza una simulación de 20 vehículos con 200 órdenes y en cada tick
+ * serializa a JSON, como lo haría el broker, todos los mensajes de cada
+ * variante: antes, el {@link SimulationDTO} con el estado completo más el
+ * {@link SimulationStateDTO} en /state; ahora, todos los mensajes de
+ * {@link SimulationUpdate} (resumen, planes instalados y delta de
+ * {@link SimulationStateStream}), como los envía SimulationService.
+ * Se registran los bytes promedio y máximo por tick de cada variante.
+ */
+public class StateStreamBenchmark {
+    private static final int ORDERS = 200;
+    private static final int TICKS = 600;
+    private static final long SOLVER_TIME_BUDGET_MS = 200;
+    private static final long RANDOM_SEED = 42L;
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final String RESULTS_DIRECTORY = "experiment_results";
+    private static final String CSV_HEADER = "benchmark,vehicles,orders,ticks,variant,total_bytes,avg_bytes_per_tick,max_bytes_per_tick\n";
+
+    public static void main(String[] args) {
+        try {
+            Files.createDirectories(Paths.get(RESULTS_DIRECTORY));
+        } catch (IOException e) {
+            System.err.println("Error al crear directorio de resultados: " + e.getMessage());
+            return;
+        }
+
+        String resultsFilePath = RESULTS_DIRECTORY + "/state_stream_results_" +
+                LocalDateTime.now().format(DATE_FORMATTER) + ".csv";
+
+        MetaheuristicSolver.configureTimeBudget(SOLVER_TIME_BUDGET_MS);
+        // Igual que el ObjectMapper de Spring Boot: fechas ISO-8601
+        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        Simulation simulation = createSimulation();
+        SimulationStateStream stream = new SimulationStateStream(simulation.getId().toString());
+        long fullTotal = 0;
+        long fullMax = 0;
+        long deltaTotal = 0;
+        long deltaMax = 0;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(resultsFilePath))) {
+            writer.write(CSV_HEADER);
+            for (int tick = 0; tick < TICKS; tick++) {
+                simulation.advanceTick();
+                SimulationState state = simulation.getState();
+                long full = mapper.writeValueAsBytes(new SimulationDTO(simulation)).length
+                        + mapper.writeValueAsBytes(SimulationStateDTO.fromSimulationState(
+                                simulation.getId().toString(), state, simulation.getStatus())).length;
+                long delta = frameBytes(mapper, SimulationUpdate.next(simulation, stream, false));
+                fullTotal += full;
+                fullMax = Math.max(fullMax, full);
+                deltaTotal += delta;
+                deltaMax = Math.max(deltaMax, delta);
+            }
+            int vehicles = simulation.getState().getVehicles().size();
+            writeRow(writer, vehicles, "full_state", fullTotal, fullMax);
+            writeRow(writer, vehicles, "delta", deltaTotal, deltaMax);
+            System.out.printf("Reducción: %.1fx%n", (double) fullTotal / deltaTotal);
+            System.out.println("Resultados guardados en " + resultsFilePath);
+        } catch (IOException e) {
+            System.err.println("Error al escribir resultados: " + e.getMessage());
+        } finally {
+            simulation.getOrchestrator().shutdown();
+        }
+    }
+
+    /**
+     * Bytes de todos los mensajes que SimulationService envía para la
+     * actualización
+     */
+    private static long frameBytes(ObjectMapper mapper, SimulationUpdate update) throws IOException {
+        long bytes = mapper.writeValueAsBytes(update.summary()).length
+                + mapper.writeValueAsBytes(update.delta()).length;
+        if (!update.plans().isEmpty()) {
+            bytes += mapper.writeValueAsBytes(update.plans()).length;
+        }
+        if (update.fullState() != null) {
+            bytes += mapper.writeValueAsBytes(update.fullState()).length;
+        }
+        return bytes;
+    }
+
+    private static Simulation createSimulation() {
+        Random random = new Random(RANDOM_SEED);
+        LocalDateTime startTime = LocalDateTime.of(2025, 1, 1, 0, 0);
+        SimulationState state = SimulationService.createCustomState(startTime, 2, 4, 4, 10);
+        SimpleDataLoader dataLoader = new SimpleDataLoader();
+        for (int j = 0; j < ORDERS; j++) {
+            // Llegan durante la ventana medida para que haya órdenes pendientes en todo momento
+            LocalDateTime arrival = startTime.plusMinutes(random.nextInt(TICKS));
+            Position position = new Position(random.nextInt(Constants.CITY_X), random.nextInt(Constants.CITY_Y));
+            Order order = new Order("c-" + j + arrival, arrival, arrival.plusHours(4 + random.nextInt(20)),
+                    1 + random.nextInt(20), position);
+            dataLoader.addEvent(new Event(EventType.ORDER, arrival, order.getId(), order));
+        }
+        Simulation simulation = new Simulation(state, SimulationType.CUSTOM, dataLoader);
+        simulation.start();
+        return simulation;
+    }
+
+    private static void writeRow(BufferedWriter writer, int vehicles, String variant, long total, long max)
+            throws IOException {
+        String row = String.format("%s,%d,%d,%d,%s,%d,%d,%d%n", "state_updates", vehicles, ORDERS, TICKS,
+                variant, total, total / TICKS, max);
+        System.out.print(row);
+        writer.write(row);
+        writer.flush();
+    }
+}
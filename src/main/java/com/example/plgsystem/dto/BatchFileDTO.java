@@ -0,0 +1,18 @@
+package com.example.plgsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Archivo subido en una ejecución por lotes, referenciado por su nombre, y
+ * el mes que cubre
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchFileDTO {
+    private String fileName;
+    private int year;
+    private int month;
+}
@@ -0,0 +1,25 @@
+package com.example.plgsystem.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import com.example.plgsystem.enums.SimulationStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class BatchRunDTO {
+    private UUID id;
+    private SimulationStatus status;
+
+    // Real world timestamps
+    private LocalDateTime submissionTime;
+    private LocalDateTime realEndTime;
+
+    private List<BatchScenarioResultDTO> scenarios;
+}
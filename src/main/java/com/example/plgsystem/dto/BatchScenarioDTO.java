@@ -0,0 +1,32 @@
+package com.example.plgsystem.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class BatchScenarioDTO {
+    private String name;
+    private LocalDateTime startDateTime; // Simulated start date and time
+    private LocalDateTime endDateTime; // Simulated end date and time
+
+    // Number of vehicles by type
+    private int taVehicles = 0;
+    private int tbVehicles = 0;
+    private int tcVehicles = 0;
+    private int tdVehicles = 0;
+
+    // Uploaded files used by this scenario
+    private List<BatchFileDTO> orderFiles = new ArrayList<>();
+    private List<BatchFileDTO> blockageFiles = new ArrayList<>();
+
+    // Serve months without uploaded files from the bundled historical data
+    private boolean useHistoricalData = false;
+
+    // Real time budget per solver run in ms (0 = unlimited, null = server default)
+    private Long solverTimeBudgetMs;
+}
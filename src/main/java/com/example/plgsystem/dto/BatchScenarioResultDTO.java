@@ -0,0 +1,38 @@
+package com.example.plgsystem.dto;
+
+import java.time.LocalDateTime;
+
+import com.example.plgsystem.enums.SimulationStatus;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class BatchScenarioResultDTO {
+    private String name;
+    private SimulationStatus status; // QUEUED until a worker picks it up
+    private String error;
+
+    // Simulation world time
+    private LocalDateTime simulatedStartTime;
+    private LocalDateTime simulatedEndTime;
+
+    // KPIs
+    private int deliveredOrders;
+    private int lateDeliveredOrders;
+    private int pendingOrders;
+    private int overdueOrders;
+    private double fuelConsumedGal;
+    private int solverRuns;
+    private long solverTimeMs;
+
+    // Real world cost of the run
+    private int ticks;
+    private long wallTimeMs;
+
+    public BatchScenarioResultDTO(String name, SimulationStatus status) {
+        this.name = name;
+        this.status = status;
+    }
+}
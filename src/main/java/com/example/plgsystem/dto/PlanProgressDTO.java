@@ -0,0 +1,19 @@
+package com.example.plgsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Avance de un plan ya enviado por el canal de planes: acción actual y su
+ * progreso. Si el cliente no conoce el planId, pide de nuevo los planes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlanProgressDTO {
+    private String vehicleId;
+    private String planId;
+    private int actionIndex;
+    private double progress;
+}
@@ -19,4 +19,7 @@ public class SimulationCreateDTO {
     private int tbVehicles = 0;
     private int tcVehicles = 0;
     private int tdVehicles = 0;
+
+    // Serve months without uploaded files from the bundled historical data
+    private boolean useHistoricalData = false;
 } 
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.example.plgsystem.dto;
 import com.example.plgsystem.enums.SimulationStatus;
 import com.example.plgsystem.enums.SimulationType;
 import com.example.plgsystem.simulation.Simulation;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -25,9 +26,22 @@ public class SimulationDTO {
     
     private SimulationType type;
     private SimulationStatus status;
+    // Absent in per-tick updates: the state goes as deltas on /state/delta
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private SimulationStateDTO state;
 
     public SimulationDTO(Simulation simulation) {
+        this(simulation, true);
+    }
+
+    /**
+     * Summary without the state, cheap enough to build on every tick
+     */
+    public static SimulationDTO summary(Simulation simulation) {
+        return new SimulationDTO(simulation, false);
+    }
+
+    private SimulationDTO(Simulation simulation, boolean includeState) {
         this.id = simulation.getId();
         this.simulatedCurrentTime = simulation.getState().getCurrentTime();
         this.type = simulation.getType();
@@ -36,6 +50,10 @@ public class SimulationDTO {
         this.realStartTime = simulation.getRealStartTime();
         this.realEndTime = simulation.getRealEndTime();
         
+        if (!includeState) {
+            return;
+        }
+
         // Create a snapshot of the state to avoid concurrent modification issues
         synchronized (simulation) {
             // Using the state snapshot to prevent concurrent modification
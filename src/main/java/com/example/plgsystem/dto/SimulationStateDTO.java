@@ -30,6 +30,8 @@ import java.util.Map;
 @Builder
 public class SimulationStateDTO {
     private String simulationId;
+    // Último delta incluido en este estado; los deltas con número menor o igual se descartan
+    private long sequence;
     private LocalDateTime currentTime;
     private SimulationStatus status;
 
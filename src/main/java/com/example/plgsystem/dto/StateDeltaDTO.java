@@ -0,0 +1,63 @@
+package com.example.plgsystem.dto;
+
+import com.example.plgsystem.enums.SimulationStatus;
+import com.example.plgsystem.model.Blockage;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Cambios del estado de una simulación respecto al mensaje anterior.
+ * <p>
+ * Cada cambio reemplaza o elimina un elemento por id, así que aplicar un
+ * delta sobre un estado que ya lo incluye no tiene efecto. Las listas vacías
+ * y los campos sin cambios (null) no se serializan; los números siempre. Las
+ * listas que se envían completas al cambiar sí se serializan vacías, para que
+ * el cliente sepa que quedaron vacías.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class StateDeltaDTO {
+    private String simulationId;
+    // Número del delta; el anterior es sequence - 1
+    private long sequence;
+    private LocalDateTime currentTime;
+    private SimulationStatus status;
+
+    // Elementos nuevos o con cambios, completos
+    private List<VehicleDTO> vehicles;
+    private List<DepotDTO> depots;
+    private List<OrderDTO> orders;
+    private List<Blockage> addedBlockages;
+    // Avance de los planes nuevos o que avanzaron; las acciones van por el canal de planes
+    private List<PlanProgressDTO> planProgress;
+
+    // Elementos que dejaron de estar en el estado
+    private List<String> removedOrderIds;
+    private List<UUID> removedBlockageIds;
+    private List<String> removedPlanVehicleIds;
+
+    // Listas cortas que se envían completas solo cuando cambian (null = sin cambios)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<IncidentDTO> activeIncidents;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<MaintenanceDTO> scheduledMaintenances;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, LocalDateTime> maintenanceSchedule;
+
+    // Estadísticas, siempre presentes
+    private int pendingOrdersCount;
+    private int deliveredOrdersCount;
+    private int overdueOrdersCount;
+    private int availableVehiclesCount;
+}
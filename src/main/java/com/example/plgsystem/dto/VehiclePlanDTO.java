@@ -18,6 +18,9 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class VehiclePlanDTO {
     private String vehicleId;
+    // Id del plan y hash de sus acciones; el avance se envía aparte con el mismo planId
+    private String planId;
+    private String contentHash;
     private List<ActionDTO> actions;
     private LocalDateTime startTime;
     private LocalDateTime endTime;
@@ -41,6 +44,8 @@ public class VehiclePlanDTO {
 
         return VehiclePlanDTO.builder()
                 .vehicleId(plan.getVehicleId())
+                .planId(plan.getPlanId() != null ? plan.getPlanId().toString() : null)
+                .contentHash(Long.toHexString(plan.getContentHash()))
                 .actions(plan.getActions().stream()
                         .map(ActionDTO::fromEntity)
                         .toList())
@@ -6,6 +6,7 @@ import lombok.RequiredArgsConstructor;
 @Getter
 @RequiredArgsConstructor
 public enum SimulationStatus {
+    QUEUED("⚪", "Queued"),
     RUNNING("🟢", "Running"),
     PAUSED("🟡", "Paused"),
     FINISHED("🔵", "Finished"),
@@ -3,9 +3,11 @@ package com.example.plgsystem.model;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import com.example.plgsystem.util.Hashing;
 import jakarta.persistence.*;
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.UUID;
 import java.util.ArrayList;
 import java.util.List;
@@ -77,6 +79,22 @@ public class Blockage implements Serializable {
         return lines;
     }
 
+    /**
+     * Huella del contenido del bloqueo (nodos e intervalo, sin el id): dos
+     * bloqueos leídos de la misma línea de un archivo tienen la misma aunque
+     * cada lectura les asigne un id distinto
+     */
+    public long contentKey() {
+        long hash = 17;
+        for (Position point : getLines()) {
+            hash = hash * 31 + (int) point.getX();
+            hash = hash * 31 + (int) point.getY();
+        }
+        hash = hash * 31 + (startTime == null ? 0 : startTime.toEpochSecond(ZoneOffset.UTC));
+        hash = hash * 31 + (endTime == null ? 0 : endTime.toEpochSecond(ZoneOffset.UTC));
+        return Hashing.mix64(hash);
+    }
+
     public boolean isActiveAt(LocalDateTime dateTime) {
         // check if dateTime is between startTime and endTime (inclusive)
         return dateTime.isAfter(startTime) && dateTime.isBefore(endTime) || dateTime.equals(startTime) || dateTime.equals(endTime);
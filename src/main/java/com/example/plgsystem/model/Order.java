@@ -66,6 +66,15 @@ public class Order implements Serializable, Comparable<Order> {
         return remainingGlpM3 <= 0;
     }
 
+    /**
+     * Entregada por completo con al menos una entrega posterior al plazo
+     */
+    @Transient
+    public boolean isDeliveredLate() {
+        return isDelivered() && serveRecords.stream()
+                .anyMatch(record -> record.getServeDate().isAfter(deadlineTime));
+    }
+
     @Transient
     public boolean isOverdue(LocalDateTime referenceDateTime) {
         return referenceDateTime.isAfter(deadlineTime);
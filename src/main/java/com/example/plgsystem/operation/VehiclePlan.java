@@ -2,23 +2,95 @@ package com.example.plgsystem.operation;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 import com.example.plgsystem.model.Constants;
-import lombok.AllArgsConstructor;
+import com.example.plgsystem.model.Position;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 /**
  * Represents a plan of actions for a vehicle to execute during the simulation.
+ * <p>
+ * Las acciones no cambian después de crear el plan; solo avanzan el índice de
+ * la acción actual y su progreso. Cada plan nuevo recibe un planId, que sus
+ * copias conservan, para que los clientes reciban las acciones una vez y
+ * luego solo el avance.
  */
 @Getter
-@AllArgsConstructor
 public class VehiclePlan {
+    private final UUID planId;
     private final String vehicleId;
     private final List<Action> actions;
     private final LocalDateTime startTime;
 
     private int currentActionIndex; // index of the current action to be executed
 
+    // Calculado al pedirlo por primera vez; 0 = pendiente
+    @Getter(AccessLevel.NONE)
+    private volatile long contentHash;
+
+    public VehiclePlan(String vehicleId, List<Action> actions, LocalDateTime startTime, int currentActionIndex) {
+        this(UUID.randomUUID(), vehicleId, actions, startTime, currentActionIndex);
+    }
+
+    private VehiclePlan(UUID planId, String vehicleId, List<Action> actions, LocalDateTime startTime,
+            int currentActionIndex) {
+        this.planId = planId;
+        this.vehicleId = vehicleId;
+        this.actions = actions;
+        this.startTime = startTime;
+        this.currentActionIndex = currentActionIndex;
+    }
+
+    /**
+     * Hash de las acciones (tipo, horas, recorrido, volúmenes, combustible y
+     * referencias), sin el avance. Dos planes con el mismo hash dibujan lo
+     * mismo.
+     */
+    public long getContentHash() {
+        long hash = contentHash;
+        if (hash == 0) {
+            hash = computeContentHash();
+            contentHash = hash;
+        }
+        return hash;
+    }
+
+    private long computeContentHash() {
+        // FNV-1a de 64 bits
+        long hash = 0xcbf29ce484222325L;
+        hash = mix(hash, vehicleId != null ? vehicleId.hashCode() : 0);
+        hash = mix(hash, startTime != null ? startTime.hashCode() : 0);
+        for (Action action : actions) {
+            hash = mix(hash, action.getType() != null ? action.getType().ordinal() : -1);
+            hash = mix(hash, action.getStartTime() != null ? action.getStartTime().hashCode() : 0);
+            hash = mix(hash, action.getEndTime() != null ? action.getEndTime().hashCode() : 0);
+            hash = mix(hash, action.getGlpDelivered());
+            hash = mix(hash, action.getGlpLoaded());
+            hash = mix(hash, Double.hashCode(action.getFuelConsumedGal()));
+            hash = mix(hash, Double.hashCode(action.getFuelRefueledGal()));
+            hash = mix(hash, action.getOrderId() != null ? action.getOrderId().hashCode() : 0);
+            hash = mix(hash, action.getDepotId() != null ? action.getDepotId().hashCode() : 0);
+            List<Position> path = action.getPath();
+            hash = mix(hash, path != null ? path.size() : -1);
+            if (path != null) {
+                for (Position position : path) {
+                    hash = mix(hash, position != null ? position.hashCode() : 0);
+                }
+            }
+        }
+        return hash != 0 ? hash : 1;
+    }
+
+    private static long mix(long hash, int value) {
+        for (int i = 0; i < 4; i++) {
+            hash ^= (value >>> (i * 8)) & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
     public Action getCurrentAction() {
         if (currentActionIndex < 0 || currentActionIndex >= actions.size()) {
             return null;
@@ -64,6 +136,6 @@ public class VehiclePlan {
         List<Action> copiedActions = actions.stream()
                 .map(Action::copy)
                 .toList();
-        return new VehiclePlan(vehicleId, copiedActions, startTime, currentActionIndex);
+        return new VehiclePlan(planId, vehicleId, copiedActions, startTime, currentActionIndex);
     }
 }
@@ -5,7 +5,7 @@ import com.example.plgsystem.assignation.RouteStop;
 import com.example.plgsystem.assignation.SolutionGenerator;
 import com.example.plgsystem.enums.VehicleType;
 import com.example.plgsystem.model.*;
-import com.example.plgsystem.pathfinding.PathFinder;
+import com.example.plgsystem.pathfinding.PathCache;
 import com.example.plgsystem.simulation.SimulationState;
 
 import java.time.LocalDateTime;
@@ -122,7 +122,8 @@ public class VehiclePlanCreator {
 
             if (!currentPosition.equals(endPosition)) {
                 // Find path
-                List<Position> path = PathFinder.findPath(state, currentPosition, endPosition, currentTime);
+                List<Position> path = PathCache.shared().findPath(state, currentPosition, endPosition,
+                        currentTime);
                 if (path == null) {
                     return null;
                 }
@@ -160,7 +161,8 @@ public class VehiclePlanCreator {
                 }
 
                 // Create a drive action to the depot
-                List<Position> path = PathFinder.findPath(state, currentPosition, depot.getPosition(), currentTime);
+                List<Position> path = PathCache.shared().findPath(state, currentPosition, depot.getPosition(),
+                        currentTime);
                 if (path == null) {
                     return null;
                 }
@@ -308,7 +310,8 @@ public class VehiclePlanCreator {
             // Only create drive action if not already at the depot
             if (!incidentPosition.equals(depotPosition)) {
                 // Find path to main depot
-                List<Position> path = PathFinder.findPath(state, incidentPosition, depotPosition, currentTime);
+                List<Position> path = PathCache.shared().findPath(state, incidentPosition, depotPosition,
+                        currentTime);
                 if (path == null) {
                     logger.error("Cannot create incident plan: no path found to main depot");
                     return null;
@@ -1,8 +1,11 @@
 package com.example.plgsystem.orchest;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
+import com.example.plgsystem.model.Blockage;
+
 /**
  * Interfaz que define las operaciones de carga de datos para la simulación.
  * Las implementaciones pueden cargar datos desde distintas fuentes (archivos, base de datos, etc.)
@@ -24,4 +27,42 @@ public interface DataLoader {
      * @return Lista de eventos generados a partir de los bloqueos
      */
     List<Event> loadBlockagesForDate(LocalDate date);
+
+    /**
+     * Carga las órdenes de una fecha que llegan después de {@code after}. Las
+     * implementaciones que puedan filtrar en el origen deberían sobrescribirlo.
+     *
+     * @param date  La fecha para la que cargar órdenes
+     * @param after Solo se devuelven órdenes con llegada posterior
+     * @return Lista de eventos generados a partir de las órdenes
+     */
+    default List<Event> loadOrdersAfter(LocalDate date, LocalDateTime after) {
+        return loadOrdersForDate(date).stream()
+                .filter(event -> event.getTime().isAfter(after))
+                .toList();
+    }
+
+    /**
+     * Carga los bloqueos de una fecha que siguen activos después de
+     * {@code after}. Las implementaciones que puedan filtrar en el origen
+     * deberían sobrescribirlo.
+     *
+     * @param date  La fecha para la que cargar bloqueos
+     * @param after Solo se devuelven bloqueos que terminan después
+     * @return Lista de eventos generados a partir de los bloqueos
+     */
+    default List<Event> loadBlockagesEndingAfter(LocalDate date, LocalDateTime after) {
+        return loadBlockagesForDate(date).stream()
+                .filter(event -> ((Blockage) event.getData()).getEndTime().isAfter(after))
+                .toList();
+    }
+
+    /**
+     * Indica si pueden aparecer datos nuevos para una fecha ya cargada (por
+     * ejemplo, órdenes registradas en la base de datos durante el día). Si no,
+     * basta con cargar cada fecha una vez.
+     */
+    default boolean hasLiveUpdates() {
+        return true;
+    }
 }
\ No newline at end of file
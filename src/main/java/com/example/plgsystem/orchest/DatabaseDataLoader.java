@@ -55,15 +55,39 @@ public class DatabaseDataLoader implements DataLoader {
         return events;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Event> loadOrdersAfter(LocalDate date, LocalDateTime after) {
+        LocalDateTime endOfDay = LocalDateTime.of(date, LocalTime.MAX);
+        List<Event> events = new ArrayList<>();
+        for (Order order : orderRepository.findPendingByArrivalTimeBetween(after, endOfDay)) {
+            // BETWEEN incluye el extremo
+            if (order.getArrivalTime().isAfter(after)) {
+                events.add(new Event(EventType.ORDER, order.getArrivalTime(), order.getId(), order));
+            }
+        }
+        return events;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Event> loadBlockagesForDate(LocalDate date) {
         // Set the time range for the day
         LocalDateTime startOfDay = LocalDateTime.of(date, LocalTime.MIN);
-        LocalDateTime endOfDay = LocalDateTime.of(date, LocalTime.MAX);
+        return loadActiveBlockages(startOfDay, LocalDateTime.of(date, LocalTime.MAX));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Event> loadBlockagesEndingAfter(LocalDate date, LocalDateTime after) {
+        List<Event> events = loadActiveBlockages(after, LocalDateTime.of(date, LocalTime.MAX));
+        events.removeIf(event -> !((Blockage) event.getData()).getEndTime().isAfter(after));
+        return events;
+    }
 
-        // Find active blockages on the specified date
-        List<Blockage> blockages = blockageRepository.findActiveBlockagesForPeriod(startOfDay, endOfDay);
+    private List<Event> loadActiveBlockages(LocalDateTime start, LocalDateTime end) {
+        // Find active blockages on the specified period
+        List<Blockage> blockages = blockageRepository.findActiveBlockagesForPeriod(start, end);
         List<Event> events = new ArrayList<>();
 
         if (!blockages.isEmpty()) {
@@ -3,12 +3,16 @@ package com.example.plgsystem.orchest;
 import com.example.plgsystem.model.Blockage;
 import com.example.plgsystem.model.Order;
 import com.example.plgsystem.util.FileUtils;
+import com.example.plgsystem.util.ParsedFileCache;
+import com.example.plgsystem.util.ParsedFileCache.MonthIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -16,12 +20,28 @@ import java.util.Map;
 
 /**
  * Implementación de DataLoader que carga datos desde archivos temporales.
+ * Cada archivo se lee una vez en {@link ParsedFileCache}; cada carga devuelve
+ * copias de los elementos del día pedido. Los meses sin archivo registrado se
+ * piden al DataLoader de respaldo, si lo hay.
  */
 public class FileDataLoader implements DataLoader {
     private static final Logger logger = LoggerFactory.getLogger(FileDataLoader.class);
 
     private final Map<String, Path> ordersFilePaths = new HashMap<>();
     private final Map<String, Path> blockagesFilePaths = new HashMap<>();
+    private DataLoader fallback;
+
+    /**
+     * DataLoader para los meses sin archivo registrado, por ejemplo
+     * {@link HistoricalDataLoader}
+     */
+    public void setFallback(DataLoader fallback) {
+        this.fallback = fallback;
+    }
+
+    public DataLoader getFallback() {
+        return fallback;
+    }
 
     public void registerOrdersFile(int year, int month, Path path) {
         String yearMonthKey = year + "-" + String.format("%02d", month);
@@ -37,77 +57,131 @@ public class FileDataLoader implements DataLoader {
 
     @Override
     public List<Event> loadOrdersForDate(LocalDate date) {
-        String yearMonthKey = date.getYear() + "-" + String.format("%02d", date.getMonthValue());
-        Path ordersPath = ordersFilePaths.get(yearMonthKey);
+        if (usesFallback(ordersFilePaths, date)) {
+            return fallback.loadOrdersForDate(date);
+        }
+        // Órdenes desde el inicio del mes hasta la fecha, como las devuelve FileUtils.loadOrdersForDate
+        MonthIndex<Order> index = ordersIndex(date);
+        return index == null ? new ArrayList<>() : toOrderEvents(index.getDays(1, date.getDayOfMonth()), null);
+    }
 
-        if (ordersPath == null) {
-            logger.warn("No hay archivo de órdenes disponible para la fecha: {}", yearMonthKey);
+    @Override
+    public List<Event> loadOrdersAfter(LocalDate date, LocalDateTime after) {
+        if (usesFallback(ordersFilePaths, date)) {
+            return fallback.loadOrdersAfter(date, after);
+        }
+        MonthIndex<Order> index = ordersIndex(date);
+        if (index == null) {
             return new ArrayList<>();
         }
+        // Si el límite cae en la fecha solo hace falta su día
+        int firstDay = after.toLocalDate().equals(date) ? date.getDayOfMonth() : 1;
+        return toOrderEvents(index.getDays(firstDay, date.getDayOfMonth()), after);
+    }
 
-        List<Event> events = new ArrayList<>();
+    @Override
+    public List<Event> loadBlockagesForDate(LocalDate date) {
+        if (usesFallback(blockagesFilePaths, date)) {
+            return fallback.loadBlockagesForDate(date);
+        }
+        // Bloqueos que empiezan desde el inicio del mes hasta el día siguiente a la fecha
+        MonthIndex<Blockage> index = blockagesIndex(date);
+        return index == null ? new ArrayList<>()
+                : toBlockageEvents(index.getDays(1, date.getDayOfMonth() + 1), null);
+    }
 
-        try {
-            List<Order> orders = FileUtils.loadOrdersForDate(ordersPath, date, date.plusDays(1));
+    @Override
+    public List<Event> loadBlockagesEndingAfter(LocalDate date, LocalDateTime after) {
+        if (usesFallback(blockagesFilePaths, date)) {
+            return fallback.loadBlockagesEndingAfter(date, after);
+        }
+        MonthIndex<Blockage> index = blockagesIndex(date);
+        if (index == null) {
+            return new ArrayList<>();
+        }
+        // Un bloqueo que sigue activo empezó a lo sumo getMaxSpanDays() días antes
+        int lastDay = date.getDayOfMonth() + 1;
+        int firstDay = after.toLocalDate().isBefore(date) ? 1
+                : date.getDayOfMonth() - index.getMaxSpanDays();
+        return toBlockageEvents(index.getDays(firstDay, lastDay), after);
+    }
+
+    private boolean usesFallback(Map<String, Path> filePaths, LocalDate date) {
+        String yearMonthKey = date.getYear() + "-" + String.format("%02d", date.getMonthValue());
+        return fallback != null && !filePaths.containsKey(yearMonthKey);
+    }
 
-            if (!orders.isEmpty()) {
-                logger.info("Cargando {} órdenes para la fecha {}", orders.size(), date);
+    private MonthIndex<Order> ordersIndex(LocalDate date) {
+        String yearMonthKey = date.getYear() + "-" + String.format("%02d", date.getMonthValue());
+        Path ordersPath = ordersFilePaths.get(yearMonthKey);
 
-                // Crear eventos para cada orden
-                for (Order order : orders) {
-                    Event event = new Event(EventType.ORDER, order.getArrivalTime(), order.getId(), order);
-                    events.add(event);
-                }
+        if (ordersPath == null) {
+            logger.warn("No hay archivo de órdenes disponible para la fecha: {}", yearMonthKey);
+            return null;
+        }
 
-                logger.info("Creados {} eventos de órdenes para la fecha {}", orders.size(), date);
-            } else {
-                logger.info("No hay órdenes para la fecha: {}", date);
-            }
+        try {
+            return ParsedFileCache.shared().getOrders(ordersPath, YearMonth.from(date));
         } catch (IOException e) {
             logger.error("Error al cargar órdenes para la fecha {}: {}", date, e.getMessage());
+            return null;
         }
-
-        return events;
     }
 
-    @Override
-    public List<Event> loadBlockagesForDate(LocalDate date) {
+    private MonthIndex<Blockage> blockagesIndex(LocalDate date) {
         String yearMonthKey = date.getYear() + "-" + String.format("%02d", date.getMonthValue());
         Path blockagesPath = blockagesFilePaths.get(yearMonthKey);
 
         if (blockagesPath == null) {
             logger.warn("No hay archivo de bloqueos disponible para la fecha: {}", yearMonthKey);
-            return new ArrayList<>();
+            return null;
         }
 
-        List<Event> events = new ArrayList<>();
-
         try {
-            List<Blockage> blockages = FileUtils.loadBlockagesForDate(blockagesPath, date, date.plusDays(2));
-
-            if (!blockages.isEmpty()) {
-                logger.info("Cargando {} bloqueos para la fecha {}", blockages.size(), date);
-
-                // Crear eventos para cada bloqueo
-                for (Blockage blockage : blockages) {
-                    // Evento de inicio del bloqueo
-                    Event startEvent = new Event(
-                            EventType.BLOCKAGE,
-                            blockage.getStartTime(),
-                            blockage.getId().toString(),
-                            blockage);
-                    events.add(startEvent);
-                }
-
-                logger.info("Creados {} eventos de bloqueos para la fecha {}", blockages.size() * 2, date);
-            }
+            return ParsedFileCache.shared().getBlockages(blockagesPath, YearMonth.from(date));
         } catch (IOException e) {
             logger.error("Error al cargar bloqueos para la fecha {}: {}", date, e.getMessage());
+            return null;
         }
+    }
 
+    /**
+     * Eventos con copias de las órdenes del índice (que se comparte entre simulaciones)
+     */
+    private List<Event> toOrderEvents(List<Order> orders, LocalDateTime arrivingAfter) {
+        List<Event> events = new ArrayList<>();
+        for (Order prototype : orders) {
+            if (arrivingAfter == null || prototype.getArrivalTime().isAfter(arrivingAfter)) {
+                Order order = prototype.copy();
+                events.add(new Event(EventType.ORDER, order.getArrivalTime(), order.getId(), order));
+            }
+        }
+        logger.debug("Creados {} eventos de órdenes", events.size());
         return events;
     }
 
+    private List<Event> toBlockageEvents(List<Blockage> blockages, LocalDateTime endingAfter) {
+        List<Event> events = new ArrayList<>();
+        for (Blockage prototype : blockages) {
+            if (endingAfter == null || prototype.getEndTime().isAfter(endingAfter)) {
+                Blockage blockage = prototype.copy();
+                // Evento de inicio del bloqueo
+                events.add(new Event(EventType.BLOCKAGE, blockage.getStartTime(), blockage.getId().toString(),
+                        blockage));
+            }
+        }
+        logger.debug("Creados {} eventos de bloqueos", events.size());
+        return events;
+    }
+
+    /**
+     * Los archivos registrados no cambian: cada fecha se carga una vez
+     */
+    @Override
+    public boolean hasLiveUpdates() {
+        return fallback != null && fallback.hasLiveUpdates();
+    }
+
     public void cleanup(String simulationId) {
         logger.info("Limpiando recursos de FileDataLoader para simulación: {}", simulationId);
         FileUtils.cleanupTempFilesForSimulation(simulationId);
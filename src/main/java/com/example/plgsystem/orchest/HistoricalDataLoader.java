@@ -0,0 +1,148 @@
+package com.example.plgsystem.orchest;
+
+import com.example.plgsystem.model.Blockage;
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.util.DatasetSnapshot;
+import com.example.plgsystem.util.HistoricalDatasets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementación de DataLoader que sirve los datos históricos incluidos en el
+ * servidor desde las copias mapeadas de {@link HistoricalDatasets}. Cada carga
+ * construye solo los elementos de los días pedidos, como nuevos objetos.
+ * <p>
+ * Devuelve lo mismo que un {@link FileDataLoader} con los archivos del mes
+ * registrados.
+ */
+public class HistoricalDataLoader implements DataLoader {
+    private static final Logger logger = LoggerFactory.getLogger(HistoricalDataLoader.class);
+
+    private final HistoricalDatasets datasets;
+
+    public HistoricalDataLoader() {
+        this(HistoricalDatasets.shared());
+    }
+
+    public HistoricalDataLoader(HistoricalDatasets datasets) {
+        this.datasets = datasets;
+    }
+
+    @Override
+    public List<Event> loadOrdersForDate(LocalDate date) {
+        // Órdenes desde el inicio del mes hasta la fecha
+        DatasetSnapshot snapshot = orders(date);
+        return snapshot == null ? new ArrayList<>() : toOrderEvents(snapshot, 1, date.getDayOfMonth(), null);
+    }
+
+    @Override
+    public List<Event> loadOrdersAfter(LocalDate date, LocalDateTime after) {
+        DatasetSnapshot snapshot = orders(date);
+        if (snapshot == null) {
+            return new ArrayList<>();
+        }
+        int firstDay = after.toLocalDate().equals(date) ? date.getDayOfMonth() : 1;
+        return toOrderEvents(snapshot, firstDay, date.getDayOfMonth(), after);
+    }
+
+    @Override
+    public List<Event> loadBlockagesForDate(LocalDate date) {
+        // Bloqueos que empiezan desde el inicio del mes hasta el día siguiente a la fecha
+        DatasetSnapshot snapshot = blockages(date);
+        return snapshot == null ? new ArrayList<>()
+                : toBlockageEvents(snapshot, 1, date.getDayOfMonth() + 1, null);
+    }
+
+    @Override
+    public List<Event> loadBlockagesEndingAfter(LocalDate date, LocalDateTime after) {
+        DatasetSnapshot snapshot = blockages(date);
+        if (snapshot == null) {
+            return new ArrayList<>();
+        }
+        int firstDay = after.toLocalDate().isBefore(date) ? 1 : date.getDayOfMonth() - snapshot.getMaxSpanDays();
+        return toBlockageEvents(snapshot, firstDay, date.getDayOfMonth() + 1, after);
+    }
+
+    /**
+     * Los datos incluidos no cambian: cada fecha se carga una vez
+     */
+    @Override
+    public boolean hasLiveUpdates() {
+        return false;
+    }
+
+    private DatasetSnapshot orders(LocalDate date) {
+        try {
+            DatasetSnapshot snapshot = datasets.getOrders(YearMonth.from(date));
+            if (snapshot == null) {
+                logger.warn("No hay órdenes históricas para {}", YearMonth.from(date));
+            }
+            return snapshot;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Error al cargar órdenes históricas para la fecha {}: {}", date, e.getMessage());
+            return null;
+        }
+    }
+
+    private DatasetSnapshot blockages(LocalDate date) {
+        try {
+            DatasetSnapshot snapshot = datasets.getBlockages(YearMonth.from(date));
+            if (snapshot == null) {
+                logger.warn("No hay bloqueos históricos para {}", YearMonth.from(date));
+            }
+            return snapshot;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Error al cargar bloqueos históricos para la fecha {}: {}", date, e.getMessage());
+            return null;
+        }
+    }
+
+    private List<Event> toOrderEvents(DatasetSnapshot snapshot, int fromDay, int toDay,
+            LocalDateTime arrivingAfter) {
+        LocalDateTime monthStart = snapshot.getMonth().atDay(1).atStartOfDay();
+        List<Event> events = new ArrayList<>();
+        for (int i = snapshot.firstOfDay(fromDay); i < snapshot.endOfDay(toDay); i++) {
+            LocalDateTime arrivalTime = monthStart.plusMinutes(snapshot.startMinute(i));
+            if (arrivingAfter != null && !arrivalTime.isAfter(arrivingAfter)) {
+                continue;
+            }
+            // Mismo id y plazo que FileUtils.loadOrdersForDate
+            String id = snapshot.clientId(i) + arrivalTime.toString();
+            Order order = new Order(id, arrivalTime, arrivalTime.plusHours(snapshot.deadlineHours(i) + 4),
+                    snapshot.glpM3(i), new Position(snapshot.x(i), snapshot.y(i)));
+            events.add(new Event(EventType.ORDER, arrivalTime, id, order));
+        }
+        logger.debug("Creados {} eventos de órdenes históricas", events.size());
+        return events;
+    }
+
+    private List<Event> toBlockageEvents(DatasetSnapshot snapshot, int fromDay, int toDay,
+            LocalDateTime endingAfter) {
+        LocalDateTime monthStart = snapshot.getMonth().atDay(1).atStartOfDay();
+        List<Event> events = new ArrayList<>();
+        for (int i = snapshot.firstOfDay(fromDay); i < snapshot.endOfDay(toDay); i++) {
+            LocalDateTime endTime = monthStart.plusMinutes(snapshot.endMinute(i));
+            if (endingAfter != null && !endTime.isAfter(endingAfter)) {
+                continue;
+            }
+            LocalDateTime startTime = monthStart.plusMinutes(snapshot.startMinute(i));
+            int[] coordinates = snapshot.coordinates(i);
+            List<Position> points = new ArrayList<>(coordinates.length / 2);
+            for (int j = 0; j < coordinates.length; j += 2) {
+                points.add(new Position(coordinates[j], coordinates[j + 1]));
+            }
+            Blockage blockage = new Blockage(startTime, endTime, points);
+            events.add(new Event(EventType.BLOCKAGE, startTime, blockage.getId().toString(), blockage));
+        }
+        logger.debug("Creados {} eventos de bloqueos históricos", events.size());
+        return events;
+    }
+}
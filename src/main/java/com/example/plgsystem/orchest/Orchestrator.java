@@ -3,10 +3,12 @@ package com.example.plgsystem.orchest;
 import com.example.plgsystem.assignation.MetaheuristicSolver;
 import com.example.plgsystem.assignation.Route;
 import com.example.plgsystem.assignation.Solution;
+import com.example.plgsystem.assignation.SolverControl;
 import com.example.plgsystem.model.Blockage;
 import com.example.plgsystem.model.Incident;
 import com.example.plgsystem.model.Order;
 import com.example.plgsystem.model.Vehicle;
+import com.example.plgsystem.operation.Action;
 import com.example.plgsystem.operation.VehiclePlan;
 import com.example.plgsystem.operation.VehiclePlanCreator;
 import com.example.plgsystem.simulation.SimulationState;
@@ -15,14 +17,15 @@ import lombok.Getter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -34,30 +37,52 @@ public class Orchestrator {
     private static final int TICKS_TO_CHECK_EVENTS = 10;
     private static final int DAILY_OPS_PROJECTION_MINUTES = 2;
     private static final int NORMAL_PROJECTION_MINUTES = 60;
+    // Margen de tiempo real que se deja para crear los planes después del solver
+    private static final int DAILY_OPS_PLANNING_MARGIN_SECONDS = 10;
+    // Minutos antes del tiempo objetivo en que la simulación espera a la planificación en curso
+    private static final int PLANNING_WAIT_MINUTES = 10;
+    public static final int DEFAULT_POSITION_UPDATE_MINUTES = 5;
+
+    private static boolean EVENT_DRIVEN = false;
+    private static int POSITION_UPDATE_MINUTES = DEFAULT_POSITION_UPDATE_MINUTES;
 
     private final boolean isDailyOperation;
     private final SimulationState state;
     private final PriorityQueue<Event> eventQueue;
     private final DataLoader dataLoader;
 
-    // Sets to track already processed file-based events
-    private final Set<String> processedOrderIds = new HashSet<>();
-    private final Set<String> processedBlockageIds = new HashSet<>();
+    // Órdenes y bloqueos ya encolados o en el estado, mantenidos al encolar para no duplicarlos al recargar
+    private final Set<String> knownOrderIds = new HashSet<>();
+    private final Set<Long> knownBlockageKeys = new HashSet<>();
+    // Hasta dónde ya se pidieron datos al DataLoader; solo se piden los posteriores
+    private LocalDateTime loadWatermark;
 
     private int ticksToCheckEvents;
     private int ticksToReplan;
     private boolean replanFlag;
     private LocalDateTime lastReplanTime;
 
-    // Nuevos atributos para replanificación asíncrona
-    private final ExecutorService plannerExecutor;
+    // Nuevos atributos para replanificación asíncrona, ejecutada en los hilos compartidos de PlannerPool
+    private final PlannerPool plannerPool;
+    private PlanningPriority planningPriority;
     private Future<?> currentPlanningTask;
+    private volatile SolverControl currentPlanningControl;  // Progreso y detención del solver en curso
     private LocalDateTime targetPlanningTime;
     private Map<String, VehiclePlan> futurePlans;
     private SimulationState futureState;  // Estado completo proyectado
     private boolean planningInProgress;
     private boolean applyingFutureState;  // Bandera para indicar que se está aplicando el estado futuro
 
+    // Modo por eventos: cada tick salta hasta el próximo minuto con cambios, sin superar la cadencia
+    private boolean eventDriven;
+    private int positionUpdateMinutes;
+
+    // Presupuesto del solver de esta simulación en ms (0 = sin límite, negativo = el configurado globalmente)
+    private long solverTimeBudgetMs = -1;
+    // Estadísticas de planificación, escritas solo por el hilo del planificador
+    private volatile int completedPlannings;
+    private volatile long planningTimeNanos;
+
     public Orchestrator(SimulationState state, DataLoader dataLoader, boolean isDailyOperation) {
         this.isDailyOperation = isDailyOperation;
         this.dataLoader = dataLoader;
@@ -65,14 +90,18 @@ public class Orchestrator {
         this.eventQueue = new PriorityQueue<>(Event::compareTo);
         eventQueue.add(new Event(EventType.NEW_DAY,
                 state.getCurrentTime().plusDays(1).withHour(0).withMinute(0), null, null));
+        rebuildKnownEvents();
 
         if (isDailyOperation) {
             this.lastReplanTime = state.getCurrentTime();
         }
         this.replanFlag = true;
+        this.eventDriven = EVENT_DRIVEN && !isDailyOperation;
+        this.positionUpdateMinutes = POSITION_UPDATE_MINUTES;
 
         // Inicializar componentes para planificación asíncrona
-        this.plannerExecutor = Executors.newSingleThreadExecutor();
+        this.plannerPool = PlannerPool.shared();
+        this.planningPriority = isDailyOperation ? PlanningPriority.DAILY_OPERATIONS : PlanningPriority.SIMULATION;
         this.futurePlans = new HashMap<>();
         this.planningInProgress = false;
         this.applyingFutureState = false;
@@ -85,22 +114,106 @@ public class Orchestrator {
         }
     }
 
+    /**
+     * Define el modo de avance de las simulaciones creadas a partir de ahora.
+     * En modo por eventos cada tick avanza el tiempo simulado hasta el próximo
+     * minuto en que algo cambia (un evento, el inicio o fin de una acción, el
+     * vencimiento de un bloqueo, incidente o mantenimiento, o un hito de la
+     * planificación), con a lo sumo {@code positionUpdateMinutes} minutos por
+     * tick para seguir publicando posiciones. La operación diaria siempre
+     * avanza en tiempo real.
+     */
+    public static void configureEventDriven(boolean eventDriven, int positionUpdateMinutes) {
+        Orchestrator.EVENT_DRIVEN = eventDriven;
+        Orchestrator.POSITION_UPDATE_MINUTES = Math.max(1, positionUpdateMinutes);
+    }
+
+    public static boolean isEventDrivenByDefault() {
+        return EVENT_DRIVEN;
+    }
+
+    public static int getDefaultPositionUpdateMinutes() {
+        return POSITION_UPDATE_MINUTES;
+    }
+
+    /**
+     * Cambia el modo de avance de esta simulación
+     */
+    public void setEventDriven(boolean eventDriven, int positionUpdateMinutes) {
+        this.eventDriven = eventDriven && !isDailyOperation;
+        this.positionUpdateMinutes = Math.max(1, positionUpdateMinutes);
+    }
+
+    /**
+     * Presupuesto de tiempo real de cada ejecución del solver de esta
+     * simulación (0 = sin límite); un valor negativo usa el configurado en
+     * MetaheuristicSolver
+     */
+    public void setSolverTimeBudgetMs(long solverTimeBudgetMs) {
+        this.solverTimeBudgetMs = solverTimeBudgetMs;
+    }
+
+    /**
+     * Clase de prioridad de las replanificaciones de esta simulación en el
+     * PlannerPool; la operación diaria conserva siempre la más alta
+     */
+    public void setPlanningPriority(PlanningPriority planningPriority) {
+        if (!isDailyOperation) {
+            this.planningPriority = planningPriority;
+        }
+    }
+
+    /**
+     * Bloquea hasta que termine la planificación en curso. Para avanzar sin
+     * tiempo real de por medio (ejecuciones por lotes): el solver usa su
+     * presupuesto completo en lugar de detenerse porque el tiempo simulado
+     * alcanzó el objetivo.
+     */
+    public void awaitPlanning() throws InterruptedException {
+        Future<?> task = currentPlanningTask;
+        if (task == null) {
+            return;
+        }
+        try {
+            task.get();
+        } catch (ExecutionException | CancellationException e) {
+            logger.debug("Planificación terminada sin resultado: {}", e.getMessage());
+        }
+    }
+
     public void addEvent(Event e) {
         eventQueue.add(e);
+        trackEvent(e);
     }
 
     public void addEvents(List<Event> eventList) {
         eventQueue.addAll(eventList);
+        eventList.forEach(this::trackEvent);
     }
 
     public void advanceTick() {
+        // El PlannerPool descartó la planificación antes de empezar (esperó más que su plazo)
+        Future<?> task = currentPlanningTask;
+        if (planningInProgress && task != null && task.isCancelled()) {
+            logger.debug("Planificación descartada por el planificador compartido, se reintenta");
+            planningInProgress = false;
+            replanFlag = true;
+        }
+
         // if currentTime is really near to targetTime and futurePlans is not done
         // we need to wait until done for advancing the tick
         if ((planningInProgress || applyingFutureState) && targetPlanningTime != null &&
-                state.getCurrentTime().isAfter(targetPlanningTime.minusMinutes(10))) {
+                state.getCurrentTime().isAfter(targetPlanningTime.minusMinutes(PLANNING_WAIT_MINUTES))) {
 
             logger.debug("Esperando a que la planificación para {} termine. Tiempo actual: {}, planningInProgress={}, applyingFutureState={}",
                     targetPlanningTime, state.getCurrentTime(), planningInProgress, applyingFutureState);
+            // En lugar de esperar todas las iteraciones, pedir al solver la mejor solución hasta ahora
+            SolverControl control = currentPlanningControl;
+            if (planningInProgress && control != null && !control.shouldStop()) {
+                logger.info("Deteniendo el solver en la iteración {} con costo {} para aplicar el plan a tiempo",
+                        control.getIteration(), control.getBestCost());
+                control.requestStop();
+            }
             // No avanzar el tick. Se reintentará en la siguiente llamada a advanceTick().
             return;
         }
@@ -116,47 +229,106 @@ public class Orchestrator {
         LocalDateTime nextTickTime = isDailyOperation ? LocalDateTime.now() : state.getCurrentTime().plusMinutes(1);
         pollEvents(nextTickTime);
         checkReplanification();
+        int tickMinutes = 1;
+        if (eventDriven) {
+            // El primer minuto siempre se avanza, así que sus eventos ya se procesaron como tick a tick
+            tickMinutes = minutesToNextChange();
+            nextTickTime = state.getCurrentTime().plusMinutes(tickMinutes);
+        }
         checkApplyFuturePlans(nextTickTime);
         state.advanceTime(Duration.between(state.getCurrentTime(), nextTickTime));
 
         if (!isDailyOperation) {
-            ticksToCheckEvents--;
-            ticksToReplan--;
+            ticksToCheckEvents -= tickMinutes;
+            ticksToReplan -= tickMinutes;
         }
     }
 
-    private void checkAndLoadNewEvents() {
-        // Track existing orders and blockages to avoid duplicates
-        Set<String> currentOrderIds = new HashSet<>();
-        Set<String> currentBlockageIds = new HashSet<>();
+    /**
+     * Minutos que puede avanzar el tick en modo por eventos. Cada instante se
+     * lleva al tick de un minuto en que el modo tick a tick lo observaría, así
+     * ambos modos aplican cada cambio en el mismo minuto simulado y solo se
+     * omiten los ticks en que no ocurre nada.
+     */
+    private int minutesToNextChange() {
+        if (replanFlag) {
+            // Replanificación pendiente de que termine la planificación en curso
+            return 1;
+        }
+        LocalDateTime now = state.getCurrentTime();
+        int minutes = positionUpdateMinutes;
+        minutes = Math.min(minutes, Math.max(1, ticksToCheckEvents));
+        minutes = Math.min(minutes, Math.max(1, ticksToReplan));
+
+        // Los eventos se procesan en el tick que empieza en su minuto
+        Event nextEvent = eventQueue.peek();
+        if (nextEvent != null && nextEvent.getTime().isAfter(now)) {
+            minutes = Math.min(minutes, clampTicks(Duration.between(now, nextEvent.getTime()).toMinutes()));
+        }
 
-        // Add orders and blockages from the event queue to our tracking sets
-        for (Event event : eventQueue) {
-            if (event.getType() == EventType.ORDER) {
-                currentOrderIds.add(event.getEntityId());
-            } else if (event.getType() == EventType.BLOCKAGE) {
-                Blockage blockage = (Blockage) event.getData();
-                String blockageId = createBlockageIdentifier(blockage);
-                currentBlockageIds.add(blockageId);
+        // Las acciones empiezan y terminan en el primer tick que alcanza su hora
+        for (VehiclePlan plan : state.getCurrentVehiclePlans().values()) {
+            Action action = plan.getCurrentAction();
+            if (action != null) {
+                minutes = Math.min(minutes, ticksUntilReached(now, action.getStartTime()));
+                minutes = Math.min(minutes, ticksUntilReached(now, action.getEndTime()));
             }
         }
+        for (Vehicle vehicle : state.getVehicles()) {
+            minutes = Math.min(minutes, ticksUntilReached(now, vehicle.getCurrentActionEndTime()));
+        }
 
-        // Add orders and blockages from the current state to our tracking sets
-        for (Order order : state.getOrders()) {
-            currentOrderIds.add(order.getId());
-            processedOrderIds.add(order.getId()); // Track as processed for file-based loading
+        // Bloqueos, incidentes y mantenimientos vencen en el primer tick posterior a su hora
+        minutes = Math.min(minutes, ticksUntilPassed(now, state.getNextExpiryTime()));
+
+        if (targetPlanningTime != null) {
+            minutes = Math.min(minutes, ticksUntilReached(now, targetPlanningTime));
+            if (planningInProgress) {
+                minutes = Math.min(minutes,
+                        ticksUntilPassed(now, targetPlanningTime.minusMinutes(PLANNING_WAIT_MINUTES)));
+            }
         }
-        for (Blockage blockage : state.getBlockages()) {
-            String blockageId = createBlockageIdentifier(blockage);
-            currentBlockageIds.add(blockageId);
-            processedBlockageIds.add(blockageId); // Track as processed for file-based loading
+        return minutes;
+    }
+
+    private static int ticksUntilReached(LocalDateTime now, LocalDateTime instant) {
+        if (instant == null || !instant.isAfter(now)) {
+            return Integer.MAX_VALUE;
         }
+        Duration remaining = Duration.between(now, instant);
+        long wholeMinutes = remaining.toMinutes();
+        return clampTicks(remaining.equals(Duration.ofMinutes(wholeMinutes)) ? wholeMinutes : wholeMinutes + 1);
+    }
 
-        // Load potential new events for the current date
-        List<Event> newOrderEvents = dataLoader.loadOrdersForDate(state.getCurrentTime().toLocalDate());
-        List<Event> newBlockageEvents = dataLoader.loadBlockagesForDate(state.getCurrentTime().toLocalDate());
+    private static int ticksUntilPassed(LocalDateTime now, LocalDateTime instant) {
+        if (instant == null || !instant.isAfter(now)) {
+            return Integer.MAX_VALUE;
+        }
+        return clampTicks(Duration.between(now, instant).toMinutes() + 1);
+    }
 
+    private static int clampTicks(long minutes) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, minutes));
+    }
+
+    private void checkAndLoadNewEvents() {
         LocalDateTime currentTime = state.getCurrentTime();
+        LocalDate currentDate = currentTime.toLocalDate();
+
+        // Órdenes que ya llegaron y bloqueos que ya terminaron se descartan: basta pedir lo posterior
+        LocalDateTime after = loadWatermark != null && loadWatermark.isAfter(currentTime) ? loadWatermark
+                : currentTime;
+        if (!after.toLocalDate().equals(currentDate)) {
+            logger.trace("Datos del {} ya cargados", currentDate);
+            return;
+        }
+
+        // Load potential new events for the current date
+        List<Event> newOrderEvents = dataLoader.loadOrdersAfter(currentDate, after);
+        List<Event> newBlockageEvents = dataLoader.loadBlockagesEndingAfter(currentDate, after);
+        // Sin actualizaciones en vivo, la fecha ya está completa
+        loadWatermark = dataLoader.hasLiveUpdates() ? currentTime : currentDate.plusDays(1).atStartOfDay();
+
         List<Event> eventsToAdd = new ArrayList<>();
         int newEventsCount = 0;
 
@@ -165,16 +337,13 @@ public class Orchestrator {
             if (event.getType() == EventType.ORDER) {
                 Order order = (Order) event.getData();
 
-                // Only add if: 1) Not a duplicate, 2) Not previously processed, 3) Deadline is
-                // in the future, 4) Has remaining GLP
-                if (!currentOrderIds.contains(order.getId()) &&
-                        !processedOrderIds.contains(order.getId()) &&
-                        order.getArrivalTime().isAfter(currentTime) &&
-                        order.getRemainingGlpM3() > 0) {
+                // Only add if: 1) Not already queued or in the state, 2) Arrives in the future,
+                // 3) Has remaining GLP
+                if (order.getArrivalTime().isAfter(currentTime) &&
+                        order.getRemainingGlpM3() > 0 &&
+                        knownOrderIds.add(order.getId())) {
 
                     eventsToAdd.add(event);
-                    currentOrderIds.add(order.getId());
-                    processedOrderIds.add(order.getId()); // Mark as processed
                     newEventsCount++;
                     logger.debug("New order event added: {} (deadline: {})",
                             order.getId(), order.getDeadlineTime());
@@ -186,17 +355,12 @@ public class Orchestrator {
         for (Event event : newBlockageEvents) {
             if (event.getType() == EventType.BLOCKAGE) {
                 Blockage blockage = (Blockage) event.getData();
-                String blockageId = createBlockageIdentifier(blockage);
 
-                // Only add if: 1) Not a duplicate, 2) Not previously processed, 3) End time is
-                // in the future
-                if (!currentBlockageIds.contains(blockageId) &&
-                        !processedBlockageIds.contains(blockageId) &&
-                        blockage.getEndTime().isAfter(currentTime)) {
+                // Only add if: 1) Not already queued or in the state, 2) End time is in the future
+                if (blockage.getEndTime().isAfter(currentTime) &&
+                        knownBlockageKeys.add(blockage.contentKey())) {
 
                     eventsToAdd.add(event);
-                    currentBlockageIds.add(blockageId);
-                    processedBlockageIds.add(blockageId); // Mark as processed
 
                     // Add the blockage to the state directly
                     state.addBlockage(blockage);
@@ -217,17 +381,30 @@ public class Orchestrator {
         }
     }
 
+    private void trackEvent(Event event) {
+        if (event.getType() == EventType.ORDER) {
+            knownOrderIds.add(event.getEntityId());
+        } else if (event.getType() == EventType.BLOCKAGE) {
+            knownBlockageKeys.add(((Blockage) event.getData()).contentKey());
+        }
+    }
+
     /**
-     * Creates a unique identifier for a blockage based on its properties
+     * Vuelve a calcular las órdenes y bloqueos conocidos a partir de la cola y
+     * del estado, olvidando los que ya salieron de ambos
      */
-    private String createBlockageIdentifier(Blockage blockage) {
-        return String.format("%03d-%03d-%03d-%03d-%s-%s",
-                (int) blockage.getLines().get(0).getX(),
-                (int) blockage.getLines().get(0).getY(),
-                (int) blockage.getLines().get(1).getX(),
-                (int) blockage.getLines().get(1).getY(),
-                blockage.getStartTime(),
-                blockage.getEndTime());
+    private void rebuildKnownEvents() {
+        knownOrderIds.clear();
+        knownBlockageKeys.clear();
+        for (Event event : eventQueue) {
+            trackEvent(event);
+        }
+        for (Order order : state.getOrders()) {
+            knownOrderIds.add(order.getId());
+        }
+        for (Blockage blockage : state.getBlockages()) {
+            knownBlockageKeys.add(blockage.contentKey());
+        }
     }
 
     private void pollEvents(LocalDateTime nextTickTime) {
@@ -305,14 +482,26 @@ public class Orchestrator {
 
         logger.info("Iniciando replanificación asíncrona para el tiempo: {}", targetPlanningTime);
 
+        SolverControl control = createPlanningControl(projectedTime);
+        currentPlanningControl = control;
         planningInProgress = true;
-        currentPlanningTask = plannerExecutor.submit(() -> {
-            Thread.currentThread().setName("PlannerThread");
+        // En operación diaria el plazo es de tiempo real y la espera en cola lo consume
+        Duration maxWait = isDailyOperation ? Duration.between(LocalDateTime.now(), projectedTime)
+                .minusSeconds(DAILY_OPS_PLANNING_MARGIN_SECONDS) : null;
+        currentPlanningTask = plannerPool.submit(this, planningPriority, maxWait, () -> {
             logger.debug("Thread de planificación iniciado para tiempo objetivo: {}", targetPlanningTime);
+            if (!isDailyOperation) {
+                control.restartBudget();
+            }
+            long planningStart = System.nanoTime();
             try {
-                Map<String, VehiclePlan> newPlans = generateNewPlans(localFutureState);
+                Map<String, VehiclePlan> newPlans = generateNewPlans(localFutureState, control);
 
                 synchronized (this) {
+                    if (control.isCancelled()) {
+                        logger.debug("Planificación cancelada, se descartan sus planes");
+                        return;
+                    }
                     futurePlans = newPlans;
                     futureState = localFutureState;  // Guardamos el estado futuro completo
                     logger.info("Replanificación completada para el tiempo: {}, generados {} planes",
@@ -321,12 +510,39 @@ public class Orchestrator {
             } catch (Exception e) {
                 logger.error("Error durante la replanificación: ", e);
             } finally {
-                planningInProgress = false;
+                planningTimeNanos += System.nanoTime() - planningStart;
+                completedPlannings++;
+                // Una planificación cancelada no debe marcar como terminada a la que la reemplazó
+                if (currentPlanningControl == control) {
+                    planningInProgress = false;
+                }
                 logger.debug("Thread de planificación finalizado");
             }
         });
     }
 
+    /**
+     * Control del solver para una replanificación. En operación diaria el
+     * tiempo objetivo es tiempo real, así que el solver debe terminar antes de
+     * alcanzarlo; en simulación se usa el presupuesto configurado.
+     */
+    private SolverControl createPlanningControl(LocalDateTime projectedTime) {
+        if (!isDailyOperation) {
+            if (solverTimeBudgetMs < 0) {
+                return MetaheuristicSolver.newControl();
+            }
+            return solverTimeBudgetMs > 0 ? SolverControl.withTimeBudget(Duration.ofMillis(solverTimeBudgetMs))
+                    : SolverControl.unbounded();
+        }
+        Duration untilTarget = Duration.between(LocalDateTime.now(), projectedTime)
+                .minusSeconds(DAILY_OPS_PLANNING_MARGIN_SECONDS);
+        long configuredMs = MetaheuristicSolver.getTimeBudgetMs();
+        if (configuredMs > 0 && configuredMs < untilTarget.toMillis()) {
+            untilTarget = Duration.ofMillis(configuredMs);
+        }
+        return SolverControl.withTimeBudget(untilTarget);
+    }
+
     private void applyEventsToFutureState(SimulationState futureState, LocalDateTime projectedTime) {
         logger.debug("Aplicando eventos futuros a la proyección hasta: {}", projectedTime);
 
@@ -354,7 +570,7 @@ public class Orchestrator {
         logger.debug("Eventos futuros aplicados al estado proyectado");
     }
 
-    private Map<String, VehiclePlan> generateNewPlans(SimulationState futureState) {
+    private Map<String, VehiclePlan> generateNewPlans(SimulationState futureState, SolverControl control) {
         logger.debug("Generando nuevos planes para estado futuro en tiempo: {}", futureState.getCurrentTime());
         logger.debug("Estado futuro contiene: {} vehículos, {} órdenes",
                 futureState.getVehicles().size(),
@@ -363,7 +579,10 @@ public class Orchestrator {
         Map<String, VehiclePlan> newPlans = new HashMap<>();
 
         try {
-            Solution solution = MetaheuristicSolver.solve(futureState);
+            Solution solution = MetaheuristicSolver.solve(futureState, control);
+            if (control.isCancelled()) {
+                return newPlans;
+            }
 
             if (solution == null) {
                 logger.warn("El solver no pudo encontrar una solución válida");
@@ -534,8 +753,8 @@ public class Orchestrator {
                 break;
             case NEW_DAY:
                 state.refillDepots();
-                processedOrderIds.clear();
-                processedBlockageIds.clear();
+                // Una vez al día se olvidan las órdenes y bloqueos que ya no están en la cola ni en el estado
+                rebuildKnownEvents();
                 eventQueue
                         .add(new Event(EventType.NEW_DAY, state.getCurrentTime().plusDays(1).withHour(0).withMinute(0),
                                 null, null));
@@ -549,6 +768,9 @@ public class Orchestrator {
         // Si hay una planificación en curso, cancelarla
         if (planningInProgress && currentPlanningTask != null && !currentPlanningTask.isDone()) {
             logger.info("Cancelando planificación en curso debido a evento crítico");
+            if (currentPlanningControl != null) {
+                currentPlanningControl.cancel();
+            }
             currentPlanningTask.cancel(true);
             planningInProgress = false;
         }
@@ -570,9 +792,12 @@ public class Orchestrator {
     public void shutdown() {
         logger.info("Apagando Orchestrator y su planificador");
         if (currentPlanningTask != null && !currentPlanningTask.isDone()) {
+            if (currentPlanningControl != null) {
+                currentPlanningControl.cancel();
+            }
             currentPlanningTask.cancel(true);
             logger.debug("Tarea de planificación en curso cancelada");
         }
-        plannerExecutor.shutdown();
+        plannerPool.cancelQueued(this);
     }
 }
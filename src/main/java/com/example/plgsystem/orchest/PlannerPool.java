@@ -0,0 +1,246 @@
+package com.example.plgsystem.orchest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hilos compartidos por todos los Orchestrator para ejecutar el solver.
+ * <p>
+ * El número de planificaciones simultáneas está acotado por
+ * {@link #configureParallelism}; el resto espera en una cola ordenada por
+ * {@link PlanningPriority} y, dentro de cada clase, por orden de llegada.
+ * Cada dueño (un Orchestrator) tiene a lo sumo una planificación en cola: una
+ * nueva reemplaza a la que aún no empezó, porque partía de un estado más
+ * antiguo. Una planificación con espera máxima que no empieza a tiempo se
+ * descarta al salir de la cola.
+ */
+public class PlannerPool {
+    private static final Logger logger = LoggerFactory.getLogger(PlannerPool.class);
+
+    private static final PlannerPool SHARED = new PlannerPool(0);
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Object, PlanningTask> queuedByOwner = new ConcurrentHashMap<>();
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final Map<PlanningPriority, AtomicLong> waitNanosByPriority = new EnumMap<>(PlanningPriority.class);
+    private final Map<PlanningPriority, AtomicLong> startedByPriority = new EnumMap<>(PlanningPriority.class);
+
+    /**
+     * @param parallelism Planificaciones simultáneas; 0 o negativo usa la mitad
+     *                    de los núcleos
+     */
+    public PlannerPool(int parallelism) {
+        int threads = resolveParallelism(parallelism);
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "planner-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(), threadFactory);
+        for (PlanningPriority priority : PlanningPriority.values()) {
+            waitNanosByPriority.put(priority, new AtomicLong());
+            startedByPriority.put(priority, new AtomicLong());
+        }
+    }
+
+    public static PlannerPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Cambia el número de planificaciones simultáneas; las que están en curso
+     * terminan normalmente
+     *
+     * @param parallelism Número de hilos; 0 o negativo usa la mitad de los núcleos
+     */
+    public synchronized void configureParallelism(int parallelism) {
+        int threads = resolveParallelism(parallelism);
+        if (threads > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(threads);
+            executor.setCorePoolSize(threads);
+        } else {
+            executor.setCorePoolSize(threads);
+            executor.setMaximumPoolSize(threads);
+        }
+    }
+
+    public int getParallelism() {
+        return executor.getCorePoolSize();
+    }
+
+    /**
+     * Encola una planificación
+     *
+     * @param owner    Dueño de la planificación; reemplaza a la suya que siga en cola
+     * @param priority Clase de prioridad
+     * @param maxWait  Espera máxima en la cola antes de descartarla, o null para
+     *                 esperar sin límite
+     * @param body     Trabajo a ejecutar
+     * @return Future de la planificación; queda cancelado si se reemplaza o
+     *         descarta antes de empezar
+     */
+    public Future<?> submit(Object owner, PlanningPriority priority, Duration maxWait, Runnable body) {
+        PlanningTask task = new PlanningTask(owner, priority, maxWait, body, sequence.getAndIncrement());
+        submitted.incrementAndGet();
+        PlanningTask previous = queuedByOwner.put(owner, task);
+        if (previous != null) {
+            previous.cancel(false);
+            if (executor.remove(previous)) {
+                coalesced.incrementAndGet();
+                logger.debug("Planificación en cola reemplazada por una más reciente del mismo dueño");
+            }
+        }
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Quita de la cola la planificación del dueño que aún no empezó
+     */
+    public void cancelQueued(Object owner) {
+        PlanningTask queued = queuedByOwner.remove(owner);
+        if (queued != null) {
+            queued.cancel(false);
+            executor.remove(queued);
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getQueueDepth(PlanningPriority priority) {
+        return (int) executor.getQueue().stream()
+                .filter(runnable -> ((PlanningTask) runnable).priority == priority)
+                .count();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    /**
+     * Planificaciones reemplazadas en la cola por una más reciente del mismo dueño
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    /**
+     * Planificaciones descartadas por superar su espera máxima en la cola
+     */
+    public long getExpired() {
+        return expired.get();
+    }
+
+    /**
+     * Tiempo total de espera en la cola de las planificaciones iniciadas, en ms
+     */
+    public double getTotalWaitMs() {
+        return totalWaitNanos.get() / 1_000_000.0;
+    }
+
+    public double getMaxWaitMs() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Espera promedio en la cola de las planificaciones iniciadas de una clase, en ms
+     */
+    public double getAverageWaitMs(PlanningPriority priority) {
+        long started = startedByPriority.get(priority).get();
+        return started == 0 ? 0 : waitNanosByPriority.get(priority).get() / 1_000_000.0 / started;
+    }
+
+    private static int resolveParallelism(int parallelism) {
+        return parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    }
+
+    private void recordStart(PlanningTask task) {
+        long wait = System.nanoTime() - task.enqueuedNanos;
+        totalWaitNanos.addAndGet(wait);
+        maxWaitNanos.accumulateAndGet(wait, Math::max);
+        waitNanosByPriority.get(task.priority).addAndGet(wait);
+        startedByPriority.get(task.priority).incrementAndGet();
+    }
+
+    private final class PlanningTask extends FutureTask<Void> implements Comparable<PlanningTask> {
+        private final Object owner;
+        private final PlanningPriority priority;
+        private final long maxWaitNanos;
+        private final long sequenceNumber;
+        private final long enqueuedNanos;
+
+        PlanningTask(Object owner, PlanningPriority priority, Duration maxWait, Runnable body, long sequenceNumber) {
+            super(body, null);
+            this.owner = owner;
+            this.priority = priority;
+            this.maxWaitNanos = maxWait != null ? Math.max(0, maxWait.toNanos()) : -1;
+            this.sequenceNumber = sequenceNumber;
+            this.enqueuedNanos = System.nanoTime();
+        }
+
+        @Override
+        public void run() {
+            // Ya no está en cola: una nueva planificación del dueño no debe reemplazarla
+            queuedByOwner.remove(owner, this);
+            if (isCancelled()) {
+                return;
+            }
+            if (maxWaitNanos >= 0 && System.nanoTime() - enqueuedNanos > maxWaitNanos) {
+                if (cancel(false)) {
+                    expired.incrementAndGet();
+                    logger.debug("Planificación {} descartada tras esperar más de {} ms en la cola", priority,
+                            maxWaitNanos / 1_000_000);
+                }
+                return;
+            }
+            recordStart(this);
+            try {
+                super.run();
+            } finally {
+                completed.incrementAndGet();
+            }
+        }
+
+        @Override
+        public int compareTo(PlanningTask other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequenceNumber, other.sequenceNumber);
+        }
+    }
+}
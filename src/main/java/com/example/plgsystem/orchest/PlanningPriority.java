@@ -0,0 +1,14 @@
+package com.example.plgsystem.orchest;
+
+/**
+ * Clases de prioridad de las replanificaciones en {@link PlannerPool}, de
+ * mayor a menor
+ */
+public enum PlanningPriority {
+    /** Operación diaria: sus planes tienen un plazo de tiempo real */
+    DAILY_OPERATIONS,
+    /** Simulaciones interactivas */
+    SIMULATION,
+    /** Escenarios por lotes sin interfaz */
+    BATCH
+}
@@ -0,0 +1,436 @@
+package com.example.plgsystem.pathfinding;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.plgsystem.model.Blockage;
+import com.example.plgsystem.model.Constants;
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.util.Hashing;
+
+/**
+ * Índice espacio-temporal de bloqueos sobre la grilla de la ciudad.
+ * <p>
+ * Cada bloqueo se rasteriza una sola vez como un bitset de nodos
+ * ({@code (CITY_X + 1) * (CITY_Y + 1)} bits). El tiempo se divide en buckets
+ * de una hora; cada bucket guarda el OR de los bloqueos que lo cubren por
+ * completo, así que la consulta típica del PathFinder es un test de bit. Los
+ * bloqueos que empiezan o terminan dentro del bucket se verifican de forma
+ * exacta contra su intervalo de actividad.
+ * <p>
+ * Cada bucket mantiene además una firma (suma de huellas de sus bloqueos) que
+ * solo depende del contenido, no de la instancia: dos snapshots con los mismos
+ * bloqueos producen la misma firma. Se usa para invalidar cachés de rutas.
+ * <p>
+ * El índice se actualiza de forma incremental con {@link #add(Blockage)} y
+ * {@link #remove(Blockage)}; no es thread-safe para escrituras concurrentes,
+ * pero admite lecturas concurrentes mientras nadie lo modifique (como ocurre
+ * con los snapshots que usa el planificador).
+ */
+public class BlockageIndex {
+    public static final int GRID_WIDTH = Constants.CITY_X + 1;
+    public static final int GRID_HEIGHT = Constants.CITY_Y + 1;
+    public static final int CELL_COUNT = GRID_WIDTH * GRID_HEIGHT;
+    public static final long BUCKET_SECONDS = 3600;
+
+    private static final int WORDS = (CELL_COUNT + 63) >>> 6;
+    // Bloqueos más largos que esto (en buckets) se verifican sin indexar
+    private static final long MAX_BUCKETS_PER_BLOCKAGE = 24L * 62;
+
+    private final Map<Blockage, Entry> entries = new IdentityHashMap<>();
+    private final List<Entry> unbucketed = new ArrayList<>();
+    private long unbucketedSignature = 0;
+
+    // Tabla densa de buckets: table[i] corresponde al bucket baseBucket + i
+    private Bucket[] table = new Bucket[0];
+    private long baseBucket = 0;
+
+    public static int cellId(int x, int y) {
+        return x * GRID_HEIGHT + y;
+    }
+
+    public static long toEpochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void add(Blockage blockage) {
+        if (blockage == null || entries.containsKey(blockage)) {
+            return;
+        }
+        Entry entry = new Entry(blockage);
+        entries.put(blockage, entry);
+
+        if (blockage.getStartTime() == null || blockage.getEndTime() == null) {
+            unbucketed.add(entry);
+            unbucketedSignature += entry.signature;
+            return;
+        }
+
+        long first = Math.floorDiv(entry.activeFrom, BUCKET_SECONDS);
+        long last = Math.floorDiv(entry.activeTo, BUCKET_SECONDS);
+        if (last < first || last - first + 1 > MAX_BUCKETS_PER_BLOCKAGE) {
+            unbucketed.add(entry);
+            unbucketedSignature += entry.signature;
+            return;
+        }
+
+        ensureRange(first, last);
+        for (long b = first; b <= last; b++) {
+            int slot = (int) (b - baseBucket);
+            Bucket bucket = table[slot];
+            if (bucket == null) {
+                bucket = new Bucket();
+                table[slot] = bucket;
+            }
+            bucket.signature += entry.signature;
+            long bucketStart = b * BUCKET_SECONDS;
+            if (entry.activeFrom <= bucketStart && entry.activeTo >= bucketStart + BUCKET_SECONDS) {
+                bucket.full.add(entry);
+                or(bucket.cells, entry.cells);
+            } else {
+                bucket.partial.add(entry);
+            }
+        }
+    }
+
+    public void remove(Blockage blockage) {
+        Entry entry = entries.remove(blockage);
+        if (entry == null) {
+            return;
+        }
+        if (unbucketed.remove(entry)) {
+            unbucketedSignature -= entry.signature;
+            return;
+        }
+
+        long first = Math.max(Math.floorDiv(entry.activeFrom, BUCKET_SECONDS), baseBucket);
+        long last = Math.min(Math.floorDiv(entry.activeTo, BUCKET_SECONDS), baseBucket + table.length - 1);
+        for (long b = first; b <= last; b++) {
+            int slot = (int) (b - baseBucket);
+            Bucket bucket = table[slot];
+            if (bucket == null) {
+                continue;
+            }
+            bucket.signature -= entry.signature;
+            if (bucket.full.remove(entry)) {
+                // Recalcular solo este bucket a partir de los bloqueos que quedan
+                Arrays.fill(bucket.cells, 0L);
+                for (Entry other : bucket.full) {
+                    or(bucket.cells, other.cells);
+                }
+            } else {
+                bucket.partial.remove(entry);
+            }
+            if (bucket.isEmpty()) {
+                table[slot] = null;
+            }
+        }
+        trim();
+    }
+
+    public void clear() {
+        entries.clear();
+        unbucketed.clear();
+        unbucketedSignature = 0;
+        table = new Bucket[0];
+        baseBucket = 0;
+    }
+
+    /**
+     * Consulta exacta equivalente a recorrer todos los bloqueos con
+     * {@code isActiveAt(time) && isPositionBlocked(position)}.
+     */
+    public boolean isBlocked(Position position, LocalDateTime time) {
+        for (Entry entry : unbucketed) {
+            if (entry.blockage.isActiveAt(time) && entry.blockage.isPositionBlocked(position)) {
+                return true;
+            }
+        }
+
+        Bucket bucket = bucketAt(Math.floorDiv(toEpochSecond(time), BUCKET_SECONDS));
+        if (bucket == null) {
+            return false;
+        }
+
+        int cell = cellOf(position);
+        if (cell < 0) {
+            // Posición fraccionaria o fuera de la grilla: verificación exacta
+            for (Entry entry : bucket.full) {
+                if (entry.blockage.isPositionBlocked(position)) {
+                    return true;
+                }
+            }
+            for (Entry entry : bucket.partial) {
+                if (entry.blockage.isActiveAt(time) && entry.blockage.isPositionBlocked(position)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        if (testBit(bucket.cells, cell)) {
+            return true;
+        }
+        for (Entry entry : bucket.partial) {
+            if (testBit(entry.cells, cell) && entry.blockage.isActiveAt(time)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Variante primitiva para motores de búsqueda que trabajan con ids de nodo
+     * y segundos epoch (UTC) en lugar de Position y LocalDateTime.
+     */
+    public boolean isBlocked(int cell, long epochSecond) {
+        for (Entry entry : unbucketed) {
+            if (entry.isActiveAt(epochSecond) && testBit(entry.cells, cell)) {
+                return true;
+            }
+        }
+
+        Bucket bucket = bucketAt(Math.floorDiv(epochSecond, BUCKET_SECONDS));
+        if (bucket == null) {
+            return false;
+        }
+        if (testBit(bucket.cells, cell)) {
+            return true;
+        }
+        for (Entry entry : bucket.partial) {
+            if (testBit(entry.cells, cell) && entry.isActiveAt(epochSecond)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Firma del conjunto de bloqueos que pueden estar activos entre los dos
+     * instantes dados (segundos epoch UTC, inclusivos). Cambia solo si se
+     * agrega o retira un bloqueo que toca esa ventana.
+     */
+    public long windowSignature(long fromEpochSecond, long toEpochSecond) {
+        long signature = unbucketedSignature;
+        long first = Math.floorDiv(fromEpochSecond, BUCKET_SECONDS);
+        long last = Math.floorDiv(toEpochSecond, BUCKET_SECONDS);
+        for (long b = first; b <= last; b++) {
+            Bucket bucket = bucketAt(b);
+            signature = signature * 0x9E3779B97F4A7C15L + (bucket == null ? 0 : bucket.signature);
+        }
+        return signature;
+    }
+
+    /**
+     * Indica si algún bloqueo que toca el rectángulo de nodos dado se activa o
+     * se desactiva entre los dos instantes (segundos epoch UTC), es decir, si
+     * existe un t en [from, to) con estado distinto en t y en t + 1. Usa el
+     * rectángulo envolvente de cada bloqueo, así que puede dar falsos
+     * positivos pero nunca falsos negativos.
+     */
+    public boolean changesWithin(int minX, int minY, int maxX, int maxY, long fromEpochSecond, long toEpochSecond) {
+        for (Entry entry : unbucketed) {
+            if (entry.changesWithin(minX, minY, maxX, maxY, fromEpochSecond, toEpochSecond)) {
+                return true;
+            }
+        }
+        // Un bloqueo que cambia de estado en la ventana está en el bucket de ese cambio
+        long first = Math.floorDiv(fromEpochSecond, BUCKET_SECONDS);
+        long last = Math.floorDiv(toEpochSecond, BUCKET_SECONDS);
+        for (long b = first; b <= last; b++) {
+            Bucket bucket = bucketAt(b);
+            if (bucket == null) {
+                continue;
+            }
+            for (Entry entry : bucket.partial) {
+                if (entry.changesWithin(minX, minY, maxX, maxY, fromEpochSecond, toEpochSecond)) {
+                    return true;
+                }
+            }
+            for (Entry entry : bucket.full) {
+                if (entry.changesWithin(minX, minY, maxX, maxY, fromEpochSecond, toEpochSecond)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Bucket bucketAt(long bucket) {
+        long slot = bucket - baseBucket;
+        if (slot < 0 || slot >= table.length) {
+            return null;
+        }
+        return table[(int) slot];
+    }
+
+    private void ensureRange(long first, long last) {
+        if (table.length == 0) {
+            baseBucket = first;
+            table = new Bucket[(int) (last - first + 1)];
+            return;
+        }
+        long newBase = Math.min(baseBucket, first);
+        long newEnd = Math.max(baseBucket + table.length - 1, last);
+        if (newBase == baseBucket && newEnd == baseBucket + table.length - 1) {
+            return;
+        }
+        Bucket[] grown = new Bucket[(int) (newEnd - newBase + 1)];
+        System.arraycopy(table, 0, grown, (int) (baseBucket - newBase), table.length);
+        table = grown;
+        baseBucket = newBase;
+    }
+
+    private void trim() {
+        int from = 0;
+        int to = table.length;
+        while (from < to && table[from] == null) {
+            from++;
+        }
+        while (to > from && table[to - 1] == null) {
+            to--;
+        }
+        if (from == 0 && to == table.length) {
+            return;
+        }
+        table = Arrays.copyOfRange(table, from, to);
+        baseBucket += from;
+    }
+
+    private static int cellOf(Position position) {
+        double x = position.getX();
+        double y = position.getY();
+        if (x != Math.rint(x) || y != Math.rint(y)) {
+            return -1;
+        }
+        if (x < 0 || x >= GRID_WIDTH || y < 0 || y >= GRID_HEIGHT) {
+            return -1;
+        }
+        return cellId((int) x, (int) y);
+    }
+
+    /**
+     * Rasteriza los segmentos horizontales y verticales del bloqueo, con la
+     * misma semántica que {@link Blockage#isPositionBlocked(Position)}.
+     */
+    static long[] rasterize(List<Position> points) {
+        long[] cells = new long[WORDS];
+        if (points == null) {
+            return cells;
+        }
+        for (int i = 0; i < points.size() - 1; i++) {
+            Position p1 = points.get(i);
+            Position p2 = points.get(i + 1);
+            if (p1.getX() == p2.getX()) {
+                markSegment(cells, p1.getX(), p1.getX(), p1.getY(), p2.getY());
+            } else if (p1.getY() == p2.getY()) {
+                markSegment(cells, p1.getX(), p2.getX(), p1.getY(), p1.getY());
+            }
+        }
+        return cells;
+    }
+
+    private static void markSegment(long[] cells, double xa, double xb, double ya, double yb) {
+        int minX = (int) Math.max(0, Math.ceil(Math.min(xa, xb)));
+        int maxX = (int) Math.min(GRID_WIDTH - 1, Math.floor(Math.max(xa, xb)));
+        int minY = (int) Math.max(0, Math.ceil(Math.min(ya, yb)));
+        int maxY = (int) Math.min(GRID_HEIGHT - 1, Math.floor(Math.max(ya, yb)));
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                int cell = cellId(x, y);
+                cells[cell >>> 6] |= 1L << cell;
+            }
+        }
+    }
+
+    private static boolean testBit(long[] cells, int cell) {
+        return (cells[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    private static void or(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] |= source[i];
+        }
+    }
+
+    private static final class Entry {
+        final Blockage blockage;
+        final long[] cells;
+        // Intervalo de actividad en segundos enteros, inclusivo en ambos extremos
+        final long activeFrom;
+        final long activeTo;
+        // Huella del contenido del bloqueo (id, intervalo y nodos)
+        final long signature;
+        // Rectángulo envolvente de los nodos bloqueados (vacío si minX > maxX)
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+
+        Entry(Blockage blockage) {
+            this.blockage = blockage;
+            this.cells = rasterize(blockage.getLines());
+            LocalDateTime start = blockage.getStartTime();
+            LocalDateTime end = blockage.getEndTime();
+            this.activeFrom = start == null ? Long.MIN_VALUE
+                    : toEpochSecond(start) + (start.getNano() > 0 ? 1 : 0);
+            this.activeTo = end == null ? Long.MIN_VALUE : toEpochSecond(end);
+            long hash = Arrays.hashCode(cells);
+            if (blockage.getId() != null) {
+                hash = hash * 31 + blockage.getId().getMostSignificantBits();
+                hash = hash * 31 + blockage.getId().getLeastSignificantBits();
+            }
+            hash = hash * 31 + activeFrom;
+            hash = hash * 31 + activeTo;
+            this.signature = Hashing.mix64(hash);
+            for (int word = 0; word < cells.length; word++) {
+                long bits = cells[word];
+                while (bits != 0) {
+                    int cell = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    int x = cell / GRID_HEIGHT;
+                    int y = cell % GRID_HEIGHT;
+                    minX = Math.min(minX, x);
+                    maxX = Math.max(maxX, x);
+                    minY = Math.min(minY, y);
+                    maxY = Math.max(maxY, y);
+                }
+            }
+        }
+
+        boolean isActiveAt(long epochSecond) {
+            return activeFrom <= epochSecond && epochSecond <= activeTo;
+        }
+
+        boolean changesWithin(int boxMinX, int boxMinY, int boxMaxX, int boxMaxY, long from, long to) {
+            if (maxX < boxMinX || minX > boxMaxX || maxY < boxMinY || minY > boxMaxY) {
+                return false;
+            }
+            // Sin intervalo nunca está activo, así que nunca cambia
+            if (activeFrom == Long.MIN_VALUE || activeTo == Long.MIN_VALUE) {
+                return false;
+            }
+            return (activeFrom > from && activeFrom <= to) || (activeTo >= from && activeTo < to);
+        }
+    }
+
+    private static final class Bucket {
+        final List<Entry> full = new ArrayList<>();
+        final List<Entry> partial = new ArrayList<>();
+        final long[] cells = new long[WORDS];
+        long signature;
+
+        boolean isEmpty() {
+            return full.isEmpty() && partial.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.plgsystem.pathfinding;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.simulation.SimulationState;
+
+/**
+ * Caché LRU acotada de rutas entre nodos de la grilla.
+ * <p>
+ * La clave es (nodo inicial, nodo final, bucket horario de salida). Cada
+ * entrada guarda además la firma de bloqueos de la ventana de tiempo que
+ * puede recorrer una búsqueda con salida en ese bucket: si desde entonces
+ * se agregó o expiró un bloqueo que toca esa ventana la firma cambia y la
+ * entrada se recalcula. Como la firma depende del contenido de los bloqueos y
+ * no de la instancia de {@link SimulationState}, las entradas siguen siendo
+ * válidas entre snapshots del mismo estado.
+ * <p>
+ * Al reutilizar una ruta con otra hora de salida dentro del mismo bucket se
+ * verifica nodo a nodo que no pase por un bloqueo activo a la nueva hora de
+ * llegada. Además, si la ruta guardada no es la de distancia Manhattan, se
+ * verifica que ningún bloqueo que toque la zona donde podría haber una ruta
+ * igual o más corta se active o levante entre ambas salidas: si uno se
+ * levantó, {@link PathFinder#findPath} podría encontrar ahora una ruta más
+ * corta. Si alguna verificación falla, se vuelve a buscar.
+ */
+public class PathCache {
+    public static final int DEFAULT_CAPACITY = 20_000;
+
+    private static final PathCache SHARED = new PathCache(DEFAULT_CAPACITY);
+
+    private final LinkedHashMap<Key, CachedPath> entries;
+    private volatile int capacity;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public PathCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedPath> eldest) {
+                if (size() > PathCache.this.capacity) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static PathCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Equivalente a {@link PathFinder#findPath} pero reutilizando rutas ya
+     * calculadas. Las posiciones devueltas son copias y pueden modificarse.
+     */
+    public List<Position> findPath(SimulationState state, Position start, Position end,
+            LocalDateTime departureTime) {
+        if (capacity <= 0 || state == null || start == null || end == null || departureTime == null
+                || !PrimitivePathFinder.isGridNode(start) || !PrimitivePathFinder.isGridNode(end)) {
+            return PathFinder.findPath(state, start, end, departureTime);
+        }
+
+        long departure = BlockageIndex.toEpochSecond(departureTime);
+        Key key = new Key(
+                BlockageIndex.cellId((int) start.getX(), (int) start.getY()),
+                BlockageIndex.cellId((int) end.getX(), (int) end.getY()),
+                Math.floorDiv(departure, BlockageIndex.BUCKET_SECONDS));
+
+        CachedPath cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached != null) {
+            long signature = windowSignature(state, key, cached.durationSeconds);
+            if (signature == cached.signature && isStillClear(state, cached.path, departureTime)
+                    && isStillShortest(state, cached, departure)) {
+                hits.incrementAndGet();
+                return copyOf(cached.path);
+            }
+            invalidations.incrementAndGet();
+        }
+        misses.incrementAndGet();
+
+        List<Position> path = PathFinder.findPath(state, start, end, departureTime);
+        if (path.isEmpty()) {
+            // No se guardan rutas inexistentes: pueden aparecer al expirar un bloqueo
+            return path;
+        }
+        long duration = (path.size() - 1) * PathFinder.SECONDS_PER_STEP;
+        long signature = windowSignature(state, key, duration);
+        CachedPath entry = new CachedPath(copyOf(path), departure, duration, signature);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+        return path;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+        synchronized (entries) {
+            if (capacity <= 0) {
+                entries.clear();
+            } else {
+                var iterator = entries.entrySet().iterator();
+                while (entries.size() > capacity && iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    /**
+     * La ventana cubre cualquier salida dentro del bucket de la clave más la
+     * duración del recorrido, así que es la misma al guardar y al consultar.
+     */
+    private static long windowSignature(SimulationState state, Key key, long durationSeconds) {
+        long from = key.departureBucket() * BlockageIndex.BUCKET_SECONDS;
+        long to = from + BlockageIndex.BUCKET_SECONDS - 1 + durationSeconds;
+        return state.getBlockageSignature(from, to);
+    }
+
+    private static boolean isStillClear(SimulationState state, List<Position> path, LocalDateTime departureTime) {
+        // El destino nunca se considera bloqueado, igual que en PathFinder
+        for (int step = 1; step < path.size() - 1; step++) {
+            LocalDateTime arrival = departureTime.plusSeconds(step * PathFinder.SECONDS_PER_STEP);
+            if (state.isPositionBlockedAt(path.get(step), arrival)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Toda ruta de a lo sumo L pasos entre los extremos queda dentro de su
+     * rectángulo envolvente ampliado en (L - Manhattan) / 2 nodos por lado. Si
+     * ningún bloqueo de esa zona cambia de estado entre las dos salidas, cada
+     * nodo está igual de bloqueado a la misma distancia en pasos, así que la
+     * búsqueda con la nueva salida no puede encontrar una ruta más corta.
+     */
+    private static boolean isStillShortest(SimulationState state, CachedPath cached, long departure) {
+        if (departure == cached.departure) {
+            return true;
+        }
+        List<Position> path = cached.path;
+        Position start = path.get(0);
+        Position end = path.get(path.size() - 1);
+        int steps = path.size() - 1;
+        int manhattan = (int) (Math.abs(start.getX() - end.getX()) + Math.abs(start.getY() - end.getY()));
+        if (steps <= manhattan) {
+            return true;
+        }
+        int slack = (steps - manhattan + 1) / 2;
+        return !state.blockagesChangeWithin(
+                (int) Math.min(start.getX(), end.getX()) - slack,
+                (int) Math.min(start.getY(), end.getY()) - slack,
+                (int) Math.max(start.getX(), end.getX()) + slack,
+                (int) Math.max(start.getY(), end.getY()) + slack,
+                Math.min(departure, cached.departure),
+                Math.max(departure, cached.departure) + cached.durationSeconds);
+    }
+
+    private static List<Position> copyOf(List<Position> path) {
+        List<Position> copy = new ArrayList<>(path.size());
+        for (Position position : path) {
+            copy.add(position.clone());
+        }
+        return copy;
+    }
+
+    private record Key(int startCell, int endCell, long departureBucket) {
+    }
+
+    private record CachedPath(List<Position> path, long departure, long durationSeconds, long signature) {
+    }
+}
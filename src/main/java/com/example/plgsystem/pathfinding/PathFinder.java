@@ -10,6 +10,28 @@ import com.example.plgsystem.simulation.SimulationState;
 public class PathFinder {
     private static final int[][] DIRECTIONS = { { 1, 0 }, { 0, 1 }, { -1, 0 }, { 0, -1 } };
 
+    /** Segundos que toma recorrer un nodo a la velocidad promedio. */
+    public static final long SECONDS_PER_STEP = (long) (Constants.NODE_DISTANCE / Constants.VEHICLE_AVG_SPEED * 3600);
+
+    /**
+     * Motores de búsqueda disponibles. LEGACY es el A* basado en objetos;
+     * PRIMITIVE trabaja con ids de nodo y arreglos reutilizables.
+     */
+    public enum Engine {
+        LEGACY,
+        PRIMITIVE
+    }
+
+    private static volatile Engine engine = Engine.LEGACY;
+
+    public static void configure(Engine selectedEngine) {
+        engine = selectedEngine != null ? selectedEngine : Engine.LEGACY;
+    }
+
+    public static Engine getEngine() {
+        return engine;
+    }
+
     public static List<Position> findPath(SimulationState state, Position start, Position end,
             LocalDateTime departureTime) {
         // Handle edge cases
@@ -22,6 +44,13 @@ public class PathFinder {
             return Collections.singletonList(start);
         }
 
+        // El motor primitivo opera sobre nodos de la grilla y segundos enteros;
+        // los bloqueos se definen al minuto, así que se descartan los nanosegundos
+        if (engine == Engine.PRIMITIVE
+                && PrimitivePathFinder.isGridNode(start) && PrimitivePathFinder.isGridNode(end)) {
+            return PrimitivePathFinder.findPath(state, start, end, departureTime.withNano(0));
+        }
+
         // // If start position is blocked, no path is possible
         // if (state.isPositionBlockedAt(start, departureTime)) {
         //     return Collections.emptyList();
@@ -96,6 +125,46 @@ public class PathFinder {
         return Collections.emptyList();
     }
 
+    /**
+     * Calcula en una sola búsqueda las rutas desde un origen hacia todos los
+     * destinos indicados, con la misma semántica de bloqueos que
+     * {@link #findPath}. Los destinos que son nodos de la grilla se resuelven
+     * en una sola búsqueda (descartando los nanosegundos de la salida, como en
+     * findPath); los que no lo son, o todos si el origen no es un nodo, se
+     * resuelven cada uno con findPath.
+     */
+    public static PathTree findPathsFrom(SimulationState state, Position origin, Collection<Position> targets,
+            LocalDateTime departureTime) {
+        List<Position> gridTargets = new ArrayList<>();
+        List<Position> otherTargets = new ArrayList<>();
+        boolean gridOrigin = state != null && origin != null && departureTime != null
+                && PrimitivePathFinder.isGridNode(origin);
+        if (targets != null) {
+            for (Position target : targets) {
+                if (target == null) {
+                    continue;
+                }
+                if (gridOrigin && PrimitivePathFinder.isGridNode(target)) {
+                    gridTargets.add(target);
+                } else {
+                    otherTargets.add(target);
+                }
+            }
+        }
+
+        Map<Position, List<Position>> paths = new HashMap<>();
+        for (Position target : otherTargets) {
+            if (!paths.containsKey(target)) {
+                paths.put(target, findPath(state, origin, target, departureTime));
+            }
+        }
+        if (gridTargets.isEmpty()) {
+            return new PathTree(origin, paths);
+        }
+        return PrimitivePathFinder.searchFrom(state, origin, gridTargets, departureTime.withNano(0))
+                .withPaths(paths);
+    }
+
     /**
      * Checks if position coordinates are outside city boundaries
      */
@@ -107,8 +176,7 @@ public class PathFinder {
      * Calculates arrival time at the next position based on vehicle speed
      */
     private static LocalDateTime calculateArrivalTime(LocalDateTime departureTime) {
-        long secondsToTravel = (long) (Constants.NODE_DISTANCE / Constants.VEHICLE_AVG_SPEED * 3600);
-        return departureTime.plusSeconds(secondsToTravel);
+        return departureTime.plusSeconds(SECONDS_PER_STEP);
     }
 
     /**
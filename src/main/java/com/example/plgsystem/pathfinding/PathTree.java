@@ -0,0 +1,114 @@
+package com.example.plgsystem.pathfinding;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.example.plgsystem.model.Position;
+
+/**
+ * Resultado de una búsqueda de uno a muchos desde un origen común.
+ * <p>
+ * Guarda la distancia (en nodos recorridos) y el árbol de predecesores hacia
+ * cada destino solicitado; las rutas se reconstruyen solo cuando se piden.
+ * Las distancias son las mismas que daría {@link PathFinder#findPath} para
+ * cada par por separado. Los destinos fuera de la grilla (o todos, si el
+ * origen no es un nodo) se guardan como rutas ya calculadas.
+ */
+public final class PathTree {
+    private final Position origin;
+
+    // Modo grilla: predecesores de los nodos expandidos y datos por destino
+    private final int[] parents;
+    private final Map<Integer, Integer> targetSlots;
+    private final int[] targetDistances;
+    private final int[] targetParents;
+
+    // Destinos fuera de la grilla (u origen fuera de ella): rutas ya calculadas
+    private final Map<Position, List<Position>> paths;
+
+    PathTree(Position origin, int[] parents, Map<Integer, Integer> targetSlots, int[] targetDistances,
+            int[] targetParents) {
+        this(origin, parents, targetSlots, targetDistances, targetParents, Collections.emptyMap());
+    }
+
+    PathTree(Position origin, Map<Position, List<Position>> paths) {
+        this(origin, null, null, null, null, paths);
+    }
+
+    private PathTree(Position origin, int[] parents, Map<Integer, Integer> targetSlots, int[] targetDistances,
+            int[] targetParents, Map<Position, List<Position>> paths) {
+        this.origin = origin;
+        this.parents = parents;
+        this.targetSlots = targetSlots;
+        this.targetDistances = targetDistances;
+        this.targetParents = targetParents;
+        this.paths = paths;
+    }
+
+    /**
+     * Mismo árbol con rutas adicionales para destinos que no están en la grilla
+     */
+    PathTree withPaths(Map<Position, List<Position>> extraPaths) {
+        return new PathTree(origin, parents, targetSlots, targetDistances, targetParents, extraPaths);
+    }
+
+    public Position getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Número de tramos hasta el destino, o -1 si no es alcanzable o no fue
+     * solicitado en la búsqueda.
+     */
+    public int getDistance(Position target) {
+        List<Position> path = paths.get(target);
+        if (path != null || parents == null) {
+            return path == null || path.isEmpty() ? -1 : path.size() - 1;
+        }
+        Integer slot = slotOf(target);
+        return slot == null ? -1 : targetDistances[slot];
+    }
+
+    public boolean isReachable(Position target) {
+        return getDistance(target) >= 0;
+    }
+
+    /**
+     * Ruta desde el origen hasta el destino (ambos incluidos), o lista vacía si
+     * no es alcanzable.
+     */
+    public List<Position> getPath(Position target) {
+        List<Position> computed = paths.get(target);
+        if (computed != null || parents == null) {
+            return computed == null ? Collections.emptyList() : computed;
+        }
+        Integer slot = slotOf(target);
+        if (slot == null || targetDistances[slot] < 0) {
+            return Collections.emptyList();
+        }
+        int length = targetDistances[slot] + 1;
+        Position[] nodes = new Position[length];
+        int cell = BlockageIndex.cellId((int) target.getX(), (int) target.getY());
+        nodes[length - 1] = target.clone();
+        if (length > 1) {
+            cell = targetParents[slot];
+            for (int i = length - 2; i > 0; i--) {
+                nodes[i] = new Position(cell / BlockageIndex.GRID_HEIGHT, cell % BlockageIndex.GRID_HEIGHT);
+                cell = parents[cell];
+            }
+            nodes[0] = origin.clone();
+        }
+        List<Position> path = new ArrayList<>(length);
+        Collections.addAll(path, nodes);
+        return path;
+    }
+
+    private Integer slotOf(Position target) {
+        if (target == null || !PrimitivePathFinder.isGridNode(target)) {
+            return null;
+        }
+        return targetSlots.get(BlockageIndex.cellId((int) target.getX(), (int) target.getY()));
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.plgsystem.pathfinding;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.simulation.SimulationState;
+
+/**
+ * Motor A* sin asignaciones por nodo expandido.
+ * <p>
+ * Los nodos se codifican como enteros ({@code x * (CITY_Y + 1) + y}) y el
+ * estado de la búsqueda vive en arreglos primitivos reutilizados entre
+ * llamadas mediante un workspace por hilo. La cola de prioridad es un heap
+ * binario indexado (decrease-key en O(log n)) y los arreglos se invalidan con
+ * un sello de generación en lugar de limpiarse en cada búsqueda.
+ * <p>
+ * Mantiene la semántica del motor original: un paso equivale a
+ * {@link PathFinder#SECONDS_PER_STEP} segundos, un nodo bloqueado en el
+ * instante de llegada no se expande y el destino nunca se considera bloqueado.
+ */
+final class PrimitivePathFinder {
+    private static final int WIDTH = BlockageIndex.GRID_WIDTH;
+    private static final int HEIGHT = BlockageIndex.GRID_HEIGHT;
+    private static final int CELLS = BlockageIndex.CELL_COUNT;
+    private static final int CLOSED = -1;
+
+    private static final ThreadLocal<Workspace> WORKSPACE = ThreadLocal.withInitial(Workspace::new);
+
+    private PrimitivePathFinder() {
+    }
+
+    /**
+     * Indica si la posición es un nodo de la grilla que este motor puede
+     * procesar (coordenadas enteras dentro de la ciudad).
+     */
+    static boolean isGridNode(Position position) {
+        double x = position.getX();
+        double y = position.getY();
+        return x == Math.rint(x) && y == Math.rint(y)
+                && x >= 0 && x < WIDTH && y >= 0 && y < HEIGHT;
+    }
+
+    static List<Position> findPath(SimulationState state, Position start, Position end,
+            LocalDateTime departureTime) {
+        int startCell = BlockageIndex.cellId((int) start.getX(), (int) start.getY());
+        int endCell = BlockageIndex.cellId((int) end.getX(), (int) end.getY());
+        long departure = BlockageIndex.toEpochSecond(departureTime);
+
+        Workspace ws = WORKSPACE.get();
+        ws.reset();
+        int endX = endCell / HEIGHT;
+        int endY = endCell % HEIGHT;
+
+        ws.open(startCell, 0, -1, heuristic(startCell, endX, endY));
+        while (ws.heapSize > 0) {
+            int current = ws.poll();
+            if (current == endCell) {
+                return reconstructPath(ws, start, endCell);
+            }
+
+            int cx = current / HEIGHT;
+            int cy = current % HEIGHT;
+            int newG = ws.g[current] + 1;
+            long arrival = departure + newG * PathFinder.SECONDS_PER_STEP;
+
+            for (int dir = 0; dir < 4; dir++) {
+                int nx = cx;
+                int ny = cy;
+                switch (dir) {
+                    case 0 -> nx++;
+                    case 1 -> ny++;
+                    case 2 -> nx--;
+                    default -> ny--;
+                }
+                if (nx < 0 || nx >= WIDTH || ny < 0 || ny >= HEIGHT) {
+                    continue;
+                }
+                int neighbor = nx * HEIGHT + ny;
+                boolean seen = ws.stamp[neighbor] == ws.generation;
+                if (seen && ws.heapPos[neighbor] == CLOSED) {
+                    continue;
+                }
+                if (neighbor != endCell && state.isCellBlockedAt(neighbor, arrival)) {
+                    continue;
+                }
+                if (!seen) {
+                    ws.open(neighbor, newG, current, newG + heuristic(neighbor, endX, endY));
+                } else if (newG < ws.g[neighbor]) {
+                    ws.decrease(neighbor, newG, current, newG + heuristic(neighbor, endX, endY));
+                }
+            }
+        }
+
+        return Collections.emptyList();
+    }
+
+    /**
+     * Búsqueda en anchura desde un origen hacia varios destinos. Con costos
+     * unitarios equivale a Dijkstra y expande la grilla una sola vez. Los
+     * destinos bloqueados se alcanzan (igual que en findPath) pero no se
+     * expanden a través de ellos mientras estén bloqueados.
+     */
+    static PathTree searchFrom(SimulationState state, Position origin, List<Position> targets,
+            LocalDateTime departureTime) {
+        int startCell = BlockageIndex.cellId((int) origin.getX(), (int) origin.getY());
+        long departure = BlockageIndex.toEpochSecond(departureTime);
+
+        Workspace ws = WORKSPACE.get();
+        ws.reset();
+
+        Map<Integer, Integer> slots = new HashMap<>();
+        for (Position target : targets) {
+            int cell = BlockageIndex.cellId((int) target.getX(), (int) target.getY());
+            if (!slots.containsKey(cell)) {
+                slots.put(cell, slots.size());
+                ws.f[cell] = slots.size() - 1;
+                ws.targetStamp[cell] = ws.generation;
+            }
+        }
+        int[] targetDistances = new int[slots.size()];
+        int[] targetParents = new int[slots.size()];
+        Arrays.fill(targetDistances, -1);
+        int remaining = slots.size();
+
+        if (ws.targetStamp[startCell] == ws.generation) {
+            targetDistances[ws.f[startCell]] = 0;
+            targetParents[ws.f[startCell]] = -1;
+            remaining--;
+        }
+
+        // El arreglo del heap se usa como cola FIFO
+        int head = 0;
+        int tail = 0;
+        ws.stamp[startCell] = ws.generation;
+        ws.g[startCell] = 0;
+        ws.parent[startCell] = -1;
+        ws.heap[tail++] = startCell;
+
+        while (head < tail && remaining > 0) {
+            int current = ws.heap[head++];
+            int cx = current / HEIGHT;
+            int cy = current % HEIGHT;
+            int newG = ws.g[current] + 1;
+            long arrival = departure + newG * PathFinder.SECONDS_PER_STEP;
+
+            for (int dir = 0; dir < 4; dir++) {
+                int nx = cx;
+                int ny = cy;
+                switch (dir) {
+                    case 0 -> nx++;
+                    case 1 -> ny++;
+                    case 2 -> nx--;
+                    default -> ny--;
+                }
+                if (nx < 0 || nx >= WIDTH || ny < 0 || ny >= HEIGHT) {
+                    continue;
+                }
+                int neighbor = nx * HEIGHT + ny;
+                if (ws.stamp[neighbor] == ws.generation) {
+                    continue;
+                }
+                if (ws.targetStamp[neighbor] == ws.generation) {
+                    int slot = ws.f[neighbor];
+                    if (targetDistances[slot] < 0) {
+                        targetDistances[slot] = newG;
+                        targetParents[slot] = current;
+                        remaining--;
+                    }
+                }
+                if (state.isCellBlockedAt(neighbor, arrival)) {
+                    continue;
+                }
+                ws.stamp[neighbor] = ws.generation;
+                ws.g[neighbor] = newG;
+                ws.parent[neighbor] = current;
+                ws.heap[tail++] = neighbor;
+            }
+        }
+
+        return new PathTree(origin, ws.parent.clone(), slots, targetDistances, targetParents);
+    }
+
+    private static int heuristic(int cell, int endX, int endY) {
+        return Math.abs(cell / HEIGHT - endX) + Math.abs(cell % HEIGHT - endY);
+    }
+
+    private static List<Position> reconstructPath(Workspace ws, Position start, int endCell) {
+        int length = ws.g[endCell] + 1;
+        Position[] nodes = new Position[length];
+        int cell = endCell;
+        for (int i = length - 1; i > 0; i--) {
+            nodes[i] = new Position(cell / HEIGHT, cell % HEIGHT);
+            cell = ws.parent[cell];
+        }
+        nodes[0] = start;
+        List<Position> path = new ArrayList<>(length);
+        Collections.addAll(path, nodes);
+        return path;
+    }
+
+    /**
+     * Arreglos de trabajo de una búsqueda. Un nodo solo tiene datos válidos si
+     * {@code stamp[node] == generation}.
+     */
+    private static final class Workspace {
+        final int[] g = new int[CELLS];
+        final int[] f = new int[CELLS];
+        final int[] parent = new int[CELLS];
+        final int[] heapPos = new int[CELLS];
+        final int[] stamp = new int[CELLS];
+        final int[] heap = new int[CELLS];
+        // Marca de destinos en búsquedas de uno a muchos (f guarda su índice)
+        final int[] targetStamp = new int[CELLS];
+        int heapSize;
+        int generation;
+
+        void reset() {
+            heapSize = 0;
+            generation++;
+            if (generation == 0) {
+                Arrays.fill(stamp, 0);
+                Arrays.fill(targetStamp, 0);
+                generation = 1;
+            }
+        }
+
+        void open(int node, int gScore, int parentNode, int fScore) {
+            stamp[node] = generation;
+            g[node] = gScore;
+            f[node] = fScore;
+            parent[node] = parentNode;
+            heap[heapSize] = node;
+            heapPos[node] = heapSize;
+            heapSize++;
+            siftUp(heapPos[node]);
+        }
+
+        void decrease(int node, int gScore, int parentNode, int fScore) {
+            g[node] = gScore;
+            f[node] = fScore;
+            parent[node] = parentNode;
+            siftUp(heapPos[node]);
+        }
+
+        int poll() {
+            int top = heap[0];
+            heapSize--;
+            if (heapSize > 0) {
+                heap[0] = heap[heapSize];
+                heapPos[heap[0]] = 0;
+                siftDown(0);
+            }
+            heapPos[top] = CLOSED;
+            return top;
+        }
+
+        // Menor f primero; ante empate, el nodo más profundo (menor heurística)
+        private boolean less(int a, int b) {
+            return f[a] < f[b] || (f[a] == f[b] && g[a] > g[b]);
+        }
+
+        private void siftUp(int pos) {
+            int node = heap[pos];
+            while (pos > 0) {
+                int parentPos = (pos - 1) >>> 1;
+                int parentNode = heap[parentPos];
+                if (!less(node, parentNode)) {
+                    break;
+                }
+                heap[pos] = parentNode;
+                heapPos[parentNode] = pos;
+                pos = parentPos;
+            }
+            heap[pos] = node;
+            heapPos[node] = pos;
+        }
+
+        private void siftDown(int pos) {
+            int node = heap[pos];
+            int half = heapSize >>> 1;
+            while (pos < half) {
+                int child = 2 * pos + 1;
+                int right = child + 1;
+                if (right < heapSize && less(heap[right], heap[child])) {
+                    child = right;
+                }
+                if (!less(heap[child], node)) {
+                    break;
+                }
+                heap[pos] = heap[child];
+                heapPos[heap[pos]] = pos;
+                pos = child;
+            }
+            heap[pos] = node;
+            heapPos[node] = pos;
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package com.example.plgsystem.service;
+
+import com.example.plgsystem.dto.BatchFileDTO;
+import com.example.plgsystem.dto.BatchRunDTO;
+import com.example.plgsystem.dto.BatchScenarioDTO;
+import com.example.plgsystem.dto.BatchScenarioResultDTO;
+import com.example.plgsystem.enums.SimulationStatus;
+import com.example.plgsystem.enums.SimulationType;
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.orchest.DataLoader;
+import com.example.plgsystem.orchest.FileDataLoader;
+import com.example.plgsystem.orchest.HistoricalDataLoader;
+import com.example.plgsystem.orchest.Orchestrator;
+import com.example.plgsystem.orchest.PlanningPriority;
+import com.example.plgsystem.simulation.Simulation;
+import com.example.plgsystem.simulation.SimulationState;
+import com.example.plgsystem.util.FileUtils;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecuta escenarios de simulación sin interfaz, lo más rápido posible, en un
+ * conjunto acotado de hilos. Los escenarios no se registran en
+ * SimulationService, así que no se publican por WebSocket ni compiten con el
+ * hilo de las simulaciones interactivas; al terminar cada uno se guardan sus
+ * indicadores. Los lotes terminados se descartan pasado el tiempo de
+ * retención.
+ */
+@Service
+public class BatchSimulationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchSimulationService.class);
+
+    // Sin interfaz no hace falta publicar posiciones: cada tick avanza hasta una hora simulada
+    private static final int BATCH_TICK_MINUTES = 60;
+
+    private final Map<UUID, BatchRun> batches = new ConcurrentHashMap<>();
+    private final ExecutorService workers;
+    private final int parallelism;
+    private final Duration retention;
+
+    public BatchSimulationService(@Value("${plgsystem.batch.parallelism:0}") int parallelism,
+            @Value("${plgsystem.batch.retention-minutes:60}") long retentionMinutes) {
+        this.parallelism = parallelism > 0 ? parallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.retention = Duration.ofMinutes(Math.max(0, retentionMinutes));
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "batch-simulation-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("BatchSimulationService initialized with {} workers", this.parallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        logger.info("Deteniendo ejecuciones por lotes");
+        workers.shutdownNow();
+    }
+
+    /**
+     * Valida los escenarios y sus archivos y los encola para su ejecución
+     *
+     * @param scenarios Escenarios a ejecutar
+     * @param files     Archivos subidos, referenciados por nombre desde los
+     *                  escenarios
+     * @return Estado inicial del lote, con todos los escenarios en espera
+     * @throws IllegalArgumentException Si un escenario o archivo no es válido
+     * @throws IOException              Si hay problemas al guardar los archivos
+     */
+    public BatchRunDTO submitBatch(List<BatchScenarioDTO> scenarios, List<MultipartFile> files) throws IOException {
+        validateScenarios(scenarios);
+        evictExpiredBatches();
+
+        UUID batchId = UUID.randomUUID();
+        Map<String, MultipartFile> uploads = new HashMap<>();
+        if (files != null) {
+            for (MultipartFile file : files) {
+                uploads.put(file.getOriginalFilename(), file);
+            }
+        }
+
+        // Cada archivo se valida una sola vez aunque lo usen varios escenarios
+        List<DataLoader> dataLoaders = new ArrayList<>();
+        Map<String, Path> validatedFiles = new HashMap<>();
+        try {
+            for (BatchScenarioDTO scenario : scenarios) {
+                FileDataLoader dataLoader = new FileDataLoader();
+                if (scenario.isUseHistoricalData()) {
+                    dataLoader.setFallback(new HistoricalDataLoader());
+                }
+                for (BatchFileDTO reference : scenario.getOrderFiles()) {
+                    Path path = resolveFile(batchId, reference, "orders", uploads, validatedFiles);
+                    dataLoader.registerOrdersFile(reference.getYear(), reference.getMonth(), path);
+                }
+                for (BatchFileDTO reference : scenario.getBlockageFiles()) {
+                    Path path = resolveFile(batchId, reference, "blockages", uploads, validatedFiles);
+                    dataLoader.registerBlockagesFile(reference.getYear(), reference.getMonth(), path);
+                }
+                dataLoaders.add(dataLoader);
+            }
+        } catch (IOException | RuntimeException e) {
+            FileUtils.cleanupTempFilesForSimulation(batchId.toString());
+            throw e;
+        }
+
+        BatchRun run = new BatchRun(batchId, scenarios);
+        batches.put(batchId, run);
+        for (int i = 0; i < scenarios.size(); i++) {
+            int index = i;
+            workers.submit(() -> executeScenario(run, index, scenarios.get(index), dataLoaders.get(index)));
+        }
+        logger.info("Lote {} encolado con {} escenarios", batchId, scenarios.size());
+        return run.toDTO();
+    }
+
+    /**
+     * Estado de un lote, o null si no existe o ya se descartó
+     */
+    public BatchRunDTO getBatch(UUID id) {
+        evictExpiredBatches();
+        BatchRun run = batches.get(id);
+        return run != null ? run.toDTO() : null;
+    }
+
+    /**
+     * Descarta los lotes que terminaron hace más que el tiempo de retención
+     */
+    private void evictExpiredBatches() {
+        LocalDateTime limit = LocalDateTime.now().minus(retention);
+        batches.values().removeIf(run -> run.finishedBefore(limit));
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    private void validateScenarios(List<BatchScenarioDTO> scenarios) {
+        if (scenarios == null || scenarios.isEmpty()) {
+            throw new IllegalArgumentException("El lote debe tener al menos un escenario");
+        }
+        for (int i = 0; i < scenarios.size(); i++) {
+            BatchScenarioDTO scenario = scenarios.get(i);
+            String label = scenario.getName() != null ? scenario.getName() : "#" + (i + 1);
+            if (scenario.getStartDateTime() == null || scenario.getEndDateTime() == null) {
+                throw new IllegalArgumentException("Escenario " + label + ": fechas de inicio y fin requeridas");
+            }
+            if (!scenario.getEndDateTime().isAfter(scenario.getStartDateTime())) {
+                throw new IllegalArgumentException("Escenario " + label + ": la fecha de fin debe ser posterior");
+            }
+            if (scenario.getTaVehicles() < 0 || scenario.getTbVehicles() < 0 ||
+                    scenario.getTcVehicles() < 0 || scenario.getTdVehicles() < 0) {
+                throw new IllegalArgumentException("Escenario " + label + ": cantidades de vehículos negativas");
+            }
+            if (scenario.getTaVehicles() + scenario.getTbVehicles() + scenario.getTcVehicles()
+                    + scenario.getTdVehicles() == 0) {
+                throw new IllegalArgumentException("Escenario " + label + ": la flota no puede estar vacía");
+            }
+            if (scenario.getOrderFiles() == null) {
+                scenario.setOrderFiles(new ArrayList<>());
+            }
+            if (scenario.getBlockageFiles() == null) {
+                scenario.setBlockageFiles(new ArrayList<>());
+            }
+        }
+    }
+
+    private Path resolveFile(UUID batchId, BatchFileDTO reference, String type, Map<String, MultipartFile> uploads,
+            Map<String, Path> validatedFiles) throws IOException {
+        String key = type + "|" + reference.getFileName() + "|" + reference.getYear() + "|" + reference.getMonth();
+        Path path = validatedFiles.get(key);
+        if (path != null) {
+            return path;
+        }
+
+        MultipartFile file = uploads.get(reference.getFileName());
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Archivo no incluido o vacío: " + reference.getFileName());
+        }
+        if (reference.getMonth() < 1 || reference.getMonth() > 12) {
+            throw new IllegalArgumentException("Mes inválido para " + reference.getFileName() + ": "
+                    + reference.getMonth());
+        }
+
+        // Un id por archivo: FileUtils guarda un solo archivo por simulación, tipo y mes
+        String fileId = batchId + "-" + validatedFiles.size();
+        LocalDate referenceDate = LocalDate.of(reference.getYear(), reference.getMonth(), 1);
+        path = type.equals("orders") ? FileUtils.validateOrdersFile(file, referenceDate, fileId)
+                : FileUtils.validateBlockagesFile(file, referenceDate, fileId);
+        validatedFiles.put(key, path);
+        return path;
+    }
+
+    private void executeScenario(BatchRun run, int index, BatchScenarioDTO scenario, DataLoader dataLoader) {
+        run.update(index, new BatchScenarioResultDTO(scenario.getName(), SimulationStatus.RUNNING));
+        BatchScenarioResultDTO result;
+        try {
+            result = runScenario(scenario, dataLoader);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result = failedResult(scenario, "Ejecución interrumpida");
+        } catch (Exception e) {
+            logger.error("Error en el escenario {} del lote {}: {}", scenario.getName(), run.id, e.getMessage(), e);
+            result = failedResult(scenario, e.getMessage());
+        }
+
+        if (run.complete(index, result)) {
+            FileUtils.cleanupTempFilesForSimulation(run.id.toString());
+            logger.info("Lote {} terminado", run.id);
+        }
+    }
+
+    private static BatchScenarioResultDTO failedResult(BatchScenarioDTO scenario, String error) {
+        BatchScenarioResultDTO result = new BatchScenarioResultDTO(scenario.getName(), SimulationStatus.ERROR);
+        result.setError(error);
+        return result;
+    }
+
+    /**
+     * Ejecuta un escenario hasta su fecha de fin en el hilo actual. El tiempo
+     * avanza por eventos y cada replanificación se espera hasta que el solver
+     * termine, así los resultados no dependen de la velocidad de la máquina
+     * más que a través del presupuesto de tiempo del solver.
+     */
+    static BatchScenarioResultDTO runScenario(BatchScenarioDTO scenario, DataLoader dataLoader)
+            throws InterruptedException {
+        long begin = System.nanoTime();
+        SimulationState state = SimulationService.createCustomState(scenario.getStartDateTime(),
+                scenario.getTaVehicles(), scenario.getTbVehicles(), scenario.getTcVehicles(),
+                scenario.getTdVehicles());
+        Simulation simulation = new Simulation(state, SimulationType.CUSTOM, dataLoader);
+        Orchestrator orchestrator = simulation.getOrchestrator();
+        orchestrator.setEventDriven(true, BATCH_TICK_MINUTES);
+        orchestrator.setPlanningPriority(PlanningPriority.BATCH);
+        if (scenario.getSolverTimeBudgetMs() != null) {
+            orchestrator.setSolverTimeBudgetMs(Math.max(0, scenario.getSolverTimeBudgetMs()));
+        }
+
+        simulation.start();
+        int ticks = 0;
+        try {
+            while (state.getCurrentTime().isBefore(scenario.getEndDateTime())) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+                simulation.advanceTick();
+                orchestrator.awaitPlanning();
+                ticks++;
+            }
+            simulation.finish();
+        } finally {
+            orchestrator.shutdown();
+        }
+
+        BatchScenarioResultDTO result = new BatchScenarioResultDTO(scenario.getName(), SimulationStatus.FINISHED);
+        result.setSimulatedStartTime(scenario.getStartDateTime());
+        result.setSimulatedEndTime(state.getCurrentTime());
+
+        // Las órdenes entregadas en el último tick aún no se retiraron del estado
+        int delivered = state.getDeliveredOrdersCount();
+        int lateDelivered = state.getLateDeliveredOrdersCount();
+        int pending = 0;
+        int overdue = 0;
+        for (Order order : state.getOrders()) {
+            if (order.isDelivered()) {
+                delivered++;
+                lateDelivered += order.isDeliveredLate() ? 1 : 0;
+            } else {
+                pending++;
+                overdue += order.isOverdue(state.getCurrentTime()) ? 1 : 0;
+            }
+        }
+        result.setDeliveredOrders(delivered);
+        result.setLateDeliveredOrders(lateDelivered);
+        result.setPendingOrders(pending);
+        result.setOverdueOrders(overdue);
+        result.setFuelConsumedGal(state.getFuelConsumedGal());
+        result.setSolverRuns(orchestrator.getCompletedPlannings());
+        result.setSolverTimeMs(orchestrator.getPlanningTimeNanos() / 1_000_000);
+        result.setTicks(ticks);
+        result.setWallTimeMs((System.nanoTime() - begin) / 1_000_000);
+        logger.info("Escenario {} terminado: {} entregadas ({} tarde), {} pendientes, {} ms",
+                scenario.getName(), delivered, lateDelivered, pending, result.getWallTimeMs());
+        return result;
+    }
+
+    /**
+     * Lote en curso o terminado; los resultados se reemplazan completos al
+     * cambiar de estado
+     */
+    private static final class BatchRun {
+        private final UUID id;
+        private final LocalDateTime submissionTime = LocalDateTime.now();
+        private final BatchScenarioResultDTO[] results;
+        private int remaining;
+        private LocalDateTime realEndTime;
+
+        private BatchRun(UUID id, List<BatchScenarioDTO> scenarios) {
+            this.id = id;
+            this.results = new BatchScenarioResultDTO[scenarios.size()];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = new BatchScenarioResultDTO(scenarios.get(i).getName(), SimulationStatus.QUEUED);
+            }
+            this.remaining = results.length;
+        }
+
+        private synchronized void update(int index, BatchScenarioResultDTO result) {
+            results[index] = result;
+        }
+
+        /**
+         * Guarda el resultado final de un escenario; true si era el último
+         */
+        private synchronized boolean complete(int index, BatchScenarioResultDTO result) {
+            results[index] = result;
+            remaining--;
+            if (remaining == 0) {
+                realEndTime = LocalDateTime.now();
+                return true;
+            }
+            return false;
+        }
+
+        private synchronized boolean finishedBefore(LocalDateTime limit) {
+            return realEndTime != null && !realEndTime.isAfter(limit);
+        }
+
+        private synchronized BatchRunDTO toDTO() {
+            SimulationStatus status = remaining > 0 ? SimulationStatus.RUNNING : SimulationStatus.FINISHED;
+            return new BatchRunDTO(id, status, submissionTime, realEndTime, List.of(results));
+        }
+    }
+}
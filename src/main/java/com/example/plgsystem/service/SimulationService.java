@@ -1,8 +1,8 @@
 package com.example.plgsystem.service;
 
 import com.example.plgsystem.dto.IncidentCreateDTO;
-import com.example.plgsystem.dto.SimulationDTO;
 import com.example.plgsystem.dto.SimulationStateDTO;
+import com.example.plgsystem.dto.VehiclePlanDTO;
 import com.example.plgsystem.enums.DepotType;
 import com.example.plgsystem.enums.SimulationType;
 import com.example.plgsystem.enums.VehicleType;
@@ -19,6 +19,7 @@ import com.example.plgsystem.orchest.DataLoader;
 import com.example.plgsystem.orchest.Event;
 import com.example.plgsystem.orchest.EventType;
 import com.example.plgsystem.orchest.FileDataLoader;
+import com.example.plgsystem.orchest.HistoricalDataLoader;
 import com.example.plgsystem.repository.BlockageRepository;
 import com.example.plgsystem.repository.DepotRepository;
 import com.example.plgsystem.repository.IncidentRepository;
@@ -26,6 +27,8 @@ import com.example.plgsystem.repository.MaintenanceRepository;
 import com.example.plgsystem.repository.OrderRepository;
 import com.example.plgsystem.repository.VehicleRepository;
 import com.example.plgsystem.simulation.Simulation;
+import com.example.plgsystem.simulation.SimulationBroadcaster;
+import com.example.plgsystem.simulation.SimulationScheduler;
 import com.example.plgsystem.simulation.SimulationState;
 import com.example.plgsystem.util.FileUtils;
 
@@ -33,6 +36,7 @@ import jakarta.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.event.ContextRefreshedEvent;
@@ -67,12 +71,19 @@ public class SimulationService implements ApplicationListener<ContextRefreshedEv
     // --------------------------------------------------------------------------
 
     private final Map<UUID, Simulation> simulations = new ConcurrentHashMap<>();
+    // Último estado publicado por simulación, para enviar solo los cambios en cada tick
+    private final Map<UUID, SimulationStateStream> stateStreams = new ConcurrentHashMap<>();
+    // Enviar además el estado completo en cada tick, para clientes que aún no aplican deltas
+    @Value("${plgsystem.websocket.full-state-updates:false}")
+    private boolean fullStateUpdates;
     private UUID dailyOperationsId;
     private final AtomicBoolean dailyOperationsProcessing = new AtomicBoolean(false);
 
-    // Thread
-    private Thread simulationThread;
-    private int simulationFrequency = 1000; // Frequency in milliseconds
+    // Un hilo virtual por simulación en ejecución; la frecuencia es el intervalo por defecto entre ticks
+    private static final int DEFAULT_SIMULATION_FREQUENCY_MS = 1000;
+    private final SimulationScheduler scheduler;
+    // Publica las actualizaciones fuera de los hilos de las simulaciones
+    private final SimulationBroadcaster broadcaster;
 
     private final DepotService depotService;
     private final VehicleService vehicleService;
@@ -98,7 +109,8 @@ public class SimulationService implements ApplicationListener<ContextRefreshedEv
             DepotRepository depotRepository,
             IncidentRepository incidentRepository,
             MaintenanceRepository maintenanceRepository,
-            DatabaseInitializationService databaseInitializationService) {
+            DatabaseInitializationService databaseInitializationService,
+            SimulationBroadcaster broadcaster) {
         this.depotService = depotService;
         this.vehicleService = vehicleService;
         this.messagingTemplate = messagingTemplate;
@@ -108,6 +120,9 @@ public class SimulationService implements ApplicationListener<ContextRefreshedEv
         this.depotRepository = depotRepository;
         this.incidentRepository = incidentRepository;
         this.maintenanceRepository = maintenanceRepository;
+        this.scheduler = new SimulationScheduler(this::sendSimulationUpdate, DEFAULT_SIMULATION_FREQUENCY_MS);
+        this.broadcaster = broadcaster;
+        broadcaster.setPublisher(this::publishSimulationUpdate);
         logger.info("SimulationService initialized");
         this.databaseInitializationService = databaseInitializationService;
     }
@@ -121,26 +136,9 @@ public class SimulationService implements ApplicationListener<ContextRefreshedEv
         logger.info("Application context refreshed, initializing simulations");
         databaseInitializationService.initializeDatabase();
         initializeDailyOperations();
-        initSimulationThread();
         logger.info("Simulations initialization complete");
     }
 
-    private void initSimulationThread() {
-        simulationThread = new Thread(() -> {
-            while (!Thread.currentThread().isInterrupted()) {
-                try {
-                    updateSimulations();
-                    Thread.sleep(simulationFrequency); // Simulate work
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-            }
-        });
-        simulationThread.setName("simulation-updater");
-        simulationThread.start();
-        logger.info("Simulation thread started");
-    }
-
     /**
      * Limpia los recursos cuando se cierra la aplicación
      */
@@ -148,20 +146,9 @@ public class SimulationService implements ApplicationListener<ContextRefreshedEv
     public void cleanup() {
         logger.info("Limpiando recursos de simulación");
 
-        // Detener el hilo de simulación
-        if (simulationThread != null && simulationThread.isAlive()) {
-            logger.info("Deteniendo hilo de simulación");
-            simulationThread.interrupt();
-            try {
-                simulationThread.join(5000); // Esperar 5 segundos a que termine
-                if (simulationThread.isAlive()) {
-                    logger.warn("El hilo de simulación no terminó después de 5 segundos");
-                }
-            } catch (InterruptedException e) {
-                logger.error("Interrupción al esperar que termine el hilo de simulación", e);
-                Thread.currentThread().interrupt();
-            }
-        }
+        // Detener los hilos de las simulaciones
+        logger.info("Deteniendo {} hilos de simulación", scheduler.getActiveLoops());
+        scheduler.shutdown();
 
         // Apagar todos los orquestadores de simulaciones activas
         simulations.values().forEach(simulation -> {
@@ -205,6 +192,9 @@ public class SimulationService implements ApplicationListener<ContextRefreshedEv
         Simulation simulation = simulations.get(id);
         if (simulation != null) {
             simulation.start();
+            if (!simulation.isDailyOperation()) {
+                scheduler.schedule(simulation);
+            }
             logger.info("Simulation {} started successfully", id);
             sendSimulationUpdate(simulation);
         } else {
@@ -237,6 +227,7 @@ public class SimulationService implements ApplicationListener<ContextRefreshedEv
         Simulation simulation = simulations.get(id);
         if (simulation != null) {
             simulation.finish();
+            scheduler.cancel(id);
             simulation.getOrchestrator().shutdown();
             logger.info("Simulation {} finished successfully", id);
             sendSimulationUpdate(simulation);
@@ -252,10 +243,12 @@ public class SimulationService implements ApplicationListener<ContextRefreshedEv
     public void deleteSimulation(UUID id) {
         Simulation simulation = simulations.get(id);
         if (simulation != null) {
+            scheduler.cancel(id);
             simulation.getOrchestrator().shutdown();
             logger.info("Shutdown orchestrator resources for simulation {}", id);
         }
         simulations.remove(id);
+        stateStreams.remove(id);
     }
 
     // --------------------------------------------------------------------------
@@ -387,7 +380,32 @@ public class SimulationService implements ApplicationListener<ContextRefreshedEv
             logger.info("Weekly simulation: auto-set end date to {}", endDateTime);
         }
 
-        // Get fixed depots from the database
+        SimulationState state = createCustomState(startDateTime, taVehicleCount, tbVehicleCount, tcVehicleCount,
+                tdVehicleCount);
+        DataLoader dataLoader = new FileDataLoader();
+        Simulation simulation = new Simulation(state, type, dataLoader);
+
+        // Store in simulations map
+        simulations.put(simulation.getId(), simulation);
+        logger.info("Created simulation with ID: {}", simulation.getId());
+
+        // Broadcast the initial state to create the channel
+        sendSimulationUpdate(simulation);
+
+        return simulation;
+    }
+
+    /**
+     * Estado inicial de una simulación en memoria: depósitos fijos, la flota
+     * indicada en la planta principal y un mantenimiento cada dos meses
+     * escalonado cada dos días entre vehículos
+     */
+    public static SimulationState createCustomState(
+            LocalDateTime startDateTime,
+            int taVehicleCount,
+            int tbVehicleCount,
+            int tcVehicleCount,
+            int tdVehicleCount) {
         Depot mainDepot = new Depot(Constants.MAIN_DEPOT_ID, Constants.MAIN_DEPOT_LOCATION, 10000, DepotType.MAIN);
         Depot northDepot = new Depot(Constants.NORTH_DEPOT_ID, Constants.NORTH_DEPOT_LOCATION, 1600, DepotType.AUXILIARY);
         Depot eastDepot = new Depot(Constants.EAST_DEPOT_ID, Constants.EAST_DEPOT_LOCATION, 1600, DepotType.AUXILIARY);
@@ -397,51 +415,10 @@ public class SimulationService implements ApplicationListener<ContextRefreshedEv
 
         // Create vehicles automatically
         List<Vehicle> vehicles = new ArrayList<>();
-
-        // Generate TA vehicles
-        for (int i = 0; i < taVehicleCount; i++) {
-            String id = "TA" + String.format("%02d", i + 1);
-            Vehicle vehicle = Vehicle.builder()
-                    .id(id)
-                    .type(VehicleType.TA)
-                    .currentPosition(mainDepot.getPosition().clone())
-                    .build();
-            vehicles.add(vehicle);
-        }
-
-        // Generate TB vehicles
-        for (int i = 0; i < tbVehicleCount; i++) {
-            String id = "TB" + String.format("%02d", i + 1);
-            Vehicle vehicle = Vehicle.builder()
-                    .id(id)
-                    .type(VehicleType.TB)
-                    .currentPosition(mainDepot.getPosition().clone())
-                    .build();
-            vehicles.add(vehicle);
-        }
-
-        // Generate TC vehicles
-        for (int i = 0; i < tcVehicleCount; i++) {
-            String id = "TC" + String.format("%02d", i + 1);
-            Vehicle vehicle = Vehicle.builder()
-                    .id(id)
-                    .type(VehicleType.TC)
-                    .currentPosition(mainDepot.getPosition().clone())
-                    .build();
-            vehicles.add(vehicle);
-        }
-
-        // Generate TD vehicles
-        for (int i = 0; i < tdVehicleCount; i++) {
-            String id = "TD" + String.format("%02d", i + 1);
-            Vehicle vehicle = Vehicle.builder()
-                    .id(id)
-                    .type(VehicleType.TD)
-                    .currentPosition(mainDepot.getPosition().clone())
-                    .build();
-            vehicles.add(vehicle);
-        }
-
+        addVehicles(vehicles, VehicleType.TA, taVehicleCount, mainDepot);
+        addVehicles(vehicles, VehicleType.TB, tbVehicleCount, mainDepot);
+        addVehicles(vehicles, VehicleType.TC, tcVehicleCount, mainDepot);
+        addVehicles(vehicles, VehicleType.TD, tdVehicleCount, mainDepot);
         logger.info("Created {} vehicles for simulation", vehicles.size());
 
         // Create maintenance schedule for custom simulation - one month from start for
@@ -453,43 +430,25 @@ public class SimulationService implements ApplicationListener<ContextRefreshedEv
             dayCount += 2;
         }
 
-        // Create simulation state
-        SimulationState state = new SimulationState(vehicles, maintenanceSchedule, mainDepot, auxDepots, startDateTime);
-        DataLoader dataLoader = new FileDataLoader();
-        Simulation simulation = new Simulation(state, type, dataLoader);
-
-        // Store in simulations map
-        simulations.put(simulation.getId(), simulation);
-        logger.info("Created simulation with ID: {}", simulation.getId());
-
-        // Broadcast the initial state to create the channel
-        sendSimulationUpdate(simulation);
+        return new SimulationState(vehicles, maintenanceSchedule, mainDepot, auxDepots, startDateTime);
+    }
 
-        return simulation;
+    private static void addVehicles(List<Vehicle> vehicles, VehicleType type, int count, Depot mainDepot) {
+        for (int i = 0; i < count; i++) {
+            String id = type.name() + String.format("%02d", i + 1);
+            Vehicle vehicle = Vehicle.builder()
+                    .id(id)
+                    .type(type)
+                    .currentPosition(mainDepot.getPosition().clone())
+                    .build();
+            vehicles.add(vehicle);
+        }
     }
 
     // --------------------------------------------------------------------------
     // Scheduled Update Methods
     // --------------------------------------------------------------------------
 
-    public void updateSimulations() {
-        logger.trace("Updating other running simulations");
-
-        // Procesar el resto de simulaciones (en memoria)
-        for (Map.Entry<UUID, Simulation> entry : simulations.entrySet()) {
-            // Omitir las operaciones diarias ya procesadas
-            if (entry.getKey().equals(dailyOperationsId)) {
-                continue;
-            }
-
-            Simulation simulation = entry.getValue();
-            if (simulation.isRunning()) {
-                simulation.advanceTick();
-            }
-            sendSimulationUpdate(simulation);
-        }
-    }
-
     @Scheduled(fixedRate = 2000)
     public void updateDailyOperations() {
         // Procesar operaciones diarias de manera especial
@@ -551,6 +510,21 @@ public class SimulationService implements ApplicationListener<ContextRefreshedEv
         }
     }
 
+    /**
+     * Hace que la simulación use los datos históricos incluidos en el
+     * servidor para los meses sin archivo subido
+     *
+     * @param simulation La simulación
+     * @throws IllegalStateException Si la simulación no usa archivos
+     */
+    public void useHistoricalData(Simulation simulation) {
+        if (!(simulation.getOrchestrator().getDataLoader() instanceof FileDataLoader fileDataLoader)) {
+            throw new IllegalStateException("Esta simulación no soporta datos históricos");
+        }
+        fileDataLoader.setFallback(new HistoricalDataLoader());
+        logger.info("Simulación {} usa los datos históricos incluidos", simulation.getId());
+    }
+
     /**
      * Carga bloqueos para una simulación desde un archivo para un año/mes
      * específico
@@ -704,25 +678,82 @@ public class SimulationService implements ApplicationListener<ContextRefreshedEv
 
     /**
      * Send simulation updates via WebSocket
+     * <p>
+     * No bloquea: deja la simulación pendiente en el {@link SimulationBroadcaster},
+     * que la publica en otro hilo solo si hay suscriptores, con a lo sumo un
+     * envío por intervalo y conservando solo el último tick pendiente.
      */
     public void sendSimulationUpdate(Simulation simulation) {
+        broadcaster.submit(simulation);
+    }
+
+    /**
+     * Construye y envía la actualización de la simulación; se llama desde el
+     * hilo del publicador.
+     * <p>
+     * /topic/simulation/{id} lleva solo el estado de ejecución y el tiempo. El
+     * estado va como delta numerado a /topic/simulation/{id}/state/delta;
+     * el estado completo se obtiene al suscribirse a /app/simulation/{id}/state
+     * (ver {@link #getStateSnapshot(UUID)}). Las acciones de cada plan se
+     * envían una sola vez a /topic/simulation/{id}/plans cuando se instala;
+     * los deltas solo llevan su avance.
+     */
+    private void publishSimulationUpdate(Simulation simulation) {
         logger.trace("Sending WebSocket update for simulation ID: {}", simulation.getId());
 
         UUID id = simulation.getId();
+        if (!simulations.containsKey(id)) {
+            return; // Eliminada mientras esperaba su envío
+        }
         String channelBasePath = "/topic/simulation/" + id;
+        SimulationStateStream stream = stateStreams.computeIfAbsent(id,
+                key -> new SimulationStateStream(key.toString()));
+
+        SimulationUpdate update = SimulationUpdate.next(simulation, stream, fullStateUpdates);
 
         messagingTemplate.convertAndSend(
                 channelBasePath,
-                new SimulationDTO(simulation));
+                update.summary());
+        // Los planes van antes que el delta que referencia su planId
+        if (!update.plans().isEmpty()) {
+            messagingTemplate.convertAndSend(
+                    channelBasePath + "/plans",
+                    update.plans());
+        }
+        messagingTemplate.convertAndSend(
+                channelBasePath + "/state/delta",
+                update.delta());
+        if (update.fullState() != null) {
+            messagingTemplate.convertAndSend(
+                    channelBasePath + "/state",
+                    update.fullState());
+        }
+    }
 
-        SimulationStateDTO stateDTO = SimulationStateDTO.fromSimulationState(
-                id.toString(),
-                simulation.getState(),
-                simulation.getStatus());
+    /**
+     * Estado completo de la simulación, numerado con el último delta enviado
+     * para que el cliente descarte los deltas que ya incluye
+     *
+     * @return El estado, o null si la simulación no existe
+     */
+    public SimulationStateDTO getStateSnapshot(UUID id) {
+        Simulation simulation = simulations.get(id);
+        if (simulation == null) {
+            return null;
+        }
+        SimulationStateStream stream = stateStreams.computeIfAbsent(id,
+                key -> new SimulationStateStream(key.toString()));
+        return stream.snapshot(simulation.getState(), simulation.getStatus());
+    }
 
-        messagingTemplate.convertAndSend(
-                channelBasePath + "/state",
-                stateDTO);
+    /**
+     * Planes actuales de la simulación con todas sus acciones
+     *
+     * @return Los planes, o null si la simulación no existe
+     */
+    public List<VehiclePlanDTO> getCurrentPlans(UUID id) {
+        Simulation simulation = simulations.get(id);
+        return simulation == null ? null : SimulationStateStream.currentPlans(simulation.getState());
     }
 
     /**
@@ -733,17 +764,38 @@ public class SimulationService implements ApplicationListener<ContextRefreshedEv
     }
 
     public void setSimulationFrequency(int speedFactor) {
+        int frequency = toTickInterval(speedFactor);
+        logger.info("Setting simulation frequency to {} ms", frequency);
+        scheduler.setDefaultTickIntervalMs(frequency);
+        logger.info("Simulation frequency set to {} ms", frequency);
+    }
+
+    /**
+     * Velocidad propia de una simulación, independiente de la del resto
+     *
+     * @return La simulación, o null si no existe
+     */
+    public Simulation setSimulationSpeed(UUID id, int speedFactor) {
+        Simulation simulation = simulations.get(id);
+        if (simulation == null || simulation.isDailyOperation()) {
+            return simulation;
+        }
+        int frequency = toTickInterval(speedFactor);
+        simulation.setTickIntervalMs(frequency);
+        logger.info("Simulation {} frequency set to {} ms", id, frequency);
+        return simulation;
+    }
+
+    private int toTickInterval(int speedFactor) {
         if (speedFactor <= 0) {
             logger.warn("Invalid simulation frequency: {}. Must be greater than 0", speedFactor);
             throw new IllegalArgumentException("Simulation frequency must be greater than 0");
         }
-        int frequency = 1000 / speedFactor; // Convert speed factor to milliseconds
+        int frequency = DEFAULT_SIMULATION_FREQUENCY_MS / speedFactor; // Convert speed factor to milliseconds
         if (frequency <= 0) {
             logger.warn("Invalid simulation frequency: {}. Must be greater than 0", frequency);
             throw new IllegalArgumentException("Simulation frequency must be greater than 0");
         }
-        logger.info("Setting simulation frequency to {} ms", frequency);
-        this.simulationFrequency = frequency;
-        logger.info("Simulation frequency set to {} ms", frequency);
+        return frequency;
     }
 }
\ No newline at end of file
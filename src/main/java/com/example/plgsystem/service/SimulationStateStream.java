@@ -0,0 +1,283 @@
+package com.example.plgsystem.service;
+
+import com.example.plgsystem.dto.DepotDTO;
+import com.example.plgsystem.dto.IncidentDTO;
+import com.example.plgsystem.dto.MaintenanceDTO;
+import com.example.plgsystem.dto.OrderDTO;
+import com.example.plgsystem.dto.PlanProgressDTO;
+import com.example.plgsystem.dto.SimulationStateDTO;
+import com.example.plgsystem.dto.StateDeltaDTO;
+import com.example.plgsystem.dto.VehicleDTO;
+import com.example.plgsystem.dto.VehiclePlanDTO;
+import com.example.plgsystem.enums.SimulationStatus;
+import com.example.plgsystem.enums.VehicleStatus;
+import com.example.plgsystem.model.Blockage;
+import com.example.plgsystem.model.Depot;
+import com.example.plgsystem.model.Incident;
+import com.example.plgsystem.model.Maintenance;
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Vehicle;
+import com.example.plgsystem.operation.VehiclePlan;
+import com.example.plgsystem.simulation.SimulationState;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Flujo versionado del estado de una simulación para WebSocket.
+ * <p>
+ * Guarda lo último que se publicó y en cada tick produce un
+ * {@link StateDeltaDTO} numerado con solo lo que cambió. Un cliente nuevo
+ * pide un {@link SimulationStateDTO} completo, numerado con el último delta
+ * que incluye, y luego aplica los deltas siguientes: descarta los de número
+ * menor o igual y, si detecta un salto en la numeración, vuelve a pedir el
+ * estado completo.
+ * <p>
+ * Las acciones de los planes no van en los deltas: {@link #nextPlans} entrega
+ * solo los planes con un planId que aún no se publicó (los que instalan la
+ * replanificación o un incidente) y los deltas llevan el avance de cada plan
+ * con su planId.
+ * <p>
+ * Cada instancia corresponde a un solo estado y se sincroniza con él, igual
+ * que el avance de los ticks: los mensajes se construyen entre dos ticks.
+ */
+public class SimulationStateStream {
+    private final String simulationId;
+    private volatile long sequence;
+
+    // Último estado publicado
+    private final Map<String, VehicleDTO> vehicles = new HashMap<>();
+    private final Map<String, DepotDTO> depots = new HashMap<>();
+    private final Map<String, OrderDTO> orders = new HashMap<>();
+    private final Set<UUID> blockages = new HashSet<>();
+    private final Map<String, PlanProgressDTO> planProgress = new HashMap<>();
+    // planId publicado por vehículo
+    private final Map<String, UUID> publishedPlans = new HashMap<>();
+    private List<IncidentDTO> incidents = List.of();
+    private List<MaintenanceDTO> maintenances = List.of();
+    private Map<String, LocalDateTime> maintenanceSchedule = Map.of();
+
+    public SimulationStateStream(String simulationId) {
+        this.simulationId = simulationId;
+    }
+
+    /**
+     * Número del último delta producido
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Estado completo, numerado con el último delta producido
+     */
+    public SimulationStateDTO snapshot(SimulationState state, SimulationStatus status) {
+        synchronized (state) {
+            SimulationStateDTO snapshot = SimulationStateDTO.fromSimulationState(simulationId, state, status);
+            snapshot.setSequence(sequence);
+            return snapshot;
+        }
+    }
+
+    /**
+     * Planes instalados desde la llamada anterior, con todas sus acciones; la
+     * primera llamada entrega todos
+     */
+    public List<VehiclePlanDTO> nextPlans(SimulationState state) {
+        synchronized (state) {
+            Map<String, VehiclePlan> plans = state.getCurrentVehiclePlans();
+            List<VehiclePlanDTO> installed = new ArrayList<>();
+            for (Map.Entry<String, VehiclePlan> entry : plans.entrySet()) {
+                VehiclePlan plan = entry.getValue();
+                if (!plan.getPlanId().equals(publishedPlans.put(entry.getKey(), plan.getPlanId()))) {
+                    installed.add(VehiclePlanDTO.fromEntity(plan));
+                }
+            }
+            publishedPlans.keySet().retainAll(plans.keySet());
+            return installed;
+        }
+    }
+
+    /**
+     * Planes actuales con todas sus acciones, para un cliente nuevo o que
+     * recibió un planId desconocido
+     */
+    public static List<VehiclePlanDTO> currentPlans(SimulationState state) {
+        synchronized (state) {
+            return state.getCurrentVehiclePlans().values().stream()
+                    .map(VehiclePlanDTO::fromEntity)
+                    .toList();
+        }
+    }
+
+    /**
+     * Cambios desde el delta anterior; el primero incluye todo el estado
+     */
+    public StateDeltaDTO nextDelta(SimulationState state, SimulationStatus status) {
+        synchronized (state) {
+            return computeDelta(state, status);
+        }
+    }
+
+    private StateDeltaDTO computeDelta(SimulationState state, SimulationStatus status) {
+        List<Vehicle> vehiclesCopy = new ArrayList<>(state.getVehicles());
+        List<Depot> depotsCopy = new ArrayList<>(state.getAuxDepots());
+        depotsCopy.add(state.getMainDepot());
+        List<Order> ordersCopy = new ArrayList<>(state.getOrders());
+        List<Blockage> blockagesCopy = new ArrayList<>(state.getBlockages());
+        List<Incident> incidentsCopy = new ArrayList<>(state.getIncidents());
+        List<Maintenance> maintenancesCopy = new ArrayList<>(state.getMaintenances());
+        Map<String, VehiclePlan> plansCopy = new HashMap<>(state.getCurrentVehiclePlans());
+        Map<String, LocalDateTime> scheduleCopy = new HashMap<>(state.getMaintenanceSchedule());
+        LocalDateTime now = state.getCurrentTime();
+
+        StateDeltaDTO delta = StateDeltaDTO.builder()
+                .simulationId(simulationId)
+                .sequence(++sequence)
+                .currentTime(now)
+                .status(status)
+                .deliveredOrdersCount(state.getDeliveredOrdersCount())
+                .build();
+
+        List<VehicleDTO> changedVehicles = new ArrayList<>();
+        int available = 0;
+        for (Vehicle vehicle : vehiclesCopy) {
+            VehicleDTO dto = VehicleDTO.fromEntity(vehicle);
+            if (!dto.equals(vehicles.put(dto.getId(), dto))) {
+                changedVehicles.add(dto);
+            }
+            if (vehicle.getStatus() == VehicleStatus.AVAILABLE) {
+                available++;
+            }
+        }
+        delta.setVehicles(changedVehicles);
+        delta.setAvailableVehiclesCount(available);
+
+        List<DepotDTO> changedDepots = new ArrayList<>();
+        for (Depot depot : depotsCopy) {
+            if (depot == null) {
+                continue;
+            }
+            DepotDTO dto = DepotDTO.fromEntity(depot);
+            if (!dto.equals(depots.put(dto.getId(), dto))) {
+                changedDepots.add(dto);
+            }
+        }
+        delta.setDepots(changedDepots);
+
+        diffOrders(ordersCopy, now, delta);
+        diffBlockages(blockagesCopy, now, delta);
+        diffPlans(plansCopy, delta);
+
+        List<IncidentDTO> activeIncidents = incidentsCopy.stream()
+                .filter(incident -> !incident.isResolved())
+                .map(IncidentDTO::fromEntity)
+                .toList();
+        if (!activeIncidents.equals(incidents)) {
+            incidents = activeIncidents;
+            delta.setActiveIncidents(activeIncidents);
+        }
+        List<MaintenanceDTO> scheduled = maintenancesCopy.stream()
+                .map(MaintenanceDTO::fromEntity)
+                .toList();
+        if (!scheduled.equals(maintenances)) {
+            maintenances = scheduled;
+            delta.setScheduledMaintenances(scheduled);
+        }
+        if (!scheduleCopy.equals(maintenanceSchedule)) {
+            maintenanceSchedule = scheduleCopy;
+            delta.setMaintenanceSchedule(scheduleCopy);
+        }
+        return delta;
+    }
+
+    private void diffOrders(List<Order> ordersCopy, LocalDateTime now, StateDeltaDTO delta) {
+        List<OrderDTO> changed = new ArrayList<>();
+        Set<String> pending = new HashSet<>();
+        int overdue = 0;
+        for (Order order : ordersCopy) {
+            if (order == null) {
+                continue;
+            }
+            if (order.isOverdue(now)) {
+                overdue++;
+            }
+            if (order.isDelivered()) {
+                continue;
+            }
+            OrderDTO dto = OrderDTO.fromEntity(order);
+            pending.add(dto.getId());
+            if (!dto.equals(orders.put(dto.getId(), dto))) {
+                changed.add(dto);
+            }
+        }
+
+        List<String> removed = new ArrayList<>();
+        for (Iterator<String> iterator = orders.keySet().iterator(); iterator.hasNext();) {
+            String id = iterator.next();
+            if (!pending.contains(id)) {
+                removed.add(id);
+                iterator.remove();
+            }
+        }
+        delta.setOrders(changed);
+        delta.setRemovedOrderIds(removed);
+        delta.setPendingOrdersCount(pending.size());
+        delta.setOverdueOrdersCount(overdue);
+    }
+
+    private void diffBlockages(List<Blockage> blockagesCopy, LocalDateTime now, StateDeltaDTO delta) {
+        List<Blockage> added = new ArrayList<>();
+        Set<UUID> active = new HashSet<>();
+        for (Blockage blockage : blockagesCopy) {
+            if (blockage.isActiveAt(now)) {
+                active.add(blockage.getId());
+                if (blockages.add(blockage.getId())) {
+                    added.add(blockage);
+                }
+            }
+        }
+
+        List<UUID> removed = new ArrayList<>();
+        for (Iterator<UUID> iterator = blockages.iterator(); iterator.hasNext();) {
+            UUID id = iterator.next();
+            if (!active.contains(id)) {
+                removed.add(id);
+                iterator.remove();
+            }
+        }
+        delta.setAddedBlockages(added);
+        delta.setRemovedBlockageIds(removed);
+    }
+
+    private void diffPlans(Map<String, VehiclePlan> plansCopy, StateDeltaDTO delta) {
+        List<PlanProgressDTO> progressed = new ArrayList<>();
+        for (Map.Entry<String, VehiclePlan> entry : plansCopy.entrySet()) {
+            String vehicleId = entry.getKey();
+            VehiclePlan plan = entry.getValue();
+            PlanProgressDTO progress = new PlanProgressDTO(vehicleId, plan.getPlanId().toString(),
+                    plan.getCurrentActionIndex(), plan.getCurrentActionProgress());
+            if (!progress.equals(planProgress.put(vehicleId, progress))) {
+                progressed.add(progress);
+            }
+        }
+
+        List<String> removed = new ArrayList<>();
+        for (Iterator<String> iterator = planProgress.keySet().iterator(); iterator.hasNext();) {
+            String vehicleId = iterator.next();
+            if (!plansCopy.containsKey(vehicleId)) {
+                removed.add(vehicleId);
+                iterator.remove();
+            }
+        }
+        delta.setPlanProgress(progressed);
+        delta.setRemovedPlanVehicleIds(removed);
+    }
+}
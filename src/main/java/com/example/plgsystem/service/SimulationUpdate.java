@@ -0,0 +1,43 @@
+package com.example.plgsystem.service;
+
+import java.util.List;
+
+import com.example.plgsystem.dto.SimulationDTO;
+import com.example.plgsystem.dto.SimulationStateDTO;
+import com.example.plgsystem.dto.StateDeltaDTO;
+import com.example.plgsystem.dto.VehiclePlanDTO;
+import com.example.plgsystem.simulation.Simulation;
+import com.example.plgsystem.simulation.SimulationState;
+
+/**
+ * Mensajes que se publican por WebSocket en un tick de una simulación.
+ * <p>
+ * {@code summary} va a /topic/simulation/{id} sin el estado; {@code plans}
+ * (vacío si no se instaló ningún plan) a /plans, {@code delta} a /state/delta
+ * y {@code fullState} (null salvo que se pidan estados completos) a /state.
+ */
+public record SimulationUpdate(SimulationDTO summary, List<VehiclePlanDTO> plans, StateDeltaDTO delta,
+        SimulationStateDTO fullState) {
+
+    /**
+     * Construye los mensajes del tick actual. Solo los cambios de planes y
+     * estado se calculan con el estado tomado; el tick espera únicamente por
+     * esa parte.
+     */
+    public static SimulationUpdate next(Simulation simulation, SimulationStateStream stream,
+            boolean fullStateUpdates) {
+        SimulationDTO summary = SimulationDTO.summary(simulation);
+        SimulationState state = simulation.getState();
+        List<VehiclePlanDTO> plans;
+        StateDeltaDTO delta;
+        SimulationStateDTO fullState = null;
+        synchronized (state) {
+            plans = stream.nextPlans(state);
+            delta = stream.nextDelta(state, simulation.getStatus());
+            if (fullStateUpdates) {
+                fullState = stream.snapshot(state, simulation.getStatus());
+            }
+        }
+        return new SimulationUpdate(summary, plans, delta, fullState);
+    }
+}
@@ -90,7 +90,9 @@ public class PlanExecutor {
             case DRIVE:
             case MAINTENANCE:
             case WAIT:
+                double fuelBefore = vehicle.getCurrentFuelGal();
                 applyGradualEffects(action, vehicle, calculatedProgress);
+                state.addFuelConsumed(fuelBefore - vehicle.getCurrentFuelGal());
                 if (calculatedProgress >= 1.0) {
                     completeAction(state, action, vehicle);
                 }
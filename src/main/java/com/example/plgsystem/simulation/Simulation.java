@@ -18,10 +18,11 @@ public class Simulation {
     private final Orchestrator orchestrator;
 
     // Real world attributes
-    private SimulationStatus status;
+    private volatile SimulationStatus status;
     private LocalDateTime creationTime; // When the simulation was created in real-world
     private LocalDateTime realStartTime; // When the simulation was actually started running
     private LocalDateTime realEndTime; // When the simulation was finished in real-world
+    private volatile int tickIntervalMs; // Real time between ticks, 0 = scheduler default
 
     public Simulation(SimulationState state, SimulationType type, DataLoader dataLoader) {
         this.id = UUID.randomUUID();
@@ -43,8 +44,21 @@ public class Simulation {
         return orchestrator.getState().getCurrentVehiclePlans();
     }
 
+    public void setTickIntervalMs(int tickIntervalMs) {
+        if (tickIntervalMs < 0) {
+            throw new IllegalArgumentException("Tick interval must not be negative");
+        }
+        this.tickIntervalMs = tickIntervalMs;
+    }
+
+    /**
+     * Avanza un tick con el estado tomado, para que quien lo lea desde otro
+     * hilo (por ejemplo, al publicarlo) lo vea entre dos ticks
+     */
     public void advanceTick() {
-        orchestrator.advanceTick();
+        synchronized (orchestrator.getState()) {
+            orchestrator.advanceTick();
+        }
     }
 
     public void start() {
@@ -0,0 +1,217 @@
+package com.example.plgsystem.simulation;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publica el estado de las simulaciones fuera de sus hilos de ejecución.
+ * <p>
+ * El tick solo deja la simulación como pendiente y sigue; un hilo virtual por
+ * simulación construye y envía la actualización. Si no hay suscriptores no se
+ * hace nada. Si llegan ticks mientras se envía o mientras se espera el
+ * intervalo mínimo, se conserva solo el último (los demás cuentan como
+ * descartados): la actualización se construye con el estado del momento de
+ * enviarla, así que no se pierde ningún cambio. Como cada tópico llega a
+ * todos sus suscriptores, el intervalo mínimo limita la frecuencia que recibe
+ * cada cliente.
+ */
+public class SimulationBroadcaster {
+    private static final Logger logger = LoggerFactory.getLogger(SimulationBroadcaster.class);
+
+    private volatile Consumer<Simulation> publisher;
+    private volatile int minIntervalMs;
+
+    private final Map<UUID, Channel> channels = new ConcurrentHashMap<>();
+    // Suscripciones por sesión: id de suscripción -> simulación
+    private final Map<String, Map<String, UUID>> subscriptions = new HashMap<>();
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong conflated = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * @param publisher     Construye y envía la actualización de una
+     *                      simulación; se llama en el hilo del publicador
+     * @param minIntervalMs Intervalo mínimo entre envíos de una simulación
+     *                      (0 = sin límite)
+     */
+    public SimulationBroadcaster(Consumer<Simulation> publisher, int minIntervalMs) {
+        this.publisher = publisher;
+        setMinIntervalMs(minIntervalMs);
+    }
+
+    /**
+     * Sin publicador: las simulaciones no se publican hasta llamar a
+     * {@link #setPublisher}
+     */
+    public SimulationBroadcaster(int minIntervalMs) {
+        this(null, minIntervalMs);
+    }
+
+    public void setPublisher(Consumer<Simulation> publisher) {
+        this.publisher = publisher;
+    }
+
+    public int getMinIntervalMs() {
+        return minIntervalMs;
+    }
+
+    public void setMinIntervalMs(int minIntervalMs) {
+        if (minIntervalMs < 0) {
+            throw new IllegalArgumentException("El intervalo entre envíos no puede ser negativo");
+        }
+        this.minIntervalMs = minIntervalMs;
+    }
+
+    /**
+     * Deja la simulación pendiente de publicar; no bloquea
+     */
+    public void submit(Simulation simulation) {
+        submitted.incrementAndGet();
+        Channel channel = channels.get(simulation.getId());
+        if (channel == null || channel.subscribers.get() == 0 || publisher == null) {
+            skipped.incrementAndGet();
+            return;
+        }
+        if (channel.pending.getAndSet(simulation) != null) {
+            conflated.incrementAndGet();
+        }
+        if (channel.scheduled.compareAndSet(false, true)) {
+            Thread.ofVirtual()
+                    .name("broadcast-" + simulation.getId())
+                    .start(() -> drain(channel));
+        }
+    }
+
+    /**
+     * Registra una suscripción STOMP a un destino de la simulación
+     */
+    public synchronized void subscribed(String sessionId, String subscriptionId, UUID simulationId) {
+        UUID previous = subscriptions.computeIfAbsent(sessionId, key -> new HashMap<>())
+                .put(subscriptionId, simulationId);
+        if (previous != null) {
+            release(previous);
+        }
+        channels.computeIfAbsent(simulationId, key -> new Channel()).subscribers.incrementAndGet();
+    }
+
+    public synchronized void unsubscribed(String sessionId, String subscriptionId) {
+        Map<String, UUID> session = subscriptions.get(sessionId);
+        UUID simulationId = session == null ? null : session.remove(subscriptionId);
+        if (simulationId != null) {
+            release(simulationId);
+        }
+    }
+
+    /**
+     * Quita todas las suscripciones de una sesión cerrada
+     */
+    public synchronized void disconnected(String sessionId) {
+        Map<String, UUID> session = subscriptions.remove(sessionId);
+        if (session != null) {
+            session.values().forEach(this::release);
+        }
+    }
+
+    public int getSubscribers(UUID simulationId) {
+        Channel channel = channels.get(simulationId);
+        return channel == null ? 0 : channel.subscribers.get();
+    }
+
+    public int getTotalSubscribers() {
+        return channels.values().stream().mapToInt(channel -> channel.subscribers.get()).sum();
+    }
+
+    /**
+     * Simulaciones con una actualización esperando ser enviada
+     */
+    public int getQueueDepth() {
+        return (int) channels.values().stream().filter(channel -> channel.pending.get() != null).count();
+    }
+
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    public long getPublished() {
+        return published.get();
+    }
+
+    /**
+     * Actualizaciones reemplazadas por una más reciente antes de enviarse
+     */
+    public long getConflated() {
+        return conflated.get();
+    }
+
+    /**
+     * Actualizaciones omitidas por no haber suscriptores
+     */
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    private void release(UUID simulationId) {
+        Channel channel = channels.get(simulationId);
+        if (channel != null && channel.subscribers.decrementAndGet() <= 0) {
+            channel.pending.set(null);
+            channels.remove(simulationId, channel);
+        }
+    }
+
+    private void drain(Channel channel) {
+        try {
+            while (true) {
+                long waitMs = channel.lastPublishNanos == 0 ? 0
+                        : minIntervalMs - (System.nanoTime() - channel.lastPublishNanos) / 1_000_000;
+                if (waitMs > 0) {
+                    Thread.sleep(waitMs);
+                }
+                Simulation simulation = channel.pending.getAndSet(null);
+                if (simulation == null) {
+                    channel.scheduled.set(false);
+                    // Un submit pudo dejar algo pendiente después de vaciar y antes de liberar
+                    if (channel.pending.get() == null || !channel.scheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                channel.lastPublishNanos = System.nanoTime();
+                try {
+                    publisher.accept(simulation);
+                    published.incrementAndGet();
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    logger.warn("Error al publicar la simulación {}: {}", simulation.getId(), e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            channel.scheduled.set(false);
+        }
+    }
+
+    private static final class Channel {
+        private final AtomicInteger subscribers = new AtomicInteger();
+        private final AtomicReference<Simulation> pending = new AtomicReference<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // Solo lo usa el hilo que tiene scheduled
+        private volatile long lastPublishNanos;
+    }
+}
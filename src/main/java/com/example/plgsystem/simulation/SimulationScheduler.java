@@ -0,0 +1,126 @@
+package com.example.plgsystem.simulation;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Avanza cada simulación en ejecución en su propio hilo virtual.
+ * <p>
+ * Cada simulación tiene su bucle: avanza un tick, notifica al listener (por
+ * ejemplo, para publicar el estado) y espera lo que falte de su intervalo. El
+ * bucle termina solo cuando la simulación deja de estar en ejecución, así que
+ * pausar no requiere cancelarlo. Una simulación lenta o esperando a su
+ * planificador solo retrasa sus propios ticks.
+ */
+public class SimulationScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(SimulationScheduler.class);
+
+    private final Map<UUID, Thread> loops = new ConcurrentHashMap<>();
+    private final Consumer<Simulation> tickListener;
+    private volatile int defaultTickIntervalMs;
+
+    /**
+     * @param tickListener          Se llama después de cada tick, en el hilo de
+     *                              la simulación
+     * @param defaultTickIntervalMs Intervalo entre ticks de las simulaciones sin
+     *                              intervalo propio (0 = sin espera)
+     */
+    public SimulationScheduler(Consumer<Simulation> tickListener, int defaultTickIntervalMs) {
+        this.tickListener = tickListener;
+        setDefaultTickIntervalMs(defaultTickIntervalMs);
+    }
+
+    public int getDefaultTickIntervalMs() {
+        return defaultTickIntervalMs;
+    }
+
+    public void setDefaultTickIntervalMs(int defaultTickIntervalMs) {
+        if (defaultTickIntervalMs < 0) {
+            throw new IllegalArgumentException("El intervalo entre ticks no puede ser negativo");
+        }
+        this.defaultTickIntervalMs = defaultTickIntervalMs;
+    }
+
+    /**
+     * Inicia el bucle de la simulación si no tiene uno activo. La simulación
+     * debe estar en ejecución; si no, el bucle termina de inmediato.
+     */
+    public void schedule(Simulation simulation) {
+        loops.compute(simulation.getId(), (id, existing) -> {
+            if (existing != null && existing.isAlive()) {
+                return existing;
+            }
+            return Thread.ofVirtual()
+                    .name("simulation-" + id)
+                    .start(() -> runLoop(simulation));
+        });
+    }
+
+    /**
+     * Detiene el bucle de la simulación, interrumpiendo su espera
+     */
+    public void cancel(UUID simulationId) {
+        Thread loop = loops.remove(simulationId);
+        if (loop != null) {
+            loop.interrupt();
+        }
+    }
+
+    public boolean isScheduled(UUID simulationId) {
+        Thread loop = loops.get(simulationId);
+        return loop != null && loop.isAlive();
+    }
+
+    public int getActiveLoops() {
+        return (int) loops.values().stream().filter(Thread::isAlive).count();
+    }
+
+    public void shutdown() {
+        loops.keySet().forEach(this::cancel);
+    }
+
+    private void runLoop(Simulation simulation) {
+        logger.debug("Bucle iniciado para simulación {}", simulation.getId());
+        try {
+            while (simulation.isRunning() && !Thread.currentThread().isInterrupted()) {
+                long begin = System.nanoTime();
+                try {
+                    simulation.advanceTick();
+                } catch (RuntimeException e) {
+                    logger.error("Error al avanzar la simulación {}: {}", simulation.getId(), e.getMessage(), e);
+                    simulation.error();
+                }
+                try {
+                    tickListener.accept(simulation);
+                } catch (RuntimeException e) {
+                    logger.warn("Error al notificar el tick de la simulación {}: {}", simulation.getId(),
+                            e.getMessage());
+                }
+
+                // Intervalo fijo entre inicios de tick: se descuenta lo que tardó el tick
+                int interval = simulation.getTickIntervalMs() > 0 ? simulation.getTickIntervalMs()
+                        : defaultTickIntervalMs;
+                long remainingMs = interval - (System.nanoTime() - begin) / 1_000_000;
+                if (remainingMs > 0) {
+                    Thread.sleep(remainingMs);
+                } else {
+                    Thread.yield();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            loops.remove(simulation.getId(), Thread.currentThread());
+            logger.debug("Bucle terminado para simulación {}", simulation.getId());
+        }
+        // Reanudada mientras este bucle terminaba: schedule() lo vio vivo y no creó otro
+        if (simulation.isRunning() && !Thread.currentThread().isInterrupted()) {
+            schedule(simulation);
+        }
+    }
+}
@@ -3,7 +3,9 @@ package com.example.plgsystem.simulation;
 import com.example.plgsystem.model.*;
 import com.example.plgsystem.model.Constants;
 import com.example.plgsystem.operation.VehiclePlan;
+import com.example.plgsystem.pathfinding.BlockageIndex;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.slf4j.Logger;
@@ -13,6 +15,7 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.List;
 
@@ -34,9 +37,27 @@ public class SimulationState {
     private final List<Incident> incidents = new ArrayList<>();
     private final List<Maintenance> maintenances = new ArrayList<>();
 
+    // Índice de bloqueos por nodo y franja horaria, sincronizado con 'blockages'
+    @Getter(AccessLevel.NONE)
+    private final BlockageIndex blockageIndex = new BlockageIndex();
+
+    // Índices por id, sincronizados con 'vehicles', 'auxDepots' y 'orders'
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Vehicle> vehicleIndex = new HashMap<>();
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Depot> auxDepotIndex = new HashMap<>();
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Order> orderIndex = new HashMap<>();
+    // Órdenes con id repetido que no están en 'orderIndex', en orden de llegada
+    @Getter(AccessLevel.NONE)
+    private final Map<String, List<Order>> shadowedOrders = new HashMap<>();
+
     private final Map<String, VehiclePlan> currentVehiclePlans = new HashMap<>();
     private final Map<String, LocalDateTime> maintenanceSchedule = new HashMap<>();
     public int deliveredOrdersCount = 0;
+    private int lateDeliveredOrdersCount = 0;
+    // Combustible consumido por los planes ejecutados sobre este estado
+    private double fuelConsumedGal = 0;
 
     public SimulationState(List<Vehicle> vehicles, Map<String, LocalDateTime> maintenanceSchedule,
             Depot mainDepot, List<Depot> auxDepots,
@@ -46,6 +67,7 @@ public class SimulationState {
         this.vehicles = new ArrayList<>(vehicles);
         this.auxDepots = new ArrayList<>(auxDepots);
         this.maintenanceSchedule.putAll(maintenanceSchedule);
+        indexFleet();
     }
 
     public SimulationState(List<Vehicle> vehicles,
@@ -55,37 +77,64 @@ public class SimulationState {
         this.mainDepot = mainDepot;
         this.vehicles = new ArrayList<>(vehicles);
         this.auxDepots = new ArrayList<>(auxDepots);
+        indexFleet();
+    }
+
+    /**
+     * Ante ids repetidos se indexa el primero de la lista, igual que una
+     * búsqueda lineal
+     */
+    private void indexFleet() {
+        for (Vehicle vehicle : vehicles) {
+            vehicleIndex.putIfAbsent(vehicle.getId(), vehicle);
+        }
+        for (Depot depot : auxDepots) {
+            auxDepotIndex.putIfAbsent(depot.getId(), depot);
+        }
     }
 
     public Vehicle getVehicleById(String id) {
-        return vehicles.stream()
-                .filter(vehicle -> vehicle.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        return vehicleIndex.get(id);
     }
 
     public Depot getDepotById(String id) {
         if (id.equals(mainDepot.getId())) {
             return mainDepot;
         }
-        return auxDepots.stream()
-                .filter(depot -> depot.getId().equals(id))
-                .findFirst().orElse(null);
+        return auxDepotIndex.get(id);
     }
 
     public Order getOrderById(String id) {
-        return orders.stream()
-                .filter(order -> order.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        return orderIndex.get(id);
     }
 
     public void addOrder(Order order) {
         orders.add(order);
+        if (orderIndex.putIfAbsent(order.getId(), order) != null) {
+            shadowedOrders.computeIfAbsent(order.getId(), id -> new ArrayList<>(1)).add(order);
+        }
+    }
+
+    private void removeShadowedOrder(Order order) {
+        List<Order> shadowed = shadowedOrders.get(order.getId());
+        if (shadowed == null) {
+            return;
+        }
+        // Por identidad: las órdenes con el mismo id pueden ser iguales entre sí
+        for (int i = 0; i < shadowed.size(); i++) {
+            if (shadowed.get(i) == order) {
+                shadowed.remove(i);
+                break;
+            }
+        }
+        if (shadowed.isEmpty()) {
+            shadowedOrders.remove(order.getId());
+        }
     }
 
     public void addBlockage(Blockage blockage) {
         blockages.add(blockage);
+        blockageIndex.add(blockage);
     }
 
     public void addIncident(Incident incident) {
@@ -126,7 +175,49 @@ public class SimulationState {
     }
 
     public boolean isPositionBlockedAt(Position position, LocalDateTime time) {
-        return blockages.stream().filter(b -> b.isActiveAt(time)).anyMatch(b -> b.isPositionBlocked(position));
+        return blockageIndex.isBlocked(position, time);
+    }
+
+    public boolean isCellBlockedAt(int cell, long epochSecond) {
+        return blockageIndex.isBlocked(cell, epochSecond);
+    }
+
+    public long getBlockageSignature(long fromEpochSecond, long toEpochSecond) {
+        return blockageIndex.windowSignature(fromEpochSecond, toEpochSecond);
+    }
+
+    public boolean blockagesChangeWithin(int minX, int minY, int maxX, int maxY,
+            long fromEpochSecond, long toEpochSecond) {
+        return blockageIndex.changesWithin(minX, minY, maxX, maxY, fromEpochSecond, toEpochSecond);
+    }
+
+    public void addFuelConsumed(double fuelGal) {
+        fuelConsumedGal += fuelGal;
+    }
+
+    /**
+     * Primer instante en que vence un bloqueo, se resuelve un incidente o
+     * termina un mantenimiento; {@code null} si no hay ninguno pendiente
+     */
+    public LocalDateTime getNextExpiryTime() {
+        LocalDateTime next = null;
+        for (Blockage blockage : blockages) {
+            next = earliest(next, blockage.getEndTime());
+        }
+        for (Incident incident : incidents) {
+            next = earliest(next, incident.getAvailabilityTime());
+        }
+        for (Maintenance maintenance : maintenances) {
+            next = earliest(next, maintenance.getRealEnd());
+        }
+        return next;
+    }
+
+    private static LocalDateTime earliest(LocalDateTime current, LocalDateTime candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        return current == null || candidate.isBefore(current) ? candidate : current;
     }
 
     public void advanceTime(Duration duration) {
@@ -139,8 +230,38 @@ public class SimulationState {
     private void processStateChanges(LocalDateTime nextTime) {
         // Clean past orders, incidents, blockages, maintenances
         deliveredOrdersCount += orders.stream().filter(Order::isDelivered).count();
-        orders.removeIf(Order::isDelivered);
-        blockages.removeIf(blockage -> nextTime.isAfter(blockage.getEndTime()));
+        orders.removeIf(order -> {
+            if (order.isDelivered()) {
+                if (order.isDeliveredLate()) {
+                    lateDeliveredOrdersCount++;
+                }
+                if (!orderIndex.remove(order.getId(), order)) {
+                    removeShadowedOrder(order);
+                }
+                return true;
+            }
+            return false;
+        });
+        if (!shadowedOrders.isEmpty()) {
+            // Repeated ids: the next pending order with the id takes the place of a delivered one
+            Iterator<Map.Entry<String, List<Order>>> shadowed = shadowedOrders.entrySet().iterator();
+            while (shadowed.hasNext()) {
+                Map.Entry<String, List<Order>> entry = shadowed.next();
+                if (!orderIndex.containsKey(entry.getKey())) {
+                    orderIndex.put(entry.getKey(), entry.getValue().remove(0));
+                    if (entry.getValue().isEmpty()) {
+                        shadowed.remove();
+                    }
+                }
+            }
+        }
+        blockages.removeIf(blockage -> {
+            if (nextTime.isAfter(blockage.getEndTime())) {
+                blockageIndex.remove(blockage);
+                return true;
+            }
+            return false;
+        });
 
         // Process incidents
         List<Incident> resolvedIncidents = new ArrayList<>();
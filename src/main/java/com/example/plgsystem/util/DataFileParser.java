@@ -0,0 +1,398 @@
+package com.example.plgsystem.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lector de archivos de órdenes y bloqueos en una sola pasada sobre el
+ * archivo mapeado en memoria, sin expresiones regulares ni cadenas
+ * intermedias.
+ * <p>
+ * Cada línea se valida y se convierte a la vez en un registro de primitivos
+ * con el tiempo como minutos desde el inicio del mes. Las líneas vacías y las
+ * que empiezan con {@code #} se ignoran; los espacios al inicio y al final de
+ * la línea también. Formatos:
+ * <ul>
+ * <li>Órdenes: {@code DDdHHhMMm:x,y,cliente,Nm3,Hh}</li>
+ * <li>Bloqueos: {@code DDdHHhMMm-DDdHHhMMm:x1,y1,x2,y2,...}</li>
+ * </ul>
+ */
+public final class DataFileParser {
+    /** Errores que se guardan con su número de línea; el resto solo se cuentan */
+    public static final int MAX_REPORTED_ERRORS = 20;
+
+    private static final int MAX_DIGITS = 9;
+
+    private DataFileParser() {
+    }
+
+    /**
+     * Orden tal como aparece en el archivo
+     *
+     * @param minuteOffset  Minutos desde el inicio del mes hasta la llegada
+     * @param deadlineHours Horas del plazo indicadas en el archivo
+     */
+    public record OrderRecord(int minuteOffset, int x, int y, String clientId, int glpM3, int deadlineHours) {
+    }
+
+    /**
+     * Bloqueo tal como aparece en el archivo
+     *
+     * @param startMinute Minutos desde el inicio del mes hasta el inicio
+     * @param endMinute   Minutos desde el inicio del mes hasta el fin
+     * @param coordinates Nodos como x1, y1, x2, y2, ...
+     */
+    public record BlockageRecord(int startMinute, int endMinute, int[] coordinates) {
+    }
+
+    public record LineError(int line, String message) {
+        @Override
+        public String toString() {
+            return "línea " + line + ": " + message;
+        }
+    }
+
+    /**
+     * Recibe cada registro válido
+     */
+    @FunctionalInterface
+    public interface RecordHandler<T> {
+        /**
+         * @return false para dejar de leer el archivo
+         */
+        boolean accept(T record);
+    }
+
+    /**
+     * Resumen de una lectura
+     */
+    public static final class Result {
+        private int totalLines;
+        private int validLines;
+        private int invalidLines;
+        private final List<LineError> errors = new ArrayList<>();
+
+        public int getTotalLines() {
+            return totalLines;
+        }
+
+        public int getValidLines() {
+            return validLines;
+        }
+
+        public int getInvalidLines() {
+            return invalidLines;
+        }
+
+        /**
+         * Primeros {@link #MAX_REPORTED_ERRORS} errores con su línea
+         */
+        public List<LineError> getErrors() {
+            return errors;
+        }
+
+        public boolean hasErrors() {
+            return invalidLines > 0;
+        }
+
+        private void addError(int line, String message) {
+            invalidLines++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new LineError(line, message));
+            }
+        }
+    }
+
+    /**
+     * Lee un archivo de órdenes
+     *
+     * @param month   Mes de referencia, para validar el día
+     * @param handler Recibe cada orden válida
+     */
+    public static Result parseOrders(Path file, YearMonth month, RecordHandler<OrderRecord> handler)
+            throws IOException {
+        return parse(file, month, (line, days) -> parseOrder(line, days), handler);
+    }
+
+    /**
+     * Lee un archivo de bloqueos
+     *
+     * @param month   Mes de referencia, para validar el día
+     * @param handler Recibe cada bloqueo válido
+     */
+    public static Result parseBlockages(Path file, YearMonth month, RecordHandler<BlockageRecord> handler)
+            throws IOException {
+        return parse(file, month, (line, days) -> parseBlockage(line, days), handler);
+    }
+
+    @FunctionalInterface
+    private interface LineParser<T> {
+        T parse(Line line, int daysInMonth);
+    }
+
+    private static <T> Result parse(Path file, YearMonth month, LineParser<T> parser, RecordHandler<T> handler)
+            throws IOException {
+        Result result = new Result();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            Line line = new Line(buffer);
+            int daysInMonth = month.lengthOfMonth();
+            int limit = buffer.limit();
+            int start = 0;
+            while (start < limit) {
+                int end = start;
+                while (end < limit && buffer.get(end) != '\n') {
+                    end++;
+                }
+                result.totalLines++;
+                if (line.reset(start, end)) {
+                    T record = parser.parse(line, daysInMonth);
+                    if (record == null) {
+                        result.addError(result.totalLines, line.error);
+                    } else {
+                        result.validLines++;
+                        if (!handler.accept(record)) {
+                            break;
+                        }
+                    }
+                }
+                start = end + 1;
+            }
+        }
+        return result;
+    }
+
+    private static OrderRecord parseOrder(Line line, int daysInMonth) {
+        int minute = line.readTime(daysInMonth);
+        if (minute < 0 || !line.expect(':', "se esperaba ':' después de la fecha")) {
+            return null;
+        }
+        int x = line.readInt(',', "coordenada x");
+        if (x == Integer.MIN_VALUE || !line.expect(',', "faltan campos: se esperaban x,y,cliente,volumen,plazo")) {
+            return null;
+        }
+        int y = line.readInt(',', "coordenada y");
+        if (y == Integer.MIN_VALUE || !line.expect(',', "faltan campos: se esperaban x,y,cliente,volumen,plazo")) {
+            return null;
+        }
+        int clientStart = line.pos;
+        while (line.pos < line.end && line.at(line.pos) != ',') {
+            line.pos++;
+        }
+        if (line.pos >= line.end) {
+            return line.fail("faltan campos: se esperaban x,y,cliente,volumen,plazo");
+        }
+        String clientId = line.text(clientStart, line.pos);
+        line.pos++;
+
+        int glp = line.readUnsigned('m', "volumen");
+        if (glp < 0 || !line.expect('3', "el volumen debe tener el formato Nm3")) {
+            return null;
+        }
+        if (!line.endOfField()) {
+            return line.fail("el volumen debe tener el formato Nm3");
+        }
+        int hours = line.readUnsigned('h', "plazo");
+        if (hours < 0) {
+            return null;
+        }
+        if (!line.endOfField()) {
+            return line.fail("el plazo debe tener el formato Nh");
+        }
+        return new OrderRecord(minute, x, y, clientId, glp, hours);
+    }
+
+    private static BlockageRecord parseBlockage(Line line, int daysInMonth) {
+        int startMinute = line.readTime(daysInMonth);
+        if (startMinute < 0 || !line.expect('-', "se esperaba '-' entre las fechas")) {
+            return null;
+        }
+        int endMinute = line.readTime(daysInMonth);
+        if (endMinute < 0 || !line.expect(':', "se esperaba ':' después de las fechas")) {
+            return null;
+        }
+        int[] coordinates = new int[8];
+        int count = 0;
+        while (true) {
+            int value = line.readInt(',', "coordenada");
+            if (value == Integer.MIN_VALUE) {
+                return null;
+            }
+            if (count == coordinates.length) {
+                coordinates = Arrays.copyOf(coordinates, count * 2);
+            }
+            coordinates[count++] = value;
+            if (line.pos >= line.end) {
+                break;
+            }
+            line.pos++; // ','
+        }
+        if (count < 4 || count % 2 != 0) {
+            return line.fail("se esperaban al menos dos nodos con x e y, se leyeron " + count + " coordenadas");
+        }
+        return new BlockageRecord(startMinute, endMinute, Arrays.copyOf(coordinates, count));
+    }
+
+    /**
+     * Cursor sobre una línea del archivo mapeado
+     */
+    private static final class Line {
+        private final ByteBuffer buffer;
+        private int pos;
+        private int end;
+        private String error;
+
+        Line(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * @return false si la línea está vacía o es un comentario
+         */
+        boolean reset(int start, int end) {
+            while (start < end && (buffer.get(start) & 0xFF) <= ' ') {
+                start++;
+            }
+            while (end > start && (buffer.get(end - 1) & 0xFF) <= ' ') {
+                end--;
+            }
+            this.pos = start;
+            this.end = end;
+            this.error = null;
+            return start < end && buffer.get(start) != '#';
+        }
+
+        byte at(int index) {
+            return buffer.get(index);
+        }
+
+        String text(int from, int to) {
+            byte[] bytes = new byte[to - from];
+            buffer.get(from, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        <T> T fail(String message) {
+            error = message;
+            return null;
+        }
+
+        boolean expect(char expected, String message) {
+            if (pos < end && buffer.get(pos) == expected) {
+                pos++;
+                return true;
+            }
+            error = message;
+            return false;
+        }
+
+        /**
+         * Consume el separador de campo si lo hay; false si sigue otra cosa
+         */
+        boolean endOfField() {
+            if (pos >= end) {
+                return true;
+            }
+            if (buffer.get(pos) == ',') {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Lee {@code DDdHHhMMm}
+         *
+         * @return Minutos desde el inicio del mes, o -1 si no es válido
+         */
+        int readTime(int daysInMonth) {
+            int day = readUnsigned('d', "día");
+            int hour = day < 0 ? -1 : readUnsigned('h', "hora");
+            int minute = hour < 0 ? -1 : readUnsigned('m', "minuto");
+            if (minute < 0) {
+                return -1;
+            }
+            if (day < 1 || day > daysInMonth) {
+                error = "día fuera del mes: " + day;
+                return -1;
+            }
+            if (hour > 23 || minute > 59) {
+                error = String.format("hora inválida: %02dh%02dm", hour, minute);
+                return -1;
+            }
+            return ((day - 1) * 24 + hour) * 60 + minute;
+        }
+
+        /**
+         * Lee dígitos seguidos del terminador, que se consume
+         *
+         * @return El número, o -1 si no es válido
+         */
+        int readUnsigned(char terminator, String field) {
+            int start = pos;
+            int value = 0;
+            while (pos < end) {
+                byte b = buffer.get(pos);
+                if (b < '0' || b > '9') {
+                    break;
+                }
+                value = value * 10 + (b - '0');
+                pos++;
+            }
+            int digits = pos - start;
+            if (digits == 0 || digits > MAX_DIGITS) {
+                error = "se esperaba un número en " + field;
+                return -1;
+            }
+            if (pos >= end || buffer.get(pos) != terminator) {
+                error = "se esperaba '" + terminator + "' después de " + field;
+                return -1;
+            }
+            pos++;
+            return value;
+        }
+
+        /**
+         * Lee un entero con signo opcional hasta el separador (sin consumirlo)
+         * o el fin de línea
+         *
+         * @return El número, o Integer.MIN_VALUE si no es válido
+         */
+        int readInt(char separator, String field) {
+            boolean negative = false;
+            if (pos < end && (buffer.get(pos) == '-' || buffer.get(pos) == '+')) {
+                negative = buffer.get(pos) == '-';
+                pos++;
+            }
+            int start = pos;
+            int value = 0;
+            while (pos < end) {
+                byte b = buffer.get(pos);
+                if (b < '0' || b > '9') {
+                    break;
+                }
+                value = value * 10 + (b - '0');
+                pos++;
+            }
+            int digits = pos - start;
+            if (digits == 0 || digits > MAX_DIGITS) {
+                error = "se esperaba un número en " + field;
+                return Integer.MIN_VALUE;
+            }
+            if (pos < end && buffer.get(pos) != separator) {
+                error = "carácter inesperado en " + field;
+                return Integer.MIN_VALUE;
+            }
+            return negative ? -value : value;
+        }
+    }
+}
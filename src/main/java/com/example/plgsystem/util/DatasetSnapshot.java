@@ -0,0 +1,348 @@
+package com.example.plgsystem.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+import java.util.zip.CRC32;
+
+import com.example.plgsystem.util.DataFileParser.BlockageRecord;
+import com.example.plgsystem.util.DataFileParser.OrderRecord;
+
+/**
+ * Copia binaria y columnar de un archivo mensual de órdenes o bloqueos, para
+ * leerla mapeada en memoria sin volver a interpretar el texto.
+ * <p>
+ * Los elementos se ordenan por minuto de inicio y se guardan por columnas de
+ * enteros, con una tabla del primer elemento de cada día. Formato (big
+ * endian):
+ *
+ * <pre>
+ * cabecera  magic, versión, tipo, año, mes, cantidad, máximo de días entre
+ *           inicio y fin, CRC32 del texto de origen, CRC32 del cuerpo
+ * órdenes   días[dias+1], minuto[n], x[n], y[n], m3[n], horas[n],
+ *           inicioCliente[n+1], bytes UTF-8 de los clientes
+ * bloqueos  días[dias+1], inicio[n], fin[n], inicioCoordenadas[n+1],
+ *           coordenadas[]
+ * </pre>
+ *
+ * Los minutos se cuentan desde el inicio del mes. Una instancia solo lee con
+ * posiciones absolutas, así que puede compartirse entre hilos.
+ */
+public final class DatasetSnapshot {
+    public enum Type {
+        ORDERS, BLOCKAGES
+    }
+
+    private static final int MAGIC = 0x504C4753; // "PLGS"
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = 40;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final MappedByteBuffer buffer;
+    private final Type type;
+    private final YearMonth month;
+    private final int count;
+    private final int maxSpanDays;
+    private final long sourceChecksum;
+
+    // Posición de cada columna en el archivo
+    private final int daysAt;
+    private final int firstColumnAt;
+    private final int stringsAt;
+
+    private DatasetSnapshot(MappedByteBuffer buffer, Type type, YearMonth month, int count, int maxSpanDays,
+            long sourceChecksum) {
+        this.buffer = buffer;
+        this.type = type;
+        this.month = month;
+        this.count = count;
+        this.maxSpanDays = maxSpanDays;
+        this.sourceChecksum = sourceChecksum;
+        this.daysAt = HEADER_BYTES;
+        this.firstColumnAt = daysAt + (month.lengthOfMonth() + 1) * Integer.BYTES;
+        int columns = type == Type.ORDERS ? 5 : 2;
+        this.stringsAt = firstColumnAt + columns * count * Integer.BYTES;
+    }
+
+    /**
+     * Convierte un archivo de texto de órdenes o bloqueos. El destino se
+     * escribe aparte y se mueve al final, así que nunca queda a medias.
+     *
+     * @param source         Archivo de texto
+     * @param sourceChecksum CRC32 del texto, para detectar copias desactualizadas
+     * @throws IllegalArgumentException Si el texto tiene líneas inválidas
+     */
+    public static void write(Type type, Path source, YearMonth month, long sourceChecksum, Path target)
+            throws IOException {
+        Encoded encoded = type == Type.ORDERS ? encodeOrders(source, month) : encodeBlockages(source, month);
+        ByteBuffer content = encoded.body();
+
+        CRC32 crc = new CRC32();
+        crc.update(content.duplicate());
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putShort(VERSION).put((byte) type.ordinal()).put((byte) 0)
+                .putInt(month.getYear()).putInt(month.getMonthValue())
+                .putInt(encoded.count()).putInt(encoded.maxSpanDays())
+                .putLong(sourceChecksum).putLong(crc.getValue());
+        header.flip();
+
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                while (content.hasRemaining()) {
+                    channel.write(content);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Mapea una copia y comprueba su cabecera y su checksum
+     *
+     * @throws IOException Si el archivo no es una copia válida del tipo y mes
+     */
+    public static DatasetSnapshot open(Path file, Type type, YearMonth month) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Tamaño de copia inválido: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION || buffer.get(6) != type.ordinal()
+                    || buffer.getInt(8) != month.getYear() || buffer.getInt(12) != month.getMonthValue()) {
+                throw new IOException("La copia no corresponde a " + type + " " + month + ": " + file);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(HEADER_BYTES, buffer.limit() - HEADER_BYTES));
+            if (crc.getValue() != buffer.getLong(32)) {
+                throw new IOException("Checksum inválido en " + file);
+            }
+            return new DatasetSnapshot(buffer, type, month, buffer.getInt(16), buffer.getInt(20),
+                    buffer.getLong(24));
+        }
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Mayor cantidad de días entre el inicio y el fin de un elemento
+     */
+    public int getMaxSpanDays() {
+        return maxSpanDays;
+    }
+
+    public long getSourceChecksum() {
+        return sourceChecksum;
+    }
+
+    public long getMappedBytes() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Índice del primer elemento que empieza en el día indicado; los días
+     * fuera del mes se ajustan a sus extremos
+     */
+    public int firstOfDay(int dayOfMonth) {
+        int day = Math.max(1, Math.min(dayOfMonth, month.lengthOfMonth() + 1));
+        return buffer.getInt(daysAt + (day - 1) * Integer.BYTES);
+    }
+
+    /**
+     * Índice siguiente al último elemento que empieza en el día indicado
+     */
+    public int endOfDay(int dayOfMonth) {
+        return dayOfMonth < 1 ? 0 : firstOfDay(dayOfMonth + 1);
+    }
+
+    /**
+     * Minuto de llegada de la orden o de inicio del bloqueo
+     */
+    public int startMinute(int index) {
+        return column(0, index);
+    }
+
+    // --- Órdenes ---
+
+    public int x(int index) {
+        return column(1, index);
+    }
+
+    public int y(int index) {
+        return column(2, index);
+    }
+
+    public int glpM3(int index) {
+        return column(3, index);
+    }
+
+    public int deadlineHours(int index) {
+        return column(4, index);
+    }
+
+    public String clientId(int index) {
+        int from = buffer.getInt(stringsAt + index * Integer.BYTES);
+        int to = buffer.getInt(stringsAt + (index + 1) * Integer.BYTES);
+        byte[] bytes = new byte[to - from];
+        buffer.get(stringsAt + (count + 1) * Integer.BYTES + from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // --- Bloqueos ---
+
+    public int endMinute(int index) {
+        return column(1, index);
+    }
+
+    public int[] coordinates(int index) {
+        int from = buffer.getInt(stringsAt + index * Integer.BYTES);
+        int to = buffer.getInt(stringsAt + (index + 1) * Integer.BYTES);
+        int base = stringsAt + (count + 1) * Integer.BYTES;
+        int[] coordinates = new int[to - from];
+        for (int i = 0; i < coordinates.length; i++) {
+            coordinates[i] = buffer.getInt(base + (from + i) * Integer.BYTES);
+        }
+        return coordinates;
+    }
+
+    private int column(int column, int index) {
+        return buffer.getInt(firstColumnAt + (column * count + index) * Integer.BYTES);
+    }
+
+    // --- Conversión ---
+
+    private record Encoded(int count, int maxSpanDays, ByteBuffer body) {
+    }
+
+    private static Encoded encodeOrders(Path source, YearMonth month) throws IOException {
+        List<OrderRecord> records = new ArrayList<>();
+        checkValid(DataFileParser.parseOrders(source, month, records::add), source);
+        records.sort(Comparator.comparingInt(OrderRecord::minuteOffset));
+
+        byte[][] clients = new byte[records.size()][];
+        int clientBytes = 0;
+        for (int i = 0; i < records.size(); i++) {
+            clients[i] = records.get(i).clientId().getBytes(StandardCharsets.UTF_8);
+            clientBytes += clients[i].length;
+        }
+
+        int n = records.size();
+        ByteBuffer body = ByteBuffer.allocate((month.lengthOfMonth() + 1 + 5 * n + n + 1) * Integer.BYTES
+                + clientBytes);
+        putDayTable(body, month, n, i -> records.get(i).minuteOffset());
+        for (OrderRecord record : records) {
+            body.putInt(record.minuteOffset());
+        }
+        for (OrderRecord record : records) {
+            body.putInt(record.x());
+        }
+        for (OrderRecord record : records) {
+            body.putInt(record.y());
+        }
+        for (OrderRecord record : records) {
+            body.putInt(record.glpM3());
+        }
+        for (OrderRecord record : records) {
+            body.putInt(record.deadlineHours());
+        }
+        int offset = 0;
+        for (byte[] client : clients) {
+            body.putInt(offset);
+            offset += client.length;
+        }
+        body.putInt(offset);
+        for (byte[] client : clients) {
+            body.put(client);
+        }
+        body.flip();
+        return new Encoded(n, 0, body);
+    }
+
+    private static Encoded encodeBlockages(Path source, YearMonth month) throws IOException {
+        List<BlockageRecord> records = new ArrayList<>();
+        checkValid(DataFileParser.parseBlockages(source, month, records::add), source);
+        records.sort(Comparator.comparingInt(BlockageRecord::startMinute));
+
+        int n = records.size();
+        int coordinates = 0;
+        int maxSpanDays = 0;
+        for (BlockageRecord record : records) {
+            coordinates += record.coordinates().length;
+            maxSpanDays = Math.max(maxSpanDays, record.endMinute() / MINUTES_PER_DAY
+                    - record.startMinute() / MINUTES_PER_DAY);
+        }
+
+        ByteBuffer body = ByteBuffer.allocate((month.lengthOfMonth() + 1 + 2 * n + n + 1 + coordinates)
+                * Integer.BYTES);
+        putDayTable(body, month, n, i -> records.get(i).startMinute());
+        for (BlockageRecord record : records) {
+            body.putInt(record.startMinute());
+        }
+        for (BlockageRecord record : records) {
+            body.putInt(record.endMinute());
+        }
+        int offset = 0;
+        for (BlockageRecord record : records) {
+            body.putInt(offset);
+            offset += record.coordinates().length;
+        }
+        body.putInt(offset);
+        for (BlockageRecord record : records) {
+            for (int value : record.coordinates()) {
+                body.putInt(value);
+            }
+        }
+        body.flip();
+        return new Encoded(n, maxSpanDays, body);
+    }
+
+    /**
+     * Escribe el índice del primer elemento de cada día y uno más al final;
+     * los elementos deben estar ordenados por minuto
+     */
+    private static void putDayTable(ByteBuffer body, YearMonth month, int count, IntUnaryOperator startMinute) {
+        int index = 0;
+        for (int day = 1; day <= month.lengthOfMonth() + 1; day++) {
+            int dayStart = (day - 1) * MINUTES_PER_DAY;
+            while (index < count && startMinute.applyAsInt(index) < dayStart) {
+                index++;
+            }
+            body.putInt(index);
+        }
+    }
+
+    private static void checkValid(DataFileParser.Result result, Path source) {
+        if (result.hasErrors()) {
+            throw new IllegalArgumentException(String.format("%s contiene %d líneas inválidas, la primera en la %s",
+                    source.getFileName(), result.getInvalidLines(), result.getErrors().get(0)));
+        }
+    }
+}
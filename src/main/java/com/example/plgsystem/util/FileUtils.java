@@ -1,18 +1,16 @@
 package com.example.plgsystem.util;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,8 +22,6 @@ import com.example.plgsystem.model.Position;
 
 public class FileUtils {
     private static final Logger logger = LoggerFactory.getLogger(FileUtils.class);
-    private static final Pattern ORDER_PATTERN = Pattern.compile("(\\d+d\\d+h\\d+m):(.+)");
-    private static final Pattern BLOCKAGE_PATTERN = Pattern.compile("(\\d+d\\d+h\\d+m)-(\\d+d\\d+h\\d+m):(.+)");
     private static final Map<String, Path> TEMP_FILE_CACHE = new HashMap<>();
 
     // File cache management methods
@@ -42,6 +38,7 @@ public class FileUtils {
         for (Path path : TEMP_FILE_CACHE.values()) {
             try {
                 Files.deleteIfExists(path);
+                ParsedFileCache.shared().forget(path);
             } catch (IOException e) {
                 logger.error("Error al limpiar archivos temporales: {}", path, e);
             }
@@ -56,6 +53,7 @@ public class FileUtils {
             if (entry.getKey().startsWith(simulationId + "-")) {
                 try {
                     Files.deleteIfExists(entry.getValue());
+                    ParsedFileCache.shared().forget(entry.getValue());
                     keysToRemove.add(entry.getKey());
                 } catch (IOException e) {
                     logger.error("Error al limpiar archivos temporales para simulación: {}", simulationId, e);
@@ -71,10 +69,6 @@ public class FileUtils {
     // File validation methods
     public static Path validateOrdersFile(MultipartFile file, LocalDate startDate, String simulationId)
             throws IOException {
-        int totalLines = 0;
-        int validLines = 0;
-        int invalidLines = 0;
-
         String cacheKey = generateCacheKey(simulationId, startDate.getYear(), startDate.getMonthValue(),
                 "orders");
         if (TEMP_FILE_CACHE.containsKey(cacheKey)) {
@@ -84,57 +78,11 @@ public class FileUtils {
         Path tempPath = Files.createTempFile(cacheKey, ".txt");
         Files.copy(file.getInputStream(), tempPath, StandardCopyOption.REPLACE_EXISTING);
 
-        try (BufferedReader reader = Files.newBufferedReader(tempPath)) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                totalLines++;
-                line = line.trim();
-                if (line.isEmpty() || line.startsWith("#")) {
-                    continue;
-                }
-
-                try {
-                    Matcher matcher = ORDER_PATTERN.matcher(line);
-
-                    if (!matcher.matches()) {
-                        invalidLines++;
-                        continue;
-                    }
-
-                    String timeStr = matcher.group(1);
-                    String[] data = matcher.group(2).split(",");
-
-                    if (data.length < 5) {
-                        invalidLines++;
-                        continue;
-                    }
-
-                    DateTimeParser.parseDateTime(startDate, timeStr);
-                    Integer.parseInt(data[0]);
-                    Integer.parseInt(data[1]);
-
-                    if (!data[3].matches("\\d+m3")) {
-                        invalidLines++;
-                        continue;
-                    }
-
-                    if (!data[4].matches("\\d+h")) {
-                        invalidLines++;
-                        continue;
-                    }
-
-                    validLines++;
-                } catch (Exception e) {
-                    invalidLines++;
-                }
-            }
-        }
-
-        if (invalidLines > 0) {
+        DataFileParser.Result result = DataFileParser.parseOrders(tempPath, YearMonth.from(startDate),
+                order -> true);
+        if (result.hasErrors()) {
             Files.deleteIfExists(tempPath);
-            throw new IllegalArgumentException(String.format(
-                    "Archivo de órdenes contiene errores: %d líneas totales, %d válidas, %d inválidas",
-                    totalLines, validLines, invalidLines));
+            throw new IllegalArgumentException(describeErrors("órdenes", result));
         }
         TEMP_FILE_CACHE.put(cacheKey, tempPath);
         return tempPath;
@@ -142,10 +90,6 @@ public class FileUtils {
 
     public static Path validateBlockagesFile(MultipartFile file, LocalDate startDate, String simulationId)
             throws IOException {
-        int totalLines = 0;
-        int validLines = 0;
-        int invalidLines = 0;
-
         String cacheKey = generateCacheKey(simulationId, startDate.getYear(), startDate.getMonthValue(),
                 "blockages");
         if (TEMP_FILE_CACHE.containsKey(cacheKey)) {
@@ -154,135 +98,80 @@ public class FileUtils {
         Path tempPath = Files.createTempFile(cacheKey, ".txt");
         Files.copy(file.getInputStream(), tempPath, StandardCopyOption.REPLACE_EXISTING);
 
-        try (BufferedReader reader = Files.newBufferedReader(tempPath)) {
-            String line;
-
-            while ((line = reader.readLine()) != null) {
-                totalLines++;
-                line = line.trim();
-
-                if (line.isEmpty() || line.startsWith("#")) {
-                    continue;
-                }
-
-                try {
-                    Matcher matcher = BLOCKAGE_PATTERN.matcher(line);
-
-                    if (!matcher.matches()) {
-                        invalidLines++;
-                        continue;
-                    }
-
-                    String startTimeStr = matcher.group(1);
-                    String endTimeStr = matcher.group(2);
-                    String coordinatesStr = matcher.group(3);
-
-                    DateTimeParser.parseDateTime(startDate, startTimeStr);
-                    DateTimeParser.parseDateTime(startDate, endTimeStr);
-
-                    String[] coordinates = coordinatesStr.split(",");
-                    if (coordinates.length < 4 || coordinates.length % 2 != 0) {
-                        invalidLines++;
-                        continue;
-                    }
-
-                    for (String coordinate : coordinates) {
-                        Integer.parseInt(coordinate);
-                    }
-
-                    validLines++;
-                } catch (Exception e) {
-                    invalidLines++;
-                }
-            }
-        }
-
-        if (invalidLines > 0) {
+        DataFileParser.Result result = DataFileParser.parseBlockages(tempPath, YearMonth.from(startDate),
+                blockage -> true);
+        if (result.hasErrors()) {
             Files.deleteIfExists(tempPath);
-            throw new IllegalArgumentException(String.format(
-                    "Archivo de bloqueos contiene errores: %d líneas totales, %d válidas, %d inválidas",
-                    totalLines, validLines, invalidLines));
+            throw new IllegalArgumentException(describeErrors("bloqueos", result));
         }
         TEMP_FILE_CACHE.put(cacheKey, tempPath);
         return tempPath;
     }
 
+    private static String describeErrors(String type, DataFileParser.Result result) {
+        StringBuilder message = new StringBuilder(String.format(
+                "Archivo de %s contiene errores: %d líneas totales, %d válidas, %d inválidas",
+                type, result.getTotalLines(), result.getValidLines(), result.getInvalidLines()));
+        for (DataFileParser.LineError error : result.getErrors()) {
+            message.append("\n  ").append(error);
+        }
+        if (result.getInvalidLines() > result.getErrors().size()) {
+            message.append("\n  ...");
+        }
+        return message.toString();
+    }
+
     // Data loading methods
+
+    /**
+     * Órdenes del mes de startDate hasta antes de endDate; las líneas
+     * inválidas se ignoran
+     */
     public static List<Order> loadOrdersForDate(Path filePath, LocalDate startDate, LocalDate endDate)
             throws IOException {
         List<Order> ordersForDate = new ArrayList<>();
+        LocalDateTime monthStart = startDate.withDayOfMonth(1).atStartOfDay();
 
-        try (BufferedReader reader = Files.newBufferedReader(filePath)) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-
-                if (line.isEmpty() || line.startsWith("#")) {
-                    continue;
-                }
-
-                Matcher matcher = ORDER_PATTERN.matcher(line);
-                if (matcher.matches()) {
-                    String timeStr = matcher.group(1);
-                    String[] data = matcher.group(2).split(",");
-
-                    LocalDateTime arrivalTime = DateTimeParser.parseDateTime(startDate, timeStr);
-                    if (arrivalTime.toLocalDate().equals(endDate)) {
-                        break;
-                    }
-                    int glpRequestM3 = Integer.parseInt(data[3].replace("m3", ""));
-                    int expirationHours = Integer.parseInt(data[4].replace("h", "")) + 4;
-                    Position position = new Position(Integer.parseInt(data[0]), Integer.parseInt(data[1]));
-                    String id = data[2] + arrivalTime.toString();
-                    Order order = new Order(id, arrivalTime, arrivalTime.plusHours(expirationHours), glpRequestM3,
-                            position);
-                    ordersForDate.add(order);
-                }
+        DataFileParser.parseOrders(filePath, YearMonth.from(startDate), record -> {
+            LocalDateTime arrivalTime = monthStart.plusMinutes(record.minuteOffset());
+            if (arrivalTime.toLocalDate().equals(endDate)) {
+                return false;
             }
-        }
+            int expirationHours = record.deadlineHours() + 4;
+            Position position = new Position(record.x(), record.y());
+            String id = record.clientId() + arrivalTime.toString();
+            ordersForDate.add(new Order(id, arrivalTime, arrivalTime.plusHours(expirationHours), record.glpM3(),
+                    position));
+            return true;
+        });
 
         return ordersForDate;
     }
 
+    /**
+     * Bloqueos del mes de startDate que empiezan antes de endDate; las
+     * líneas inválidas se ignoran
+     */
     public static List<Blockage> loadBlockagesForDate(Path filePath, LocalDate startDate, LocalDate endDate)
             throws IOException {
         List<Blockage> blockagesForDate = new ArrayList<>();
+        LocalDateTime monthStart = startDate.withDayOfMonth(1).atStartOfDay();
 
-        try (BufferedReader reader = Files.newBufferedReader(filePath)) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-
-                if (line.isEmpty() || line.startsWith("#")) {
-                    continue;
-                }
-
-                Matcher matcher = BLOCKAGE_PATTERN.matcher(line);
-                if (matcher.matches()) {
-                    String startTimeStr = matcher.group(1);
-                    String endTimeStr = matcher.group(2);
-                    String coordinatesStr = matcher.group(3);
-
-                    LocalDateTime startTime = DateTimeParser.parseDateTime(startDate, startTimeStr);
-                    LocalDateTime endTime = DateTimeParser.parseDateTime(startDate, endTimeStr);
-
-                    if (startTime.toLocalDate().equals(endDate)) {
-                        break;
-                    }
-                    String[] coordinates = coordinatesStr.split(",");
-                    List<Position> blockagePoints = new ArrayList<>();
-                    for (int i = 0; i < coordinates.length; i += 2) {
-                        int x = Integer.parseInt(coordinates[i]);
-                        int y = Integer.parseInt(coordinates[i + 1]);
-                        blockagePoints.add(new Position(x, y));
-                    }
-
-                    Blockage blockage = new Blockage(startTime, endTime, blockagePoints);
-                    blockagesForDate.add(blockage);
-                }
+        DataFileParser.parseBlockages(filePath, YearMonth.from(startDate), record -> {
+            LocalDateTime startTime = monthStart.plusMinutes(record.startMinute());
+            if (startTime.toLocalDate().equals(endDate)) {
+                return false;
             }
-        }
+            LocalDateTime endTime = monthStart.plusMinutes(record.endMinute());
+            int[] coordinates = record.coordinates();
+            List<Position> blockagePoints = new ArrayList<>(coordinates.length / 2);
+            for (int i = 0; i < coordinates.length; i += 2) {
+                blockagePoints.add(new Position(coordinates[i], coordinates[i + 1]));
+            }
+            blockagesForDate.add(new Blockage(startTime, endTime, blockagePoints));
+            return true;
+        });
 
         return blockagesForDate;
     }
-}
\ No newline at end of file
+}
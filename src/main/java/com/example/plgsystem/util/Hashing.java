@@ -0,0 +1,20 @@
+package com.example.plgsystem.util;
+
+/**
+ * Funciones de hash compartidas por las huellas de contenido
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * Finalizador de SplitMix64: reparte los bits de un hash acumulado para
+     * que valores parecidos den huellas muy distintas
+     */
+    public static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
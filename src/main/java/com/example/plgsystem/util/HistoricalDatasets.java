@@ -0,0 +1,184 @@
+package com.example.plgsystem.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.plgsystem.util.DatasetSnapshot.Type;
+
+/**
+ * Datos históricos de órdenes y bloqueos incluidos en el servidor
+ * (src/main/resources/data), servidos desde copias binarias mapeadas en
+ * memoria.
+ * <p>
+ * La primera vez que se pide un mes su texto se convierte a un
+ * {@link DatasetSnapshot} en el directorio de copias; las siguientes
+ * ejecuciones lo reutilizan mientras el CRC32 del texto no cambie. Cada mes
+ * se mapea una sola vez por proceso y todas las simulaciones leen las mismas
+ * páginas.
+ */
+public class HistoricalDatasets {
+    private static final Logger logger = LoggerFactory.getLogger(HistoricalDatasets.class);
+
+    private static final String ORDERS_RESOURCE = "data/pedidos.20250419/ventas%04d%02d.txt";
+    private static final String BLOCKAGES_RESOURCE = "data/bloqueos.20250419/%04d%02d.bloqueos.txt";
+    public static final Path DEFAULT_SNAPSHOT_DIRECTORY = Paths.get(System.getProperty("java.io.tmpdir"),
+            "plg-snapshots");
+
+    private static final HistoricalDatasets SHARED = new HistoricalDatasets(DEFAULT_SNAPSHOT_DIRECTORY);
+
+    private volatile Path snapshotDirectory;
+    private final Map<Key, DatasetSnapshot> snapshots = new ConcurrentHashMap<>();
+    // Meses sin archivo incluido, para no buscarlos en cada carga
+    private final Map<Key, Boolean> missing = new ConcurrentHashMap<>();
+
+    private final AtomicLong conversions = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+
+    public HistoricalDatasets(Path snapshotDirectory) {
+        this.snapshotDirectory = snapshotDirectory;
+    }
+
+    public static HistoricalDatasets shared() {
+        return SHARED;
+    }
+
+    /**
+     * Cambia el directorio de las copias; los meses ya mapeados se siguen
+     * usando
+     */
+    public void setSnapshotDirectory(Path snapshotDirectory) {
+        this.snapshotDirectory = snapshotDirectory;
+    }
+
+    public Path getSnapshotDirectory() {
+        return snapshotDirectory;
+    }
+
+    /**
+     * Órdenes incluidas para el mes, o null si no hay archivo para ese mes
+     */
+    public DatasetSnapshot getOrders(YearMonth month) throws IOException {
+        return get(new Key(Type.ORDERS, month));
+    }
+
+    /**
+     * Bloqueos incluidos para el mes, o null si no hay archivo para ese mes
+     */
+    public DatasetSnapshot getBlockages(YearMonth month) throws IOException {
+        return get(new Key(Type.BLOCKAGES, month));
+    }
+
+    /**
+     * Convierte y mapea los meses indicados, para no hacerlo en la primera
+     * simulación
+     *
+     * @return Cantidad de archivos disponibles
+     */
+    public int preload(YearMonth from, YearMonth to) throws IOException {
+        int available = 0;
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            available += getOrders(month) != null ? 1 : 0;
+            available += getBlockages(month) != null ? 1 : 0;
+        }
+        return available;
+    }
+
+    /**
+     * Archivos de texto convertidos a copias binarias
+     */
+    public long getConversions() {
+        return conversions.get();
+    }
+
+    /**
+     * Copias binarias de ejecuciones anteriores reutilizadas
+     */
+    public long getReused() {
+        return reused.get();
+    }
+
+    public int getMappedCount() {
+        return snapshots.size();
+    }
+
+    public long getMappedBytes() {
+        return snapshots.values().stream().mapToLong(DatasetSnapshot::getMappedBytes).sum();
+    }
+
+    private DatasetSnapshot get(Key key) throws IOException {
+        DatasetSnapshot snapshot = snapshots.get(key);
+        if (snapshot != null || missing.containsKey(key)) {
+            return snapshot;
+        }
+        synchronized (this) {
+            snapshot = snapshots.get(key);
+            if (snapshot == null && !missing.containsKey(key)) {
+                snapshot = load(key);
+                if (snapshot == null) {
+                    missing.put(key, Boolean.TRUE);
+                } else {
+                    snapshots.put(key, snapshot);
+                }
+            }
+            return snapshot;
+        }
+    }
+
+    private DatasetSnapshot load(Key key) throws IOException {
+        String format = key.type() == Type.ORDERS ? ORDERS_RESOURCE : BLOCKAGES_RESOURCE;
+        String resource = String.format(format, key.month().getYear(), key.month().getMonthValue());
+        byte[] text;
+        try (InputStream input = HistoricalDatasets.class.getClassLoader().getResourceAsStream(resource)) {
+            if (input == null) {
+                return null;
+            }
+            text = input.readAllBytes();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(text);
+        long sourceChecksum = crc.getValue();
+
+        Path target = snapshotDirectory.resolve(String.format("%s-%s.snapshot",
+                key.type().name().toLowerCase(), key.month()));
+        if (Files.exists(target)) {
+            try {
+                DatasetSnapshot existing = DatasetSnapshot.open(target, key.type(), key.month());
+                if (existing.getSourceChecksum() == sourceChecksum) {
+                    reused.incrementAndGet();
+                    return existing;
+                }
+                logger.info("Copia desactualizada de {}, se vuelve a convertir", resource);
+            } catch (IOException e) {
+                logger.warn("Copia inválida de {}, se vuelve a convertir: {}", resource, e.getMessage());
+            }
+        }
+
+        long begin = System.nanoTime();
+        Path source = Files.createTempFile("historical-", ".txt");
+        try {
+            Files.write(source, text);
+            DatasetSnapshot.write(key.type(), source, key.month(), sourceChecksum, target);
+        } finally {
+            Files.deleteIfExists(source);
+        }
+        conversions.incrementAndGet();
+        DatasetSnapshot snapshot = DatasetSnapshot.open(target, key.type(), key.month());
+        logger.info("{} convertido a {}: {} elementos en {} ms", resource, target, snapshot.size(),
+                (System.nanoTime() - begin) / 1_000_000);
+        return snapshot;
+    }
+
+    private record Key(Type type, YearMonth month) {
+    }
+}
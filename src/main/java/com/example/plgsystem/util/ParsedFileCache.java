@@ -0,0 +1,318 @@
+package com.example.plgsystem.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.plgsystem.model.Blockage;
+import com.example.plgsystem.model.Order;
+
+/**
+ * Caché acotada de archivos mensuales de órdenes y bloqueos ya leídos.
+ * <p>
+ * Cada archivo se lee una sola vez y se guarda como un {@link MonthIndex}
+ * inmutable con los elementos agrupados por día de inicio, así que cargar un
+ * día cuesta lo que tiene ese día. La clave es el hash SHA-256 del contenido y
+ * el mes de referencia: las simulaciones que suben el mismo archivo (cada una
+ * a su propio archivo temporal) comparten una sola copia. Los elementos del
+ * índice son prototipos que no deben modificarse; quien los use en una
+ * simulación debe copiarlos.
+ * <p>
+ * El tamaño se acota por una estimación de la memoria de los elementos; al
+ * superarla se descartan los meses menos usados.
+ */
+public class ParsedFileCache {
+    private static final Logger logger = LoggerFactory.getLogger(ParsedFileCache.class);
+
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    // Estimación de memoria por elemento: objeto, fechas, posición e id
+    private static final int ORDER_BYTES = 320;
+    private static final int BLOCKAGE_BYTES = 240;
+    private static final int BLOCKAGE_POINT_BYTES = 48;
+
+    private static final ParsedFileCache SHARED = new ParsedFileCache(DEFAULT_MAX_BYTES);
+
+    private final LinkedHashMap<Key, MonthIndex<?>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Hash del contenido por ruta, válido mientras no cambien el tamaño ni la fecha de modificación
+    private final Map<Path, FileStamp> stamps = new HashMap<>();
+    private long maxBytes;
+    private long usedBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ParsedFileCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public static ParsedFileCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Cambia la memoria máxima estimada y descarta lo que sobre
+     *
+     * @param maxBytes Bytes; 0 o negativo desactiva la caché
+     */
+    public synchronized void setMaxBytes(long maxBytes) {
+        this.maxBytes = Math.max(0, maxBytes);
+        evictOverflow();
+    }
+
+    public synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Órdenes del archivo agrupadas por día de llegada
+     */
+    @SuppressWarnings("unchecked")
+    public MonthIndex<Order> getOrders(Path file, YearMonth month) throws IOException {
+        return (MonthIndex<Order>) get(file, month, "orders", path -> {
+            List<Order> orders = FileUtils.loadOrdersForDate(path, month.atDay(1), month.plusMonths(1).atDay(1));
+            return MonthIndex.of(month, orders, order -> order.getArrivalTime().toLocalDate(), order -> 0,
+                    order -> ORDER_BYTES);
+        });
+    }
+
+    /**
+     * Bloqueos del archivo agrupados por día de inicio
+     */
+    @SuppressWarnings("unchecked")
+    public MonthIndex<Blockage> getBlockages(Path file, YearMonth month) throws IOException {
+        return (MonthIndex<Blockage>) get(file, month, "blockages", path -> {
+            List<Blockage> blockages = FileUtils.loadBlockagesForDate(path, month.atDay(1),
+                    month.plusMonths(1).atDay(1));
+            return MonthIndex.of(month, blockages, blockage -> blockage.getStartTime().toLocalDate(),
+                    blockage -> (int) ChronoUnit.DAYS.between(blockage.getStartTime().toLocalDate(),
+                            blockage.getEndTime().toLocalDate()),
+                    blockage -> BLOCKAGE_BYTES + blockage.getLines().size() * BLOCKAGE_POINT_BYTES);
+        });
+    }
+
+    /**
+     * Olvida el hash guardado de un archivo borrado; los meses leídos de él
+     * siguen disponibles para otros archivos con el mismo contenido
+     */
+    public synchronized void forget(Path file) {
+        stamps.remove(file);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        stamps.clear();
+        usedBytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private MonthIndex<?> get(Path file, YearMonth month, String type, Parser parser)
+            throws IOException {
+        Key key = new Key(contentHash(file), month, type);
+        synchronized (this) {
+            MonthIndex<?> cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+        misses.incrementAndGet();
+
+        // Se lee fuera del lock; si otro hilo terminó antes se usa su copia
+        MonthIndex<?> parsed = parser.parse(file);
+        synchronized (this) {
+            MonthIndex<?> existing = entries.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            if (parsed.getEstimatedBytes() <= maxBytes) {
+                entries.put(key, parsed);
+                usedBytes += parsed.getEstimatedBytes();
+                evictOverflow();
+            }
+        }
+        logger.debug("Archivo de {} {} leído: {} elementos, ~{} KB", type, month, parsed.size(),
+                parsed.getEstimatedBytes() / 1024);
+        return parsed;
+    }
+
+    private void evictOverflow() {
+        Iterator<MonthIndex<?>> iterator = entries.values().iterator();
+        while (usedBytes > maxBytes && iterator.hasNext()) {
+            usedBytes -= iterator.next().getEstimatedBytes();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private String contentHash(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+        synchronized (this) {
+            FileStamp stamp = stamps.get(file);
+            if (stamp != null && stamp.size() == size && stamp.modifiedMillis() == modified) {
+                return stamp.hash();
+            }
+        }
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream input = Files.newInputStream(file)) {
+            int read;
+            while ((read = input.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        String hash = HexFormat.of().formatHex(digest.digest());
+        synchronized (this) {
+            stamps.put(file, new FileStamp(size, modified, hash));
+        }
+        return hash;
+    }
+
+    private record Key(String contentHash, YearMonth month, String type) {
+    }
+
+    private record FileStamp(long size, long modifiedMillis, String hash) {
+    }
+
+    @FunctionalInterface
+    private interface Parser {
+        MonthIndex<?> parse(Path file) throws IOException;
+    }
+
+    /**
+     * Elementos de un archivo mensual agrupados por día, inmutable
+     *
+     * @param <T> Order o Blockage
+     */
+    public static final class MonthIndex<T> {
+        private final YearMonth month;
+        private final List<List<T>> days;
+        private final int size;
+        private final int maxSpanDays;
+        private final long estimatedBytes;
+
+        private MonthIndex(YearMonth month, List<List<T>> days, int size, int maxSpanDays, long estimatedBytes) {
+            this.month = month;
+            this.days = days;
+            this.size = size;
+            this.maxSpanDays = maxSpanDays;
+            this.estimatedBytes = estimatedBytes;
+        }
+
+        static <T> MonthIndex<T> of(YearMonth month, List<T> items, Function<T, LocalDate> dayOf,
+                ToIntFunction<T> spanDaysOf, ToIntFunction<T> bytesOf) {
+            List<List<T>> buckets = new ArrayList<>(month.lengthOfMonth());
+            for (int i = 0; i < month.lengthOfMonth(); i++) {
+                buckets.add(new ArrayList<>());
+            }
+            int maxSpanDays = 0;
+            long bytes = 0;
+            for (T item : items) {
+                LocalDate day = dayOf.apply(item);
+                if (!YearMonth.from(day).equals(month)) {
+                    continue;
+                }
+                buckets.get(day.getDayOfMonth() - 1).add(item);
+                maxSpanDays = Math.max(maxSpanDays, spanDaysOf.applyAsInt(item));
+                bytes += bytesOf.applyAsInt(item);
+            }
+            List<List<T>> days = new ArrayList<>(buckets.size());
+            for (List<T> bucket : buckets) {
+                days.add(bucket.isEmpty() ? List.of() : Collections.unmodifiableList(bucket));
+            }
+            return new MonthIndex<>(month, Collections.unmodifiableList(days), items.size(), maxSpanDays, bytes);
+        }
+
+        public YearMonth getMonth() {
+            return month;
+        }
+
+        /**
+         * Elementos que empiezan en el día indicado del mes, o una lista vacía
+         * si el día está fuera del mes
+         */
+        public List<T> getDay(int dayOfMonth) {
+            if (dayOfMonth < 1 || dayOfMonth > days.size()) {
+                return List.of();
+            }
+            return days.get(dayOfMonth - 1);
+        }
+
+        /**
+         * Elementos que empiezan entre los días indicados del mes, ambos
+         * inclusive; los días fuera del mes se ignoran
+         */
+        public List<T> getDays(int fromDay, int toDay) {
+            List<T> result = new ArrayList<>();
+            for (int day = Math.max(1, fromDay); day <= Math.min(toDay, days.size()); day++) {
+                result.addAll(days.get(day - 1));
+            }
+            return result;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Mayor cantidad de días entre el inicio y el fin de un elemento: un
+         * elemento activo en un día empezó a lo sumo esta cantidad de días antes
+         */
+        public int getMaxSpanDays() {
+            return maxSpanDays;
+        }
+
+        public long getEstimatedBytes() {
+            return estimatedBytes;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.plgsystem.assignation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.plgsystem.enums.DepotType;
+import com.example.plgsystem.enums.VehicleType;
+import com.example.plgsystem.model.Constants;
+import com.example.plgsystem.model.Depot;
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.model.Vehicle;
+import com.example.plgsystem.simulation.SimulationState;
+
+class CompactAssignmentTest {
+
+    private SimulationState state;
+    private LocalDateTime referenceTime;
+    private CompactAssignment.Index index;
+
+    @BeforeEach
+    void setUp() {
+        referenceTime = LocalDateTime.of(2025, 1, 1, 8, 0);
+        Depot mainDepot = new Depot(Constants.MAIN_DEPOT_ID, Constants.MAIN_DEPOT_LOCATION, 10000, DepotType.MAIN);
+        List<Vehicle> vehicles = new ArrayList<>();
+        vehicles.add(new Vehicle("TA01", VehicleType.TA, Constants.MAIN_DEPOT_LOCATION));
+        vehicles.add(new Vehicle("TD01", VehicleType.TD, Constants.MAIN_DEPOT_LOCATION));
+        vehicles.add(new Vehicle("TD02", VehicleType.TD, Constants.MAIN_DEPOT_LOCATION));
+        state = new SimulationState(vehicles, mainDepot, new ArrayList<>(), referenceTime);
+
+        for (int i = 0; i < 12; i++) {
+            state.addOrder(new Order("ORD-" + i, referenceTime, referenceTime.plusHours(4 + i % 5),
+                    3 + i, new Position(i * 3, i * 2)));
+        }
+        index = new CompactAssignment.Index(state);
+    }
+
+    @Test
+    void fromMapMergesSplitsAndSortsByDeadline() {
+        Order late = state.getOrderById("ORD-4");
+        Order early = state.getOrderById("ORD-0");
+        Map<String, List<DeliveryPart>> assignments = new HashMap<>();
+        assignments.put("TD01", List.of(
+                new DeliveryPart(late.getId(), 5, late.getDeadlineTime()),
+                new DeliveryPart(late.getId(), 4, late.getDeadlineTime()),
+                new DeliveryPart(early.getId(), 3, early.getDeadlineTime())));
+
+        List<DeliveryPart> route = CompactAssignment.fromMap(index, assignments).toMap().get("TD01");
+
+        int capacity = state.getVehicleById("TD01").getGlpCapacityM3();
+        assertEquals("ORD-0", route.get(0).getOrderId(), "Earliest deadline should come first");
+        assertTrue(route.stream().allMatch(part -> part.getGlpDeliverM3() <= capacity),
+                "Parts should not exceed the vehicle capacity");
+        assertEquals(9, route.stream().filter(part -> part.getOrderId().equals("ORD-4"))
+                .mapToInt(DeliveryPart::getGlpDeliverM3).sum(), "Consecutive parts should be merged");
+    }
+
+    @Test
+    void operationsShareUntouchedRoutes() {
+        CompactAssignment assignment = CompactAssignment.fromMap(index,
+                RandomDistributor.createInitialRandomAssignments(state, new SplittableRandom(3)));
+        SplittableRandom random = new SplittableRandom(11);
+
+        for (int i = 0; i < 50; i++) {
+            CompactAssignment neighbor = assignment.randomOperation(random);
+            Map<String, List<DeliveryPart>> before = assignment.toMap();
+            Map<String, List<DeliveryPart>> after = neighbor.toMap();
+            for (int v = 0; v < index.vehicleCount(); v++) {
+                String vehicleId = index.vehicleId(v);
+                if (neighbor.sameRoute(assignment, v)) {
+                    assertEquals(before.get(vehicleId), after.get(vehicleId));
+                }
+            }
+            assertEquals(totalGlp(before), totalGlp(after), "Operations should not create or lose GLP");
+            assignment = neighbor;
+        }
+    }
+
+    @Test
+    void swapKeepsOtherRoutesIdentical() {
+        CompactAssignment assignment = CompactAssignment.fromMap(index,
+                RandomDistributor.createInitialRandomAssignments(state, new SplittableRandom(5)));
+
+        CompactAssignment swapped = assignment.swapVehicles(new SplittableRandom(1));
+
+        int shared = 0;
+        for (int v = 0; v < index.vehicleCount(); v++) {
+            if (assignment.toMap().get(index.vehicleId(v)) == swapped.toMap().get(index.vehicleId(v))) {
+                shared++;
+            }
+        }
+        assertEquals(index.vehicleCount() - 2, shared, "Only the two swapped routes should be copied");
+    }
+
+    @Test
+    void relocateNearbyMovesADeliveryNextToANeighbor() {
+        CompactAssignment assignment = CompactAssignment.fromMap(index,
+                RandomDistributor.createInitialRandomAssignments(state, new SplittableRandom(7)));
+        SplittableRandom random = new SplittableRandom(13);
+
+        int moved = 0;
+        for (int i = 0; i < 20; i++) {
+            CompactAssignment neighbor = assignment.relocateNearby(random);
+            int changed = 0;
+            for (int v = 0; v < index.vehicleCount(); v++) {
+                if (!neighbor.sameRoute(assignment, v)) {
+                    changed++;
+                }
+            }
+            assertTrue(changed == 0 || changed == 2, "A relocation should change exactly two routes");
+            assertEquals(totalGlp(assignment.toMap()), totalGlp(neighbor.toMap()),
+                    "Relocation should not create or lose GLP");
+            moved += changed / 2;
+            assignment = neighbor;
+        }
+        assertTrue(moved > 0, "Some deliveries should be relocated");
+    }
+
+    @Test
+    void compactEvaluationMatchesTheBuiltSolution() {
+        DistanceMatrix distances = DistanceMatrix.manhattan(state);
+        CompactEvaluator evaluator = new CompactEvaluator(state, distances, index);
+        CompactAssignment assignment = CompactAssignment.fromMap(index,
+                RandomDistributor.createInitialRandomAssignments(state, new SplittableRandom(17)));
+        CompactEvaluator.Evaluation evaluation = evaluator.evaluate(assignment, null, null);
+        SplittableRandom random = new SplittableRandom(19);
+
+        for (int i = 0; i < 30; i++) {
+            CompactAssignment neighbor = assignment.randomOperation(random);
+            CompactEvaluator.Evaluation neighborEvaluation = evaluator.evaluate(neighbor, assignment, evaluation);
+            Solution solution = SolutionGenerator.generateSolution(state, neighbor.toMap(), distances);
+
+            assertEquals(solution.getCost(), neighborEvaluation.cost(),
+                    "Compact evaluation should cost the same as the built solution");
+            assignment = neighbor;
+            evaluation = neighborEvaluation;
+        }
+    }
+
+    private static int totalGlp(Map<String, List<DeliveryPart>> assignments) {
+        return assignments.values().stream().flatMap(List::stream).mapToInt(DeliveryPart::getGlpDeliverM3).sum();
+    }
+}
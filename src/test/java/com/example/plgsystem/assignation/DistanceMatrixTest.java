@@ -0,0 +1,132 @@
+package com.example.plgsystem.assignation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.plgsystem.enums.DepotType;
+import com.example.plgsystem.enums.VehicleType;
+import com.example.plgsystem.model.Blockage;
+import com.example.plgsystem.model.Constants;
+import com.example.plgsystem.model.Depot;
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.model.Vehicle;
+import com.example.plgsystem.simulation.SimulationState;
+
+class DistanceMatrixTest {
+
+    private SimulationState state;
+    private LocalDateTime referenceTime;
+
+    @BeforeEach
+    void setUp() {
+        referenceTime = LocalDateTime.of(2025, 1, 1, 8, 0);
+        Depot mainDepot = new Depot(Constants.MAIN_DEPOT_ID, Constants.MAIN_DEPOT_LOCATION, 10000, DepotType.MAIN);
+        List<Depot> auxDepots = new ArrayList<>();
+        auxDepots.add(new Depot(Constants.NORTH_DEPOT_ID, Constants.NORTH_DEPOT_LOCATION, 160, DepotType.AUXILIARY));
+        auxDepots.add(new Depot(Constants.EAST_DEPOT_ID, Constants.EAST_DEPOT_LOCATION, 160, DepotType.AUXILIARY));
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            vehicles.add(new Vehicle(String.format("TD%02d", i), VehicleType.TD, Constants.MAIN_DEPOT_LOCATION));
+        }
+        state = new SimulationState(vehicles, mainDepot, auxDepots, referenceTime);
+
+        Random random = new Random(3);
+        for (int i = 0; i < 30; i++) {
+            Position position = new Position(random.nextInt(Constants.CITY_X), random.nextInt(Constants.CITY_Y));
+            state.addOrder(new Order("ORD-" + i, referenceTime, referenceTime.plusHours(4 + random.nextInt(20)),
+                    1 + random.nextInt(20), position));
+        }
+    }
+
+    @Test
+    void manhattanMatrixMatchesDirectDistances() {
+        DistanceMatrix matrix = DistanceMatrix.manhattan(state);
+
+        for (Order from : state.getOrders()) {
+            for (Order to : state.getOrders()) {
+                assertEquals(from.getPosition().distanceTo(to.getPosition()),
+                        matrix.distance(matrix.orderIndex(from.getId()), matrix.orderIndex(to.getId())),
+                        "Matrix distance should match Manhattan distance between orders");
+            }
+            assertEquals(from.getPosition().distanceTo(state.getMainDepot().getPosition()),
+                    matrix.distance(from.getPosition(), state.getMainDepot().getPosition()),
+                    "Matrix distance should match Manhattan distance to the main depot");
+        }
+    }
+
+    @Test
+    void unknownPositionsFallBackToDirectDistance() {
+        DistanceMatrix matrix = DistanceMatrix.manhattan(state);
+        Position outside = new Position(12.5, 7.25);
+
+        assertEquals(-1, matrix.indexOf(outside), "Unregistered positions should have no index");
+        assertEquals(outside.distanceTo(state.getMainDepot().getPosition()),
+                matrix.distance(outside, state.getMainDepot().getPosition()),
+                "Unregistered positions should use Position.distanceTo");
+    }
+
+    @Test
+    void blockageAwareMatrixIsNeverShorterThanManhattan() {
+        state.addBlockage(new Blockage(referenceTime, referenceTime.plusHours(6),
+                Arrays.asList(new Position(20, 0), new Position(20, 40))));
+        DistanceMatrix manhattan = DistanceMatrix.manhattan(state);
+        DistanceMatrix blockageAware = DistanceMatrix.blockageAware(state);
+
+        boolean detour = false;
+        for (int from = 0; from < manhattan.size(); from++) {
+            for (int to = 0; to < manhattan.size(); to++) {
+                assertTrue(blockageAware.distance(from, to) >= manhattan.distance(from, to),
+                        "Blockage-aware distance should not be shorter than Manhattan distance");
+                detour |= blockageAware.distance(from, to) > manhattan.distance(from, to);
+            }
+        }
+        assertTrue(detour, "A wall across the city should force at least one detour");
+    }
+
+    @Test
+    void blockageAwareMatrixResolvesVehiclesBetweenNodesAndSubSecondTimes() {
+        LocalDateTime now = referenceTime.plusNanos(123_456_789);
+        Depot mainDepot = new Depot(Constants.MAIN_DEPOT_ID, Constants.MAIN_DEPOT_LOCATION, 10000, DepotType.MAIN);
+        List<Vehicle> vehicles = new ArrayList<>();
+        vehicles.add(new Vehicle("TD01", VehicleType.TD, new Position(10.5, 10)));
+        SimulationState midDrive = new SimulationState(vehicles, mainDepot, new ArrayList<>(), now);
+        midDrive.addOrder(new Order("ORD-EAST", now, now.plusHours(8), 5, new Position(30, 10)));
+        midDrive.addBlockage(new Blockage(referenceTime, referenceTime.plusHours(6),
+                Arrays.asList(new Position(20, 0), new Position(20, 40))));
+
+        DistanceMatrix matrix = DistanceMatrix.blockageAware(midDrive);
+        int vehicle = matrix.indexOf(new Position(10.5, 10));
+        int order = matrix.orderIndex("ORD-EAST");
+
+        // Half a segment to (11, 10), then around the wall through y = 41
+        assertEquals(81.5, matrix.distance(vehicle, order), 1e-9,
+                "A vehicle between nodes should be routed around the wall");
+        assertEquals(81.5, matrix.distance(order, vehicle), 1e-9);
+        assertEquals(0.0, matrix.distance(vehicle, vehicle), 1e-9);
+    }
+
+    @Test
+    void solutionCostIsUnchangedWithManhattanMatrix() {
+        DistanceMatrix matrix = DistanceMatrix.manhattan(state);
+        for (int i = 0; i < 20; i++) {
+            Map<String, List<DeliveryPart>> assignment = RandomDistributor.createInitialRandomAssignments(state);
+
+            Solution direct = SolutionGenerator.generateSolution(state, DistributionOperations.cloneAssignments(assignment));
+            Solution withMatrix = SolutionGenerator.generateSolution(state,
+                    DistributionOperations.cloneAssignments(assignment), matrix);
+
+            assertEquals(direct.getCost().totalCost(), withMatrix.getCost().totalCost(), 1e-9,
+                    "Using the Manhattan matrix should not change the solution cost");
+        }
+    }
+}
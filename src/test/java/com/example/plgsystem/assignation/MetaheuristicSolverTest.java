@@ -0,0 +1,148 @@
+package com.example.plgsystem.assignation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.plgsystem.enums.DepotType;
+import com.example.plgsystem.enums.VehicleType;
+import com.example.plgsystem.model.Constants;
+import com.example.plgsystem.model.Depot;
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.model.Vehicle;
+import com.example.plgsystem.simulation.SimulationState;
+
+class MetaheuristicSolverTest {
+
+    private SimulationState state;
+    private int previousParallelism;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime referenceTime = LocalDateTime.of(2025, 1, 1, 8, 0);
+        Depot mainDepot = new Depot(Constants.MAIN_DEPOT_ID, Constants.MAIN_DEPOT_LOCATION, 10000, DepotType.MAIN);
+        List<Depot> auxDepots = new ArrayList<>();
+        auxDepots.add(new Depot(Constants.NORTH_DEPOT_ID, Constants.NORTH_DEPOT_LOCATION, 160, DepotType.AUXILIARY));
+        auxDepots.add(new Depot(Constants.EAST_DEPOT_ID, Constants.EAST_DEPOT_LOCATION, 160, DepotType.AUXILIARY));
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            vehicles.add(new Vehicle(String.format("TA%02d", i), VehicleType.TA, Constants.MAIN_DEPOT_LOCATION));
+        }
+        for (int i = 1; i <= 4; i++) {
+            vehicles.add(new Vehicle(String.format("TD%02d", i), VehicleType.TD, Constants.MAIN_DEPOT_LOCATION));
+        }
+        state = new SimulationState(vehicles, mainDepot, auxDepots, referenceTime);
+
+        Random random = new Random(5);
+        for (int i = 0; i < 25; i++) {
+            Position position = new Position(random.nextInt(Constants.CITY_X), random.nextInt(Constants.CITY_Y));
+            state.addOrder(new Order("ORD-" + i, referenceTime, referenceTime.plusHours(6 + random.nextInt(24)),
+                    1 + random.nextInt(15), position));
+        }
+
+        previousParallelism = MetaheuristicSolver.getParallelism();
+        MetaheuristicSolver.configure(40, 5, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MetaheuristicSolver.configure(Constants.MAX_ITERATIONS, Constants.TABU_TENURE, Constants.NUM_NEIGHBORS);
+        MetaheuristicSolver.configureParallelism(previousParallelism);
+    }
+
+    @Test
+    void sameSeedGivesSameSolutionForAnyParallelism() {
+        MetaheuristicSolver.configureParallelism(1);
+        Solution sequential = MetaheuristicSolver.solve(state, 42L);
+        MetaheuristicSolver.configureParallelism(4);
+        Solution parallel = MetaheuristicSolver.solve(state, 42L);
+        Solution repeated = MetaheuristicSolver.solve(state, 42L);
+
+        assertEquals(sequential.getCost().totalCost(), parallel.getCost().totalCost(),
+                "Parallel evaluation should reach the same cost as sequential evaluation");
+        assertEquals(sequential.getVehicleOrderAssignments().toString(),
+                parallel.getVehicleOrderAssignments().toString(),
+                "Parallel evaluation should produce the same assignments");
+        assertEquals(parallel.getCost().totalCost(), repeated.getCost().totalCost(),
+                "Repeated runs with the same seed should be identical");
+    }
+
+    @Test
+    void solveDoesNotReorderStateOrders() {
+        List<String> before = state.getOrders().stream().map(Order::getId).toList();
+        MetaheuristicSolver.configureParallelism(4);
+
+        MetaheuristicSolver.solve(state, 7L);
+
+        assertEquals(before, state.getOrders().stream().map(Order::getId).toList(),
+                "Neighborhood operations should not shuffle the shared order list");
+    }
+
+    @Test
+    void stoppedControlReturnsInitialSolutionWithoutIterating() {
+        SolverControl control = SolverControl.unbounded();
+        control.requestStop();
+
+        Solution solution = MetaheuristicSolver.solve(state, 42L, control);
+
+        assertNotNull(solution, "A stopped solver should still return its best solution");
+        assertEquals(0, control.getIteration(), "No iteration should run after a stop request");
+        assertEquals(control.getBestCost(), solution.getCost().totalCost(),
+                "Returned solution should be the reported best solution");
+        assertFalse(control.isCancelled(), "Requesting a stop should not cancel the result");
+    }
+
+    @Test
+    void exhaustedTimeBudgetStopsTheSearch() {
+        SolverControl control = SolverControl.withTimeBudget(Duration.ZERO);
+
+        assertTrue(control.shouldStop(), "A zero budget should be exhausted immediately");
+        assertNotNull(MetaheuristicSolver.solve(state, 42L, control),
+                "An exhausted budget should return the best solution found");
+        assertEquals(0, control.getIteration(), "No iteration should run with an exhausted budget");
+    }
+
+    @Test
+    void unboundedControlReportsEveryIteration() {
+        SolverControl control = SolverControl.unbounded();
+
+        MetaheuristicSolver.solve(state, 42L, control);
+
+        assertEquals(40, control.getIteration(), "All configured iterations should be reported");
+        assertNotNull(control.getBestSolution(), "Progress should expose the best solution");
+    }
+
+    @Test
+    void changingParallelismDoesNotBreakARunningSolve() throws Exception {
+        MetaheuristicSolver.configure(400, 5, 8);
+        MetaheuristicSolver.configureParallelism(1);
+        Solution expected = MetaheuristicSolver.solve(state, 42L);
+
+        MetaheuristicSolver.configureParallelism(4);
+        SolverControl control = SolverControl.unbounded();
+        CompletableFuture<Solution> running = CompletableFuture
+                .supplyAsync(() -> MetaheuristicSolver.solve(state, 42L, control));
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (control.getIteration() < 1 && !running.isDone() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        MetaheuristicSolver.configureParallelism(2);
+        Solution solution = running.get(60, TimeUnit.SECONDS);
+
+        assertEquals(expected.getCost().totalCost(), solution.getCost().totalCost(),
+                "A solve should finish on the pool it started with after parallelism changes");
+        assertEquals(expected.getCost().totalCost(), MetaheuristicSolver.solve(state, 42L).getCost().totalCost(),
+                "New solves should use the new pool");
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.plgsystem.assignation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.plgsystem.enums.DepotType;
+import com.example.plgsystem.enums.VehicleType;
+import com.example.plgsystem.model.Depot;
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.model.Vehicle;
+import com.example.plgsystem.simulation.SimulationState;
+
+class MoveAttributesTest {
+
+    private SimulationState state;
+    private LocalDateTime deadline;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 8, 0);
+        deadline = now.plusHours(4);
+        List<Vehicle> vehicles = new ArrayList<>();
+        vehicles.add(new Vehicle("V-001", VehicleType.TA, new Position(0, 0)));
+        vehicles.add(new Vehicle("V-002", VehicleType.TA, new Position(0, 0)));
+        vehicles.add(new Vehicle("V-003", VehicleType.TA, new Position(0, 0)));
+        state = new SimulationState(vehicles, new Depot("DEP-1", new Position(0, 0), 100, DepotType.MAIN),
+                new ArrayList<>(), now);
+        state.addOrder(new Order("ORD-0", now, deadline, 10, new Position(5, 5)));
+        state.addOrder(new Order("ORD-1", now, deadline, 10, new Position(8, 3)));
+    }
+
+    @Test
+    void transferIsEncodedWithOriginAndDestination() {
+        Map<String, List<DeliveryPart>> from = Map.of(
+                "V-001", List.of(new DeliveryPart("ORD-0", 10, deadline)),
+                "V-002", List.of(new DeliveryPart("ORD-1", 10, deadline)),
+                "V-003", List.of());
+        Map<String, List<DeliveryPart>> to = Map.of(
+                "V-001", List.of(),
+                "V-002", List.of(new DeliveryPart("ORD-1", 10, deadline)),
+                "V-003", List.of(new DeliveryPart("ORD-0", 10, deadline)));
+
+        long[] attributes = new MoveAttributes(state).between(from, to);
+
+        assertArrayEquals(new long[] { MoveAttributes.encode(0, 0, 2) }, attributes,
+                "Moving ORD-0 from the first to the third vehicle should be a single attribute");
+    }
+
+    @Test
+    void unchangedAssignmentHasNoAttributes() {
+        Map<String, List<DeliveryPart>> assignment = Map.of(
+                "V-001", List.of(new DeliveryPart("ORD-0", 10, deadline)),
+                "V-002", List.of(new DeliveryPart("ORD-1", 10, deadline)),
+                "V-003", List.of());
+        Map<String, List<DeliveryPart>> copy = DistributionOperations.cloneAssignments(assignment);
+
+        assertEquals(0, new MoveAttributes(state).between(assignment, copy).length,
+                "A copy of the assignment should not be a move");
+    }
+
+    @Test
+    void splitDeliveryPairsEveryLoserWithEveryGainer() {
+        Map<String, List<DeliveryPart>> from = Map.of(
+                "V-001", List.of(new DeliveryPart("ORD-0", 10, deadline)),
+                "V-002", List.of(),
+                "V-003", List.of());
+        Map<String, List<DeliveryPart>> to = Map.of(
+                "V-001", List.of(),
+                "V-002", List.of(new DeliveryPart("ORD-0", 4, deadline)),
+                "V-003", List.of(new DeliveryPart("ORD-0", 6, deadline)));
+
+        long[] attributes = new MoveAttributes(state).between(from, to);
+        Arrays.sort(attributes);
+
+        assertArrayEquals(new long[] { MoveAttributes.encode(0, 0, 1), MoveAttributes.encode(0, 0, 2) },
+                attributes, "Splitting an order should produce one attribute per receiving vehicle");
+    }
+}
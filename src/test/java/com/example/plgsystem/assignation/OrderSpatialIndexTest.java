@@ -0,0 +1,75 @@
+package com.example.plgsystem.assignation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.plgsystem.model.Constants;
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Position;
+
+class OrderSpatialIndexTest {
+
+    private List<Order> orders;
+    private OrderSpatialIndex index;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime referenceTime = LocalDateTime.of(2025, 1, 1, 8, 0);
+        Random random = new Random(5);
+        orders = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Position position = new Position(random.nextInt(Constants.CITY_X), random.nextInt(Constants.CITY_Y));
+            orders.add(new Order("ORD-" + i, referenceTime, referenceTime.plusHours(4), 5, position));
+        }
+        index = OrderSpatialIndex.build(orders);
+    }
+
+    @Test
+    void nearestMatchesBruteForce() {
+        Random random = new Random(9);
+        for (int query = 0; query < 100; query++) {
+            // Include points outside the bounding box of the orders
+            Position position = new Position(random.nextInt(Constants.CITY_X + 20) - 10,
+                    random.nextInt(Constants.CITY_Y + 20) - 10);
+            int k = 1 + random.nextInt(12);
+
+            assertArrayEquals(bruteForce(position).limit(k).toArray(), index.nearest(position, k),
+                    "Nearest orders should match a full scan at " + position);
+        }
+    }
+
+    @Test
+    void withinRadiusReturnsOnlyCloseOrdersSortedByDistance() {
+        Position position = new Position(35, 25);
+        double radius = 8;
+
+        int[] expected = bruteForce(position)
+                .filter(o -> orders.get(o).getPosition().distanceTo(position) <= radius)
+                .toArray();
+        assertArrayEquals(expected, index.withinRadius(position, radius));
+    }
+
+    @Test
+    void nearestReturnsAllOrdersWhenKExceedsSize() {
+        OrderSpatialIndex small = OrderSpatialIndex.build(orders.subList(0, 3));
+
+        assertEquals(3, small.nearest(new Position(0, 0), 10).length);
+        assertEquals(0, OrderSpatialIndex.build(List.of()).nearest(new Position(0, 0), 4).length);
+    }
+
+    private IntStream bruteForce(Position position) {
+        return IntStream.range(0, orders.size()).boxed()
+                .sorted(Comparator.<Integer>comparingDouble(o -> orders.get(o).getPosition().distanceTo(position))
+                        .thenComparing(o -> o))
+                .mapToInt(Integer::intValue);
+    }
+}
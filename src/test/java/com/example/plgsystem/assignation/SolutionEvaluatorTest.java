@@ -0,0 +1,168 @@
+package com.example.plgsystem.assignation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.plgsystem.enums.DepotType;
+import com.example.plgsystem.enums.VehicleType;
+import com.example.plgsystem.model.Constants;
+import com.example.plgsystem.model.Depot;
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.model.Vehicle;
+import com.example.plgsystem.simulation.SimulationState;
+import com.example.plgsystem.util.FileUtils;
+
+/**
+ * Compara el costo calculado con tiempos primitivos contra una evaluación de
+ * referencia con {@link LocalDateTime} sobre los pedidos incluidos en el
+ * proyecto.
+ */
+class SolutionEvaluatorTest {
+    private static final Path ORDERS_FILE = Path.of("src/main/resources/data/pedidos.20250419/ventas202501.txt");
+    private static final int ORDER_COUNT = 150;
+
+    private SimulationState state;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        LocalDate day = LocalDate.of(2025, 1, 1);
+        // Sub-second reference time: minute offsets would not match LocalDateTime arithmetic here
+        LocalDateTime referenceTime = LocalDateTime.of(2025, 1, 1, 10, 0, 7, 123_456_789);
+        Depot mainDepot = new Depot(Constants.MAIN_DEPOT_ID, Constants.MAIN_DEPOT_LOCATION, 10000, DepotType.MAIN);
+        List<Depot> auxDepots = List.of(
+                new Depot(Constants.NORTH_DEPOT_ID, Constants.NORTH_DEPOT_LOCATION, 160, DepotType.AUXILIARY),
+                new Depot(Constants.EAST_DEPOT_ID, Constants.EAST_DEPOT_LOCATION, 160, DepotType.AUXILIARY));
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            vehicles.add(new Vehicle(String.format("TA%02d", i), VehicleType.TA, Constants.MAIN_DEPOT_LOCATION));
+        }
+        for (int i = 1; i <= 4; i++) {
+            vehicles.add(new Vehicle(String.format("TC%02d", i), VehicleType.TC, new Position(30 + i, 20)));
+        }
+        for (int i = 1; i <= 6; i++) {
+            vehicles.add(new Vehicle(String.format("TD%02d", i), VehicleType.TD, Constants.MAIN_DEPOT_LOCATION));
+        }
+        state = new SimulationState(vehicles, mainDepot, auxDepots, referenceTime);
+
+        List<Order> orders = FileUtils.loadOrdersForDate(ORDERS_FILE, day, day.plusDays(1));
+        for (Order order : orders.subList(0, Math.min(ORDER_COUNT, orders.size()))) {
+            state.addOrder(order);
+        }
+    }
+
+    @Test
+    void routeCostsMatchLocalDateTimeEvaluation() {
+        assertFalse(state.getOrders().isEmpty(), "Bundled orders should be loaded");
+        DistanceMatrix distances = DistanceMatrix.manhattan(state);
+        SplittableRandom random = new SplittableRandom(7);
+
+        int lateRoutes = 0;
+        for (int i = 0; i < 50; i++) {
+            Map<String, List<DeliveryPart>> assignments = RandomDistributor.createInitialRandomAssignments(state,
+                    random.split());
+            Solution solution = SolutionGenerator.generateSolution(state, assignments, distances);
+
+            for (Map.Entry<String, Route> entry : solution.getRoutes().entrySet()) {
+                Vehicle vehicle = state.getVehicleById(entry.getKey());
+                SolutionCost expected = referenceRouteCost(entry.getValue(), vehicle, state);
+                Solution single = new Solution(Map.of(entry.getKey(), entry.getValue()), state, distances);
+                assertEquals(expected, single.getRouteCosts().get(entry.getKey()),
+                        "Route cost should match the LocalDateTime evaluation for " + entry.getKey());
+                if (expected.lateDeliveryCost() > 0) {
+                    lateRoutes++;
+                }
+            }
+            if (Double.isFinite(solution.getCost().totalCost())) {
+                assertEquals(referenceIncompleteOrders(solution), solution.getCost().incompleteOrderCost(),
+                        "Incomplete order penalty should match");
+            }
+        }
+        assertTrue(lateRoutes > 0, "The data should exercise late deliveries");
+    }
+
+    @Test
+    void directAndMatrixEvaluationAgree() {
+        Map<String, List<DeliveryPart>> assignments = RandomDistributor.createInitialRandomAssignments(state,
+                new SplittableRandom(3));
+        Solution solution = SolutionGenerator.generateSolution(state, assignments, DistanceMatrix.manhattan(state));
+
+        assertEquals(solution.getCost(), new Solution(solution.getRoutes(), state).getCost(),
+                "Evaluating without a matrix should give the same cost");
+    }
+
+    private double referenceIncompleteOrders(Solution solution) {
+        Map<String, Integer> remaining = new HashMap<>();
+        for (Order order : state.getOrders()) {
+            remaining.put(order.getId(), order.getRemainingGlpM3());
+        }
+        for (Route route : solution.getRoutes().values()) {
+            for (RouteStop stop : route.stops()) {
+                if (stop.isOrderStop()) {
+                    int glp = remaining.getOrDefault(stop.getOrderId(), 0);
+                    remaining.put(stop.getOrderId(), Math.max(0, glp - stop.getGlpDeliverM3()));
+                }
+            }
+        }
+        return remaining.values().stream().filter(glp -> glp > 0).count() * 10000.0;
+    }
+
+    /**
+     * Evaluación de una ruta avanzando el tiempo con {@link LocalDateTime}, como
+     * se hacía antes de usar tiempos primitivos
+     */
+    private static SolutionCost referenceRouteCost(Route route, Vehicle vehicle, SimulationState state) {
+        double totalDistance = 0;
+        int totalLateDeliveries = 0;
+        LocalDateTime currentTime = state.getCurrentTime();
+        LocalDateTime lastDeliveryTime = currentTime;
+        Position currentPosition = vehicle.getCurrentPosition();
+        int currentGlp = vehicle.getCurrentGlpM3();
+
+        for (RouteStop stop : route.stops()) {
+            double distanceKm = currentPosition.distanceTo(stop.getPosition()) * 1.25;
+            totalDistance += distanceKm;
+            currentTime = currentTime.plusSeconds((long) ((distanceKm / Constants.VEHICLE_AVG_SPEED) * 3600));
+            currentPosition = stop.getPosition();
+
+            if (stop.isOrderStop()) {
+                currentGlp -= stop.getGlpDeliverM3();
+                if (currentTime.isAfter(state.getOrderById(stop.getOrderId()).getDeadlineTime())) {
+                    totalLateDeliveries++;
+                }
+                currentTime = currentTime.plusMinutes(Constants.GLP_SERVE_DURATION_MINUTES);
+                if (stop.getGlpDeliverM3() > 0) {
+                    lastDeliveryTime = currentTime;
+                }
+            } else if (stop.isMaintenanceStop()) {
+                currentTime = currentTime.plusHours(Constants.MAINTENANCE_DURATION_HOURS);
+                currentGlp = vehicle.getGlpCapacityM3();
+            } else {
+                currentGlp += stop.getGlpLoadM3();
+                currentTime = currentTime.plusMinutes(stop.getDepotId().equals(state.getMainDepot().getId())
+                        ? Constants.RELOAD_REFUEL_DURATION_MINUTES_MAIN_DEPOT
+                        : Constants.RELOAD_REFUEL_DURATION_MINUTES);
+            }
+
+            if (currentGlp > vehicle.getGlpCapacityM3() || currentGlp < 0) {
+                return new SolutionCost(0.0, 0.0, 0.0, 0.0, Double.POSITIVE_INFINITY);
+            }
+        }
+
+        long minutes = Duration.between(state.getCurrentTime(), lastDeliveryTime).toMinutes();
+        return new SolutionCost(minutes * 10.0, totalDistance * 0.000001, totalLateDeliveries * 10000.0, 0, 0);
+    }
+}
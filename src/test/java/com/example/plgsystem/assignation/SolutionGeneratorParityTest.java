@@ -0,0 +1,301 @@
+package com.example.plgsystem.assignation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.plgsystem.enums.DepotType;
+import com.example.plgsystem.enums.VehicleType;
+import com.example.plgsystem.model.Constants;
+import com.example.plgsystem.model.Depot;
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.model.Vehicle;
+import com.example.plgsystem.simulation.SimulationState;
+import com.example.plgsystem.util.FileUtils;
+
+/**
+ * Compara las rutas construidas con tiempos primitivos y stock por ordinal
+ * contra la construcción de referencia con {@link LocalDateTime} y mapas por
+ * id, sobre los pedidos incluidos en el proyecto: mismas paradas, mismo costo
+ * y mismo stock de depósitos.
+ */
+class SolutionGeneratorParityTest {
+    private static final Path ORDERS_FILE = Path.of("src/main/resources/data/pedidos.20250419/ventas202501.txt");
+    private static final int ORDER_COUNT = 150;
+    private static final double SAFETY_FACTOR = 1.5;
+    private static final double FUEL_THRESHOLD = 0.4;
+
+    /**
+     * Vista comparable de una {@link RouteStop}
+     */
+    private record StopView(boolean orderStop, boolean maintenanceStop, Position position, String orderId,
+            LocalDateTime orderDeadlineTime, int glpDeliverM3, String depotId, int glpLoadM3,
+            LocalDateTime maintenanceTime) {
+        static StopView of(RouteStop stop) {
+            return new StopView(stop.isOrderStop(), stop.isMaintenanceStop(), stop.getPosition(),
+                    stop.getOrderId(), stop.getOrderDeadlineTime(), stop.getGlpDeliverM3(), stop.getDepotId(),
+                    stop.getGlpLoadM3(), stop.getMaintenanceTime());
+        }
+    }
+
+    @Test
+    void builtRoutesMatchReferenceImplementation() throws IOException {
+        // Sub-second and early-morning times exercise the offsets and the depot restrictions by hour
+        LocalDateTime[] referenceTimes = {
+                LocalDateTime.of(2025, 1, 1, 4, 30, 0),
+                LocalDateTime.of(2025, 1, 1, 10, 0, 7, 123_456_789),
+                LocalDateTime.of(2025, 1, 1, 15, 45, 30),
+                LocalDateTime.of(2025, 1, 1, 20, 10, 0, 500_000_000) };
+        SplittableRandom random = new SplittableRandom(23);
+
+        int depotStops = 0;
+        int maintenanceStops = 0;
+        for (LocalDateTime referenceTime : referenceTimes) {
+            SimulationState state = createState(referenceTime);
+            assertFalse(state.getOrders().isEmpty(), "Bundled orders should be loaded");
+            DistanceMatrix distances = DistanceMatrix.manhattan(state);
+
+            for (int i = 0; i < 20; i++) {
+                Map<String, List<DeliveryPart>> assignments = RandomDistributor.createInitialRandomAssignments(state,
+                        random.split());
+                Solution solution = SolutionGenerator.generateSolution(state, assignments, distances);
+
+                Map<String, Integer> depotsGlpState = initialDepotStock(state);
+                Map<String, Integer> stockBefore = new HashMap<>(depotsGlpState);
+                Map<String, Route> referenceRoutes = new HashMap<>();
+                for (Map.Entry<String, List<DeliveryPart>> entry : assignments.entrySet()) {
+                    Vehicle vehicle = state.getVehicleById(entry.getKey());
+                    Route expected = referenceBuildRoute(vehicle, state, state.getCurrentTime(), entry.getValue(),
+                            depotsGlpState, distances);
+                    referenceRoutes.put(entry.getKey(), expected);
+
+                    List<StopView> expectedStops = views(expected);
+                    assertEquals(expectedStops, views(solution.getRoutes().get(entry.getKey())),
+                            "Stops should match the reference for " + entry.getKey() + " at " + referenceTime);
+                    assertEquals(expectedStops, views(SolutionGenerator.buildRoute(vehicle, state,
+                            state.getCurrentTime(), entry.getValue(), depotsGlpState, distances)),
+                            "Map-based buildRoute should match the reference for " + entry.getKey());
+                    depotStops += (int) expectedStops.stream()
+                            .filter(stop -> !stop.orderStop() && !stop.maintenanceStop()).count();
+                    maintenanceStops += (int) expectedStops.stream().filter(StopView::maintenanceStop).count();
+                }
+
+                assertEquals(stockBefore, depotsGlpState, "Building routes should not change the depot stock");
+                assertEquals(new Solution(referenceRoutes, state, distances).getCost(), solution.getCost(),
+                        "Fitness should match the reference routes at " + referenceTime);
+            }
+        }
+        assertTrue(depotStops > 0, "The data should exercise depot stops");
+        assertTrue(maintenanceStops > 0, "The data should exercise maintenance stops");
+    }
+
+    private static SimulationState createState(LocalDateTime referenceTime) throws IOException {
+        LocalDate day = referenceTime.toLocalDate();
+        Depot mainDepot = new Depot(Constants.MAIN_DEPOT_ID, Constants.MAIN_DEPOT_LOCATION, 10000, DepotType.MAIN);
+        Depot northDepot = new Depot(Constants.NORTH_DEPOT_ID, Constants.NORTH_DEPOT_LOCATION, 160,
+                DepotType.AUXILIARY);
+        Depot eastDepot = new Depot(Constants.EAST_DEPOT_ID, Constants.EAST_DEPOT_LOCATION, 160,
+                DepotType.AUXILIARY);
+        // Partially used auxiliary depots, so the stock percentage filters take effect
+        northDepot.serve(70);
+        eastDepot.serve(30);
+
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            vehicles.add(new Vehicle(String.format("TA%02d", i), VehicleType.TA, Constants.MAIN_DEPOT_LOCATION));
+        }
+        for (int i = 1; i <= 4; i++) {
+            Vehicle vehicle = new Vehicle(String.format("TC%02d", i), VehicleType.TC, new Position(30 + i, 20));
+            vehicle.refill(i * 2);
+            vehicle.consumeFuel(i * 4.5);
+            vehicles.add(vehicle);
+        }
+        for (int i = 1; i <= 6; i++) {
+            vehicles.add(new Vehicle(String.format("TD%02d", i), VehicleType.TD, Constants.MAIN_DEPOT_LOCATION));
+        }
+
+        Map<String, LocalDateTime> maintenanceSchedule = new HashMap<>();
+        maintenanceSchedule.put("TA01", referenceTime);
+        maintenanceSchedule.put("TC02", referenceTime.plusHours(2));
+        maintenanceSchedule.put("TD03", referenceTime.plusMinutes(45).plusNanos(250_000_000));
+
+        SimulationState state = new SimulationState(vehicles, maintenanceSchedule, mainDepot,
+                List.of(northDepot, eastDepot), referenceTime);
+        List<Order> orders = FileUtils.loadOrdersForDate(ORDERS_FILE, day, day.plusDays(1));
+        for (Order order : orders.subList(0, Math.min(ORDER_COUNT, orders.size()))) {
+            state.addOrder(order);
+        }
+        return state;
+    }
+
+    private static Map<String, Integer> initialDepotStock(SimulationState state) {
+        Map<String, Integer> depotsGlpState = new HashMap<>();
+        for (Depot depot : state.getAuxDepots()) {
+            depotsGlpState.put(depot.getId(), depot.getCurrentGlpM3());
+        }
+        depotsGlpState.put(state.getMainDepot().getId(), state.getMainDepot().getGlpCapacityM3());
+        return depotsGlpState;
+    }
+
+    private static List<StopView> views(Route route) {
+        return route.stops().stream().map(StopView::of).toList();
+    }
+
+    /**
+     * Construcción de una ruta avanzando el tiempo con {@link LocalDateTime} y
+     * con el stock de depósitos por id, como se hacía antes de usar tiempos
+     * primitivos
+     */
+    private static Route referenceBuildRoute(Vehicle vehicle, SimulationState state, LocalDateTime startTime,
+            List<DeliveryPart> deliveryParts, Map<String, Integer> depotsGlpState, DistanceMatrix distances) {
+        String mainDepotId = state.getMainDepot().getId();
+
+        List<RouteStop> stops = new ArrayList<>();
+        Position currentPosition = vehicle.getCurrentPosition();
+        int currentIndex = distances.indexOf(currentPosition);
+        int currentGlp = vehicle.getCurrentGlpM3();
+        double currentFuel = vehicle.getCurrentFuelGal();
+        double maxFuel = vehicle.getFuelCapacityGal();
+
+        LocalDateTime currentTime = vehicle.getCurrentActionEndTime() != null ? vehicle.getCurrentActionEndTime()
+                : startTime;
+        LocalDateTime scheduledMaintenance = state.getMaintenanceSchedule().get(vehicle.getId());
+
+        for (DeliveryPart deliveryPart : deliveryParts) {
+            if (scheduledMaintenance != null && !scheduledMaintenance.isAfter(currentTime)) {
+                Depot mainDepot = state.getMainDepot();
+                if (!currentPosition.equals(mainDepot.getPosition())) {
+                    int depotIndex = distances.depotIndex(mainDepot.getId());
+                    double distanceToDepot = distances.distance(currentIndex, currentPosition, depotIndex,
+                            mainDepot.getPosition());
+                    currentTime = currentTime.plusMinutes(travelTimeMinutes(distanceToDepot));
+                    currentPosition = mainDepot.getPosition();
+                    currentIndex = depotIndex;
+                }
+
+                stops.add(new RouteStop(currentPosition, mainDepot.getId(), currentTime));
+                currentTime = currentTime.plusHours(Constants.MAINTENANCE_DURATION_HOURS);
+                currentFuel = maxFuel;
+                currentGlp = vehicle.getGlpCapacityM3();
+                scheduledMaintenance = null;
+            }
+
+            if (currentFuel < FUEL_THRESHOLD * maxFuel) {
+                Depot nearestDepot = referenceNearestDepot(currentPosition, currentIndex, 0, state, depotsGlpState,
+                        distances);
+                int depotIndex = distances.depotIndex(nearestDepot.getId());
+                double distanceToDepot = distances.distance(currentIndex, currentPosition, depotIndex,
+                        nearestDepot.getPosition());
+                currentTime = currentTime.plusMinutes(travelTimeMinutes(distanceToDepot)
+                        + reloadMinutes(nearestDepot, mainDepotId));
+                currentFuel = maxFuel;
+                currentPosition = nearestDepot.getPosition();
+                currentIndex = depotIndex;
+                stops.add(new RouteStop(currentPosition, nearestDepot.getId(), 0));
+            }
+
+            if (currentGlp < deliveryPart.getGlpDeliverM3()) {
+                int glpToLoad = vehicle.getGlpCapacityM3() - currentGlp;
+                Depot nearestDepot = referenceNearestDepot(currentPosition, currentIndex, glpToLoad, state,
+                        depotsGlpState, distances);
+                int depotIndex = distances.depotIndex(nearestDepot.getId());
+                double distanceToDepot = distances.distance(currentIndex, currentPosition, depotIndex,
+                        nearestDepot.getPosition());
+                currentTime = currentTime.plusMinutes(travelTimeMinutes(distanceToDepot)
+                        + reloadMinutes(nearestDepot, mainDepotId));
+                currentFuel = maxFuel;
+                currentGlp = vehicle.getGlpCapacityM3();
+                currentPosition = nearestDepot.getPosition();
+                currentIndex = depotIndex;
+                stops.add(new RouteStop(currentPosition, nearestDepot.getId(), glpToLoad));
+            }
+
+            Order order = distances.getOrder(deliveryPart.getOrderId());
+            int orderIndex = distances.orderIndex(order.getId());
+            double distanceToOrder = distances.distance(currentIndex, currentPosition, orderIndex,
+                    order.getPosition());
+            double totalWeight = currentGlp * Constants.GLP_DENSITY_M3_TON + vehicle.getType().getTareWeightTon();
+            currentTime = currentTime.plusMinutes(travelTimeMinutes(distanceToOrder));
+            currentFuel -= distanceToOrder * totalWeight / Constants.CONSUMPTION_FACTOR * SAFETY_FACTOR;
+            currentGlp -= deliveryPart.getGlpDeliverM3();
+            currentPosition = order.getPosition();
+            currentIndex = orderIndex;
+            stops.add(new RouteStop(currentPosition, order.getId(), order.getDeadlineTime(),
+                    deliveryPart.getGlpDeliverM3()));
+            currentTime = currentTime.plusMinutes(Constants.GLP_SERVE_DURATION_MINUTES);
+        }
+
+        Depot returnDepot = referenceNearestDepot(currentPosition, currentIndex, 0, state, depotsGlpState,
+                distances);
+        int finalGlpToLoad = 0;
+        if (returnDepot.getId().equals(mainDepotId)) {
+            finalGlpToLoad = vehicle.getGlpCapacityM3() - currentGlp;
+        }
+        stops.add(new RouteStop(returnDepot.getPosition(), returnDepot.getId(), finalGlpToLoad));
+
+        return new Route(vehicle.getId(), stops, startTime);
+    }
+
+    private static long travelTimeMinutes(double distance) {
+        return Math.round((distance / Constants.VEHICLE_AVG_SPEED) * 60);
+    }
+
+    private static long reloadMinutes(Depot depot, String mainDepotId) {
+        return depot.getId().equals(mainDepotId) ? Constants.RELOAD_REFUEL_DURATION_MINUTES_MAIN_DEPOT
+                : Constants.RELOAD_REFUEL_DURATION_MINUTES;
+    }
+
+    private static Depot referenceNearestDepot(Position position, int positionIndex, int glpRequest,
+            SimulationState state, Map<String, Integer> depotsGlpState, DistanceMatrix distances) {
+        int currentHour = state.getCurrentTime().getHour();
+        if (glpRequest > 0 && currentHour < 6) {
+            return state.getMainDepot();
+        }
+
+        List<Depot> allDepots = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : depotsGlpState.entrySet()) {
+            Depot depot = state.getDepotById(entry.getKey());
+            if (depot == null) {
+                continue;
+            }
+            if (glpRequest > 0) {
+                double remainingGlpPercentage = entry.getValue() / (double) depot.getGlpCapacityM3();
+                if (currentHour < 12 && remainingGlpPercentage < 0.65) {
+                    continue;
+                } else if (currentHour < 18 && remainingGlpPercentage < 0.5) {
+                    continue;
+                }
+            }
+            allDepots.add(depot);
+        }
+        if (!allDepots.contains(state.getMainDepot())) {
+            allDepots.add(state.getMainDepot());
+        }
+
+        Depot nearestDepot = null;
+        double minDistance = Double.MAX_VALUE;
+        for (Depot depot : allDepots) {
+            if (depotsGlpState.get(depot.getId()) < glpRequest) {
+                continue;
+            }
+            double distance = distances.distance(positionIndex, position, distances.depotIndex(depot.getId()),
+                    depot.getPosition());
+            if (distance < minDistance) {
+                minDistance = distance;
+                nearestDepot = depot;
+            }
+        }
+        return nearestDepot;
+    }
+}
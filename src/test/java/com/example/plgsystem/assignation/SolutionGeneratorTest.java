@@ -141,6 +141,35 @@ class SolutionGeneratorTest {
         }
     }
     
+    @Test
+    void generateSolution_shouldReuseUnchangedRoutesFromBase() {
+        SimulationState state = createMockStateForReintegrationTest();
+        state.getVehicleById("V-002").setCurrentFuelGal(100);
+        DistanceMatrix distances = DistanceMatrix.manhattan(state);
+
+        Map<String, List<DeliveryPart>> baseAssignments = new HashMap<>();
+        baseAssignments.put("V-001", new ArrayList<>(List.of(
+                new DeliveryPart("ORD-1", 5, state.getOrderById("ORD-1").getDeadlineTime()))));
+        baseAssignments.put("V-002", new ArrayList<>(List.of(
+                new DeliveryPart("ORD-2", 4, state.getOrderById("ORD-2").getDeadlineTime()))));
+        Solution base = SolutionGenerator.generateSolution(state, baseAssignments, distances);
+
+        // Solo cambia la carga del segundo vehículo
+        Map<String, List<DeliveryPart>> neighbor = DistributionOperations.cloneAssignments(baseAssignments);
+        neighbor.get("V-002").set(0,
+                new DeliveryPart("ORD-2", 6, state.getOrderById("ORD-2").getDeadlineTime()));
+        Solution incremental = SolutionGenerator.generateSolution(state, neighbor, distances, base);
+        Solution full = SolutionGenerator.generateSolution(state,
+                DistributionOperations.cloneAssignments(neighbor), distances);
+
+        assertSame(base.getRoutes().get("V-001"), incremental.getRoutes().get("V-001"),
+                "Untouched vehicle should keep the base route");
+        assertNotSame(base.getRoutes().get("V-002"), incremental.getRoutes().get("V-002"),
+                "Touched vehicle should get a rebuilt route");
+        assertEquals(full.getCost().totalCost(), incremental.getCost().totalCost(), 1e-9,
+                "Reusing routes should not change the solution cost");
+    }
+
     private SimulationState createMockStateForReintegrationTest() {
         // Create vehicles with different fuel states
         Vehicle v1 = new Vehicle("V-001", VehicleType.TA, new Position(0, 0));
@@ -0,0 +1,49 @@
+package com.example.plgsystem.assignation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class TabuMemoryTest {
+
+    @Test
+    void keyIsTabuUntilItExpires() {
+        TabuMemory memory = new TabuMemory(4);
+        long key = MoveAttributes.encode(3, 1, 2);
+
+        memory.add(key, 5, 0);
+
+        assertTrue(memory.contains(key, 0), "Key should be tabu right after being added");
+        assertTrue(memory.contains(key, 4), "Key should be tabu before its expiry iteration");
+        assertFalse(memory.contains(key, 5), "Key should stop being tabu at its expiry iteration");
+        assertFalse(memory.contains(MoveAttributes.encode(3, 2, 1), 0), "Other keys should not be tabu");
+    }
+
+    @Test
+    void manyShortLivedKeysKeepLiveOnesReachable() {
+        TabuMemory memory = new TabuMemory(2);
+        for (int iteration = 0; iteration < 1_000; iteration++) {
+            for (int order = 0; order < 10; order++) {
+                memory.add(MoveAttributes.encode(iteration * 10 + order, 0, 1), iteration + 3, iteration);
+            }
+            for (int order = 0; order < 10; order++) {
+                assertTrue(memory.contains(MoveAttributes.encode(iteration * 10 + order, 0, 1), iteration),
+                        "Keys added in this iteration should be tabu");
+            }
+            if (iteration >= 3) {
+                assertFalse(memory.contains(MoveAttributes.encode((iteration - 3) * 10, 0, 1), iteration),
+                        "Keys older than the tenure should have expired");
+            }
+        }
+    }
+
+    @Test
+    void inverseSwapsVehicles() {
+        long attribute = MoveAttributes.encode(42, 7, MoveAttributes.NONE);
+
+        assertEquals(MoveAttributes.encode(42, MoveAttributes.NONE, 7), MoveAttributes.inverse(attribute),
+                "Inverse should swap origin and destination vehicles");
+        assertEquals(attribute, MoveAttributes.inverse(MoveAttributes.inverse(attribute)),
+                "Inverse of the inverse should be the original attribute");
+    }
+}
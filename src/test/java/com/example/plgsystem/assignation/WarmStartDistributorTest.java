@@ -0,0 +1,86 @@
+package com.example.plgsystem.assignation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.plgsystem.enums.DepotType;
+import com.example.plgsystem.enums.VehicleType;
+import com.example.plgsystem.model.Constants;
+import com.example.plgsystem.model.Depot;
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.model.Vehicle;
+import com.example.plgsystem.operation.Action;
+import com.example.plgsystem.operation.ActionFactory;
+import com.example.plgsystem.operation.VehiclePlan;
+import com.example.plgsystem.simulation.SimulationState;
+
+class WarmStartDistributorTest {
+
+    private SimulationState state;
+    private LocalDateTime referenceTime;
+
+    @BeforeEach
+    void setUp() {
+        referenceTime = LocalDateTime.of(2025, 1, 1, 8, 0);
+        Depot mainDepot = new Depot(Constants.MAIN_DEPOT_ID, Constants.MAIN_DEPOT_LOCATION, 10000, DepotType.MAIN);
+        List<Vehicle> vehicles = List.of(
+                new Vehicle("TA01", VehicleType.TA, new Position(0, 0)),
+                new Vehicle("TD01", VehicleType.TD, new Position(50, 40)));
+        state = new SimulationState(vehicles, mainDepot, new ArrayList<>(), referenceTime);
+
+        state.addOrder(new Order("ORD-A", referenceTime, referenceTime.plusHours(4), 10, new Position(5, 5)));
+        state.addOrder(new Order("ORD-B", referenceTime, referenceTime.plusHours(6), 5, new Position(10, 5)));
+    }
+
+    @Test
+    void pendingServeActionsAreKeptInOrder() {
+        List<Action> actions = List.of(
+                ActionFactory.createServingAction(new Position(10, 5), "ORD-B", 5, referenceTime.plusMinutes(10)),
+                ActionFactory.createServingAction(new Position(5, 5), "ORD-A", 10, referenceTime.plusMinutes(30)));
+        state.addVehiclePlan("TA01", new VehiclePlan("TA01", actions, referenceTime, 0));
+
+        assertTrue(WarmStartDistributor.hasPendingDeliveries(state));
+        Map<String, List<DeliveryPart>> assignments = WarmStartDistributor.createWarmStartAssignments(state);
+
+        List<DeliveryPart> route = assignments.get("TA01");
+        assertEquals(List.of("ORD-B", "ORD-A"), route.stream().map(DeliveryPart::getOrderId).toList(),
+                "Deliveries of the running plan should be recovered in the same order");
+        assertEquals(15, route.stream().mapToInt(DeliveryPart::getGlpDeliverM3).sum());
+        assertTrue(assignments.get("TD01").isEmpty(), "Covered orders should not be assigned again");
+    }
+
+    @Test
+    void uncoveredOrdersAreInsertedNearTheirVehicle() {
+        List<Action> actions = List.of(
+                ActionFactory.createServingAction(new Position(5, 5), "ORD-A", 10, referenceTime.plusMinutes(30)));
+        state.addVehiclePlan("TA01", new VehiclePlan("TA01", actions, referenceTime, 0));
+        state.addOrder(new Order("ORD-C", referenceTime, referenceTime.plusHours(8), 7, new Position(52, 40)));
+
+        Map<String, List<DeliveryPart>> assignments = WarmStartDistributor.createWarmStartAssignments(state);
+
+        assertEquals(7, assignments.get("TD01").stream()
+                .filter(part -> part.getOrderId().equals("ORD-C"))
+                .mapToInt(DeliveryPart::getGlpDeliverM3).sum(),
+                "A new order should go to the vehicle with the smallest detour");
+        int totalAssigned = assignments.values().stream().flatMap(List::stream)
+                .mapToInt(DeliveryPart::getGlpDeliverM3).sum();
+        assertEquals(22, totalAssigned, "All pending GLP should be assigned exactly once");
+    }
+
+    @Test
+    void appliedServeActionsAreIgnored() {
+        Action served = ActionFactory.createServingAction(new Position(5, 5), "ORD-A", 10, referenceTime);
+        served.setEffectApplied(true);
+        state.addVehiclePlan("TA01", new VehiclePlan("TA01", List.of(served), referenceTime, 1));
+
+        assertFalse(WarmStartDistributor.hasPendingDeliveries(state));
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.plgsystem.operation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.plgsystem.model.Position;
+
+class VehiclePlanTest {
+
+    private final LocalDateTime startTime = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+    private List<Action> actions(int lastX) {
+        return List.of(
+                ActionFactory.createDrivingAction(
+                        Arrays.asList(new Position(0, 0), new Position(1, 0), new Position(lastX, 0)),
+                        1.5, startTime, startTime.plusMinutes(3)),
+                ActionFactory.createServingAction(new Position(lastX, 0), "ORD-1", 10, startTime.plusMinutes(18)));
+    }
+
+    @Test
+    void newPlansGetDistinctIdsAndCopiesKeepThem() {
+        VehiclePlan plan = new VehiclePlan("TA01", actions(2), startTime, 0);
+        VehiclePlan other = new VehiclePlan("TA01", actions(2), startTime, 0);
+
+        assertNotNull(plan.getPlanId());
+        assertNotEquals(plan.getPlanId(), other.getPlanId());
+        assertEquals(plan.getPlanId(), plan.copy().getPlanId());
+    }
+
+    @Test
+    void contentHashDependsOnActionsOnly() {
+        VehiclePlan plan = new VehiclePlan("TA01", actions(2), startTime, 0);
+        VehiclePlan same = new VehiclePlan("TA01", actions(2), startTime, 0);
+        VehiclePlan differentPath = new VehiclePlan("TA01", actions(3), startTime, 0);
+
+        assertEquals(plan.getContentHash(), same.getContentHash());
+        assertNotEquals(plan.getContentHash(), differentPath.getContentHash());
+
+        long before = plan.getContentHash();
+        plan.getActions().get(0).setCurrentProgress(0.5);
+        plan.advanceAction();
+        assertEquals(before, plan.getContentHash(), "Progress must not change the hash");
+        assertEquals(before, plan.copy().getContentHash());
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.plgsystem.orchest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.plgsystem.model.Blockage;
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.util.HistoricalDatasets;
+
+class HistoricalDataLoaderTest {
+
+    private static final Path ORDERS_FILE = Paths.get("src/main/resources/data/pedidos.20250419/ventas202501.txt");
+    private static final Path BLOCKAGES_FILE = Paths.get("src/main/resources/data/bloqueos.20250419/202501.bloqueos.txt");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void servesTheSameEventsAsTheTextFiles() {
+        HistoricalDataLoader historical = new HistoricalDataLoader(new HistoricalDatasets(directory));
+        FileDataLoader files = new FileDataLoader();
+        files.registerOrdersFile(2025, 1, ORDERS_FILE);
+        files.registerBlockagesFile(2025, 1, BLOCKAGES_FILE);
+        LocalDate date = LocalDate.of(2025, 1, 10);
+        LocalDateTime noon = date.atTime(12, 0);
+
+        assertEquals(orderKeys(files.loadOrdersForDate(date)), orderKeys(historical.loadOrdersForDate(date)));
+        assertEquals(orderKeys(files.loadOrdersAfter(date, noon)), orderKeys(historical.loadOrdersAfter(date, noon)));
+        assertEquals(blockageKeys(files.loadBlockagesForDate(date)),
+                blockageKeys(historical.loadBlockagesForDate(date)));
+        assertEquals(blockageKeys(files.loadBlockagesEndingAfter(date, noon)),
+                blockageKeys(historical.loadBlockagesEndingAfter(date, noon)));
+        assertFalse(historical.loadOrdersForDate(date).isEmpty());
+    }
+
+    @Test
+    void snapshotsAreReusedAcrossInstances() throws IOException {
+        HistoricalDatasets first = new HistoricalDatasets(directory);
+        assertNotNull(first.getOrders(YearMonth.of(2025, 1)));
+        assertEquals(1, first.getConversions());
+
+        HistoricalDatasets second = new HistoricalDatasets(directory);
+        assertNotNull(second.getOrders(YearMonth.of(2025, 1)));
+        assertEquals(0, second.getConversions());
+        assertEquals(1, second.getReused());
+
+        assertNull(second.getOrders(YearMonth.of(2030, 1)), "Months without bundled data return null");
+    }
+
+    @Test
+    void fileDataLoaderFallsBackForMonthsWithoutUploads() {
+        FileDataLoader files = new FileDataLoader();
+        LocalDate date = LocalDate.of(2025, 1, 2);
+        assertTrue(files.loadOrdersForDate(date).isEmpty());
+
+        files.setFallback(new HistoricalDataLoader(new HistoricalDatasets(directory)));
+        assertFalse(files.loadOrdersForDate(date).isEmpty());
+        assertFalse(files.hasLiveUpdates());
+    }
+
+    private static List<String> orderKeys(List<Event> events) {
+        return events.stream()
+                .map(event -> (Order) event.getData())
+                .map(order -> order.getId() + "|" + order.getDeadlineTime() + "|" + order.getGlpRequestM3() + "|"
+                        + order.getPosition())
+                .toList();
+    }
+
+    private static List<String> blockageKeys(List<Event> events) {
+        return events.stream()
+                .map(event -> (Blockage) event.getData())
+                .map(blockage -> blockage.getStartTime() + "|" + blockage.getEndTime() + "|"
+                        + blockage.getLinePoints())
+                .toList();
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.plgsystem.orchest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.plgsystem.enums.DepotType;
+import com.example.plgsystem.model.Blockage;
+import com.example.plgsystem.model.Constants;
+import com.example.plgsystem.model.Depot;
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.simulation.SimulationState;
+
+class OrchestratorTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+    private final List<Orchestrator> orchestrators = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        orchestrators.forEach(Orchestrator::shutdown);
+    }
+
+    @Test
+    void eventDrivenTicksStopAtTheMinuteOfEachEvent() {
+        Orchestrator orchestrator = createOrchestrator(true);
+        Order order = new Order("ORD-1", START.plusMinutes(24).plusSeconds(30), START.plusHours(6), 10,
+                new Position(10, 10));
+        orchestrator.addEvent(new Event(EventType.ORDER, order.getArrivalTime(), order.getId(), order));
+
+        orchestrator.advanceTick();
+        assertEquals(START.plusMinutes(10), currentTime(orchestrator), "Idle ticks should reach the events check");
+        orchestrator.advanceTick();
+        orchestrator.advanceTick();
+        assertEquals(START.plusMinutes(24), currentTime(orchestrator), "Tick should stop at the event minute");
+        assertTrue(orchestrator.getState().getOrders().isEmpty(), "Order should not arrive before its time");
+
+        orchestrator.advanceTick();
+        assertEquals(START.plusMinutes(30), currentTime(orchestrator));
+        assertSame(order, orchestrator.getState().getOrderById("ORD-1"));
+    }
+
+    @Test
+    void eventDrivenRunMatchesMinuteTicks() {
+        Orchestrator minuteTicks = createOrchestrator(false);
+        Orchestrator eventDriven = createOrchestrator(true);
+        for (Orchestrator orchestrator : orchestrators) {
+            Order order = new Order("ORD-1", START.plusMinutes(17), START.plusHours(6), 10, new Position(10, 10));
+            orchestrator.addEvent(new Event(EventType.ORDER, order.getArrivalTime(), order.getId(), order));
+        }
+
+        int minuteTickCount = advanceUntil(minuteTicks, START.plusMinutes(40));
+        int eventDrivenTickCount = advanceUntil(eventDriven, START.plusMinutes(40));
+
+        assertEquals(40, minuteTickCount);
+        assertTrue(eventDrivenTickCount < minuteTickCount / 3, "Idle minutes should be skipped");
+        assertEquals(currentTime(minuteTicks), currentTime(eventDriven));
+        assertEquals(minuteTicks.getState().getOrders().size(), eventDriven.getState().getOrders().size());
+    }
+
+    @Test
+    void expiredBlockageIsRemovedInTheFollowingMinute() {
+        Orchestrator orchestrator = createOrchestrator(true);
+        LocalDateTime end = START.plusMinutes(12).plusSeconds(30);
+        orchestrator.getState().addBlockage(new Blockage(START, end,
+                List.of(new Position(5, 5), new Position(5, 10))));
+
+        orchestrator.advanceTick();
+        orchestrator.advanceTick();
+
+        assertEquals(START.plusMinutes(13), currentTime(orchestrator));
+        assertTrue(orchestrator.getState().getBlockages().isEmpty(), "Blockage should expire at 08:13");
+    }
+
+    @Test
+    void minuteTicksAdvanceOneMinute() {
+        Orchestrator orchestrator = createOrchestrator(false);
+
+        orchestrator.advanceTick();
+
+        assertFalse(orchestrator.isEventDriven());
+        assertEquals(START.plusMinutes(1), currentTime(orchestrator));
+    }
+
+    @Test
+    void reloadedOrdersAndBlockagesAreNotDuplicated() {
+        ReparsingDataLoader loader = new ReparsingDataLoader(true);
+        Orchestrator orchestrator = createOrchestrator(false, loader);
+
+        advanceUntil(orchestrator, START.plusMinutes(45));
+
+        assertTrue(loader.orderLoads >= 4, "A live loader should be asked on every events check");
+        assertEquals(1, orchestrator.getState().getOrders().size(), "Reloaded order should arrive once");
+        assertEquals(1, orchestrator.getState().getBlockages().size(), "Reparsed blockage should be added once");
+        assertTrue(loader.lastOrdersAfter.isAfter(START), "Loader should only be asked for newer orders");
+    }
+
+    @Test
+    void loaderWithoutLiveUpdatesIsAskedOncePerDay() {
+        ReparsingDataLoader loader = new ReparsingDataLoader(false);
+        Orchestrator orchestrator = createOrchestrator(false, loader);
+
+        advanceUntil(orchestrator, START.plusMinutes(45));
+
+        assertEquals(1, loader.orderLoads);
+        assertEquals(1, loader.blockageLoads);
+        assertEquals(1, orchestrator.getState().getOrders().size());
+        assertEquals(1, orchestrator.getState().getBlockages().size());
+    }
+
+    private Orchestrator createOrchestrator(boolean eventDriven) {
+        return createOrchestrator(eventDriven, new SimpleDataLoader());
+    }
+
+    private Orchestrator createOrchestrator(boolean eventDriven, DataLoader dataLoader) {
+        Depot mainDepot = new Depot(Constants.MAIN_DEPOT_ID, Constants.MAIN_DEPOT_LOCATION, 10000, DepotType.MAIN);
+        SimulationState state = new SimulationState(new ArrayList<>(), mainDepot, new ArrayList<>(), START);
+        Orchestrator orchestrator = new Orchestrator(state, dataLoader, false);
+        orchestrator.setEventDriven(eventDriven, 15);
+        orchestrators.add(orchestrator);
+        return orchestrator;
+    }
+
+    private static int advanceUntil(Orchestrator orchestrator, LocalDateTime time) {
+        int ticks = 0;
+        while (currentTime(orchestrator).isBefore(time)) {
+            orchestrator.advanceTick();
+            ticks++;
+        }
+        return ticks;
+    }
+
+    private static LocalDateTime currentTime(Orchestrator orchestrator) {
+        return orchestrator.getState().getCurrentTime();
+    }
+
+    /**
+     * Returns new instances on every call, as a loader that parses its source again would
+     */
+    private static class ReparsingDataLoader implements DataLoader {
+        private final boolean liveUpdates;
+        private int orderLoads;
+        private int blockageLoads;
+        private LocalDateTime lastOrdersAfter;
+
+        ReparsingDataLoader(boolean liveUpdates) {
+            this.liveUpdates = liveUpdates;
+        }
+
+        @Override
+        public List<Event> loadOrdersForDate(LocalDate date) {
+            Order order = new Order("ORD-1", START.plusMinutes(20), START.plusHours(6), 10, new Position(10, 10));
+            return List.of(new Event(EventType.ORDER, order.getArrivalTime(), order.getId(), order));
+        }
+
+        @Override
+        public List<Event> loadOrdersAfter(LocalDate date, LocalDateTime after) {
+            orderLoads++;
+            lastOrdersAfter = after;
+            return DataLoader.super.loadOrdersAfter(date, after);
+        }
+
+        @Override
+        public List<Event> loadBlockagesForDate(LocalDate date) {
+            blockageLoads++;
+            Blockage blockage = new Blockage(START, START.plusHours(3),
+                    List.of(new Position(5, 5), new Position(5, 10)));
+            return List.of(new Event(EventType.BLOCKAGE, blockage.getStartTime(), blockage.getId().toString(),
+                    blockage));
+        }
+
+        @Override
+        public boolean hasLiveUpdates() {
+            return liveUpdates;
+        }
+    }
+}
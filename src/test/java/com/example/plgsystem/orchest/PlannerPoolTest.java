@@ -0,0 +1,112 @@
+package com.example.plgsystem.orchest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PlannerPoolTest {
+
+    private PlannerPool pool;
+    private CountDownLatch started;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        pool = new PlannerPool(1);
+        started = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        // Occupy the only thread so the following plannings stay queued
+        pool.submit(new Object(), PlanningPriority.SIMULATION, null, () -> {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        pool.shutdown();
+    }
+
+    @Test
+    void queuedPlanningsRunByPriorityThenArrival() throws Exception {
+        List<String> order = new CopyOnWriteArrayList<>();
+        Future<?> batch = pool.submit(new Object(), PlanningPriority.BATCH, null, () -> order.add("batch"));
+        Future<?> first = pool.submit(new Object(), PlanningPriority.SIMULATION, null, () -> order.add("simulation-1"));
+        Future<?> second = pool.submit(new Object(), PlanningPriority.SIMULATION, null, () -> order.add("simulation-2"));
+        Future<?> daily = pool.submit(new Object(), PlanningPriority.DAILY_OPERATIONS, null, () -> order.add("daily"));
+
+        assertEquals(4, pool.getQueueDepth());
+        assertEquals(2, pool.getQueueDepth(PlanningPriority.SIMULATION));
+        assertEquals(1, pool.getQueueDepth(PlanningPriority.DAILY_OPERATIONS));
+
+        release.countDown();
+        for (Future<?> future : List.of(batch, first, second, daily)) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(List.of("daily", "simulation-1", "simulation-2", "batch"), order);
+        assertEquals(0, pool.getQueueDepth());
+        assertEquals(5, pool.getSubmitted());
+        assertTrue(pool.getMaxWaitMs() > 0, "Queued plannings should record their wait");
+    }
+
+    @Test
+    void newerPlanningReplacesTheQueuedOneOfTheSameOwner() throws Exception {
+        Object owner = new Object();
+        List<String> runs = new CopyOnWriteArrayList<>();
+        Future<?> stale = pool.submit(owner, PlanningPriority.SIMULATION, null, () -> runs.add("stale"));
+        Future<?> fresh = pool.submit(owner, PlanningPriority.SIMULATION, null, () -> runs.add("fresh"));
+
+        assertTrue(stale.isCancelled(), "The stale planning should be cancelled");
+        assertEquals(1, pool.getCoalesced());
+        assertEquals(1, pool.getQueueDepth());
+
+        release.countDown();
+        fresh.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("fresh"), runs);
+    }
+
+    @Test
+    void planningThatWaitedPastItsDeadlineIsDiscarded() throws Exception {
+        List<String> runs = new CopyOnWriteArrayList<>();
+        Future<?> late = pool.submit(new Object(), PlanningPriority.DAILY_OPERATIONS, Duration.ZERO,
+                () -> runs.add("late"));
+        Future<?> unbounded = pool.submit(new Object(), PlanningPriority.SIMULATION, null, () -> runs.add("unbounded"));
+        Thread.sleep(5);
+
+        release.countDown();
+        unbounded.get(5, TimeUnit.SECONDS);
+        assertTrue(late.isCancelled(), "A planning past its deadline should be cancelled");
+        assertEquals(1, pool.getExpired());
+        assertEquals(List.of("unbounded"), runs);
+    }
+
+    @Test
+    void cancelQueuedRemovesOnlyThatOwnersPlanning() throws Exception {
+        Object owner = new Object();
+        Future<?> removed = pool.submit(owner, PlanningPriority.SIMULATION, null, () -> { });
+        Future<?> kept = pool.submit(new Object(), PlanningPriority.SIMULATION, null, () -> { });
+
+        pool.cancelQueued(owner);
+        assertTrue(removed.isCancelled());
+        assertEquals(1, pool.getQueueDepth());
+
+        release.countDown();
+        kept.get(5, TimeUnit.SECONDS);
+        assertFalse(kept.isCancelled());
+    }
+}
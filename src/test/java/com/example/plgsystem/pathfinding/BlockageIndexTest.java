@@ -0,0 +1,125 @@
+package com.example.plgsystem.pathfinding;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.plgsystem.model.Blockage;
+import com.example.plgsystem.model.Constants;
+import com.example.plgsystem.model.Position;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlockageIndexTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Test
+    public void testBlockedOnlyInsideActiveInterval() {
+        // Given
+        Blockage blockage = new Blockage(BASE.plusMinutes(30), BASE.plusHours(3).plusMinutes(15),
+                Arrays.asList(new Position(10, 10), new Position(10, 20), new Position(20, 20)));
+        BlockageIndex index = new BlockageIndex();
+
+        // When
+        index.add(blockage);
+
+        // Then
+        assertTrue(index.isBlocked(new Position(10, 15), BASE.plusHours(2)), "Vertical segment should be blocked");
+        assertTrue(index.isBlocked(new Position(15, 20), BASE.plusMinutes(30)), "Start time is inclusive");
+        assertTrue(index.isBlocked(new Position(20, 20), BASE.plusHours(3).plusMinutes(15)), "End time is inclusive");
+        assertFalse(index.isBlocked(new Position(10, 15), BASE.plusMinutes(29)), "Not active before start");
+        assertFalse(index.isBlocked(new Position(10, 15), BASE.plusHours(3).plusMinutes(16)), "Not active after end");
+        assertFalse(index.isBlocked(new Position(11, 15), BASE.plusHours(2)), "Node outside the polyline");
+    }
+
+    @Test
+    public void testRemoveRebuildsAffectedBuckets() {
+        // Given
+        Blockage first = new Blockage(BASE, BASE.plusHours(5),
+                Arrays.asList(new Position(5, 5), new Position(5, 10)));
+        Blockage second = new Blockage(BASE.plusHours(1), BASE.plusHours(2),
+                Arrays.asList(new Position(5, 8), new Position(9, 8)));
+        BlockageIndex index = new BlockageIndex();
+        index.add(first);
+        index.add(second);
+
+        // When
+        index.remove(first);
+
+        // Then
+        assertEquals(1, index.size());
+        assertFalse(index.isBlocked(new Position(5, 6), BASE.plusHours(1).plusMinutes(30)),
+                "Removed blockage should no longer block");
+        assertTrue(index.isBlocked(new Position(5, 8), BASE.plusHours(1).plusMinutes(30)),
+                "Remaining blockage should still block its own nodes");
+    }
+
+    @Test
+    public void testFractionalPositionsUseExactCheck() {
+        // Given
+        Blockage blockage = new Blockage(BASE, BASE.plusHours(4),
+                Arrays.asList(new Position(30, 10), new Position(30, 20)));
+        BlockageIndex index = new BlockageIndex();
+        index.add(blockage);
+
+        // Then
+        assertTrue(index.isBlocked(new Position(30, 12.5), BASE.plusHours(1)));
+        assertFalse(index.isBlocked(new Position(30.5, 12), BASE.plusHours(1)));
+    }
+
+    @Test
+    public void testMatchesLinearScan() {
+        // Given
+        Random random = new Random(42);
+        List<Blockage> blockages = new ArrayList<>();
+        BlockageIndex index = new BlockageIndex();
+        for (int i = 0; i < 200; i++) {
+            Blockage blockage = randomBlockage(random);
+            blockages.add(blockage);
+            index.add(blockage);
+        }
+        // Retirar algunos para ejercitar la actualización incremental
+        for (int i = 0; i < 50; i++) {
+            index.remove(blockages.remove(random.nextInt(blockages.size())));
+        }
+
+        // Then
+        for (int i = 0; i < 20000; i++) {
+            Position position = new Position(random.nextInt(Constants.CITY_X + 1),
+                    random.nextInt(Constants.CITY_Y + 1));
+            LocalDateTime time = BASE.plusSeconds(random.nextInt(3 * 24 * 3600));
+            boolean expected = blockages.stream()
+                    .anyMatch(b -> b.isActiveAt(time) && b.isPositionBlocked(position));
+            assertEquals(expected, index.isBlocked(position, time),
+                    "Index disagrees with linear scan at " + position + " " + time);
+
+            int cell = BlockageIndex.cellId((int) position.getX(), (int) position.getY());
+            assertEquals(expected, index.isBlocked(cell, BlockageIndex.toEpochSecond(time)),
+                    "Primitive query disagrees with linear scan at " + position + " " + time);
+        }
+    }
+
+    private static Blockage randomBlockage(Random random) {
+        LocalDateTime start = BASE.plusMinutes(random.nextInt(2 * 24 * 60));
+        LocalDateTime end = start.plusMinutes(1 + random.nextInt(24 * 60));
+        List<Position> points = new ArrayList<>();
+        int x = random.nextInt(Constants.CITY_X + 1);
+        int y = random.nextInt(Constants.CITY_Y + 1);
+        points.add(new Position(x, y));
+        int segments = 1 + random.nextInt(4);
+        for (int s = 0; s < segments; s++) {
+            if (random.nextBoolean()) {
+                x = random.nextInt(Constants.CITY_X + 1);
+            } else {
+                y = random.nextInt(Constants.CITY_Y + 1);
+            }
+            points.add(new Position(x, y));
+        }
+        return new Blockage(start, end, points);
+    }
+}
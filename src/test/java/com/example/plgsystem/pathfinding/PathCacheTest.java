@@ -0,0 +1,117 @@
+package com.example.plgsystem.pathfinding;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.plgsystem.enums.DepotType;
+import com.example.plgsystem.model.Blockage;
+import com.example.plgsystem.model.Constants;
+import com.example.plgsystem.model.Depot;
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.simulation.SimulationState;
+
+public class PathCacheTest {
+
+    private SimulationState state;
+    private LocalDateTime referenceTime;
+    private PathCache cache;
+
+    @BeforeEach
+    void setUp() {
+        referenceTime = LocalDateTime.of(2025, 1, 1, 8, 0);
+        Depot mainDepot = new Depot(Constants.MAIN_DEPOT_ID, Constants.MAIN_DEPOT_LOCATION, 10000, DepotType.MAIN);
+        state = new SimulationState(new ArrayList<>(), mainDepot, new ArrayList<>(), referenceTime);
+        cache = new PathCache(2);
+    }
+
+    @Test
+    void repeatedLegInSameBucketIsServedFromCache() {
+        Position start = new Position(0, 0);
+        Position end = new Position(10, 0);
+
+        List<Position> first = cache.findPath(state, start, end, referenceTime);
+        List<Position> second = cache.findPath(state, start, end, referenceTime.plusMinutes(20));
+
+        assertEquals(first, second, "Cached path should match the computed path");
+        assertEquals(1, cache.getHits(), "Second lookup should hit");
+        assertEquals(1, cache.getMisses(), "First lookup should miss");
+        assertNotSame(first.get(1), second.get(1), "Cached positions should be returned as copies");
+    }
+
+    @Test
+    void blockageInWindowInvalidatesEntry() {
+        Position start = new Position(0, 0);
+        Position end = new Position(10, 0);
+        cache.findPath(state, start, end, referenceTime);
+
+        state.addBlockage(new Blockage(referenceTime, referenceTime.plusHours(2),
+                Arrays.asList(new Position(5, 0), new Position(5, 3))));
+        List<Position> rerouted = cache.findPath(state, start, end, referenceTime);
+
+        assertEquals(1, cache.getInvalidations(), "New blockage should invalidate the cached leg");
+        assertFalse(rerouted.contains(new Position(5, 0)), "New path should avoid the blockage");
+    }
+
+    @Test
+    void blockageOutsideWindowKeepsEntry() {
+        Position start = new Position(0, 0);
+        Position end = new Position(10, 0);
+        cache.findPath(state, start, end, referenceTime);
+
+        state.addBlockage(new Blockage(referenceTime.plusDays(1), referenceTime.plusDays(1).plusHours(2),
+                Arrays.asList(new Position(5, 0), new Position(5, 3))));
+        cache.findPath(state, start, end, referenceTime);
+
+        assertEquals(1, cache.getHits(), "Blockage in another window should not invalidate the leg");
+        assertEquals(0, cache.getInvalidations());
+    }
+
+    @Test
+    void liftedBlockageWithinBucketIsNotServedAsLongerDetour() {
+        Position start = new Position(0, 0);
+        Position end = new Position(10, 0);
+        state.addBlockage(new Blockage(referenceTime, referenceTime.plusMinutes(10),
+                Arrays.asList(new Position(5, 0), new Position(5, 3))));
+
+        List<Position> detour = cache.findPath(state, start, end, referenceTime);
+        LocalDateTime later = referenceTime.plusMinutes(20);
+        List<Position> cached = cache.findPath(state, start, end, later);
+
+        assertTrue(detour.size() > 11, "The first search should detour around the wall");
+        assertEquals(PathFinder.findPath(state, start, end, later).size(), cached.size(),
+                "Cached leg should be as short as a fresh search once the blockage lifts");
+        assertEquals(11, cached.size());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    void unchangedBlockageKeepsDetourCached() {
+        Position start = new Position(0, 0);
+        Position end = new Position(10, 0);
+        state.addBlockage(new Blockage(referenceTime, referenceTime.plusHours(3),
+                Arrays.asList(new Position(5, 0), new Position(5, 3))));
+
+        List<Position> first = cache.findPath(state, start, end, referenceTime);
+        List<Position> second = cache.findPath(state, start, end, referenceTime.plusMinutes(20));
+
+        assertEquals(first, second);
+        assertEquals(1, cache.getHits(), "A blockage active across both departures should not force a search");
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        cache.findPath(state, new Position(0, 0), new Position(1, 0), referenceTime);
+        cache.findPath(state, new Position(0, 0), new Position(2, 0), referenceTime);
+        cache.findPath(state, new Position(0, 0), new Position(3, 0), referenceTime);
+
+        assertEquals(2, cache.size(), "Cache should respect its capacity");
+        assertEquals(1, cache.getEvictions(), "One entry should have been evicted");
+    }
+}
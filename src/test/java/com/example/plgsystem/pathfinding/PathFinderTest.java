@@ -0,0 +1,157 @@
+package com.example.plgsystem.pathfinding;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.plgsystem.enums.DepotType;
+import com.example.plgsystem.model.Blockage;
+import com.example.plgsystem.model.Constants;
+import com.example.plgsystem.model.Depot;
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.simulation.SimulationState;
+
+public class PathFinderTest {
+
+    private SimulationState state;
+    private LocalDateTime referenceTime;
+
+    @BeforeEach
+    void setUp() {
+        referenceTime = LocalDateTime.of(2025, 1, 1, 0, 0);
+        Depot mainDepot = new Depot(Constants.MAIN_DEPOT_ID, Constants.MAIN_DEPOT_LOCATION, 10000, DepotType.MAIN);
+        state = new SimulationState(new ArrayList<>(), mainDepot, new ArrayList<>(), referenceTime);
+
+        Random random = new Random(7);
+        for (int i = 0; i < 150; i++) {
+            LocalDateTime start = referenceTime.plusMinutes(random.nextInt(600));
+            List<Position> points = new ArrayList<>();
+            int x = random.nextInt(Constants.CITY_X + 1);
+            int y = random.nextInt(Constants.CITY_Y + 1);
+            points.add(new Position(x, y));
+            for (int s = 0; s < 3; s++) {
+                if (random.nextBoolean()) {
+                    x = random.nextInt(Constants.CITY_X + 1);
+                } else {
+                    y = random.nextInt(Constants.CITY_Y + 1);
+                }
+                points.add(new Position(x, y));
+            }
+            state.addBlockage(new Blockage(start, start.plusMinutes(30 + random.nextInt(300)), points));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        PathFinder.configure(PathFinder.Engine.LEGACY);
+    }
+
+    @Test
+    void primitiveEngineFindsPathsOfSameLengthAsLegacy() {
+        Random random = new Random(11);
+        for (int i = 0; i < 500; i++) {
+            Position start = new Position(random.nextInt(Constants.CITY_X + 1), random.nextInt(Constants.CITY_Y + 1));
+            Position end = new Position(random.nextInt(Constants.CITY_X + 1), random.nextInt(Constants.CITY_Y + 1));
+            LocalDateTime departure = referenceTime.plusMinutes(random.nextInt(600));
+
+            PathFinder.configure(PathFinder.Engine.LEGACY);
+            List<Position> legacy = PathFinder.findPath(state, start, end, departure);
+            PathFinder.configure(PathFinder.Engine.PRIMITIVE);
+            List<Position> primitive = PathFinder.findPath(state, start, end, departure);
+
+            assertEquals(legacy.size(), primitive.size(),
+                    "Both engines should find paths of equal length from " + start + " to " + end);
+            assertValidPath(primitive, start, end, departure);
+        }
+    }
+
+    @Test
+    void primitiveEngineFallsBackForFractionalPositions() {
+        PathFinder.configure(PathFinder.Engine.PRIMITIVE);
+        SimulationState openCity = new SimulationState(new ArrayList<>(), state.getMainDepot(), new ArrayList<>(),
+                referenceTime);
+        Position start = new Position(10.5, 10);
+        Position end = new Position(20, 20);
+
+        List<Position> path = PathFinder.findPath(openCity, start, end, referenceTime);
+
+        assertFalse(path.isEmpty(), "Fractional start should still produce a path");
+        assertEquals(start, path.get(0), "Path should begin at the start position");
+        assertEquals(end, path.get(path.size() - 1), "Path should end at the destination");
+    }
+
+    @Test
+    void findPathsFromMatchesPairwiseSearch() {
+        Random random = new Random(13);
+        for (int i = 0; i < 50; i++) {
+            Position origin = new Position(random.nextInt(Constants.CITY_X + 1), random.nextInt(Constants.CITY_Y + 1));
+            LocalDateTime departure = referenceTime.plusMinutes(random.nextInt(600));
+            List<Position> targets = new ArrayList<>();
+            for (int t = 0; t < 20; t++) {
+                targets.add(new Position(random.nextInt(Constants.CITY_X + 1), random.nextInt(Constants.CITY_Y + 1)));
+            }
+            targets.add(origin);
+
+            PathTree tree = PathFinder.findPathsFrom(state, origin, targets, departure);
+
+            for (Position target : targets) {
+                List<Position> expected = PathFinder.findPath(state, origin, target, departure);
+                int expectedDistance = expected.isEmpty() ? -1 : expected.size() - 1;
+                assertEquals(expectedDistance, tree.getDistance(target),
+                        "Batch distance should match findPath from " + origin + " to " + target);
+                List<Position> path = tree.getPath(target);
+                assertEquals(expected.size(), path.size(), "Batch path length should match findPath");
+                assertValidPath(path, origin, target, departure);
+            }
+        }
+    }
+
+    @Test
+    void findPathsFromKeepsGridTargetsInOneSearchWithOffGridTargetsAndNanos() {
+        PathFinder.configure(PathFinder.Engine.PRIMITIVE);
+        Random random = new Random(17);
+        for (int i = 0; i < 20; i++) {
+            Position origin = new Position(random.nextInt(Constants.CITY_X + 1), random.nextInt(Constants.CITY_Y + 1));
+            LocalDateTime departure = referenceTime.plusMinutes(random.nextInt(600)).plusNanos(250_000_000);
+            List<Position> targets = new ArrayList<>();
+            for (int t = 0; t < 10; t++) {
+                targets.add(new Position(random.nextInt(Constants.CITY_X + 1), random.nextInt(Constants.CITY_Y + 1)));
+            }
+            targets.add(new Position(random.nextInt(Constants.CITY_X) + 0.5, random.nextInt(Constants.CITY_Y + 1)));
+
+            PathTree tree = PathFinder.findPathsFrom(state, origin, targets, departure);
+
+            for (Position target : targets) {
+                List<Position> expected = PathFinder.findPath(state, origin, target, departure);
+                assertEquals(expected.isEmpty() ? -1 : expected.size() - 1, tree.getDistance(target),
+                        "Mixed batch distance should match findPath from " + origin + " to " + target);
+                assertEquals(expected.size(), tree.getPath(target).size());
+                assertValidPath(tree.getPath(target), origin, target, departure);
+            }
+        }
+    }
+
+    private void assertValidPath(List<Position> path, Position start, Position end, LocalDateTime departure) {
+        if (path.isEmpty()) {
+            return;
+        }
+        assertEquals(start, path.get(0), "Path should begin at the start position");
+        assertEquals(end, path.get(path.size() - 1), "Path should end at the destination");
+        for (int step = 1; step < path.size(); step++) {
+            assertEquals(1.0, path.get(step - 1).distanceTo(path.get(step)), 1e-9,
+                    "Consecutive nodes should be adjacent");
+            if (step < path.size() - 1) {
+                LocalDateTime arrival = departure.plusSeconds(step * PathFinder.SECONDS_PER_STEP);
+                assertFalse(state.isPositionBlockedAt(path.get(step), arrival),
+                        "Intermediate nodes should not be blocked on arrival");
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.plgsystem.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.plgsystem.dto.BatchFileDTO;
+import com.example.plgsystem.dto.BatchRunDTO;
+import com.example.plgsystem.dto.BatchScenarioDTO;
+import com.example.plgsystem.dto.BatchScenarioResultDTO;
+import com.example.plgsystem.enums.SimulationStatus;
+
+class BatchSimulationServiceTest {
+
+    private static final String ORDERS = String.join("\n",
+            "01d00h24m:16,13,c-198,3m3,4h",
+            "01d00h48m:5,18,c-12,9m3,17h",
+            "01d01h12m:63,13,c-83,2m3,9h",
+            "01d01h36m:4,6,c-37,2m3,16h",
+            "01d02h00m:54,16,c-40,9m3,7h",
+            "01d02h24m:40,26,c-110,4m3,8h");
+
+    private BatchSimulationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BatchSimulationService(2, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void batchRunsScenariosAndReportsKpis() throws Exception {
+        MultipartFile file = new MockMultipartFile("files", "ventas202501.txt", "text/plain",
+                ORDERS.getBytes(StandardCharsets.UTF_8));
+        List<BatchScenarioDTO> scenarios = List.of(scenario("small", 1, 1), scenario("large", 2, 4));
+
+        BatchRunDTO submitted = service.submitBatch(scenarios, List.of(file));
+        assertEquals(SimulationStatus.RUNNING, submitted.getStatus());
+
+        BatchRunDTO batch = awaitBatch(submitted);
+        assertEquals(SimulationStatus.FINISHED, batch.getStatus());
+        for (BatchScenarioResultDTO result : batch.getScenarios()) {
+            assertEquals(SimulationStatus.FINISHED, result.getStatus(), "Scenario failed: " + result.getError());
+            assertFalse(result.getSimulatedEndTime().isBefore(LocalDateTime.of(2025, 1, 1, 8, 0)));
+            assertEquals(6, result.getDeliveredOrders() + result.getPendingOrders(),
+                    "Every loaded order should be delivered or pending");
+            assertTrue(result.getDeliveredOrders() > 0, "Some orders should be delivered");
+            assertTrue(result.getFuelConsumedGal() > 0, "Deliveries should consume fuel");
+            assertTrue(result.getSolverRuns() > 0);
+            assertTrue(result.getTicks() < 8 * 60, "Event-driven ticks should skip idle minutes");
+        }
+    }
+
+    @Test
+    void queuedScenariosAndEvictionOfFinishedBatches() throws Exception {
+        BatchSimulationService evicting = new BatchSimulationService(1, 0);
+        try {
+            MultipartFile file = new MockMultipartFile("files", "ventas202501.txt", "text/plain",
+                    ORDERS.getBytes(StandardCharsets.UTF_8));
+            BatchRunDTO submitted = evicting.submitBatch(List.of(scenario("first", 1, 1), scenario("second", 1, 1)),
+                    List.of(file));
+            assertEquals(SimulationStatus.QUEUED, submitted.getScenarios().get(1).getStatus(),
+                    "With one worker the second scenario should wait queued");
+
+            long deadline = System.currentTimeMillis() + 120_000;
+            BatchRunDTO batch = evicting.getBatch(submitted.getId());
+            while (batch != null && System.currentTimeMillis() < deadline) {
+                assertNotEquals(SimulationStatus.FINISHED, batch.getStatus(),
+                        "A finished batch should be evicted on read without retention");
+                Thread.sleep(100);
+                batch = evicting.getBatch(submitted.getId());
+            }
+            assertNull(batch, "The finished batch should be evicted");
+        } finally {
+            evicting.shutdown();
+        }
+    }
+
+    @Test
+    void invalidScenariosAreRejected() {
+        BatchScenarioDTO emptyFleet = scenario("empty", 0, 0);
+        assertThrows(IllegalArgumentException.class, () -> service.submitBatch(List.of(emptyFleet), List.of()));
+
+        BatchScenarioDTO missingFile = scenario("missing", 1, 1);
+        assertThrows(IllegalArgumentException.class, () -> service.submitBatch(List.of(missingFile), List.of()));
+
+        assertThrows(IllegalArgumentException.class, () -> service.submitBatch(List.of(), List.of()));
+    }
+
+    private static BatchScenarioDTO scenario(String name, int taVehicles, int tdVehicles) {
+        BatchScenarioDTO scenario = new BatchScenarioDTO();
+        scenario.setName(name);
+        scenario.setStartDateTime(LocalDateTime.of(2025, 1, 1, 0, 0));
+        scenario.setEndDateTime(LocalDateTime.of(2025, 1, 1, 8, 0));
+        scenario.setTaVehicles(taVehicles);
+        scenario.setTdVehicles(tdVehicles);
+        scenario.setOrderFiles(List.of(new BatchFileDTO("ventas202501.txt", 2025, 1)));
+        scenario.setSolverTimeBudgetMs(100L);
+        return scenario;
+    }
+
+    private BatchRunDTO awaitBatch(BatchRunDTO submitted) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 120_000;
+        BatchRunDTO batch = service.getBatch(submitted.getId());
+        while (batch.getStatus() != SimulationStatus.FINISHED && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            batch = service.getBatch(submitted.getId());
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.plgsystem.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.plgsystem.dto.SimulationStateDTO;
+import com.example.plgsystem.dto.StateDeltaDTO;
+import com.example.plgsystem.dto.VehiclePlanDTO;
+import com.example.plgsystem.enums.DepotType;
+import com.example.plgsystem.enums.SimulationStatus;
+import com.example.plgsystem.enums.SimulationType;
+import com.example.plgsystem.enums.VehicleType;
+import com.example.plgsystem.model.Blockage;
+import com.example.plgsystem.model.Constants;
+import com.example.plgsystem.model.Depot;
+import com.example.plgsystem.model.Maintenance;
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.model.Vehicle;
+import com.example.plgsystem.operation.Action;
+import com.example.plgsystem.operation.ActionFactory;
+import com.example.plgsystem.operation.VehiclePlan;
+import com.example.plgsystem.orchest.SimpleDataLoader;
+import com.example.plgsystem.simulation.Simulation;
+import com.example.plgsystem.simulation.SimulationState;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class SimulationStateStreamTest {
+
+    private SimulationState state;
+    private SimulationStateStream stream;
+    private LocalDateTime referenceTime;
+
+    @BeforeEach
+    void setUp() {
+        referenceTime = LocalDateTime.of(2025, 1, 1, 8, 0);
+        Depot mainDepot = new Depot(Constants.MAIN_DEPOT_ID, Constants.MAIN_DEPOT_LOCATION, 10000, DepotType.MAIN);
+        List<Vehicle> vehicles = List.of(
+                new Vehicle("TA01", VehicleType.TA, new Position(0, 0)),
+                new Vehicle("TD01", VehicleType.TD, new Position(50, 40)));
+        state = new SimulationState(vehicles, mainDepot, new ArrayList<>(), referenceTime);
+        state.addOrder(new Order("ORD-A", referenceTime, referenceTime.plusHours(4), 10, new Position(5, 5)));
+        state.addOrder(new Order("ORD-B", referenceTime, referenceTime.plusHours(6), 5, new Position(10, 5)));
+        stream = new SimulationStateStream("sim");
+    }
+
+    @Test
+    void firstDeltaContainsWholeStateAndNextOneIsEmpty() {
+        StateDeltaDTO first = stream.nextDelta(state, SimulationStatus.RUNNING);
+        assertEquals(1, first.getSequence());
+        assertEquals(2, first.getVehicles().size());
+        assertEquals(1, first.getDepots().size());
+        assertEquals(2, first.getOrders().size());
+        assertEquals(2, first.getPendingOrdersCount());
+
+        StateDeltaDTO second = stream.nextDelta(state, SimulationStatus.RUNNING);
+        assertEquals(2, second.getSequence());
+        assertTrue(second.getVehicles().isEmpty(), "Unchanged vehicles must not be resent");
+        assertTrue(second.getDepots().isEmpty());
+        assertTrue(second.getOrders().isEmpty());
+        assertNull(second.getActiveIncidents(), "Unchanged lists stay absent");
+        assertEquals(2, second.getPendingOrdersCount(), "Counters are sent on every delta");
+    }
+
+    @Test
+    void listsThatBecomeEmptyAreSentEmpty() throws Exception {
+        state.addMaintenance(new Maintenance(state.getVehicleById("TD01"), referenceTime.toLocalDate()));
+        state.getMaintenanceSchedule().put("TD01", referenceTime.plusHours(2));
+        StateDeltaDTO first = stream.nextDelta(state, SimulationStatus.RUNNING);
+        assertEquals(1, first.getScheduledMaintenances().size());
+        assertEquals(1, first.getMaintenanceSchedule().size());
+
+        state.getMaintenances().clear();
+        state.getMaintenanceSchedule().clear();
+        StateDeltaDTO cleared = stream.nextDelta(state, SimulationStatus.RUNNING);
+        assertEquals(List.of(), cleared.getScheduledMaintenances(), "A cleared list must be sent as empty");
+        assertEquals(Map.of(), cleared.getMaintenanceSchedule(), "A cleared schedule must be sent as empty");
+        assertNull(cleared.getActiveIncidents(), "Unchanged lists stay absent");
+
+        JsonNode json = new ObjectMapper().findAndRegisterModules().valueToTree(cleared);
+        assertTrue(json.get("scheduledMaintenances").isEmpty(), "Empty maintenances must be serialized");
+        assertTrue(json.get("maintenanceSchedule").isEmpty(), "Empty schedule must be serialized");
+        assertFalse(json.has("activeIncidents"), "Unchanged lists must not be serialized");
+        assertFalse(json.has("vehicles"), "Empty change lists must not be serialized");
+    }
+
+    @Test
+    void onlyChangedVehiclesAndOrdersAreSent() {
+        stream.nextDelta(state, SimulationStatus.RUNNING);
+
+        state.getVehicleById("TA01").setCurrentPosition(new Position(1, 0));
+        Order delivered = state.getOrderById("ORD-A");
+        delivered.recordDelivery(10, state.getVehicleById("TA01"), referenceTime.plusMinutes(5));
+        state.addOrder(new Order("ORD-C", referenceTime, referenceTime.plusHours(4), 3, new Position(2, 2)));
+
+        StateDeltaDTO delta = stream.nextDelta(state, SimulationStatus.RUNNING);
+        assertEquals(1, delta.getVehicles().size());
+        assertEquals("TA01", delta.getVehicles().get(0).getId());
+        assertEquals(new Position(1, 0), delta.getVehicles().get(0).getCurrentPosition());
+        assertEquals(List.of("ORD-A"), delta.getRemovedOrderIds());
+        assertEquals(1, delta.getOrders().size());
+        assertEquals("ORD-C", delta.getOrders().get(0).getId());
+        assertEquals(2, delta.getPendingOrdersCount());
+    }
+
+    @Test
+    void plansArePublishedOnceAndThenOnlyProgress() {
+        List<Action> actions = List.of(
+                ActionFactory.createServingAction(new Position(5, 5), "ORD-A", 10, referenceTime.plusMinutes(30)),
+                ActionFactory.createServingAction(new Position(10, 5), "ORD-B", 5, referenceTime.plusMinutes(60)));
+        VehiclePlan plan = new VehiclePlan("TA01", actions, referenceTime, 0);
+        state.addVehiclePlan("TA01", plan);
+
+        List<VehiclePlanDTO> installed = stream.nextPlans(state);
+        assertEquals(1, installed.size());
+        assertEquals(plan.getPlanId().toString(), installed.get(0).getPlanId());
+        StateDeltaDTO first = stream.nextDelta(state, SimulationStatus.RUNNING);
+        assertEquals(1, first.getPlanProgress().size());
+        assertEquals(plan.getPlanId().toString(), first.getPlanProgress().get(0).getPlanId());
+
+        plan.advanceAction();
+        assertTrue(stream.nextPlans(state).isEmpty(), "An installed plan must not be republished");
+        StateDeltaDTO progressed = stream.nextDelta(state, SimulationStatus.RUNNING);
+        assertEquals(1, progressed.getPlanProgress().size());
+        assertEquals(1, progressed.getPlanProgress().get(0).getActionIndex());
+        assertTrue(stream.nextDelta(state, SimulationStatus.RUNNING).getPlanProgress().isEmpty(),
+                "No progress, nothing to send");
+
+        VehiclePlan replacement = new VehiclePlan("TA01", actions.subList(1, 2), referenceTime, 0);
+        state.addVehiclePlan("TA01", replacement);
+        installed = stream.nextPlans(state);
+        assertEquals(1, installed.size());
+        assertEquals(replacement.getPlanId().toString(), installed.get(0).getPlanId());
+        assertEquals(replacement.getPlanId().toString(),
+                stream.nextDelta(state, SimulationStatus.RUNNING).getPlanProgress().get(0).getPlanId());
+
+        state.removeVehiclePlan("TA01");
+        assertTrue(stream.nextPlans(state).isEmpty());
+        StateDeltaDTO removed = stream.nextDelta(state, SimulationStatus.RUNNING);
+        assertEquals(List.of("TA01"), removed.getRemovedPlanVehicleIds());
+    }
+
+    @Test
+    void perTickFramesCarryPlanActionsOnlyOnInstall() throws Exception {
+        List<Action> actions = List.of(
+                ActionFactory.createServingAction(new Position(5, 5), "ORD-A", 10, referenceTime.plusMinutes(30)),
+                ActionFactory.createServingAction(new Position(10, 5), "ORD-B", 5, referenceTime.plusMinutes(60)));
+        state.addVehiclePlan("TA01", new VehiclePlan("TA01", actions, referenceTime, 0));
+        Simulation simulation = new Simulation(state, SimulationType.CUSTOM, new SimpleDataLoader());
+        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+        try {
+            SimulationUpdate installed = SimulationUpdate.next(simulation, stream, false);
+            assertEquals(1, installed.plans().size());
+            assertEquals(2, installed.plans().get(0).getActions().size());
+            assertNull(installed.summary().getState(), "The per-tick summary must not carry the state");
+            assertFalse(mapper.valueToTree(installed.summary()).has("state"));
+            assertNull(installed.fullState());
+
+            SimulationUpdate next = SimulationUpdate.next(simulation, stream, false);
+            assertTrue(next.plans().isEmpty(), "An installed plan must not be republished");
+            String frames = mapper.writeValueAsString(next.summary()) + mapper.writeValueAsString(next.delta());
+            assertFalse(frames.contains("\"actions\""), "Plan actions must not be resent on later ticks");
+        } finally {
+            simulation.getOrchestrator().shutdown();
+        }
+    }
+
+    @Test
+    void copiedPlanKeepsIdAndIsNotRepublished() {
+        VehiclePlan plan = new VehiclePlan("TA01", List.of(
+                ActionFactory.createServingAction(new Position(5, 5), "ORD-A", 10, referenceTime.plusMinutes(30))),
+                referenceTime, 0);
+        state.addVehiclePlan("TA01", plan);
+        stream.nextPlans(state);
+
+        // Applying a future state installs copies of the plans that were not replanned
+        state.addVehiclePlan("TA01", plan.copy());
+        assertTrue(stream.nextPlans(state).isEmpty());
+    }
+
+    @Test
+    void blockagesAreAddedAndRemovedByActivity() {
+        Blockage blockage = new Blockage(referenceTime, referenceTime.plusMinutes(30),
+                List.of(new Position(0, 1), new Position(5, 1)));
+        state.addBlockage(blockage);
+
+        StateDeltaDTO first = stream.nextDelta(state, SimulationStatus.RUNNING);
+        assertEquals(1, first.getAddedBlockages().size());
+
+        state.advanceTime(Duration.ofMinutes(31));
+        StateDeltaDTO expired = stream.nextDelta(state, SimulationStatus.RUNNING);
+        assertEquals(List.of(blockage.getId()), expired.getRemovedBlockageIds());
+        assertTrue(expired.getAddedBlockages().isEmpty());
+    }
+
+    @Test
+    void snapshotCarriesSequenceOfLastDelta() {
+        stream.nextDelta(state, SimulationStatus.RUNNING);
+        stream.nextDelta(state, SimulationStatus.RUNNING);
+
+        SimulationStateDTO snapshot = stream.snapshot(state, SimulationStatus.RUNNING);
+        assertEquals(2, snapshot.getSequence());
+        assertEquals(2, snapshot.getPendingOrders().size());
+
+        // The next delta is relative to the last delta, so it applies on top of the snapshot
+        assertEquals(3, stream.nextDelta(state, SimulationStatus.RUNNING).getSequence());
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.plgsystem.simulation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SimulationBroadcasterTest {
+
+    private final TestSimulations simulations = new TestSimulations();
+    private final AtomicInteger publishes = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        simulations.close();
+    }
+
+    @Test
+    void nothingIsPublishedWithoutSubscribers() throws InterruptedException {
+        SimulationBroadcaster broadcaster = new SimulationBroadcaster(simulation -> publishes.incrementAndGet(), 0);
+        Simulation simulation = simulations.create();
+
+        broadcaster.submit(simulation);
+        Thread.sleep(50);
+
+        assertEquals(0, publishes.get());
+        assertEquals(1, broadcaster.getSkipped());
+    }
+
+    @Test
+    void slowPublisherConflatesToTheLatestTick() throws InterruptedException {
+        CountDownLatch publishing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SimulationBroadcaster broadcaster = new SimulationBroadcaster(simulation -> {
+            publishing.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            publishes.incrementAndGet();
+        }, 0);
+        Simulation simulation = simulations.create();
+        broadcaster.subscribed("session-1", "sub-0", simulation.getId());
+
+        broadcaster.submit(simulation);
+        assertTrue(publishing.await(10, TimeUnit.SECONDS));
+        // The publisher is stuck: these ticks must not block and only the last one is kept
+        for (int i = 0; i < 10; i++) {
+            broadcaster.submit(simulation);
+        }
+        assertEquals(1, broadcaster.getQueueDepth());
+        release.countDown();
+
+        awaitPublishes(broadcaster, 2);
+        Thread.sleep(50);
+        assertEquals(2, publishes.get(), "One publish for the first tick and one for the latest");
+        assertEquals(9, broadcaster.getConflated());
+        assertEquals(0, broadcaster.getQueueDepth());
+    }
+
+    @Test
+    void publishRateIsCappedPerSimulation() throws InterruptedException {
+        List<Long> publishTimes = new CopyOnWriteArrayList<>();
+        SimulationBroadcaster broadcaster = new SimulationBroadcaster(
+                simulation -> publishTimes.add(System.nanoTime()), 100);
+        Simulation simulation = simulations.create();
+        broadcaster.subscribed("session-1", "sub-0", simulation.getId());
+
+        // Submit faster than the cap until a few publishes happened, however slow the machine is
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (publishTimes.size() < 4 && System.currentTimeMillis() < deadline) {
+            broadcaster.submit(simulation);
+            Thread.sleep(2);
+        }
+        assertTrue(publishTimes.size() >= 4, "Expected a few publishes but got " + publishTimes.size());
+
+        for (int i = 1; i < publishTimes.size(); i++) {
+            long intervalMs = (publishTimes.get(i) - publishTimes.get(i - 1)) / 1_000_000;
+            // Only a lower bound: a loaded machine can delay publishes but never bring them closer
+            assertTrue(intervalMs >= 90, "Publishes " + (i - 1) + " and " + i + " were " + intervalMs + " ms apart");
+        }
+        awaitDrained(broadcaster);
+        assertEquals(broadcaster.getSubmitted(), broadcaster.getPublished() + broadcaster.getConflated());
+    }
+
+    @Test
+    void subscriptionsAreReleasedOnUnsubscribeAndDisconnect() {
+        SimulationBroadcaster broadcaster = new SimulationBroadcaster(simulation -> publishes.incrementAndGet(), 0);
+        Simulation simulation = simulations.create();
+
+        broadcaster.subscribed("session-1", "sub-0", simulation.getId());
+        broadcaster.subscribed("session-1", "sub-1", simulation.getId());
+        broadcaster.subscribed("session-2", "sub-0", simulation.getId());
+        assertEquals(3, broadcaster.getSubscribers(simulation.getId()));
+
+        broadcaster.unsubscribed("session-2", "sub-0");
+        assertEquals(2, broadcaster.getSubscribers(simulation.getId()));
+        broadcaster.unsubscribed("session-2", "sub-0");
+        assertEquals(2, broadcaster.getSubscribers(simulation.getId()), "Repeated unsubscribe is ignored");
+
+        broadcaster.disconnected("session-1");
+        assertEquals(0, broadcaster.getSubscribers(simulation.getId()));
+        assertEquals(0, broadcaster.getTotalSubscribers());
+
+        broadcaster.submit(simulation);
+        assertEquals(1, broadcaster.getSkipped());
+    }
+
+    private void awaitDrained(SimulationBroadcaster broadcaster) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (broadcaster.getPublished() + broadcaster.getConflated() < broadcaster.getSubmitted()
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private void awaitPublishes(SimulationBroadcaster broadcaster, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (broadcaster.getPublished() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(broadcaster.getPublished() >= expected,
+                "Expected at least " + expected + " publishes but got " + broadcaster.getPublished());
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.plgsystem.simulation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SimulationSchedulerTest {
+
+    private final Map<UUID, AtomicInteger> ticks = new ConcurrentHashMap<>();
+    private final TestSimulations simulations = new TestSimulations();
+    private SimulationScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        simulations.close();
+    }
+
+    @Test
+    void eachRunningSimulationAdvancesOnItsOwnLoop() throws InterruptedException {
+        scheduler = new SimulationScheduler(this::countTick, 10);
+        Simulation first = simulations.create();
+        Simulation second = simulations.create();
+        Simulation paused = simulations.create();
+        first.start();
+        second.start();
+
+        scheduler.schedule(first);
+        scheduler.schedule(second);
+        scheduler.schedule(paused);
+
+        awaitTicks(first, 3);
+        awaitTicks(second, 3);
+        assertTrue(first.getSimulationTime().isAfter(LocalDateTime.of(2025, 1, 1, 0, 0)));
+        assertTrue(second.getSimulationTime().isAfter(LocalDateTime.of(2025, 1, 1, 0, 0)));
+        assertEquals(0, tickCount(paused), "A paused simulation should not be advanced");
+        assertFalse(scheduler.isScheduled(paused.getId()));
+    }
+
+    @Test
+    void pausingEndsTheLoopAndStartingResumesIt() throws InterruptedException {
+        scheduler = new SimulationScheduler(this::countTick, 5);
+        Simulation simulation = simulations.create();
+        simulation.start();
+        scheduler.schedule(simulation);
+        awaitTicks(simulation, 2);
+
+        simulation.pause();
+        awaitUnscheduled(simulation);
+        int ticksWhilePaused = tickCount(simulation);
+        Thread.sleep(50);
+        assertEquals(ticksWhilePaused, tickCount(simulation), "No ticks should happen while paused");
+
+        simulation.start();
+        scheduler.schedule(simulation);
+        awaitTicks(simulation, ticksWhilePaused + 2);
+    }
+
+    @Test
+    void slowSimulationDoesNotDelayTheOthers() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        Simulation slow = simulations.create();
+        Consumer<Simulation> listener = simulation -> {
+            countTick(simulation);
+            if (simulation == slow) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        scheduler = new SimulationScheduler(listener, 5);
+        Simulation fast = simulations.create();
+        slow.start();
+        fast.start();
+
+        scheduler.schedule(slow);
+        scheduler.schedule(fast);
+
+        awaitTicks(fast, 5);
+        assertEquals(1, tickCount(slow), "The slow simulation should still be stuck on its first tick");
+        release.countDown();
+        awaitTicks(slow, 2);
+    }
+
+    @Test
+    void perSimulationIntervalOverridesTheDefault() throws InterruptedException {
+        scheduler = new SimulationScheduler(this::countTick, 0);
+        Simulation throttled = simulations.create();
+        Simulation unthrottled = simulations.create();
+        throttled.setTickIntervalMs(200);
+        throttled.start();
+        unthrottled.start();
+
+        scheduler.schedule(throttled);
+        scheduler.schedule(unthrottled);
+
+        awaitTicks(unthrottled, 20);
+        assertTrue(tickCount(throttled) < tickCount(unthrottled),
+                "The throttled simulation should tick less often than the unthrottled one");
+        assertThrows(IllegalArgumentException.class, () -> throttled.setTickIntervalMs(-1));
+    }
+
+    @Test
+    void cancelStopsTheLoopOfARunningSimulation() throws InterruptedException {
+        scheduler = new SimulationScheduler(this::countTick, 5);
+        Simulation simulation = simulations.create();
+        simulation.start();
+        scheduler.schedule(simulation);
+        awaitTicks(simulation, 2);
+
+        scheduler.cancel(simulation.getId());
+        awaitUnscheduled(simulation);
+        assertEquals(0, scheduler.getActiveLoops());
+    }
+
+    private void countTick(Simulation simulation) {
+        ticks.computeIfAbsent(simulation.getId(), id -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private int tickCount(Simulation simulation) {
+        AtomicInteger count = ticks.get(simulation.getId());
+        return count == null ? 0 : count.get();
+    }
+
+    private void awaitTicks(Simulation simulation, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (tickCount(simulation) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(tickCount(simulation) >= expected,
+                "Expected at least " + expected + " ticks but got " + tickCount(simulation));
+    }
+
+    private void awaitUnscheduled(Simulation simulation) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (scheduler.isScheduled(simulation.getId()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertFalse(scheduler.isScheduled(simulation.getId()), "The loop should have ended");
+    }
+}
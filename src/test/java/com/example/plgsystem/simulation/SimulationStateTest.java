@@ -0,0 +1,105 @@
+package com.example.plgsystem.simulation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.plgsystem.enums.DepotType;
+import com.example.plgsystem.enums.VehicleType;
+import com.example.plgsystem.model.Constants;
+import com.example.plgsystem.model.Depot;
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.model.Vehicle;
+
+class SimulationStateTest {
+
+    private SimulationState state;
+    private LocalDateTime referenceTime;
+
+    @BeforeEach
+    void setUp() {
+        referenceTime = LocalDateTime.of(2025, 1, 1, 8, 0);
+        Depot mainDepot = new Depot(Constants.MAIN_DEPOT_ID, Constants.MAIN_DEPOT_LOCATION, 10000, DepotType.MAIN);
+        Depot northDepot = new Depot(Constants.NORTH_DEPOT_ID, Constants.NORTH_DEPOT_LOCATION, 160,
+                DepotType.AUXILIARY);
+        List<Vehicle> vehicles = List.of(
+                new Vehicle("TA01", VehicleType.TA, Constants.MAIN_DEPOT_LOCATION),
+                new Vehicle("TD01", VehicleType.TD, Constants.MAIN_DEPOT_LOCATION));
+        state = new SimulationState(vehicles, mainDepot, List.of(northDepot), referenceTime);
+        state.addOrder(new Order("ORD-1", referenceTime, referenceTime.plusHours(4), 10, new Position(5, 5)));
+        state.addOrder(new Order("ORD-2", referenceTime, referenceTime.plusHours(6), 5, new Position(10, 5)));
+    }
+
+    @Test
+    void lookupsFindEntitiesById() {
+        assertSame(state.getVehicles().get(1), state.getVehicleById("TD01"));
+        assertSame(state.getMainDepot(), state.getDepotById(Constants.MAIN_DEPOT_ID));
+        assertSame(state.getAuxDepots().get(0), state.getDepotById(Constants.NORTH_DEPOT_ID));
+        assertSame(state.getOrders().get(1), state.getOrderById("ORD-2"));
+        assertNull(state.getVehicleById("TX99"));
+        assertNull(state.getDepotById("DEPOT_WEST"));
+        assertNull(state.getOrderById("ORD-9"));
+    }
+
+    @Test
+    void deliveredOrdersAreRemovedFromTheIndex() {
+        Order delivered = state.getOrderById("ORD-1");
+        delivered.recordDelivery(delivered.getGlpRequestM3(), state.getVehicleById("TA01"), referenceTime);
+
+        state.advanceTime(Duration.ofMinutes(1));
+
+        assertNull(state.getOrderById("ORD-1"), "Delivered orders should no longer be found");
+        assertNotNull(state.getOrderById("ORD-2"));
+    }
+
+    @Test
+    void repeatedIdsResolveToTheFirstPendingOrder() {
+        Order repeated = new Order("ORD-1", referenceTime, referenceTime.plusHours(8), 3, new Position(1, 1));
+        state.addOrder(repeated);
+        assertNotSame(repeated, state.getOrderById("ORD-1"), "The first order with the id should win");
+
+        Order first = state.getOrderById("ORD-1");
+        first.recordDelivery(first.getGlpRequestM3(), state.getVehicleById("TA01"), referenceTime);
+        state.advanceTime(Duration.ofMinutes(1));
+
+        assertSame(repeated, state.getOrderById("ORD-1"), "The remaining order should be found");
+    }
+
+    @Test
+    void repeatedIdsFollowArrivalOrderWhenAShadowedOrderIsDeliveredFirst() {
+        Order second = new Order("ORD-1", referenceTime, referenceTime.plusHours(8), 3, new Position(1, 1));
+        Order third = new Order("ORD-1", referenceTime, referenceTime.plusHours(9), 4, new Position(2, 2));
+        state.addOrder(second);
+        state.addOrder(third);
+        Order first = state.getOrderById("ORD-1");
+
+        second.recordDelivery(second.getGlpRequestM3(), state.getVehicleById("TA01"), referenceTime);
+        state.advanceTime(Duration.ofMinutes(1));
+        assertSame(first, state.getOrderById("ORD-1"), "Delivering a repeated order should not replace the first");
+
+        first.recordDelivery(first.getGlpRequestM3(), state.getVehicleById("TA01"), referenceTime);
+        state.advanceTime(Duration.ofMinutes(1));
+        assertSame(third, state.getOrderById("ORD-1"), "The next pending order with the id should be found");
+
+        third.recordDelivery(third.getGlpRequestM3(), state.getVehicleById("TD01"), referenceTime);
+        state.advanceTime(Duration.ofMinutes(1));
+        assertNull(state.getOrderById("ORD-1"), "No order should remain with the id");
+        assertNotNull(state.getOrderById("ORD-2"));
+    }
+
+    @Test
+    void snapshotIndexesItsOwnCopies() {
+        SimulationState snapshot = state.createSnapshot();
+
+        assertNotSame(state.getVehicleById("TA01"), snapshot.getVehicleById("TA01"));
+        assertSame(snapshot.getVehicles().get(0), snapshot.getVehicleById("TA01"));
+        assertSame(snapshot.getOrders().get(0), snapshot.getOrderById("ORD-1"));
+        assertSame(snapshot.getAuxDepots().get(0), snapshot.getDepotById(Constants.NORTH_DEPOT_ID));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.plgsystem.simulation;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.plgsystem.enums.DepotType;
+import com.example.plgsystem.enums.SimulationType;
+import com.example.plgsystem.enums.VehicleType;
+import com.example.plgsystem.model.Depot;
+import com.example.plgsystem.model.Position;
+import com.example.plgsystem.model.Vehicle;
+import com.example.plgsystem.orchest.SimpleDataLoader;
+
+/**
+ * Minimal one-vehicle simulations shared by the tests of this package;
+ * close() shuts down the orchestrators of every simulation created.
+ */
+final class TestSimulations implements AutoCloseable {
+
+    private final List<Simulation> simulations = new ArrayList<>();
+
+    Simulation create() {
+        List<Vehicle> vehicles = new ArrayList<>();
+        vehicles.add(new Vehicle("TA01", VehicleType.TA, new Position(12, 8)));
+        Depot mainDepot = new Depot("MAIN", new Position(12, 8), 10000, DepotType.MAIN);
+        SimulationState state = new SimulationState(vehicles, mainDepot, new ArrayList<>(),
+                LocalDateTime.of(2025, 1, 1, 0, 0));
+        Simulation simulation = new Simulation(state, SimulationType.CUSTOM, new SimpleDataLoader());
+        simulations.add(simulation);
+        return simulation;
+    }
+
+    @Override
+    public void close() {
+        simulations.forEach(simulation -> simulation.getOrchestrator().shutdown());
+    }
+}
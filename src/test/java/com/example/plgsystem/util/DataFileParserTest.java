@@ -0,0 +1,109 @@
+package com.example.plgsystem.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.plgsystem.util.DataFileParser.BlockageRecord;
+import com.example.plgsystem.util.DataFileParser.OrderRecord;
+
+class DataFileParserTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2025, 2);
+
+    private final List<Path> files = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void ordersAreParsedIntoPrimitiveFields() throws IOException {
+        Path file = createFile("# comment\r\n  01d00h24m:16,13,c-198,3m3,4h  \r\n\n02d10h05m:5,18,c-12,9m3,17h\n");
+        List<OrderRecord> records = new ArrayList<>();
+
+        DataFileParser.Result result = DataFileParser.parseOrders(file, MONTH, records::add);
+
+        assertFalse(result.hasErrors());
+        assertEquals(4, result.getTotalLines());
+        assertEquals(2, result.getValidLines());
+        assertEquals(new OrderRecord(24, 16, 13, "c-198", 3, 4), records.get(0));
+        assertEquals(new OrderRecord((24 + 10) * 60 + 5, 5, 18, "c-12", 9, 17), records.get(1));
+    }
+
+    @Test
+    void invalidOrderLinesAreReportedWithTheirLineNumber() throws IOException {
+        Path file = createFile("01d00h24m:16,13,c-198,3m3,4h\n"
+                + "invalid_format:16,13,c-198,3m3,4h\n"
+                + "01d00h48m:5,18,c-12,invalid,17h\n"
+                + "29d00h00m:5,18,c-12,9m3,17h\n"
+                + "01d24h00m:5,18,c-12,9m3,17h\n"
+                + "01d00h48m:5,18,c-12\n");
+
+        DataFileParser.Result result = DataFileParser.parseOrders(file, MONTH, record -> true);
+
+        assertEquals(1, result.getValidLines());
+        assertEquals(5, result.getInvalidLines());
+        assertEquals(List.of(2, 3, 4, 5, 6), result.getErrors().stream().map(DataFileParser.LineError::line).toList());
+        assertTrue(result.getErrors().get(2).message().contains("29"), "February has no day 29 in 2025");
+    }
+
+    @Test
+    void blockagesKeepAllTheirCoordinates() throws IOException {
+        Path file = createFile("01d00h31m-01d21h35m:15,10,30,10,30,18\n"
+                + "01d01h13m-03d20h38m:08,03,08,23\n"
+                + "01d01h13m-03d20h38m:08,03,08\n");
+        List<BlockageRecord> records = new ArrayList<>();
+
+        DataFileParser.Result result = DataFileParser.parseBlockages(file, MONTH, records::add);
+
+        assertEquals(2, records.size());
+        assertEquals(31, records.get(0).startMinute());
+        assertEquals(21 * 60 + 35, records.get(0).endMinute());
+        assertArrayEquals(new int[] { 15, 10, 30, 10, 30, 18 }, records.get(0).coordinates());
+        assertArrayEquals(new int[] { 8, 3, 8, 23 }, records.get(1).coordinates());
+        assertEquals(1, result.getInvalidLines());
+        assertEquals(3, result.getErrors().get(0).line());
+    }
+
+    @Test
+    void handlerCanStopTheReading() throws IOException {
+        Path file = createFile("01d00h24m:16,13,c-198,3m3,4h\n"
+                + "01d00h48m:5,18,c-12,9m3,17h\n"
+                + "02d01h12m:63,13,c-83,2m3,9h");
+        List<OrderRecord> records = new ArrayList<>();
+
+        DataFileParser.parseOrders(file, MONTH, record -> {
+            records.add(record);
+            return records.size() < 2;
+        });
+
+        assertEquals(2, records.size());
+    }
+
+    @Test
+    void emptyFileHasNoLines() throws IOException {
+        DataFileParser.Result result = DataFileParser.parseBlockages(createFile(""), MONTH, record -> true);
+
+        assertEquals(0, result.getTotalLines());
+        assertFalse(result.hasErrors());
+    }
+
+    private Path createFile(String content) throws IOException {
+        Path file = Files.createTempFile("data_file_parser_", ".txt");
+        Files.writeString(file, content);
+        files.add(file);
+        return file;
+    }
+}
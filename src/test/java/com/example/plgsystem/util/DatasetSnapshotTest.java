@@ -0,0 +1,100 @@
+package com.example.plgsystem.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.plgsystem.util.DatasetSnapshot.Type;
+
+class DatasetSnapshotTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2025, 1);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void ordersAreSortedAndIndexedByDay() throws IOException {
+        Path source = write("orders.txt", "02d01h12m:63,13,c-83,2m3,9h\n"
+                + "01d00h48m:5,18,c-12,9m3,17h\n"
+                + "01d00h24m:16,13,c-198,3m3,4h\n"
+                + "31d23h59m:1,2,c-ñ,1m3,1h\n");
+        Path target = directory.resolve("orders.snapshot");
+
+        DatasetSnapshot.write(Type.ORDERS, source, MONTH, 7L, target);
+        DatasetSnapshot snapshot = DatasetSnapshot.open(target, Type.ORDERS, MONTH);
+
+        assertEquals(4, snapshot.size());
+        assertEquals(7L, snapshot.getSourceChecksum());
+        assertEquals(0, snapshot.firstOfDay(1));
+        assertEquals(2, snapshot.endOfDay(1));
+        assertEquals(3, snapshot.endOfDay(2));
+        assertEquals(3, snapshot.firstOfDay(31));
+        assertEquals(4, snapshot.endOfDay(40), "Days past the month should clip to the end");
+        assertEquals(0, snapshot.endOfDay(0));
+
+        assertEquals(24, snapshot.startMinute(0), "Orders should be sorted by arrival");
+        assertEquals("c-198", snapshot.clientId(0));
+        assertEquals(16, snapshot.x(0));
+        assertEquals(13, snapshot.y(0));
+        assertEquals(3, snapshot.glpM3(0));
+        assertEquals(4, snapshot.deadlineHours(0));
+        assertEquals("c-ñ", snapshot.clientId(3));
+    }
+
+    @Test
+    void blockagesKeepTheirCoordinatesAndLongestSpan() throws IOException {
+        Path source = write("blockages.txt", "01d00h31m-01d21h35m:15,10,30,10,30,18\n"
+                + "01d01h13m-04d20h38m:08,03,08,23\n");
+        Path target = directory.resolve("blockages.snapshot");
+
+        DatasetSnapshot.write(Type.BLOCKAGES, source, MONTH, 0L, target);
+        DatasetSnapshot snapshot = DatasetSnapshot.open(target, Type.BLOCKAGES, MONTH);
+
+        assertEquals(2, snapshot.size());
+        assertEquals(3, snapshot.getMaxSpanDays());
+        assertEquals(21 * 60 + 35, snapshot.endMinute(0));
+        assertArrayEquals(new int[] { 15, 10, 30, 10, 30, 18 }, snapshot.coordinates(0));
+        assertArrayEquals(new int[] { 8, 3, 8, 23 }, snapshot.coordinates(1));
+    }
+
+    @Test
+    void corruptedOrMismatchedSnapshotsAreRejected() throws IOException {
+        Path source = write("orders.txt", "01d00h24m:16,13,c-198,3m3,4h\n");
+        Path target = directory.resolve("orders.snapshot");
+        DatasetSnapshot.write(Type.ORDERS, source, MONTH, 0L, target);
+
+        assertThrows(IOException.class, () -> DatasetSnapshot.open(target, Type.BLOCKAGES, MONTH));
+        assertThrows(IOException.class, () -> DatasetSnapshot.open(target, Type.ORDERS, MONTH.plusMonths(1)));
+
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 42 }), channel.size() - 1);
+        }
+        assertThrows(IOException.class, () -> DatasetSnapshot.open(target, Type.ORDERS, MONTH));
+    }
+
+    @Test
+    void invalidSourceIsNotConverted() throws IOException {
+        Path source = write("orders.txt", "01d00h24m:16,13,c-198,3m3,4h\ninvalid\n");
+        Path target = directory.resolve("orders.snapshot");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> DatasetSnapshot.write(Type.ORDERS, source, MONTH, 0L, target));
+        assertFalse(Files.exists(target));
+    }
+
+    private Path write(String name, String content) throws IOException {
+        Path file = directory.resolve(name);
+        Files.writeString(file, content);
+        return file;
+    }
+}
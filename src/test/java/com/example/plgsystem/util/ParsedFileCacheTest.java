@@ -0,0 +1,119 @@
+package com.example.plgsystem.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.plgsystem.model.Blockage;
+import com.example.plgsystem.model.Order;
+import com.example.plgsystem.orchest.Event;
+import com.example.plgsystem.orchest.FileDataLoader;
+import com.example.plgsystem.util.ParsedFileCache.MonthIndex;
+
+class ParsedFileCacheTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2025, 1);
+    private static final String ORDERS = "01d00h24m:16,13,c-198,3m3,4h\n"
+            + "01d00h48m:5,18,c-12,9m3,17h\n"
+            + "02d01h12m:63,13,c-83,2m3,9h";
+    private static final String BLOCKAGES = "01d00h31m-01d21h35m:15,10,30,10,30,18\n"
+            + "01d01h13m-03d20h38m:08,03,08,23,20,23\n"
+            + "04d02h40m-04d22h32m:57,30,57,45,60,35";
+
+    private final List<Path> files = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void sameContentIsParsedOnce() throws IOException {
+        ParsedFileCache cache = new ParsedFileCache(ParsedFileCache.DEFAULT_MAX_BYTES);
+        Path first = createFile(ORDERS);
+        Path second = createFile(ORDERS);
+
+        MonthIndex<Order> firstIndex = cache.getOrders(first, MONTH);
+        MonthIndex<Order> secondIndex = cache.getOrders(second, MONTH);
+
+        assertSame(firstIndex, secondIndex, "Files with the same content should share one index");
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void itemsAreGroupedByDay() throws IOException {
+        ParsedFileCache cache = new ParsedFileCache(ParsedFileCache.DEFAULT_MAX_BYTES);
+
+        MonthIndex<Order> orders = cache.getOrders(createFile(ORDERS), MONTH);
+        assertEquals(3, orders.size());
+        assertEquals(2, orders.getDay(1).size());
+        assertEquals(1, orders.getDay(2).size());
+        assertTrue(orders.getDay(3).isEmpty());
+        assertTrue(orders.getDay(32).isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> orders.getDay(1).clear());
+
+        MonthIndex<Blockage> blockages = cache.getBlockages(createFile(BLOCKAGES), MONTH);
+        assertEquals(2, blockages.getDay(1).size());
+        assertEquals(2, blockages.getMaxSpanDays(), "The longest blockage spans from day 1 to day 3");
+        assertEquals(3, blockages.getDays(0, 40).size());
+    }
+
+    @Test
+    void monthsOverTheMemoryBoundAreEvicted() throws IOException {
+        ParsedFileCache cache = new ParsedFileCache(ParsedFileCache.DEFAULT_MAX_BYTES);
+        cache.getOrders(createFile(ORDERS), MONTH);
+        cache.getBlockages(createFile(BLOCKAGES), MONTH);
+        assertEquals(2, cache.size());
+
+        cache.setMaxBytes(cache.getUsedBytes() - 1);
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getEvictions());
+
+        cache.setMaxBytes(0);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getUsedBytes());
+    }
+
+    @Test
+    void fileDataLoaderReturnsCopiesOfTheRequestedDay() throws IOException {
+        FileDataLoader loader = new FileDataLoader();
+        loader.registerOrdersFile(2025, 1, createFile(ORDERS));
+        loader.registerBlockagesFile(2025, 1, createFile(BLOCKAGES));
+        LocalDate firstDay = MONTH.atDay(1);
+
+        List<Event> fromStart = loader.loadOrdersForDate(MONTH.atDay(2));
+        assertEquals(3, fromStart.size(), "Loading a date includes the earlier days of the month");
+
+        List<Event> afterMidnight = loader.loadOrdersAfter(firstDay, firstDay.atTime(0, 30));
+        assertEquals(1, afterMidnight.size());
+        Order loaded = (Order) afterMidnight.get(0).getData();
+        loaded.setRemainingGlpM3(0);
+        Order reloaded = (Order) loader.loadOrdersAfter(firstDay, firstDay.atTime(0, 30)).get(0).getData();
+        assertEquals(9, reloaded.getRemainingGlpM3(), "Each load should return its own copy");
+
+        LocalDateTime thirdDayNoon = MONTH.atDay(3).atTime(12, 0);
+        List<Event> activeBlockages = loader.loadBlockagesEndingAfter(MONTH.atDay(3), thirdDayNoon);
+        assertEquals(2, activeBlockages.size(), "Should include the blockage started on day 1 and the next day's one");
+    }
+
+    private Path createFile(String content) throws IOException {
+        Path file = Files.createTempFile("parsed_cache_", ".txt");
+        Files.writeString(file, content);
+        files.add(file);
+        return file;
+    }
+}